@@ -2,8 +2,10 @@ package br.edu.ifpb.instagram;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is on the classpath for ReactiveInstagramApplication only
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class InstagramApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,36 @@
+package br.edu.ifpb.instagram.audit;
+
+// the code is what a record stores; never reuse one
+public enum AuditEventType {
+
+    SIGNIN_SUCCEEDED(1),
+    SIGNIN_FAILED(2),
+    USER_CREATED(3),
+    USER_UPDATED(4),
+    USER_DELETED(5),
+    // written by the log itself: userId holds how many events the ring dropped since the last one
+    EVENTS_DROPPED(6);
+
+    private static final AuditEventType[] BY_CODE = new AuditEventType[7];
+
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    AuditEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    byte code() {
+        return code;
+    }
+
+    // null for a code this version does not know
+    static AuditEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,183 @@
+package br.edu.ifpb.instagram.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Compliance log of signins (AuthServiceImpl) and committed user writes
+ * (UserServiceImpl, through UserChangedEvent); the reactive nodes call it from
+ * ReactiveAuthController and ReactiveUserService. The request thread only puts
+ * the event in an {@link AuditRing}; the "audit-writer" thread takes them in
+ * batches of up to {@code batchSize}, appends them to the memory-mapped
+ * {@link AuditSegments} and forces what it wrote to disk every
+ * {@code forceIntervalMs}, so a crash of the machine loses at most that
+ * interval; a crash of the JVM alone loses nothing the writer took.
+ *
+ * Events the {@link OverflowPolicy} drops are counted, and the writer records
+ * each run of them as one EVENTS_DROPPED event, so gaps show in the log.
+ * Read it with {@link AuditLogReader}.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private final AuditRing ring;
+    private final AuditSegments segments;
+    private final int batchSize;
+    private final long forceIntervalNanos;
+    private final Thread writer;
+    private final Counter written;
+    private final Counter writeFailures;
+
+    private volatile boolean running = true;
+    // writer thread only
+    private long droppedRecorded;
+    private long lastForce = System.nanoTime();
+
+    public AuditLog(MeterRegistry meterRegistry,
+            @Value("${instagram.audit.enabled:true}") boolean enabled,
+            @Value("${instagram.audit.dir:${java.io.tmpdir}/instagram-audit}") Path directory,
+            @Value("${instagram.audit.ring-size:65536}") int ringSize,
+            @Value("${instagram.audit.overflow:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${instagram.audit.sample-rate:100}") int sampleRate,
+            @Value("${instagram.audit.segment-bytes:67108864}") int segmentBytes,
+            @Value("${instagram.audit.max-segments:0}") int maxSegments,
+            @Value("${instagram.audit.batch-size:1024}") int batchSize,
+            @Value("${instagram.audit.force-interval-ms:1000}") long forceIntervalMs) throws IOException {
+        this.batchSize = batchSize;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMs);
+        this.written = Counter.builder("instagram.audit.written")
+                .description("Audit events appended to the log")
+                .register(meterRegistry);
+        this.writeFailures = Counter.builder("instagram.audit.write.failures")
+                .register(meterRegistry);
+        if (!enabled) {
+            ring = null;
+            segments = null;
+            writer = null;
+            return;
+        }
+        this.ring = new AuditRing(ringSize, overflowPolicy, sampleRate);
+        this.segments = new AuditSegments(directory, segmentBytes, maxSegments);
+        FunctionCounter.builder("instagram.audit.dropped", ring, AuditRing::dropped)
+                .description("Audit events dropped because the ring was full")
+                .register(meterRegistry);
+        Gauge.builder("instagram.audit.backlog", ring, AuditRing::backlog)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        this.writer = new Thread(this::write, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void signinSucceeded(long userId, String username) {
+        publish(AuditEventType.SIGNIN_SUCCEEDED, userId, currentUserId(), username);
+    }
+
+    // the name is what the client sent, which may not be any user's
+    public void signinFailed(String username) {
+        publish(AuditEventType.SIGNIN_FAILED, 0, currentUserId(), username);
+    }
+
+    // after commit, so a rolled-back write is not recorded; on the request thread, so the actor is known
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userChanged(event.type(), event.userId(), event.user().username(), currentUserId());
+    }
+
+    // for writers that commit without a Spring transaction to listen to and know their actor themselves
+    public void userChanged(ChangeType changeType, long userId, String username, long actorId) {
+        AuditEventType type = switch (changeType) {
+            case CREATED -> AuditEventType.USER_CREATED;
+            case UPDATED -> AuditEventType.USER_UPDATED;
+            case DELETED -> AuditEventType.USER_DELETED;
+        };
+        publish(type, userId, actorId, username);
+    }
+
+    private void publish(AuditEventType type, long userId, long actorId, String name) {
+        if (ring != null) {
+            ring.publish(type, System.currentTimeMillis(), userId, actorId, name);
+        }
+    }
+
+    private static long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? user.getId()
+                : 0;
+    }
+
+    private void write() {
+        while (running || ring.hasEvents()) {
+            int taken = ring.drain(batchSize, this::append);
+            written.increment(taken);
+            long dropped = ring.dropped();
+            if (dropped > droppedRecorded) {
+                append(AuditEventType.EVENTS_DROPPED, System.currentTimeMillis(), dropped - droppedRecorded, 0, null);
+                droppedRecorded = dropped;
+            }
+            long now = System.nanoTime();
+            if (now - lastForce >= forceIntervalNanos) {
+                force();
+                lastForce = now;
+            }
+            if (taken == 0 && running) {
+                ring.awaitEvents(forceIntervalNanos);
+            }
+        }
+        force();
+    }
+
+    private void append(AuditEventType type, long timeMillis, long userId, long actorId, String name) {
+        try {
+            segments.append(type, timeMillis, userId, actorId, name);
+        } catch (IOException | UncheckedIOException e) {
+            writeFailures.increment();
+            log.error("Could not append {} for user {} to the audit log", type, userId, e);
+        }
+    }
+
+    private void force() {
+        try {
+            segments.force();
+        } catch (UncheckedIOException e) {
+            writeFailures.increment();
+            log.error("Could not force the audit log to disk", e);
+        }
+    }
+
+    // writes what is in the ring before returning; events published after this are dropped
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        ring.close();
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("The audit writer did not finish within 10 s; {} events may be lost", ring.backlog());
+        }
+    }
+}
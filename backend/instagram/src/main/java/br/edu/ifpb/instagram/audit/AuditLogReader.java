@@ -0,0 +1,119 @@
+package br.edu.ifpb.instagram.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the segments AuditLog writes, oldest first, while the application
+ * may still be appending to the last one. Also a command line tool that
+ * prints one tab-separated line per event (time, type, user id, actor id,
+ * name), optionally only those of one type, user or after a time:
+ *
+ * java -cp instagram.jar -Dloader.main=br.edu.ifpb.instagram.audit.AuditLogReader
+ *     org.springframework.boot.loader.launch.PropertiesLauncher /var/lib/instagram/audit
+ *     [--type=SIGNIN_FAILED] [--user=42] [--since=2026-01-01T00:00:00Z]
+ */
+public final class AuditLogReader {
+
+    private AuditLogReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: AuditLogReader <audit dir> [--type=TYPE] [--user=ID] [--since=ISO-INSTANT]");
+            System.exit(2);
+        }
+        Predicate<AuditRecord> filter = record -> true;
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            String value = option[1];
+            filter = filter.and(switch (option[0]) {
+                case "--type" -> {
+                    AuditEventType type = AuditEventType.valueOf(value);
+                    yield record -> record.type() == type;
+                }
+                case "--user" -> {
+                    long user = Long.parseLong(value);
+                    yield record -> record.userId() == user || record.actorId() == user;
+                }
+                case "--since" -> {
+                    Instant since = Instant.parse(value);
+                    yield record -> !record.time().isBefore(since);
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            });
+        }
+        Predicate<AuditRecord> selected = filter;
+        PrintStream out = System.out;
+        read(Path.of(args[0]), record -> {
+            if (selected.test(record)) {
+                out.println(record.time() + "\t" + record.type() + "\t" + record.userId() + "\t"
+                        + record.actorId() + "\t" + (record.name() == null ? "" : record.name()));
+            }
+        });
+        out.flush();
+    }
+
+    // returns how many records were read
+    public static long read(Path directory, Consumer<AuditRecord> consumer) throws IOException {
+        long records = 0;
+        for (Path segment : AuditSegments.segments(directory)) {
+            records += readSegment(segment, consumer);
+        }
+        return records;
+    }
+
+    static long readSegment(Path path, Consumer<AuditRecord> consumer) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (segment.limit() < AuditSegments.HEADER_SIZE || segment.getInt(0) != AuditSegments.MAGIC) {
+            throw new IOException(path + " is not an audit log segment");
+        }
+        if (segment.getInt(4) != AuditSegments.VERSION) {
+            throw new IOException(path + " has unknown version " + segment.getInt(4));
+        }
+        CRC32C crc = new CRC32C();
+        byte[] bytes = new byte[AuditSegments.RECORD_HEADER_SIZE + AuditSegments.MAX_NAME_BYTES];
+        long records = 0;
+        int position = AuditSegments.HEADER_SIZE;
+        while (segment.limit() - position >= AuditSegments.RECORD_HEADER_SIZE) {
+            int length = segment.getInt(position);
+            if (length < AuditSegments.RECORD_HEADER_SIZE || length > bytes.length
+                    || length > segment.limit() - position) {
+                break; // zeros past the last record, or a torn length
+            }
+            segment.get(position, bytes, 0, length);
+            crc.reset();
+            crc.update(bytes, 8, length - 8);
+            AuditEventType type = AuditEventType.fromCode(segment.get(position + 32));
+            if ((int) crc.getValue() != segment.getInt(position + 4) || type == null) {
+                break; // torn by a crash, or still being written
+            }
+            int nameLength = Short.toUnsignedInt(segment.getShort(position + 33));
+            consumer.accept(new AuditRecord(
+                    Instant.ofEpochMilli(segment.getLong(position + 8)),
+                    type,
+                    segment.getLong(position + 16),
+                    segment.getLong(position + 24),
+                    nameLength == 0 ? null : new String(bytes, AuditSegments.RECORD_HEADER_SIZE, nameLength,
+                            StandardCharsets.UTF_8)));
+            records++;
+            position += length;
+        }
+        return records;
+    }
+}
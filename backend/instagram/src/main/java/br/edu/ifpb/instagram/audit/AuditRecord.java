@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.audit;
+
+import java.time.Instant;
+
+// one event as AuditLogReader reads it back; actorId is 0 when nobody was signed in, name is null when not known
+public record AuditRecord(
+    Instant time,
+    AuditEventType type,
+    long userId,
+    long actorId,
+    String name) { }
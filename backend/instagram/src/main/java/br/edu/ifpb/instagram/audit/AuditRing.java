@@ -0,0 +1,172 @@
+package br.edu.ifpb.instagram.audit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer queue of audit events, after the
+ * Disruptor: the slots are preallocated as parallel arrays, producers claim
+ * a sequence with a CAS and mark their slot published with that sequence, and
+ * the consumer takes slots in sequence order until it reaches one not yet
+ * published. No locks, and no allocation per event.
+ *
+ * A producer that finds every slot still unconsumed applies the
+ * {@link OverflowPolicy}. The consumer parks when there is nothing to take
+ * and the producer that publishes next wakes it.
+ */
+final class AuditRing {
+
+    private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @FunctionalInterface
+    interface Handler {
+        void onEvent(AuditEventType type, long timeMillis, long userId, long actorId, String name);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final AuditEventType[] types;
+    private final long[] times;
+    private final long[] userIds;
+    private final long[] actorIds;
+    private final String[] names;
+    // the sequence last published in each slot
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // the last sequence the consumer is done with; its slot and all before it can be reused
+    private volatile long consumed = -1;
+    private volatile Thread parkedConsumer;
+    private volatile boolean closed;
+
+    AuditRing(int size, OverflowPolicy overflowPolicy, int sampleRate) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("The audit ring size must be a power of two, not " + size);
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.types = new AuditEventType[size];
+        this.times = new long[size];
+        this.userIds = new long[size];
+        this.actorIds = new long[size];
+        this.names = new String[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    // false when the event was dropped
+    boolean publish(AuditEventType type, long timeMillis, long userId, long actorId, String name) {
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) sequence & mask;
+        types[slot] = type;
+        times[slot] = timeMillis;
+        userIds[slot] = userId;
+        actorIds[slot] = actorId;
+        names[slot] = name;
+        published.set(slot, sequence);
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    private long claim() {
+        boolean overflowed = false;
+        boolean wait = false;
+        while (!closed) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - consumed > capacity) {
+                if (!overflowed) {
+                    overflowed = true;
+                    long overflow = overflows.incrementAndGet();
+                    wait = switch (overflowPolicy) {
+                        case BLOCK -> true;
+                        case DROP -> false;
+                        case SAMPLE -> overflow % sampleRate == 0;
+                    };
+                }
+                if (!wait) {
+                    return -1;
+                }
+                LockSupport.parkNanos(WAIT_NANOS);
+            } else if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Hands up to {@code max} published events to the handler, in sequence
+     * order, and frees their slots. Consumer thread only.
+     */
+    int drain(int max, Handler handler) {
+        long next = consumed + 1;
+        int count = 0;
+        try {
+            while (count < max && published.get((int) next & mask) == next) {
+                int slot = (int) next & mask;
+                String name = names[slot];
+                names[slot] = null;
+                next++;
+                count++;
+                handler.onEvent(types[slot], times[slot], userIds[slot], actorIds[slot], name);
+            }
+        } finally {
+            consumed = next - 1;
+        }
+        return count;
+    }
+
+    // parks the consumer until an event is published, it is unparked or the time is up
+    void awaitEvents(long nanos) {
+        parkedConsumer = Thread.currentThread();
+        if (!hasEvents() && !closed) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        parkedConsumer = null;
+    }
+
+    boolean hasEvents() {
+        long next = consumed + 1;
+        return published.get((int) next & mask) == next;
+    }
+
+    // later publishes are dropped, and producers waiting for a slot give up
+    void close() {
+        closed = true;
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    long backlog() {
+        return claimed.get() - consumed;
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    long overflows() {
+        return overflows.get();
+    }
+}
@@ -0,0 +1,151 @@
+package br.edu.ifpb.instagram.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The audit log on disk: append-only segments named
+ * {@code audit-<12-digit index>.log}, each mapped whole into memory when it is
+ * created, so appending a record is a copy into the mapping and the kernel
+ * writes it out. A 16-byte header (magic, version, creation time) is followed
+ * by records of: length, CRC32C of the rest, time, user id, actor id, type
+ * code, name length and UTF-8 name. The unwritten rest of a segment is zeros,
+ * so a zero length ends it; a record whose length or CRC does not hold was
+ * torn by a crash and ends it too.
+ *
+ * Each start opens a new segment after the last one, and a record that does
+ * not fit starts the next. With {@code maxSegments} above zero the oldest
+ * ones past it are deleted.
+ *
+ * Not thread-safe; only AuditLog's writer thread uses it.
+ */
+final class AuditSegments implements Closeable {
+
+    static final int MAGIC = 0x4947414c; // "IGAL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    // length, crc, time, user, actor, type, name length
+    static final int RECORD_HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 1 + 2;
+    static final int MAX_NAME_BYTES = 256;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{12})\\.log");
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + MAX_NAME_BYTES);
+    private final CRC32C crc = new CRC32C();
+
+    private long index;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+
+    AuditSegments(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes < HEADER_SIZE + record.capacity()) {
+            throw new IllegalArgumentException("Audit segments must hold at least one record, "
+                    + segmentBytes + " bytes do not");
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        List<Path> existing = segments(directory);
+        this.index = existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1)) + 1;
+        open();
+    }
+
+    // oldest first
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        matcher.matches();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    void append(AuditEventType type, long timeMillis, long userId, long actorId, String name) throws IOException {
+        byte[] nameBytes = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(nameBytes.length, MAX_NAME_BYTES);
+        int length = RECORD_HEADER_SIZE + nameLength;
+
+        record.clear();
+        record.putInt(length).putInt(0).putLong(timeMillis).putLong(userId).putLong(actorId)
+                .put(type.code()).putShort((short) nameLength).put(nameBytes, 0, nameLength);
+        crc.reset();
+        crc.update(record.array(), 8, length - 8);
+        record.putInt(4, (int) crc.getValue());
+
+        if (segment.remaining() < length) {
+            rotate();
+        }
+        segment.put(record.array(), 0, length);
+        dirty = true;
+    }
+
+    // asks the kernel to write what was appended since the last force
+    void force() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    long index() {
+        return index;
+    }
+
+    private void rotate() throws IOException {
+        force();
+        index++;
+        open();
+        if (maxSegments > 0) {
+            List<Path> all = segments(directory);
+            for (Path old : all.subList(0, Math.max(0, all.size() - maxSegments))) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        while (true) {
+            Path path = directory.resolve(String.format("audit-%012d.log", index));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            } catch (FileAlreadyExistsException e) {
+                index++; // another instance on the same directory took it
+                continue;
+            }
+            segment.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+            dirty = true;
+            return;
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+}
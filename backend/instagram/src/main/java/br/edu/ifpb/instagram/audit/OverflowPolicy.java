@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.audit;
+
+// what a request thread does when it finds the audit ring full
+public enum OverflowPolicy {
+    // waits for the writer to free a slot: nothing is lost, requests slow down with the disk
+    BLOCK,
+    // drops the event and goes on
+    DROP,
+    // waits for one in sample-rate of the events that find the ring full and drops the others
+    SAMPLE
+}
@@ -0,0 +1,49 @@
+package br.edu.ifpb.instagram.cache;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Bus between instances living in the same JVM, delivering synchronously on
+ * the publisher's thread. A bus on its own is the single-instance setup;
+ * {@link #join()} adds another instance to the same network, which is how
+ * tests run several nodes side by side.
+ */
+public class InMemoryInvalidationBus implements InvalidationBus {
+
+    private final Set<InMemoryInvalidationBus> members;
+    private volatile Consumer<Invalidation> listener = invalidation -> { };
+
+    public InMemoryInvalidationBus() {
+        this(ConcurrentHashMap.newKeySet());
+    }
+
+    private InMemoryInvalidationBus(Set<InMemoryInvalidationBus> members) {
+        this.members = members;
+        members.add(this);
+    }
+
+    public InMemoryInvalidationBus join() {
+        return new InMemoryInvalidationBus(members);
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        for (InMemoryInvalidationBus member : members) {
+            if (member != this) {
+                member.listener.accept(invalidation);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void close() {
+        members.remove(this);
+    }
+}
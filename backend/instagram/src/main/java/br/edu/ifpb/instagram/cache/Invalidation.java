@@ -0,0 +1,5 @@
+package br.edu.ifpb.instagram.cache;
+
+// "drop key from the cache named cache"; carries no value, so a lost or late message can never install data
+public record Invalidation(String cache, String key) {
+}
@@ -0,0 +1,19 @@
+package br.edu.ifpb.instagram.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries near-cache invalidations between backend instances. Delivery is
+ * best effort and unordered: a lost message leaves an entry stale until its
+ * TTL runs out. A bus never hands an instance back its own invalidations.
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+    void publish(Invalidation invalidation);
+
+    // one listener per instance, called on whatever thread delivers the message
+    void subscribe(Consumer<Invalidation> listener);
+
+    @Override
+    void close();
+}
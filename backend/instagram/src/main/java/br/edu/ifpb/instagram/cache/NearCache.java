@@ -0,0 +1,134 @@
+package br.edu.ifpb.instagram.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache kept by every instance, invalidated across instances
+ * through an {@link InvalidationBus}. Created by {@link NearCaches}.
+ *
+ * Every entry carries a version taken from a counter that only grows, and an
+ * invalidation replaces the entry with a tombstone under a new version. A load
+ * notes the version it started from and installs its value only if the key is
+ * still at that version, so a load that read the database before a write
+ * cannot put the old row back after the write's invalidation arrived. Absent
+ * keys count as being at {@code floor}, the highest version ever removed from
+ * the map, which is raised before anything is removed.
+ *
+ * Writers invalidate after their transaction commits; invalidating earlier
+ * would let another instance reload the old row in between.
+ */
+public class NearCache<V> {
+
+    private final String name;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final InvalidationBus bus;
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder localInvalidations = new LongAdder();
+    final LongAdder remoteInvalidations = new LongAdder();
+
+    NearCache(String name, Duration ttl, int maxEntries, Clock clock, InvalidationBus bus) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Near cache " + name + " needs a positive TTL");
+        }
+        this.name = name;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.bus = bus;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // null from the loader means "not found" and is not cached
+    public V get(String key, Function<String, ? extends V> loader) {
+        long absentVersion = floor.get();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.value != null && entry.expiresAt > clock.millis()) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        long startVersion = entry != null ? entry.version : absentVersion;
+        V value = loader.apply(key);
+        if (value != null) {
+            install(key, value, startVersion);
+        }
+        return value;
+    }
+
+    public void invalidate(String key) {
+        invalidateLocally(key);
+        localInvalidations.increment();
+        bus.publish(new Invalidation(name, key));
+    }
+
+    // right away outside a transaction
+    public void invalidateAfterCommit(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(key);
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    void invalidateLocally(String key) {
+        entries.put(key, new Entry<>(null, versions.incrementAndGet(), clock.millis() + ttlMillis));
+    }
+
+    // drops expired entries and tombstones
+    void purge() {
+        long now = clock.millis();
+        for (Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Entry<V>> mapping = iterator.next();
+            Entry<V> entry = mapping.getValue();
+            if (entry.expiresAt <= now) {
+                floor.accumulateAndGet(entry.version, Math::max);
+                entries.remove(mapping.getKey(), entry);
+            }
+        }
+    }
+
+    private void install(String key, V value, long startVersion) {
+        // a full cache still serves reads, it just takes no new keys until entries expire
+        if (entries.size() >= maxEntries) {
+            return;
+        }
+        long expiresAt = clock.millis() + ttlMillis;
+        entries.compute(key, (k, current) -> {
+            long currentVersion = current != null ? current.version : floor.get();
+            return currentVersion == startVersion ? new Entry<>(value, versions.incrementAndGet(), expiresAt) : current;
+        });
+    }
+
+    // value is null for a tombstone
+    private record Entry<V>(V value, long version, long expiresAt) {
+    }
+}
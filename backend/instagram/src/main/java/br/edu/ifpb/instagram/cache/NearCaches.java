@@ -0,0 +1,77 @@
+package br.edu.ifpb.instagram.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creates the instance's {@link NearCache}s and routes the invalidations
+ * other instances send through the {@link InvalidationBus} to them by name.
+ */
+@Component
+public class NearCaches {
+
+    private final InvalidationBus bus;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, NearCache<?>> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NearCaches(InvalidationBus bus, MeterRegistry meterRegistry) {
+        this(bus, meterRegistry, Clock.systemUTC());
+    }
+
+    NearCaches(InvalidationBus bus, MeterRegistry meterRegistry, Clock clock) {
+        this.bus = bus;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        bus.subscribe(this::received);
+    }
+
+    public <V> NearCache<V> create(String name, Duration ttl, int maxEntries) {
+        NearCache<V> cache = new NearCache<>(name, ttl, maxEntries, clock, bus);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Near cache " + name + " already exists");
+        }
+        FunctionCounter.builder("instagram.cache.requests", cache.hits, LongAdder::sum)
+                .tags("cache", name, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("instagram.cache.requests", cache.misses, LongAdder::sum)
+                .tags("cache", name, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("instagram.cache.invalidations", cache.localInvalidations, LongAdder::sum)
+                .tags("cache", name, "origin", "local")
+                .register(meterRegistry);
+        FunctionCounter.builder("instagram.cache.invalidations", cache.remoteInvalidations, LongAdder::sum)
+                .tags("cache", name, "origin", "remote")
+                .register(meterRegistry);
+        Gauge.builder("instagram.cache.entries", cache, NearCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+        return cache;
+    }
+
+    @Scheduled(fixedDelayString = "${instagram.cache.purge-interval-ms:10000}")
+    public void purge() {
+        for (NearCache<?> cache : caches.values()) {
+            cache.purge();
+        }
+    }
+
+    private void received(Invalidation invalidation) {
+        NearCache<?> cache = caches.get(invalidation.cache());
+        if (cache != null) {
+            cache.invalidateLocally(invalidation.key());
+            cache.remoteInvalidations.increment();
+        }
+    }
+}
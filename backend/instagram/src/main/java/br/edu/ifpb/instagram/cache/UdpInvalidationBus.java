@@ -0,0 +1,146 @@
+package br.edu.ifpb.instagram.cache;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends each invalidation as one datagram to a fixed list of peers, for
+ * running a few instances on one machine (every instance binds its own
+ * loopback port and lists the others). There are no acks or retries: UDP may
+ * drop a datagram, and the entry's TTL bounds how long that leaves it stale.
+ *
+ * Datagram layout: format byte, sender id (long), cache name and key, each a
+ * short length followed by UTF-8 bytes. The sender id lets an instance that
+ * lists itself among the peers ignore its own messages.
+ */
+public class UdpInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpInvalidationBus.class);
+
+    private static final byte FORMAT = 1;
+    // fits the payload of a single Ethernet frame
+    static final int MAX_DATAGRAM_BYTES = 1400;
+
+    private final long senderId = new SecureRandom().nextLong();
+    private final DatagramChannel channel;
+    private final List<SocketAddress> peers = new CopyOnWriteArrayList<>();
+    private volatile Consumer<Invalidation> listener = invalidation -> { };
+
+    public UdpInvalidationBus(InetSocketAddress bindAddress, Collection<InetSocketAddress> peers) throws IOException {
+        this.channel = DatagramChannel.open();
+        channel.bind(bindAddress);
+        this.peers.addAll(peers);
+        Thread receiver = new Thread(this::receive, "near-cache-invalidations");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    // "host:port"
+    public static InetSocketAddress parseAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Expected host:port but got " + address);
+        }
+        return new InetSocketAddress(address.substring(0, colon).trim(),
+                Integer.parseInt(address.substring(colon + 1).trim()));
+    }
+
+    public InetSocketAddress localAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    public void addPeer(InetSocketAddress peer) {
+        peers.add(peer);
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        ByteBuffer datagram = encode(invalidation);
+        for (SocketAddress peer : peers) {
+            try {
+                channel.send(datagram.duplicate(), peer);
+            } catch (IOException e) {
+                log.warn("Could not send invalidation of {} to {}", invalidation, peer, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close the invalidation channel", e);
+        }
+    }
+
+    private void receive() {
+        ByteBuffer datagram = ByteBuffer.allocate(MAX_DATAGRAM_BYTES);
+        while (channel.isOpen()) {
+            datagram.clear();
+            try {
+                channel.receive(datagram);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Could not receive an invalidation", e);
+                continue;
+            }
+            datagram.flip();
+            Invalidation invalidation;
+            try {
+                if (datagram.get() != FORMAT || datagram.getLong() == senderId) {
+                    continue;
+                }
+                invalidation = new Invalidation(readString(datagram), readString(datagram));
+            } catch (BufferUnderflowException e) {
+                continue;
+            }
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Could not apply invalidation {}", invalidation, e);
+            }
+        }
+    }
+
+    private ByteBuffer encode(Invalidation invalidation) {
+        byte[] cache = invalidation.cache().getBytes(StandardCharsets.UTF_8);
+        byte[] key = invalidation.key().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Long.BYTES + Short.BYTES + cache.length + Short.BYTES + key.length;
+        if (length > MAX_DATAGRAM_BYTES) {
+            throw new IllegalArgumentException("Invalidation does not fit in a datagram: " + invalidation);
+        }
+        ByteBuffer datagram = ByteBuffer.allocate(length)
+                .put(FORMAT)
+                .putLong(senderId)
+                .putShort((short) cache.length).put(cache)
+                .putShort((short) key.length).put(key);
+        return datagram.flip();
+    }
+
+    private static String readString(ByteBuffer datagram) {
+        byte[] bytes = new byte[datagram.getShort() & 0xFFFF];
+        datagram.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
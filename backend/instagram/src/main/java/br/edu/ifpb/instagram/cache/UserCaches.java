@@ -0,0 +1,40 @@
+package br.edu.ifpb.instagram.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.model.dto.UserCredentialsDto;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+
+// users by id (UserService.findById) and credentials by normalized username (every authenticated request)
+@Component
+public class UserCaches {
+
+    private final NearCache<UserDto> users;
+    private final NearCache<UserCredentialsDto> credentials;
+
+    public UserCaches(NearCaches nearCaches,
+            @Value("${instagram.cache.users.ttl:PT1M}") Duration ttl,
+            @Value("${instagram.cache.users.max-entries:100000}") int maxEntries) {
+        this.users = nearCaches.create("users", ttl, maxEntries);
+        this.credentials = nearCaches.create("credentials", ttl, maxEntries);
+    }
+
+    public NearCache<UserDto> users() {
+        return users;
+    }
+
+    public NearCache<UserCredentialsDto> credentials() {
+        return credentials;
+    }
+
+    // usernameNormalized is the one the user had before the write
+    public void userChanged(long id, String usernameNormalized) {
+        users.invalidateAfterCommit(String.valueOf(id));
+        if (usernameNormalized != null) {
+            credentials.invalidateAfterCommit(usernameNormalized);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package br.edu.ifpb.instagram.comment;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.repository.CommentRepository;
+
+/**
+ * "Top comments" of each post being read: the K top-level comments with the
+ * most replies, then the newest ones to fill up. Rankings are computed on the
+ * first read, kept as a plain long[] and recomputed in the background only for
+ * posts that got new comments, so a busy post costs one GROUP BY per refresh
+ * interval instead of one per page view. Posts nobody read for a while are dropped.
+ */
+@Component
+public class TopComments {
+
+    private static final Logger log = LoggerFactory.getLogger(TopComments.class);
+
+    // refreshes without a read before a post's ranking is dropped
+    static final int IDLE_REFRESHES = 10;
+
+    private final CommentRepository commentRepository;
+    private final int k;
+    private final ConcurrentHashMap<Long, Ranking> rankings = new ConcurrentHashMap<>();
+
+    public TopComments(CommentRepository commentRepository, @Value("${instagram.comments.top-k:100}") int k) {
+        this.commentRepository = commentRepository;
+        this.k = k;
+    }
+
+    // comment ids, best first
+    public long[] ranking(long postId) {
+        Ranking ranking = rankings.computeIfAbsent(postId, Ranking::new);
+        ranking.idleRefreshes = 0;
+        long[] ids = ranking.ids;
+        if (ids == null) {
+            synchronized (ranking) {
+                if (ranking.ids == null) {
+                    ranking.ids = compute(postId);
+                }
+                ids = ranking.ids;
+            }
+        }
+        return ids;
+    }
+
+    public void commentsChanged(long postId) {
+        Ranking ranking = rankings.get(postId);
+        if (ranking != null) {
+            ranking.changed = true;
+        }
+    }
+
+    public void removePost(long postId) {
+        rankings.remove(postId);
+    }
+
+    public int rankedPosts() {
+        return rankings.size();
+    }
+
+    @Scheduled(fixedDelayString = "${instagram.comments.top-refresh-ms:30000}")
+    public void refresh() {
+        for (Ranking ranking : rankings.values()) {
+            if (++ranking.idleRefreshes > IDLE_REFRESHES) {
+                rankings.remove(ranking.postId, ranking);
+            } else if (ranking.changed) {
+                ranking.changed = false;
+                try {
+                    long[] ids = compute(ranking.postId);
+                    synchronized (ranking) {
+                        ranking.ids = ids;
+                    }
+                } catch (RuntimeException e) {
+                    ranking.changed = true;
+                    log.warn("Could not refresh top comments of post {}", ranking.postId, e);
+                }
+            }
+        }
+    }
+
+    long[] compute(long postId) {
+        Set<Long> ids = new LinkedHashSet<>(commentRepository.findMostRepliedIds(postId, Limit.of(k)));
+        if (ids.size() < k) {
+            for (Long id : commentRepository.findTopLevelIds(postId, Long.MAX_VALUE, Limit.of(k))) {
+                if (ids.size() == k) {
+                    break;
+                }
+                ids.add(id);
+            }
+        }
+        long[] ranking = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            ranking[i++] = id;
+        }
+        return ranking;
+    }
+
+    private static final class Ranking {
+
+        final long postId;
+        volatile long[] ids;
+        volatile boolean changed;
+        volatile int idleRefreshes;
+
+        Ranking(long postId) {
+            this.postId = postId;
+        }
+    }
+}
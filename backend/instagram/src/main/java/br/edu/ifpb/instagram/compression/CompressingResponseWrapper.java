@@ -0,0 +1,356 @@
+package br.edu.ifpb.instagram.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Holds the first {@code minBytes} of the body, then either starts the
+ * compressor or, for a body that ended, was flushed or is not worth
+ * compressing, sends what it holds as it is. Any Content-Length the
+ * application sets waits with the body and is dropped once it is compressed.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private enum State { BUFFERING, PASSTHROUGH, COMPRESSING }
+
+    private final ContentEncoding encoding;
+    private final List<MediaType> mimeTypes;
+    private final int minBytes;
+    private final int zstdLevel;
+    private final int gzipLevel;
+
+    private State state = State.BUFFERING;
+    private Boolean compressible;
+    private ByteArrayOutputStream buffer;
+    private long contentLength = -1;
+    private OutputStream compressor;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean finishing;
+
+    CompressingResponseWrapper(HttpServletResponse response, ContentEncoding encoding, List<MediaType> mimeTypes,
+            int minBytes, int zstdLevel, int gzipLevel) {
+        super(response);
+        this.encoding = encoding;
+        this.mimeTypes = mimeTypes;
+        this.minBytes = minBytes;
+        this.zstdLevel = zstdLevel;
+        this.gzipLevel = gzipLevel;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    private ServletOutputStream stream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        switch (state) {
+            case BUFFERING -> contentLength = length;
+            case PASSTHROUGH -> super.setContentLengthLong(length);
+            case COMPRESSING -> { }
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.BUFFERING) {
+            passThrough();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        state = State.BUFFERING;
+        compressible = null;
+        buffer = null;
+        contentLength = -1;
+        compressor = null;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (state == State.COMPRESSING) {
+            throw new IllegalStateException("Cannot reset the buffer of a response that is being compressed");
+        }
+        super.resetBuffer();
+        buffer = null;
+    }
+
+    // the container writes the error page or the redirect; whatever the application wrote is discarded
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discard();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discard();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        discard();
+        super.sendRedirect(location);
+    }
+
+    private void discard() {
+        if (state == State.BUFFERING) {
+            buffer = null;
+            state = State.PASSTHROUGH;
+        }
+    }
+
+    /**
+     * Sends the rest of the body: what is still held goes out uncompressed
+     * with its length, a compressed body gets its trailer. After an exception
+     * ({@code completed} false) a held body is dropped instead.
+     */
+    void finish(boolean completed) throws IOException {
+        finishing = true;
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (state == State.BUFFERING) {
+                if (completed) {
+                    if (contentLength < 0 && buffer != null) {
+                        contentLength = buffer.size();
+                    }
+                    passThrough();
+                } else {
+                    buffer = null;
+                    state = State.PASSTHROUGH;
+                }
+            } else if (state == State.COMPRESSING) {
+                compressor.close();
+                compressor = null;
+                state = State.PASSTHROUGH;
+            }
+        } finally {
+            finishing = false;
+        }
+    }
+
+    // the body of a request that went async is written later, by another thread; what it began with goes out now
+    void asyncStarted() throws IOException {
+        if (state == State.BUFFERING && buffer != null && buffer.size() > 0) {
+            passThrough();
+        }
+    }
+
+    private boolean compressible() {
+        if (compressible == null) {
+            compressible = isCompressible();
+            if (compressible) {
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+        return compressible;
+    }
+
+    private boolean isCompressible() {
+        int status = getStatus();
+        if (status < 200 || status == SC_NO_CONTENT || status == SC_PARTIAL_CONTENT || status == SC_NOT_MODIFIED
+                || getHeader(HttpHeaders.CONTENT_ENCODING) != null || getContentType() == null) {
+            return false;
+        }
+        MediaType contentType;
+        try {
+            contentType = MediaType.parseMediaType(getContentType());
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void passThrough() throws IOException {
+        state = State.PASSTHROUGH;
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+        if (buffer != null) {
+            buffer.writeTo(super.getOutputStream());
+            buffer = null;
+        }
+    }
+
+    private void startCompressing() throws IOException {
+        state = State.COMPRESSING;
+        super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token());
+        // the compressor's close ends its frame, not the response
+        OutputStream out = new FilterOutputStream(super.getOutputStream()) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                this.out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        compressor = switch (encoding) {
+            case ZSTD -> new ZstdOutputStream(out, RecyclingBufferPool.INSTANCE, zstdLevel);
+            case GZIP -> new GZIPOutputStream(out, 8192) {
+                {
+                    def.setLevel(gzipLevel);
+                }
+            };
+        };
+        buffer.writeTo(compressor);
+        buffer = null;
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            switch (state) {
+                case PASSTHROUGH -> CompressingResponseWrapper.super.getOutputStream().write(b, off, len);
+                case COMPRESSING -> compressor.write(b, off, len);
+                case BUFFERING -> {
+                    if (!compressible()) {
+                        passThrough();
+                        CompressingResponseWrapper.super.getOutputStream().write(b, off, len);
+                        return;
+                    }
+                    if (buffer == null) {
+                        buffer = new ByteArrayOutputStream(Math.min(minBytes, 8192));
+                    }
+                    buffer.write(b, off, len);
+                    if (buffer.size() >= minBytes) {
+                        startCompressing();
+                    }
+                }
+            }
+        }
+
+        // an explicit flush wants the bytes on the wire, so a body still under minBytes goes out uncompressed
+        @Override
+        public void flush() throws IOException {
+            if (finishing) {
+                return;
+            }
+            switch (state) {
+                case BUFFERING -> passThrough();
+                case COMPRESSING -> compressor.flush();
+                case PASSTHROUGH -> { }
+            }
+            CompressingResponseWrapper.super.getOutputStream().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish(true);
+            CompressingResponseWrapper.super.getOutputStream().close();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return CompressingResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                CompressingResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.edu.ifpb.instagram.compression;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compresses response bodies with zstd or gzip, whichever the client's
+ * {@code Accept-Encoding} prefers (zstd on a tie). A body is held back until
+ * it passes {@code minBytes}: smaller ones, and those flushed before that, go
+ * out as they are, since compressing them costs more time than it saves on
+ * the wire. Only the configured media types are compressed; images and
+ * videos already are, and server-sent events must not wait on a compressor.
+ *
+ * Controllers that answer on another thread through Spring's async support
+ * (DeferredResult) are compressed when they finish; a body started before the
+ * request went async is sent uncompressed.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    static final String RESPONSE_ATTRIBUTE = CompressionFilter.class.getName() + ".response";
+
+    private final List<MediaType> mimeTypes;
+    private final int minBytes;
+    private final int zstdLevel;
+    private final int gzipLevel;
+
+    public CompressionFilter(List<MediaType> mimeTypes, int minBytes, int zstdLevel, int gzipLevel) {
+        this.mimeTypes = mimeTypes;
+        this.minBytes = minBytes;
+        this.zstdLevel = zstdLevel;
+        this.gzipLevel = gzipLevel;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return "HEAD".equals(request.getMethod()) || request.getHeader(HttpHeaders.RANGE) != null
+                || ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)) == null;
+    }
+
+    // the async dispatch writes through the wrapper the first dispatch created, and finishes it
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        CompressingResponseWrapper wrapper = (CompressingResponseWrapper) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (wrapper == null) {
+            wrapper = new CompressingResponseWrapper(response,
+                    ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING)),
+                    mimeTypes, minBytes, zstdLevel, gzipLevel);
+            request.setAttribute(RESPONSE_ATTRIBUTE, wrapper);
+        }
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, isAsyncDispatch(request) ? response : wrapper);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                wrapper.asyncStarted();
+            } else {
+                // after an exception the container writes the error response, so nothing buffered goes out
+                wrapper.finish(completed);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.edu.ifpb.instagram.compression;
+
+import java.util.Locale;
+
+// the encodings CompressionFilter can send, in order of preference when the client accepts several equally
+public enum ContentEncoding {
+
+    ZSTD("zstd"),
+    GZIP("gzip");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * The encoding to answer an {@code Accept-Encoding} header with: the one
+     * with the highest q-value, zstd on a tie, none when the header is absent
+     * or refuses both. A {@code *} stands for any encoding not listed.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double[] quality = {-1, -1};
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokenAndParams = part.trim().split(";");
+            String token = tokenAndParams[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < tokenAndParams.length; i++) {
+                String param = tokenAndParams[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (token.equals("*")) {
+                wildcard = q;
+            }
+            for (ContentEncoding encoding : values()) {
+                if (token.equals(encoding.token)) {
+                    quality[encoding.ordinal()] = q;
+                }
+            }
+        }
+        ContentEncoding best = null;
+        double bestQuality = 0;
+        for (ContentEncoding encoding : values()) {
+            double q = quality[encoding.ordinal()] >= 0 ? quality[encoding.ordinal()] : wildcard;
+            if (q > bestQuality) {
+                best = encoding;
+                bestQuality = q;
+            }
+        }
+        return best;
+    }
+}
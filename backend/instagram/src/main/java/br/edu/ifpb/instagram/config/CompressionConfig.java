@@ -0,0 +1,33 @@
+package br.edu.ifpb.instagram.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+
+import br.edu.ifpb.instagram.compression.CompressionFilter;
+
+// before security, so 403s are compressed too, and outside idempotency, which keeps and replays uncompressed bodies
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(
+            @Value("${instagram.compression.enabled:true}") boolean enabled,
+            @Value("${instagram.compression.mime-types:application/json,application/*+json,application/cbor,"
+                    + "application/x-jackson-smile,application/x-ndjson,text/plain,text/csv}") List<String> mimeTypes,
+            @Value("${instagram.compression.min-bytes:1024}") int minBytes,
+            @Value("${instagram.compression.zstd-level:3}") int zstdLevel,
+            @Value("${instagram.compression.gzip-level:6}") int gzipLevel) {
+
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(new CompressionFilter(
+                mimeTypes.stream().map(MediaType::parseMediaType).toList(), minBytes, zstdLevel, gzipLevel));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
@@ -0,0 +1,61 @@
+package br.edu.ifpb.instagram.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.edu.ifpb.instagram.model.request.LoginRequest;
+import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.LoginResponse;
+import br.edu.ifpb.instagram.model.response.SparseUserResponse;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+
+/**
+ * Lets clients ask for the user and auth endpoints in CBOR
+ * ({@code Accept: application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}) instead of JSON, which stays the
+ * default. The binary mappers come from the same builder as the JSON one, so
+ * they share its settings, and take the places Spring MVC gives its default
+ * CBOR and Smile converters, after JSON.
+ *
+ * Each mapper resolves the serializers and deserializers of those endpoints'
+ * bodies here, at startup, instead of on the first request that needs them.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(prefetch(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(prefetch(builder.factory(new CBORFactory()).build()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(prefetch(builder.factory(new SmileFactory()).build()));
+    }
+
+    // writerFor and readerFor fetch the root (de)serializer eagerly, into the mapper's own caches
+    static ObjectMapper prefetch(ObjectMapper mapper) {
+        mapper.writerFor(UserDetailsResponse.class);
+        mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, UserDetailsResponse.class));
+        mapper.writerFor(SparseUserResponse.class);
+        mapper.writerFor(LoginResponse.class);
+        mapper.readerFor(UserDetailsRequest.class);
+        mapper.readerFor(LoginRequest.class);
+        return mapper;
+    }
+}
@@ -0,0 +1,39 @@
+package br.edu.ifpb.instagram.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.edu.ifpb.instagram.idempotency.IdempotencyFilter;
+import br.edu.ifpb.instagram.idempotency.IdempotencyStore;
+import br.edu.ifpb.instagram.idempotency.InMemoryIdempotencyStore;
+
+// after the overload filter, so a shed request never takes a key, and after security, which scopes keys by user
+@Configuration
+public class IdempotencyConfig {
+
+    // steps aside for a shared store declared as a bean of its own
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyStore idempotencyStore(
+            @Value("${instagram.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${instagram.idempotency.max-entries:100000}") int maxEntries) {
+        return new InMemoryIdempotencyStore(ttl, maxEntries);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+            @Value("${instagram.idempotency.max-body-bytes:65536}") int maxBodyBytes,
+            @Value("${instagram.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, maxBodyBytes, waitTimeoutMs));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,39 @@
+package br.edu.ifpb.instagram.config;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.edu.ifpb.instagram.cache.InMemoryInvalidationBus;
+import br.edu.ifpb.instagram.cache.InvalidationBus;
+import br.edu.ifpb.instagram.cache.UdpInvalidationBus;
+
+// "memory" is a single instance; "udp" sends invalidations to the listed peers
+@Configuration
+public class NearCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public InvalidationBus invalidationBus(
+            @Value("${instagram.cache.transport:memory}") String transport,
+            @Value("${instagram.cache.udp.bind:127.0.0.1:0}") String bind,
+            @Value("${instagram.cache.udp.peers:}") List<String> peers) throws IOException {
+        return switch (transport) {
+            case "memory" -> new InMemoryInvalidationBus();
+            case "udp" -> {
+                List<InetSocketAddress> addresses = new ArrayList<>();
+                for (String peer : peers) {
+                    if (!peer.isBlank()) {
+                        addresses.add(UdpInvalidationBus.parseAddress(peer));
+                    }
+                }
+                yield new UdpInvalidationBus(UdpInvalidationBus.parseAddress(bind), addresses);
+            }
+            default -> throw new IllegalArgumentException("Unknown near cache transport: " + transport);
+        };
+    }
+}
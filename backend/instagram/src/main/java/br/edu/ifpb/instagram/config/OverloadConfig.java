@@ -0,0 +1,42 @@
+package br.edu.ifpb.instagram.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.edu.ifpb.instagram.overload.Bulkhead;
+import br.edu.ifpb.instagram.overload.GradientLimit;
+import br.edu.ifpb.instagram.overload.OverloadFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// right after the Spring Security chain, so the filter knows who is authenticated
+@Configuration
+public class OverloadConfig {
+
+    @Bean
+    public FilterRegistrationBean<OverloadFilter> overloadFilter(MeterRegistry meterRegistry,
+            @Value("${instagram.overload.enabled:true}") boolean enabled,
+            @Value("${instagram.overload.initial-limit:20}") int initialLimit,
+            @Value("${instagram.overload.min-limit:4}") int minLimit,
+            @Value("${instagram.overload.max-limit:200}") int maxLimit,
+            @Value("${instagram.overload.window-ms:100}") long windowMs,
+            @Value("${instagram.overload.node-limit:200}") int nodeLimit,
+            @Value("${instagram.overload.reserved-for-reads:40}") int reservedForReads) {
+
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        OverloadFilter filter = new OverloadFilter(
+                new Bulkhead(OverloadFilter.AUTH, new GradientLimit(initialLimit, minLimit, maxLimit, windowNanos)),
+                new Bulkhead(OverloadFilter.READS, new GradientLimit(initialLimit, minLimit, maxLimit, windowNanos)),
+                new Bulkhead(OverloadFilter.WRITES, new GradientLimit(initialLimit, minLimit, maxLimit, windowNanos)),
+                nodeLimit, reservedForReads, meterRegistry);
+
+        FilterRegistrationBean<OverloadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
@@ -0,0 +1,39 @@
+package br.edu.ifpb.instagram.config;
+
+import java.util.Map;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+/**
+ * With {@code spring.main.lazy-initialization=true} a bean is created on the
+ * first request that needs it instead of at startup. Beans with
+ * {@code @Scheduled} methods stay eager: the outbox relay, the like flusher
+ * and the purge jobs are only scheduled once they exist, and nothing asks for
+ * them. Listeners of ApplicationReadyEvent are created when it fires either way.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    static boolean hasScheduledMethods(Class<?> beanType) {
+        if (!AnnotationUtils.isCandidateClass(beanType, Scheduled.class)) {
+            return false;
+        }
+        Map<?, ?> scheduled = MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Object>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class) ? Boolean.TRUE : null);
+        return !scheduled.isEmpty();
+    }
+}
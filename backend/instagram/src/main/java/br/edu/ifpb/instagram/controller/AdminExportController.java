@@ -0,0 +1,45 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.export.ExportFormat;
+import br.edu.ifpb.instagram.export.UserExporter;
+import jakarta.servlet.http.HttpServletResponse;
+
+// admins only (instagram.admin.usernames), see InstagramSecurityConfig
+@RestController
+@RequestMapping("admin/exports")
+public class AdminExportController {
+
+    private final UserExporter userExporter;
+
+    public AdminExportController(UserExporter userExporter) {
+        this.userExporter = userExporter;
+    }
+
+    /**
+     * Every user in id order as a gzip file of NDJSON lines or CSV rows. After a
+     * broken download, keep the whole lines received and ask again with
+     * {@code after} set to the last id; the resumed file has no CSV header.
+     */
+    @GetMapping("/users")
+    public void exportUsers(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) Long after, HttpServletResponse response) throws IOException {
+
+        try (UserExporter.Export export = userExporter.start(format, after)) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType("application/gzip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users"
+                    + (after != null ? "-after-" + after : "") + "." + format.extension() + ".gz\"");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            export.writeTo(response.getOutputStream());
+        }
+    }
+}
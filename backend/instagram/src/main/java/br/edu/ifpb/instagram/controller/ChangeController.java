@@ -0,0 +1,76 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.response.ChangeResponse;
+import br.edu.ifpb.instagram.model.response.CursorPageResponse;
+import br.edu.ifpb.instagram.outbox.ChangeFeed;
+
+@RestController
+@RequestMapping("changes")
+public class ChangeController {
+
+    static final long MAX_WAIT_MS = 30_000;
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * User changes after {@code since}, in commit order. When there is nothing
+     * newer the request is held for up to {@code waitMs}; pass nextCursor back
+     * as {@code since} to continue. 410 when {@code since} is older than the
+     * retained changes.
+     */
+    @GetMapping
+    public DeferredResult<CursorPageResponse<ChangeResponse>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "25000") long waitMs) {
+
+        CompletableFuture<CursorPage<ChangeDto>> changes = changeFeed.await(since, limit);
+        CursorPageResponse<ChangeResponse> nothingNew = new CursorPageResponse<>(List.of(), since);
+        if (changes.isDone() || waitMs <= 0) {
+            changeFeed.cancel(changes);
+            DeferredResult<CursorPageResponse<ChangeResponse>> result = new DeferredResult<>();
+            result.setResult(changes.isDone() ? toResponse(changes.join()) : nothingNew);
+            return result;
+        }
+
+        DeferredResult<CursorPageResponse<ChangeResponse>> result =
+                new DeferredResult<>(Math.min(waitMs, MAX_WAIT_MS), nothingNew);
+        result.onCompletion(() -> changeFeed.cancel(changes));
+        changes.whenComplete((page, error) -> {
+            if (error != null) {
+                result.setErrorResult(error);
+            } else {
+                result.setResult(toResponse(page));
+            }
+        });
+        return result;
+    }
+
+    private CursorPageResponse<ChangeResponse> toResponse(CursorPage<ChangeDto> page) {
+        List<ChangeResponse> items = page.items().stream()
+            .map(change -> new ChangeResponse(
+                change.cursor(),
+                change.entity(),
+                change.entityId(),
+                change.type(),
+                change.payload(),
+                change.createdAt()))
+            .toList();
+        return new CursorPageResponse<>(items, page.nextCursor());
+    }
+}
@@ -0,0 +1,106 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.dto.CommentDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.request.CommentRequest;
+import br.edu.ifpb.instagram.model.response.CommentResponse;
+import br.edu.ifpb.instagram.model.response.CursorPageResponse;
+import br.edu.ifpb.instagram.model.response.UserSummaryResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.CommentService;
+
+@RestController
+@RequestMapping("posts/{postId}/comments")
+public class CommentController {
+
+    private final CommentService commentService;
+
+    public CommentController(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    @PostMapping
+    public ResponseEntity<CommentResponse> createComment(@PathVariable Long postId,
+            @RequestBody CommentRequest commentRequest,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        CommentDto commentDto = commentService.createComment(postId, principal.getId(),
+            commentRequest.body(), commentRequest.parentId());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(commentDto));
+    }
+
+    // top-level comments; order=newest (default) or order=top
+    @GetMapping
+    public CursorPageResponse<CommentResponse> getComments(@PathVariable Long postId,
+            @RequestParam(defaultValue = "newest") String order,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return toResponse(commentService.findComments(postId, parseOrder(order), cursor, limit));
+    }
+
+    @GetMapping("/{commentId}/replies")
+    public CursorPageResponse<CommentResponse> getReplies(@PathVariable Long postId, @PathVariable Long commentId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return toResponse(commentService.findReplies(postId, commentId, cursor, limit));
+    }
+
+    @DeleteMapping("/{commentId}")
+    public String deleteComment(@PathVariable Long postId, @PathVariable Long commentId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        commentService.deleteComment(postId, commentId, principal.getId());
+
+        return "comment was deleted!";
+    }
+
+    private static CommentService.Order parseOrder(String order) {
+        try {
+            return CommentService.Order.valueOf(order.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("order must be 'newest' or 'top'");
+        }
+    }
+
+    private CursorPageResponse<CommentResponse> toResponse(CursorPage<CommentDto> page) {
+        List<CommentResponse> items = page.items().stream()
+            .map(this::toResponse)
+            .toList();
+        return new CursorPageResponse<>(items, page.nextCursor());
+    }
+
+    private CommentResponse toResponse(CommentDto commentDto) {
+        UserSummaryResponse author = commentDto.author() == null ? null : new UserSummaryResponse(
+            commentDto.author().id(),
+            commentDto.author().username(),
+            commentDto.author().fullName()
+        );
+        return new CommentResponse(
+            commentDto.id(),
+            commentDto.postId(),
+            author,
+            commentDto.parentId(),
+            commentDto.body(),
+            commentDto.replyCount(),
+            commentDto.createdAt()
+        );
+    }
+}
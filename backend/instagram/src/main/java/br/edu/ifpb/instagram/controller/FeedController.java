@@ -0,0 +1,57 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.util.List;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.model.response.CursorPageResponse;
+import br.edu.ifpb.instagram.model.response.PostResponse;
+import br.edu.ifpb.instagram.model.response.UserSummaryResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.FeedService;
+
+@RestController
+@RequestMapping("feed")
+public class FeedController {
+
+    private final FeedService feedService;
+
+    public FeedController(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    // home feed of the authenticated user, newest first; pass nextCursor back to get the following page
+    @GetMapping
+    public CursorPageResponse<PostResponse> getFeed(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        CursorPage<PostDto> page = feedService.getFeed(principal.getId(), cursor, limit);
+        List<PostResponse> items = page.items().stream()
+            .map(this::toResponse)
+            .toList();
+
+        return new CursorPageResponse<>(items, page.nextCursor());
+    }
+
+    private PostResponse toResponse(PostDto postDto) {
+        UserSummaryResponse author = postDto.author() == null ? null : new UserSummaryResponse(
+            postDto.author().id(),
+            postDto.author().username(),
+            postDto.author().fullName()
+        );
+        return new PostResponse(
+            postDto.id(),
+            author,
+            postDto.caption(),
+            postDto.mediaRefs(),
+            postDto.createdAt()
+        );
+    }
+}
@@ -0,0 +1,89 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.util.List;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.FollowStatsDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.response.CursorPageResponse;
+import br.edu.ifpb.instagram.model.response.FollowStatsResponse;
+import br.edu.ifpb.instagram.model.response.UserSummaryResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.FollowService;
+
+@RestController
+@RequestMapping("users")
+public class FollowController {
+
+    private final FollowService followService;
+
+    public FollowController(FollowService followService) {
+        this.followService = followService;
+    }
+
+    @PostMapping("/{id}/follow")
+    public FollowStatsResponse follow(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        FollowStatsDto stats = followService.follow(principal.getId(), id);
+        return toResponse(stats, true);
+    }
+
+    @DeleteMapping("/{id}/follow")
+    public FollowStatsResponse unfollow(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        FollowStatsDto stats = followService.unfollow(principal.getId(), id);
+        return toResponse(stats, false);
+    }
+
+    @GetMapping("/{id}/follow-stats")
+    public FollowStatsResponse getStats(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        FollowStatsDto stats = followService.getStats(id);
+        boolean followedByMe = principal != null && followService.isFollowing(principal.getId(), id);
+        return toResponse(stats, followedByMe);
+    }
+
+    @GetMapping("/{id}/following/{targetId}")
+    public boolean isFollowing(@PathVariable Long id, @PathVariable Long targetId) {
+        return followService.isFollowing(id, targetId);
+    }
+
+    @GetMapping("/{id}/followers")
+    public CursorPageResponse<UserSummaryResponse> getFollowers(@PathVariable Long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return toResponse(followService.findFollowers(id, cursor, limit));
+    }
+
+    @GetMapping("/{id}/following")
+    public CursorPageResponse<UserSummaryResponse> getFollowing(@PathVariable Long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return toResponse(followService.findFollowing(id, cursor, limit));
+    }
+
+    private FollowStatsResponse toResponse(FollowStatsDto stats, boolean followedByMe) {
+        return new FollowStatsResponse(stats.userId(), stats.followers(), stats.following(), followedByMe);
+    }
+
+    private CursorPageResponse<UserSummaryResponse> toResponse(CursorPage<UserSummaryDto> page) {
+        List<UserSummaryResponse> items = page.items().stream()
+                .map(user -> new UserSummaryResponse(user.id(), user.username(), user.fullName()))
+                .toList();
+        return new CursorPageResponse<>(items, page.nextCursor());
+    }
+}
@@ -0,0 +1,47 @@
+package br.edu.ifpb.instagram.controller;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.dto.LikeStatsDto;
+import br.edu.ifpb.instagram.model.response.LikeStatsResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.LikeService;
+
+@RestController
+@RequestMapping("posts")
+public class LikeController {
+
+    private final LikeService likeService;
+
+    public LikeController(LikeService likeService) {
+        this.likeService = likeService;
+    }
+
+    // idempotent: liking twice counts once
+    @PostMapping("/{id}/likes")
+    public LikeStatsResponse like(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return toResponse(likeService.like(id, principal.getId()));
+    }
+
+    @DeleteMapping("/{id}/likes")
+    public LikeStatsResponse unlike(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        return toResponse(likeService.unlike(id, principal.getId()));
+    }
+
+    @GetMapping("/{id}/likes")
+    public LikeStatsResponse getStats(@PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        return toResponse(likeService.getStats(id, principal == null ? null : principal.getId()));
+    }
+
+    private LikeStatsResponse toResponse(LikeStatsDto stats) {
+        return new LikeStatsResponse(stats.postId(), stats.likes(), stats.likedByMe());
+    }
+}
@@ -0,0 +1,194 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.exception.MediaTooLargeException;
+import br.edu.ifpb.instagram.media.ByteRange;
+import br.edu.ifpb.instagram.media.ByteRange.UnsatisfiableRangeException;
+import br.edu.ifpb.instagram.media.FileRegionWriter;
+import br.edu.ifpb.instagram.media.MediaCache;
+import br.edu.ifpb.instagram.media.MultipartStreamReader;
+import br.edu.ifpb.instagram.media.VariantFile;
+import br.edu.ifpb.instagram.model.dto.MediaDto;
+import br.edu.ifpb.instagram.model.response.MediaResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.MediaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("media")
+public class MediaController {
+
+    // content is addressed by its hash, so a cached copy never goes stale
+    static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+    static final String CONTENT_SHA256 = "X-Content-SHA256";
+    static final String DEDUPLICATED = "X-Deduplicated";
+
+    private final MediaService mediaService;
+    private final MediaCache mediaCache;
+    private final long maxUploadBytes;
+
+    public MediaController(MediaService mediaService, MediaCache mediaCache,
+            @Value("${instagram.media.max-upload-bytes:52428800}") long maxUploadBytes) {
+        this.mediaService = mediaService;
+        this.mediaCache = mediaCache;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    // accepts multipart/form-data (first file part) or the raw file as the body with its own Content-Type.
+    // With X-Content-SHA256 of content the caller already uploaded, the body is never read: sending
+    // "Expect: 100-continue" lets a client skip the upload entirely
+    @PostMapping
+    public ResponseEntity<MediaResponse> uploadMedia(HttpServletRequest request,
+            @RequestHeader(name = CONTENT_SHA256, required = false) String contentSha256,
+            @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+
+        if (request.getContentLengthLong() > maxUploadBytes) {
+            throw new MediaTooLargeException("Upload exceeds the limit of " + maxUploadBytes + " bytes");
+        }
+
+        String contentType = request.getContentType();
+        InputStream content;
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            MultipartStreamReader reader = new MultipartStreamReader(request.getInputStream(),
+                MultipartStreamReader.boundaryOf(contentType));
+            MultipartStreamReader.Part part = reader.nextFilePart();
+            if (part == null) {
+                throw new IllegalArgumentException("No file part in request");
+            }
+            contentType = part.contentType();
+            content = part.content();
+        } else {
+            content = null;
+        }
+
+        if (contentSha256 != null) {
+            Optional<MediaDto> duplicate = mediaService.uploadDuplicate(principal.getId(), contentType, contentSha256);
+            if (duplicate.isPresent()) {
+                return ResponseEntity.created(URI.create("/media/" + duplicate.get().id()))
+                    .header(DEDUPLICATED, "true")
+                    .body(toResponse(duplicate.get()));
+            }
+        }
+
+        MediaDto mediaDto = mediaService.upload(principal.getId(), contentType,
+            content != null ? content : request.getInputStream());
+
+        return ResponseEntity.created(URI.create("/media/" + mediaDto.id())).body(toResponse(mediaDto));
+    }
+
+    @GetMapping("/{id}/info")
+    public MediaResponse getMediaInfo(@PathVariable Long id) {
+        return toResponse(mediaService.findById(id));
+    }
+
+    @GetMapping("/{id}")
+    public void downloadMedia(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        MediaDto mediaDto = mediaService.findById(id);
+        String etag = "\"" + mediaDto.sha256() + "\"";
+        long length = mediaDto.sizeBytes();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(mediaDto.contentType());
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range;
+        try {
+            range = ifRange == null || ifRange.equals(etag)
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), length)
+                : null;
+        } catch (UnsatisfiableRangeException e) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        Path file = mediaService.locate(mediaDto);
+        if (range == null) {
+            response.setStatus(HttpStatus.OK.value());
+            writeBody(file, length, 0, length, request, response);
+        } else {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+            writeBody(file, length, range.start(), range.length(), request, response);
+        }
+    }
+
+    // resized rendition, generated on first request (thumb, small, medium, large)
+    @GetMapping("/{id}/variants/{variant}")
+    public void downloadVariant(@PathVariable Long id, @PathVariable String variant,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        VariantFile variantFile = mediaService.variant(id, variant, principal.getId());
+
+        response.setHeader(HttpHeaders.ETAG, variantFile.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setContentType(variantFile.contentType());
+
+        if (variantFile.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = Files.size(variantFile.path());
+        response.setStatus(HttpStatus.OK.value());
+        writeBody(variantFile.path(), length, 0, length, request, response);
+    }
+
+    @DeleteMapping("/{id}")
+    public String deleteMedia(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal)
+            throws IOException {
+
+        mediaService.deleteMedia(id, principal.getId());
+
+        return "media was deleted!";
+    }
+
+    // small files (avatars, thumbnails) come from the off-heap cache, the rest straight from disk
+    private void writeBody(Path file, long fileLength, long start, long count, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (!mediaCache.write(file, fileLength, start, count, request, response)) {
+            FileRegionWriter.write(file, start, count, request, response);
+        }
+    }
+
+    private MediaResponse toResponse(MediaDto mediaDto) {
+        return new MediaResponse(
+            mediaDto.id(),
+            mediaDto.sha256(),
+            mediaDto.contentType(),
+            mediaDto.sizeBytes(),
+            mediaDto.createdAt()
+        );
+    }
+}
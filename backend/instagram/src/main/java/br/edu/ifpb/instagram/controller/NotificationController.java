@@ -0,0 +1,39 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.notification.NotificationHub;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("notifications")
+public class NotificationController {
+
+    private final NotificationHub notificationHub;
+
+    public NotificationController(NotificationHub notificationHub) {
+        this.notificationHub = notificationHub;
+    }
+
+    // the request stays open as an event stream; this thread goes back to the pool right away
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(@AuthenticationPrincipal AuthenticatedUser principal, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // keeps reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        notificationHub.subscribe(principal.getId(), request.startAsync(request, response));
+    }
+}
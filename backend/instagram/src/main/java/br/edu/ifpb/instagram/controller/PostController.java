@@ -0,0 +1,94 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.model.request.PostRequest;
+import br.edu.ifpb.instagram.model.response.CursorPageResponse;
+import br.edu.ifpb.instagram.model.response.PostResponse;
+import br.edu.ifpb.instagram.model.response.UserSummaryResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.PostService;
+
+@RestController
+@RequestMapping("posts")
+public class PostController {
+
+    private final PostService postService;
+
+    public PostController(PostService postService) {
+        this.postService = postService;
+    }
+
+    @PostMapping
+    public ResponseEntity<PostResponse> createPost(@RequestBody PostRequest postRequest,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        PostDto postDto = new PostDto(
+            null,
+            principal.getId(),
+            null,
+            postRequest.caption(),
+            postRequest.mediaRefs(),
+            null
+        );
+        PostDto createdPostDto = postService.createPost(postDto);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(createdPostDto));
+    }
+
+    @GetMapping("/{id}")
+    public PostResponse getPost(@PathVariable Long id) {
+        return toResponse(postService.findById(id));
+    }
+
+    // profile timeline, newest first; pass nextCursor back to get the following page
+    @GetMapping
+    public CursorPageResponse<PostResponse> getTimeline(@RequestParam Long authorId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        CursorPage<PostDto> page = postService.findTimeline(authorId, cursor, limit);
+        List<PostResponse> items = page.items().stream()
+            .map(this::toResponse)
+            .toList();
+
+        return new CursorPageResponse<>(items, page.nextCursor());
+    }
+
+    @DeleteMapping("/{id}")
+    public String deletePost(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        postService.deletePost(id, principal.getId());
+
+        return "post was deleted!";
+    }
+
+    private PostResponse toResponse(PostDto postDto) {
+        UserSummaryResponse author = postDto.author() == null ? null : new UserSummaryResponse(
+            postDto.author().id(),
+            postDto.author().username(),
+            postDto.author().fullName()
+        );
+        return new PostResponse(
+            postDto.id(),
+            author,
+            postDto.caption(),
+            postDto.mediaRefs(),
+            postDto.createdAt()
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package br.edu.ifpb.instagram.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.response.SearchHitResponse;
+import br.edu.ifpb.instagram.search.SearchIndex;
+
+@RestController
+@RequestMapping("search")
+public class SearchController {
+
+    private final SearchIndex searchIndex;
+
+    public SearchController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    // users and posts by relevance, accents ignored; writes show up within instagram.search.refresh-ms
+    @GetMapping
+    public List<SearchHitResponse> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return searchIndex.search(q, limit).stream()
+            .map(hit -> new SearchHitResponse(
+                hit.type(),
+                hit.id(),
+                hit.score(),
+                hit.username(),
+                hit.fullName(),
+                hit.authorId(),
+                hit.caption()))
+            .toList();
+    }
+}
@@ -2,6 +2,7 @@ package br.edu.ifpb.instagram.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,10 +11,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.projection.UserField;
 import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.SparseUserResponse;
 import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
 import br.edu.ifpb.instagram.service.UserService;
 
@@ -27,11 +31,13 @@ public class UserController {
         this.userService = userService;
     }
 
+    // fields=id,username narrows each user to those properties and reads only their columns
     @GetMapping
-    public List<UserDetailsResponse> getUsers(){
+    public List<?> getUsers(@RequestParam(required = false) String fields){
 
-        List<UserDto> userDtos = userService.findAll();
-        List<UserDetailsResponse> userDetailsResponses = new ArrayList<>();
+        Set<UserField> selected = UserField.parse(fields);
+        List<UserDto> userDtos = selected == null ? userService.findAll() : userService.findAll(selected);
+        List<Object> userDetailsResponses = new ArrayList<>();
 
         for (UserDto userDto : userDtos) {
             UserDetailsResponse userDetailsResponse = new UserDetailsResponse(
@@ -40,15 +46,19 @@ public class UserController {
                 userDto.username(),
                 userDto.email()
             );
-            userDetailsResponses.add(userDetailsResponse);
+            userDetailsResponses.add(selected == null
+                    ? userDetailsResponse
+                    : new SparseUserResponse(userDetailsResponse, selected));
         }
 
         return userDetailsResponses;
     }
 
+    // the user comes whole from the near cache; fields= only narrows what is sent
     @GetMapping("/{id}")
-    public UserDetailsResponse getUser(@PathVariable Long id){
+    public Object getUser(@PathVariable Long id, @RequestParam(required = false) String fields){
 
+        Set<UserField> selected = UserField.parse(fields);
         UserDto userDto = userService.findById(id);
         UserDetailsResponse userDetailsResponse = new UserDetailsResponse(
             userDto.id(),
@@ -58,7 +68,7 @@ public class UserController {
         );
         BeanUtils.copyProperties(userDto, userDetailsResponse);
 
-        return userDetailsResponse;
+        return selected == null ? userDetailsResponse : new SparseUserResponse(userDetailsResponse, selected);
     }
 
     @PutMapping
@@ -0,0 +1,8 @@
+package br.edu.ifpb.instagram.event;
+
+import java.util.List;
+
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+
+// published by ApplicationEventChangeSink for each batch OutboxRelay moves, in cursor order
+public record ChangesRelayedEvent(List<ChangeDto> changes) { }
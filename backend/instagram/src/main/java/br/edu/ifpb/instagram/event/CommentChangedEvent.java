@@ -0,0 +1,21 @@
+package br.edu.ifpb.instagram.event;
+
+import br.edu.ifpb.instagram.model.dto.CommentDto;
+
+// published by CommentServiceImpl after each comment write; repliedToAuthorId is set for replies only
+public record CommentChangedEvent(ChangeType type, CommentDto comment, Long repliedToAuthorId) {
+
+    public enum ChangeType { CREATED, DELETED }
+
+    public long commentId() {
+        return comment.id();
+    }
+
+    public long postId() {
+        return comment.postId();
+    }
+
+    public long authorId() {
+        return comment.authorId();
+    }
+}
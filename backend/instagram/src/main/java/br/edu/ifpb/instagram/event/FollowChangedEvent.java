@@ -0,0 +1,4 @@
+package br.edu.ifpb.instagram.event;
+
+// published by FollowServiceImpl only when an edge is actually created or removed
+public record FollowChangedEvent(long followerId, long followeeId, boolean following) { }
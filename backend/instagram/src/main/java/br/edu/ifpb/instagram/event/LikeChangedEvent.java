@@ -0,0 +1,4 @@
+package br.edu.ifpb.instagram.event;
+
+// published by LikeServiceImpl only when a like is actually added or removed
+public record LikeChangedEvent(long postId, long userId, boolean liked) { }
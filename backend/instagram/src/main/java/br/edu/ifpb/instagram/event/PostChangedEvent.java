@@ -0,0 +1,17 @@
+package br.edu.ifpb.instagram.event;
+
+import br.edu.ifpb.instagram.model.dto.PostDto;
+
+// published by PostServiceImpl after each post write; DELETED carries only the id and author id
+public record PostChangedEvent(ChangeType type, PostDto post) {
+
+    public enum ChangeType { CREATED, DELETED }
+
+    public long postId() {
+        return post.id();
+    }
+
+    public long authorId() {
+        return post.authorId();
+    }
+}
@@ -0,0 +1,13 @@
+package br.edu.ifpb.instagram.event;
+
+import br.edu.ifpb.instagram.model.dto.UserDto;
+
+// published by UserServiceImpl after each user write; DELETED carries only the id
+public record UserChangedEvent(ChangeType type, UserDto user) {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    public long userId() {
+        return user.id();
+    }
+}
@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class MediaProcessingBusyException extends RuntimeException {
+    public MediaProcessingBusyException(String message) {
+        super(message);
+    }
+}
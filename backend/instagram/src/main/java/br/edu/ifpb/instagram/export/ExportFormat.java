@@ -0,0 +1,16 @@
+package br.edu.ifpb.instagram.export;
+
+public enum ExportFormat {
+
+    NDJSON("ndjson"), CSV("csv");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
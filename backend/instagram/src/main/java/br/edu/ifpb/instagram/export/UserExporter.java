@@ -0,0 +1,231 @@
+package br.edu.ifpb.instagram.export;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpb.instagram.exception.ExportBusyException;
+
+/**
+ * Streams the users table in id order as gzip-compressed NDJSON or CSV. Rows
+ * are read in keyset chunks of {@code chunk-rows}, each through a
+ * forward-only cursor that fetches {@code fetch-size} rows at a time, and
+ * every row goes from the ResultSet straight to the compressor: no entity,
+ * DTO or list per row, so memory is the same for a thousand users or a
+ * hundred million.
+ *
+ * A slow client blocks the write, which stops reading the cursor; the chunks
+ * bound how long it can keep a database connection to one chunk's worth of
+ * its bandwidth. The gzip stream is sync-flushed after every chunk, so a
+ * client that loses the connection has whole lines up to some id and resumes
+ * with {@code after} set to it. Passwords are never selected.
+ */
+@Component
+public class UserExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExporter.class);
+
+    private static final String SELECT_USERS =
+            "SELECT id, username, full_name, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String CSV_HEADER = "id,username,full_name,email\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkRows;
+    private final int fetchSize;
+    private final Semaphore slots;
+
+    public UserExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            @Value("${instagram.export.chunk-rows:10000}") int chunkRows,
+            @Value("${instagram.export.fetch-size:1000}") int fetchSize,
+            @Value("${instagram.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkRows = chunkRows;
+        this.fetchSize = fetchSize;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Takes one of the {@code max-concurrent} export slots, before anything is
+     * written so a busy node can still answer 503. {@code afterId} null starts
+     * from the first user (and writes the CSV header).
+     */
+    public Export start(ExportFormat format, Long afterId) {
+        if (!slots.tryAcquire()) {
+            throw new ExportBusyException("Too many exports running, try again later");
+        }
+        return new Export(format, afterId);
+    }
+
+    public final class Export implements Closeable {
+
+        private final ExportFormat format;
+        private final Long afterId;
+        private boolean closed;
+
+        private Export(ExportFormat format, Long afterId) {
+            this.format = format;
+            this.afterId = afterId;
+        }
+
+        // returns the number of users written
+        public long writeTo(OutputStream out) throws IOException {
+            long start = System.nanoTime();
+            GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE, true);
+            RowWriter writer = format == ExportFormat.NDJSON ? new NdjsonWriter(gzip) : new CsvWriter(gzip);
+            if (format == ExportFormat.CSV && afterId == null) {
+                ((CsvWriter) writer).header();
+            }
+            long[] last = {afterId != null ? afterId : Long.MIN_VALUE};
+            long total = 0;
+            try {
+                while (true) {
+                    int[] rows = {0};
+                    jdbcTemplate.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(SELECT_USERS,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        statement.setLong(1, last[0]);
+                        statement.setInt(2, chunkRows);
+                        return statement;
+                    }, (ResultSet rs) -> {
+                        last[0] = rs.getLong(1);
+                        writer.row(rs);
+                        rows[0]++;
+                    });
+                    total += rows[0];
+                    // the client gets every whole line of the chunk before the next one is read
+                    writer.flush();
+                    if (rows[0] < chunkRows) {
+                        break;
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            gzip.finish();
+            log.info("Exported {} users as {} after id {} in {} ms", total, format, afterId,
+                    (System.nanoTime() - start) / 1_000_000);
+            return total;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                slots.release();
+            }
+        }
+    }
+
+    private interface RowWriter {
+
+        void row(ResultSet rs) throws SQLException;
+
+        void flush() throws IOException;
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.out = out;
+            this.json = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException {
+            try {
+                json.writeStartObject();
+                json.writeNumberField("id", rs.getLong(1));
+                json.writeStringField("username", rs.getString(2));
+                json.writeStringField("fullName", rs.getString(3));
+                json.writeStringField("email", rs.getString(4));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+            out.flush();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) {
+            this.out = out;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        void header() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException {
+            try {
+                writer.write(Long.toString(rs.getLong(1)));
+                writer.write(',');
+                field(rs.getString(2));
+                writer.write(',');
+                field(rs.getString(3));
+                writer.write(',');
+                field(rs.getString(4));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // RFC 4180: quoted only when needed, quotes doubled
+        private void field(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+            out.flush();
+        }
+    }
+}
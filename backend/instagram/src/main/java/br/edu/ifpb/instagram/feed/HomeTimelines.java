@@ -0,0 +1,237 @@
+package br.edu.ifpb.instagram.feed;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.model.dto.PostDto;
+
+/**
+ * In-memory home feeds. Every reader that opened their feed gets a fixed-size
+ * {@link TimelineRing} of post ids that fan-out-on-write pushes into; authors
+ * with too many followers to fan out keep a ring of their own recent posts that
+ * is merged in at read time. Recent posts are kept in a small LRU so a feed page
+ * for a cached reader is built without touching the database.
+ *
+ * Snowflake post ids are ordered by creation time, so rings only store ids and
+ * a read is one pass over a few hundred longs keeping the newest page.
+ */
+@Component
+public class HomeTimelines {
+
+    private final int capacity;
+    private final int maxTimelines;
+    private final ConcurrentHashMap<Long, TimelineRing> timelines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, TimelineRing> authorPosts = new ConcurrentHashMap<>();
+    // both guarded by posts; postsByAuthor lets a profile change evict an author's posts without a scan
+    private final Map<Long, PostDto> posts;
+    private final Map<Long, Set<Long>> postsByAuthor = new HashMap<>();
+
+    public HomeTimelines(@Value("${instagram.feed.timeline-capacity:500}") int capacity,
+            @Value("${instagram.feed.max-cached-timelines:100000}") int maxTimelines,
+            @Value("${instagram.feed.post-cache-size:200000}") int postCacheSize) {
+        this.capacity = capacity;
+        this.maxTimelines = maxTimelines;
+        this.posts = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PostDto> eldest) {
+                if (size() <= postCacheSize) {
+                    return false;
+                }
+                unindex(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int timelineCount() {
+        return timelines.size();
+    }
+
+    /**
+     * Creates the reader's ring from {@code loader} (ids newest first) unless it
+     * is already cached. Fan-out pushes arriving while the loader runs wait on the
+     * ring's lock, so no post is lost between the query and the ring going live.
+     */
+    public void ensureTimeline(long userId, Supplier<List<Long>> loader) {
+        ensure(timelines, userId, loader);
+    }
+
+    public void ensureAuthorPosts(long authorId, Supplier<List<Long>> loader) {
+        ensure(authorPosts, authorId, loader);
+    }
+
+    // only readers with a cached ring receive pushes; the rest load from the database on their next read
+    public boolean pushToTimeline(long userId, long postId) {
+        return push(timelines.get(userId), postId);
+    }
+
+    public boolean pushToAuthor(long authorId, long postId) {
+        return push(authorPosts.get(authorId), postId);
+    }
+
+    public void removeFromTimeline(long userId, long postId) {
+        TimelineRing ring = timelines.get(userId);
+        if (ring != null) {
+            synchronized (ring) {
+                ring.remove(postId);
+            }
+        }
+    }
+
+    public void removePost(long authorId, long postId) {
+        evictPost(postId);
+        TimelineRing ring = authorPosts.get(authorId);
+        if (ring != null) {
+            synchronized (ring) {
+                ring.remove(postId);
+            }
+        }
+    }
+
+    public void invalidateTimeline(long userId) {
+        timelines.remove(userId);
+    }
+
+    public void removeUser(long userId) {
+        timelines.remove(userId);
+        authorPosts.remove(userId);
+        evictPostsBy(userId);
+    }
+
+    /**
+     * Merges the reader's ring with the rings of the given fan-out-on-read authors
+     * and returns up to {@code limit} ids below {@code before}, newest first.
+     * When a ring has been truncated, ids below its smallest entry are not returned
+     * and the slice is flagged incomplete so the caller can continue from the database.
+     */
+    public FeedSlice read(long userId, long[] authorIds, long before, int limit) {
+        NewestIds newest = new NewestIds(before, limit);
+        long floor = collect(timelines.get(userId), newest, Long.MIN_VALUE);
+        for (long authorId : authorIds) {
+            floor = collect(authorPosts.get(authorId), newest, floor);
+        }
+        return new FeedSlice(newest.toArray(floor), floor == Long.MIN_VALUE);
+    }
+
+    public void cachePost(PostDto post) {
+        synchronized (posts) {
+            PostDto previous = posts.put(post.id(), post);
+            if (previous != null) {
+                unindex(previous);
+            }
+            postsByAuthor.computeIfAbsent(post.authorId(), authorId -> new HashSet<>()).add(post.id());
+        }
+    }
+
+    public Map<Long, PostDto> cachedPosts(long[] ids) {
+        Map<Long, PostDto> found = new HashMap<>();
+        synchronized (posts) {
+            for (long id : ids) {
+                PostDto post = posts.get(id);
+                if (post != null) {
+                    found.put(id, post);
+                }
+            }
+        }
+        return found;
+    }
+
+    public void evictPost(long postId) {
+        synchronized (posts) {
+            PostDto removed = posts.remove(postId);
+            if (removed != null) {
+                unindex(removed);
+            }
+        }
+    }
+
+    // cached posts embed the author summary, so a profile change drops them
+    public void evictPostsBy(long authorId) {
+        synchronized (posts) {
+            Set<Long> ids = postsByAuthor.remove(authorId);
+            if (ids != null) {
+                posts.keySet().removeAll(ids);
+            }
+        }
+    }
+
+    // caller holds posts
+    private void unindex(PostDto post) {
+        Set<Long> ids = postsByAuthor.get(post.authorId());
+        if (ids != null && ids.remove(post.id()) && ids.isEmpty()) {
+            postsByAuthor.remove(post.authorId());
+        }
+    }
+
+    private void ensure(ConcurrentHashMap<Long, TimelineRing> rings, long key, Supplier<List<Long>> loader) {
+        if (rings.containsKey(key)) {
+            return;
+        }
+        TimelineRing fresh = new TimelineRing(capacity);
+        synchronized (fresh) {
+            if (rings.putIfAbsent(key, fresh) != null) {
+                return;
+            }
+            try {
+                List<Long> ids = loader.get();
+                for (int i = ids.size() - 1; i >= 0; i--) {
+                    fresh.push(ids.get(i));
+                }
+                if (ids.size() >= capacity) {
+                    fresh.markTruncated();
+                }
+            } catch (RuntimeException e) {
+                rings.remove(key, fresh);
+                throw e;
+            }
+        }
+        evictIfFull(rings, key);
+    }
+
+    // ConcurrentHashMap iterates in hash order, so this drops an effectively random ring
+    private void evictIfFull(ConcurrentHashMap<Long, TimelineRing> rings, long keep) {
+        Iterator<Long> keys = rings.keySet().iterator();
+        while (rings.size() > maxTimelines && keys.hasNext()) {
+            if (keys.next() != keep) {
+                keys.remove();
+            }
+        }
+    }
+
+    private static long collect(TimelineRing ring, NewestIds newest, long floor) {
+        if (ring == null) {
+            return floor;
+        }
+        synchronized (ring) {
+            ring.offerTo(newest);
+            return ring.isTruncated() ? Math.max(floor, ring.smallest()) : floor;
+        }
+    }
+
+    private static boolean push(TimelineRing ring, long postId) {
+        if (ring == null) {
+            return false;
+        }
+        synchronized (ring) {
+            ring.push(postId);
+        }
+        return true;
+    }
+
+    // complete is false when older posts may exist beyond what the rings hold
+    public record FeedSlice(long[] postIds, boolean complete) { }
+}
@@ -0,0 +1,48 @@
+package br.edu.ifpb.instagram.feed;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the {@code limit} largest distinct ids offered below a cursor, sorted
+ * newest first. Rings are scanned in place, so a read touches every slot once
+ * and only sorts the page it returns.
+ */
+final class NewestIds {
+
+    private final long before;
+    private final long[] page;
+    private int taken;
+
+    NewestIds(long before, int limit) {
+        this.before = before;
+        this.page = new long[limit];
+    }
+
+    void offer(long id) {
+        if (id >= before || (taken == page.length && id <= page[taken - 1])) {
+            return;
+        }
+        int pos = taken;
+        while (pos > 0 && page[pos - 1] < id) {
+            pos--;
+        }
+        if (pos > 0 && page[pos - 1] == id) {
+            return;
+        }
+        int end = Math.min(taken, page.length - 1);
+        System.arraycopy(page, pos, page, pos + 1, end - pos);
+        page[pos] = id;
+        if (taken < page.length) {
+            taken++;
+        }
+    }
+
+    // ids below the floor are dropped: a truncated ring may be missing posts there
+    long[] toArray(long floor) {
+        int count = taken;
+        while (count > 0 && page[count - 1] < floor) {
+            count--;
+        }
+        return Arrays.copyOf(page, count);
+    }
+}
@@ -0,0 +1,103 @@
+package br.edu.ifpb.instagram.feed;
+
+/**
+ * Fixed-capacity ring of post ids in arrival order. Once full, each push
+ * overwrites the oldest slot and the ring is marked truncated: anything older
+ * than its smallest id may be missing. Not thread-safe, callers lock on the ring.
+ */
+final class TimelineRing {
+
+    private final long[] ids;
+    private int head;
+    private int size;
+    private boolean truncated;
+
+    TimelineRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than zero");
+        }
+        this.ids = new long[capacity];
+    }
+
+    void push(long id) {
+        if (contains(id)) {
+            return;
+        }
+        if (size == ids.length) {
+            truncated = true;
+        } else {
+            size++;
+        }
+        ids[head] = id;
+        head = (head + 1) % ids.length;
+    }
+
+    boolean contains(long id) {
+        for (int i = 0, slot = tail(); i < size; i++, slot = next(slot)) {
+            if (ids[slot] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean remove(long id) {
+        for (int i = 0, slot = tail(); i < size; i++, slot = next(slot)) {
+            if (ids[slot] == id) {
+                // shift the newer entries back one slot over the removed one
+                for (int j = i; j < size - 1; j++, slot = next(slot)) {
+                    ids[slot] = ids[next(slot)];
+                }
+                size--;
+                head = (head - 1 + ids.length) % ids.length;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void offerTo(NewestIds newest) {
+        for (int i = 0, slot = tail(); i < size; i++, slot = next(slot)) {
+            newest.offer(ids[slot]);
+        }
+    }
+
+    int copyTo(long[] out, int offset) {
+        for (int i = 0, slot = tail(); i < size; i++, slot = next(slot)) {
+            out[offset + i] = ids[slot];
+        }
+        return size;
+    }
+
+    long smallest() {
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0, slot = tail(); i < size; i++, slot = next(slot)) {
+            smallest = Math.min(smallest, ids[slot]);
+        }
+        return smallest;
+    }
+
+    void markTruncated() {
+        this.truncated = true;
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return ids.length;
+    }
+
+    private int tail() {
+        return (head - size + ids.length) % ids.length;
+    }
+
+    private int next(int slot) {
+        return slot + 1 == ids.length ? 0 : slot + 1;
+    }
+}
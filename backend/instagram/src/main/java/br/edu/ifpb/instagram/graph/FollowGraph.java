@@ -0,0 +1,233 @@
+package br.edu.ifpb.instagram.graph;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.util.LongHashSet;
+
+/**
+ * In-memory copy of the follows table. Each user has one node holding the ids
+ * they follow in a primitive {@link LongHashSet} plus a follower counter, so an
+ * edge costs roughly 11-21 bytes of heap (one long slot at 0.375-0.75 load)
+ * instead of an object per edge. 100M edges stay around 1-2 GB.
+ *
+ * "Does A follow B" is a hash probe into A's set; counts are plain field reads.
+ *
+ * While FollowGraphLoader runs, it may hold rows that were deleted since it
+ * read them. Unfollows and deleted users are therefore remembered until
+ * {@link #markLoaded()}: {@link #load} skips them, and markLoaded removes
+ * any the loader added anyway, so no deleted edge survives the load.
+ */
+@Component
+public class FollowGraph {
+
+    // rough per-user overhead: map entry, boxed key, node and set objects
+    private static final long NODE_OVERHEAD_BYTES = 112;
+
+    private final ConcurrentHashMap<Long, Node> nodes = new ConcurrentHashMap<>();
+    private final AtomicLong edges = new AtomicLong();
+    private volatile boolean loaded;
+    // removals made while the loader runs; cleared by markLoaded
+    private final Set<Edge> unfollowedDuringLoad = ConcurrentHashMap.newKeySet();
+    private final Set<Long> removedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    public boolean follow(long followerId, long followeeId) {
+        return add(followerId, followeeId, true);
+    }
+
+    // an edge read by FollowGraphLoader; skipped when it was unfollowed or a user was deleted since the load began
+    public boolean load(long followerId, long followeeId) {
+        if (removedDuringLoad.contains(followerId) || removedDuringLoad.contains(followeeId)
+                || unfollowedDuringLoad.contains(new Edge(followerId, followeeId))) {
+            return false;
+        }
+        return add(followerId, followeeId, false);
+    }
+
+    private boolean add(long followerId, long followeeId, boolean followed) {
+        Node follower = nodes.computeIfAbsent(followerId, id -> new Node());
+        boolean added;
+        synchronized (follower) {
+            if (followed && !loaded) {
+                unfollowedDuringLoad.remove(new Edge(followerId, followeeId)); // followed again
+            }
+            if (follower.following == null) {
+                follower.following = new LongHashSet();
+            }
+            added = follower.following.add(followeeId);
+        }
+        if (added) {
+            Node followee = nodes.computeIfAbsent(followeeId, id -> new Node());
+            synchronized (followee) {
+                followee.followers++;
+            }
+            edges.incrementAndGet();
+        }
+        return added;
+    }
+
+    public boolean unfollow(long followerId, long followeeId) {
+        if (!loaded) {
+            unfollowedDuringLoad.add(new Edge(followerId, followeeId));
+        }
+        return remove(followerId, followeeId);
+    }
+
+    private boolean remove(long followerId, long followeeId) {
+        Node follower = nodes.get(followerId);
+        if (follower == null) {
+            return false;
+        }
+        boolean removed;
+        synchronized (follower) {
+            removed = follower.following != null && follower.following.remove(followeeId);
+        }
+        if (removed) {
+            decrementFollowers(followeeId);
+            edges.decrementAndGet();
+        }
+        return removed;
+    }
+
+    public boolean isFollowing(long followerId, long followeeId) {
+        Node follower = nodes.get(followerId);
+        if (follower == null) {
+            return false;
+        }
+        synchronized (follower) {
+            return follower.following != null && follower.following.contains(followeeId);
+        }
+    }
+
+    public long followerCount(long userId) {
+        Node node = nodes.get(userId);
+        if (node == null) {
+            return 0;
+        }
+        synchronized (node) {
+            return node.followers;
+        }
+    }
+
+    public long followingCount(long userId) {
+        Node node = nodes.get(userId);
+        if (node == null) {
+            return 0;
+        }
+        synchronized (node) {
+            return node.following == null ? 0 : node.following.size();
+        }
+    }
+
+    // ids the user follows, in no particular order
+    public long[] followees(long userId) {
+        Node node = nodes.get(userId);
+        if (node == null) {
+            return new long[0];
+        }
+        synchronized (node) {
+            return node.following == null ? new long[0] : node.following.toArray();
+        }
+    }
+
+    /**
+     * Drops a deleted user. Incoming edges are not indexed, so this scans every
+     * node once; deletions are rare enough for that to be cheaper than keeping
+     * a reverse set per user.
+     */
+    public void removeUser(long userId) {
+        if (!loaded) {
+            removedDuringLoad.add(userId);
+        }
+        drop(userId);
+    }
+
+    private void drop(long userId) {
+        Node removed = nodes.remove(userId);
+        if (removed != null) {
+            long[] followees;
+            synchronized (removed) {
+                followees = removed.following == null ? new long[0] : removed.following.toArray();
+            }
+            for (long followeeId : followees) {
+                decrementFollowers(followeeId);
+            }
+            edges.addAndGet(-followees.length);
+        }
+
+        nodes.forEach((id, node) -> {
+            synchronized (node) {
+                if (node.following != null && node.following.remove(userId)) {
+                    edges.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    public long edgeCount() {
+        return edges.get();
+    }
+
+    public int userCount() {
+        return nodes.size();
+    }
+
+    public long estimatedHeapBytes() {
+        long bytes = 0;
+        for (Node node : nodes.values()) {
+            bytes += NODE_OVERHEAD_BYTES;
+            synchronized (node) {
+                if (node.following != null) {
+                    bytes += node.following.footprintBytes();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // called once the loader read its last row: drops what it loaded after it was removed
+    public void markLoaded() {
+        for (Edge edge : unfollowedDuringLoad) {
+            Node follower = nodes.get(edge.followerId());
+            if (follower != null) {
+                synchronized (follower) {
+                    if (unfollowedDuringLoad.remove(edge)) {
+                        remove(edge.followerId(), edge.followeeId());
+                    }
+                }
+            }
+        }
+        for (long userId : removedDuringLoad) {
+            drop(userId);
+        }
+        this.loaded = true;
+        unfollowedDuringLoad.clear();
+        removedDuringLoad.clear();
+    }
+
+    private void decrementFollowers(long userId) {
+        Node node = nodes.get(userId);
+        if (node != null) {
+            synchronized (node) {
+                if (node.followers > 0) {
+                    node.followers--;
+                }
+            }
+        }
+    }
+
+    private record Edge(long followerId, long followeeId) { }
+
+    private static final class Node {
+        // allocated on first follow: most users in a large graph follow few or nobody
+        LongHashSet following;
+        int followers;
+    }
+}
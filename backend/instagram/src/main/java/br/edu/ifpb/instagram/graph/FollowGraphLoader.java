@@ -0,0 +1,69 @@
+package br.edu.ifpb.instagram.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams the follows table into {@link FollowGraph} in primary key order on a
+ * background thread. Until it finishes, FollowServiceImpl answers from the database;
+ * unfollows and deletions made meanwhile are kept out of the graph by FollowGraph.
+ */
+@Component
+public class FollowGraphLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowGraphLoader.class);
+
+    private static final String SELECT_EDGES =
+            "SELECT follower_id, followee_id FROM follows " +
+            "WHERE follower_id > ? OR (follower_id = ? AND followee_id > ?) " +
+            "ORDER BY follower_id, followee_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowGraph followGraph;
+    private final int batchSize;
+
+    public FollowGraphLoader(JdbcTemplate jdbcTemplate, FollowGraph followGraph,
+            @Value("${instagram.follow-graph.load-batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.followGraph = followGraph;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread loader = new Thread(this::load, "follow-graph-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        long[] last = {Long.MIN_VALUE, Long.MIN_VALUE};
+        try {
+            while (true) {
+                int[] rows = {0};
+                jdbcTemplate.query(SELECT_EDGES, rs -> {
+                    last[0] = rs.getLong(1);
+                    last[1] = rs.getLong(2);
+                    followGraph.load(last[0], last[1]);
+                    rows[0]++;
+                }, last[0], last[0], last[1], batchSize);
+                if (rows[0] < batchSize) {
+                    break;
+                }
+            }
+            followGraph.markLoaded();
+            log.info("Follow graph loaded: {} users, {} edges, ~{} MB in {} ms",
+                    followGraph.userCount(), followGraph.edgeCount(),
+                    followGraph.estimatedHeapBytes() / (1024 * 1024),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Could not load follow graph, follow queries will keep using the database", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.idempotency;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The request that holds a key: the fingerprint of its method, path and body,
+ * and its response, which completes when it finishes. A response completed
+ * with null means that request was abandoned and the key is free again.
+ */
+public record IdempotencyRecord(String fingerprint, CompletableFuture<StoredResponse> response) {
+}
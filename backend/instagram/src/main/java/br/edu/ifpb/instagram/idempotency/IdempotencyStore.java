@@ -0,0 +1,26 @@
+package br.edu.ifpb.instagram.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Where {@link IdempotencyFilter} keeps the requests it has seen, by key. The
+ * in-memory store is enough for one instance. Behind a load balancer, retries
+ * may reach another node, so declare a shared or persistent implementation
+ * as a bean (a {@code @Component} in the application's packages); the
+ * in-memory one is only created when there is none.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserves {@code key} for the caller, who must then {@link #complete} or
+     * {@link #abandon} it, and returns empty. If another request already holds
+     * the key, returns that request instead.
+     */
+    Optional<IdempotencyRecord> reserve(String key, String fingerprint);
+
+    // replayed to every retry until the key expires
+    void complete(String key, StoredResponse response);
+
+    // the request failed without a response worth replaying; the next retry runs it again
+    void abandon(String key);
+}
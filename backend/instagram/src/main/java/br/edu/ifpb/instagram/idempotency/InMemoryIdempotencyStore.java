@@ -0,0 +1,99 @@
+package br.edu.ifpb.instagram.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps keys for {@code ttl} after they are reserved, and at most about
+ * {@code maxEntries} of them. Every key has the same ttl, so reservation order
+ * is also expiry order: one queue serves both expiry and eviction, and the
+ * oldest keys go first when the store is full. Keys still in flight are never
+ * evicted, because their duplicates are waiting on them.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // reservation order; may still hold entries already replaced in the map
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    public InMemoryIdempotencyStore(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    InMemoryIdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String key, String fingerprint) {
+        Entry reserved = new Entry(key, new IdempotencyRecord(fingerprint, new CompletableFuture<>()),
+                clock.millis());
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, reserved);
+            if (existing == null) {
+                order.add(reserved);
+                evictOverCapacity();
+                return Optional.empty();
+            }
+            if (!expired(existing)) {
+                return Optional.of(existing.record);
+            }
+            entries.remove(key, existing);
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.record.response().complete(response);
+        }
+    }
+
+    @Override
+    public void abandon(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.record.response().complete(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${instagram.idempotency.purge-interval-ms:60000}")
+    public void purge() {
+        Entry head;
+        while ((head = order.peek()) != null && (expired(head) || entries.get(head.key) != head)) {
+            order.poll();
+            entries.remove(head.key, head);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictOverCapacity() {
+        Entry head;
+        while (entries.size() > maxEntries && (head = order.peek()) != null && head.record.response().isDone()) {
+            order.poll();
+            entries.remove(head.key, head);
+        }
+    }
+
+    private boolean expired(Entry entry) {
+        return clock.millis() - entry.reservedAt >= ttl.toMillis();
+    }
+
+    private record Entry(String key, IdempotencyRecord record, long reservedAt) {
+    }
+}
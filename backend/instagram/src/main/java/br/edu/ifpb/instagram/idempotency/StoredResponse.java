@@ -0,0 +1,5 @@
+package br.edu.ifpb.instagram.idempotency;
+
+// what a retry with the same Idempotency-Key gets back instead of running the request again
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,3 @@
+package br.edu.ifpb.instagram.like;
+
+public record LikeChange(long postId, long userId, boolean liked) { }
@@ -0,0 +1,413 @@
+package br.edu.ifpb.instagram.like;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.util.LongHashSet;
+
+/**
+ * In-memory side of likes. Each post has a {@link LongAdder} that likes and
+ * unlikes add to without taking any lock, so a viral post does not serialize
+ * its likers; {@link LikeFlusher} periodically turns the accumulated deltas
+ * into one batched UPDATE per post. Each user has a {@link LongHashSet} of the
+ * posts they like, loaded on first use, which makes a repeated like or unlike
+ * a no-op, plus the changes not yet written to post_likes.
+ *
+ * A post's count is the persisted value plus whatever is accumulated or being
+ * flushed, so reads never wait for a flush. Like the follow graph, this
+ * assumes a single instance writes likes.
+ */
+@Component
+public class LikeCounters {
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    // counters with nothing to flush for this many flushes are dropped and re-read from the database on next use
+    static final int IDLE_FLUSHES = 120;
+
+    private final LikeStore likeStore;
+    private final int maxCachedUsers;
+    private final ConcurrentHashMap<Long, PostCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Member> members = new ConcurrentHashMap<>();
+    private final Set<Member> dirty = ConcurrentHashMap.newKeySet();
+
+    // flusher thread only
+    private List<PostCounter> retired = new ArrayList<>();
+    private volatile long flushes;
+
+    public LikeCounters(LikeStore likeStore,
+            @Value("${instagram.likes.max-cached-users:100000}") int maxCachedUsers) {
+        this.likeStore = likeStore;
+        this.maxCachedUsers = maxCachedUsers;
+    }
+
+    // false when the post does not exist
+    public boolean track(long postId) {
+        return loadedCounter(postId) != null;
+    }
+
+    // -1 when the post does not exist
+    public long count(long postId) {
+        PostCounter counter = loadedCounter(postId);
+        if (counter == null) {
+            return -1;
+        }
+        synchronized (counter) {
+            return counter.base + counter.inFlight + counter.delta.sum();
+        }
+    }
+
+    public boolean isLiked(long userId, long postId) {
+        while (true) {
+            Member member = member(userId);
+            synchronized (member) {
+                if (!member.evicted) {
+                    return member.liked.contains(postId);
+                }
+            }
+        }
+    }
+
+    // true when the user did not already like the post
+    public boolean like(long userId, long postId) {
+        return change(userId, postId, true);
+    }
+
+    // true when the user liked the post
+    public boolean unlike(long userId, long postId) {
+        return change(userId, postId, false);
+    }
+
+    public void removePost(long postId) {
+        counters.remove(postId);
+    }
+
+    /**
+     * Forgets a user whose deletion committed. Changes not written yet never
+     * can be, so they are dropped and taken back out of the post counts.
+     * Returns the posts the user liked or had a change pending on. Called with
+     * the flusher lock held, so none of their changes is in flight.
+     */
+    Set<Long> removeUser(long userId) {
+        Set<Long> postIds = new HashSet<>();
+        Member member = members.remove(userId);
+        if (member == null) {
+            return postIds;
+        }
+        dirty.remove(member);
+        synchronized (member) {
+            member.evicted = true;
+            for (long postId : member.liked.toArray()) {
+                postIds.add(postId);
+            }
+            for (long postId : member.added.toArray()) {
+                postIds.add(postId);
+                undo(postId, -1);
+            }
+            for (long postId : member.removed.toArray()) {
+                postIds.add(postId);
+                undo(postId, 1);
+            }
+            member.added = new LongHashSet();
+            member.removed = new LongHashSet();
+        }
+        return postIds;
+    }
+
+    // re-reads the persisted count of the given posts; called with the flusher lock held
+    void reload(Collection<Long> postIds) {
+        for (Long postId : postIds) {
+            PostCounter counter = counters.get(postId);
+            if (counter == null) {
+                continue;
+            }
+            synchronized (counter) {
+                long persisted = likeStore.likeCount(postId);
+                if (persisted < 0) {
+                    counters.remove(postId, counter);
+                } else {
+                    counter.base = persisted;
+                }
+            }
+        }
+    }
+
+    // a pending change went either to the live counter or to one retired since
+    private void undo(long postId, long delta) {
+        PostCounter counter = counters.get(postId);
+        if (counter != null) {
+            counter.delta.add(delta);
+            return;
+        }
+        for (PostCounter retiredCounter : retired) {
+            if (retiredCounter.postId == postId) {
+                retiredCounter.delta.add(delta);
+                return;
+            }
+        }
+    }
+
+    public int cachedUsers() {
+        return members.size();
+    }
+
+    public int trackedPosts() {
+        return counters.size();
+    }
+
+    private boolean change(long userId, long postId, boolean like) {
+        while (true) {
+            Member member = member(userId);
+            synchronized (member) {
+                if (member.evicted) {
+                    continue;
+                }
+                boolean changed = like ? member.liked.add(postId) : member.liked.remove(postId);
+                if (!changed) {
+                    return false;
+                }
+                // undoing a change that was not written yet leaves nothing to write
+                if (!(like ? member.removed : member.added).remove(postId)) {
+                    (like ? member.added : member.removed).add(postId);
+                }
+                member.lastUsed = flushes;
+            }
+            dirty.add(member);
+            PostCounter counter = loadedCounter(postId);
+            if (counter != null) {
+                counter.delta.add(like ? 1 : -1);
+            }
+            return true;
+        }
+    }
+
+    private Member member(long userId) {
+        Member member = members.computeIfAbsent(userId, Member::new);
+        synchronized (member) {
+            if (!member.loaded && !member.evicted) {
+                for (Long postId : likeStore.likedPostIds(userId)) {
+                    member.liked.add(postId);
+                }
+                member.loaded = true;
+            }
+            member.lastUsed = flushes;
+        }
+        return member;
+    }
+
+    // the base count is read before any delta is added, so it never includes an in-flight flush
+    private PostCounter loadedCounter(long postId) {
+        PostCounter counter = counters.computeIfAbsent(postId, PostCounter::new);
+        synchronized (counter) {
+            if (counter.base == UNKNOWN) {
+                long persisted = likeStore.likeCount(postId);
+                if (persisted < 0) {
+                    counters.remove(postId, counter);
+                    return null;
+                }
+                counter.base = persisted;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Takes everything accumulated since the last flush. The changes stay
+     * visible in reads (as in-flight) until {@link #commit} or {@link #abort}.
+     * Called from the flusher thread only.
+     */
+    Flush drain() {
+        flushes++;
+        List<LikeChange> changes = new ArrayList<>();
+        List<Member> flushedMembers = new ArrayList<>();
+        for (Iterator<Member> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            Member member = iterator.next();
+            // removed before draining: a change made after this point marks the member dirty again
+            iterator.remove();
+            synchronized (member) {
+                if (member.added.isEmpty() && member.removed.isEmpty()) {
+                    continue;
+                }
+                for (long postId : member.added.toArray()) {
+                    changes.add(new LikeChange(postId, member.userId, true));
+                }
+                for (long postId : member.removed.toArray()) {
+                    changes.add(new LikeChange(postId, member.userId, false));
+                }
+                member.added = new LongHashSet();
+                member.removed = new LongHashSet();
+                member.flushing++;
+            }
+            flushedMembers.add(member);
+        }
+
+        List<PostCounter> flushedCounters = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        // a writer that looked a counter up just before it was retired may still add to it
+        List<PostCounter> previouslyRetired = retired;
+        retired = new ArrayList<>();
+        for (PostCounter counter : previouslyRetired) {
+            collect(counter, flushedCounters, deltas);
+        }
+        for (PostCounter counter : counters.values()) {
+            if (!collect(counter, flushedCounters, deltas) && ++counter.idleFlushes >= IDLE_FLUSHES
+                    && counter.inFlight == 0 && counters.remove(counter.postId, counter)) {
+                retired.add(counter);
+            }
+        }
+
+        Integer[] order = new Integer[flushedCounters.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> flushedCounters.get(i).postId));
+        PostCounter[] sortedCounters = new PostCounter[order.length];
+        long[] postIds = new long[order.length];
+        long[] sortedDeltas = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedCounters[i] = flushedCounters.get(order[i]);
+            postIds[i] = sortedCounters[i].postId;
+            sortedDeltas[i] = deltas.get(order[i]);
+        }
+        return new Flush(changes, postIds, sortedDeltas, flushedMembers, sortedCounters);
+    }
+
+    private static boolean collect(PostCounter counter, List<PostCounter> flushed, List<Long> deltas) {
+        long delta;
+        synchronized (counter) {
+            delta = counter.delta.sumThenReset();
+            counter.inFlight += delta;
+        }
+        if (delta == 0) {
+            return false;
+        }
+        counter.idleFlushes = 0;
+        flushed.add(counter);
+        deltas.add(delta);
+        return true;
+    }
+
+    // the flush is in the database: in-flight deltas become part of the base count
+    void commit(Flush flush) {
+        for (Member member : flush.members()) {
+            synchronized (member) {
+                member.flushing--;
+            }
+        }
+        for (int i = 0; i < flush.counters().length; i++) {
+            PostCounter counter = flush.counters()[i];
+            synchronized (counter) {
+                counter.inFlight -= flush.deltas()[i];
+                counter.base += flush.deltas()[i];
+            }
+        }
+        trim();
+    }
+
+    // the flush failed: everything goes back to pending, behind any change made since
+    void abort(Flush flush) {
+        Map<Long, Member> byUser = new HashMap<>();
+        for (Member member : flush.members()) {
+            byUser.put(member.userId, member);
+        }
+        for (LikeChange change : flush.changes()) {
+            Member member = byUser.get(change.userId());
+            synchronized (member) {
+                LongHashSet undo = change.liked() ? member.removed : member.added;
+                if (!undo.remove(change.postId())) {
+                    (change.liked() ? member.added : member.removed).add(change.postId());
+                }
+            }
+        }
+        for (Member member : flush.members()) {
+            synchronized (member) {
+                member.flushing--;
+            }
+            dirty.add(member);
+        }
+        for (int i = 0; i < flush.counters().length; i++) {
+            PostCounter counter = flush.counters()[i];
+            synchronized (counter) {
+                counter.inFlight -= flush.deltas()[i];
+                counter.delta.add(flush.deltas()[i]);
+            }
+            if (counters.get(counter.postId) != counter) {
+                // retired while the flush ran: keep it draining
+                retired.add(counter);
+            }
+        }
+    }
+
+    // drops users with nothing pending that were not used during the last flush interval
+    private void trim() {
+        if (members.size() <= maxCachedUsers) {
+            return;
+        }
+        long target = maxCachedUsers - maxCachedUsers / 10;
+        long recent = flushes - 1;
+        for (Iterator<Member> iterator = members.values().iterator();
+                iterator.hasNext() && members.size() > target; ) {
+            Member member = iterator.next();
+            synchronized (member) {
+                if (member.flushing == 0 && member.added.isEmpty() && member.removed.isEmpty()
+                        && member.lastUsed < recent) {
+                    member.evicted = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    record Flush(List<LikeChange> changes, long[] postIds, long[] deltas, List<Member> members,
+            PostCounter[] counters) {
+
+        boolean isEmpty() {
+            return changes.isEmpty() && postIds.length == 0;
+        }
+    }
+
+    static final class PostCounter {
+
+        final long postId;
+        final LongAdder delta = new LongAdder();
+        // guarded by this
+        long base = UNKNOWN;
+        long inFlight;
+        // flusher thread only
+        int idleFlushes;
+
+        PostCounter(long postId) {
+            this.postId = postId;
+        }
+    }
+
+    // guarded by this
+    static final class Member {
+
+        final long userId;
+        final LongHashSet liked = new LongHashSet();
+        LongHashSet added = new LongHashSet();
+        LongHashSet removed = new LongHashSet();
+        boolean loaded;
+        boolean evicted;
+        int flushing;
+        long lastUsed;
+
+        Member(long userId) {
+            this.userId = userId;
+        }
+    }
+}
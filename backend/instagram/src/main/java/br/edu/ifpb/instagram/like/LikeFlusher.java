@@ -0,0 +1,97 @@
+package br.edu.ifpb.instagram.like;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.like.LikeCounters.Flush;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes accumulated likes every {@code instagram.likes.flush-interval-ms}:
+ * one transaction with a batched INSERT IGNORE / DELETE for the rows and one
+ * batched counter UPDATE per post touched. A failed flush is put back and
+ * retried on the next run; a crash loses at most one interval.
+ */
+@Component
+public class LikeFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeFlusher.class);
+
+    private final LikeCounters likeCounters;
+    private final LikeStore likeStore;
+    private final Clock clock;
+    private final Timer flushTime;
+    private final Counter flushedChanges;
+    private final Counter failures;
+
+    @Autowired
+    public LikeFlusher(LikeCounters likeCounters, LikeStore likeStore, MeterRegistry meterRegistry) {
+        this(likeCounters, likeStore, meterRegistry, Clock.systemUTC());
+    }
+
+    LikeFlusher(LikeCounters likeCounters, LikeStore likeStore, MeterRegistry meterRegistry, Clock clock) {
+        this.likeCounters = likeCounters;
+        this.likeStore = likeStore;
+        this.clock = clock;
+        this.flushTime = Timer.builder("instagram.likes.flush")
+                .description("Time to write one batch of likes")
+                .register(meterRegistry);
+        this.flushedChanges = Counter.builder("instagram.likes.flushed")
+                .description("Like and unlike rows written")
+                .register(meterRegistry);
+        this.failures = Counter.builder("instagram.likes.flush.failures")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${instagram.likes.flush-interval-ms:500}")
+    public synchronized void flush() {
+        Flush flush = likeCounters.drain();
+        if (flush.isEmpty()) {
+            likeCounters.commit(flush);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            likeStore.write(flush.changes(), flush.postIds(), flush.deltas(), clock.instant());
+            likeCounters.commit(flush);
+            flushedChanges.increment(flush.changes().size());
+        } catch (RuntimeException e) {
+            likeCounters.abort(flush);
+            failures.increment();
+            log.warn("Could not flush {} likes on {} posts, retrying next interval",
+                    flush.changes().size(), flush.postIds().length, e);
+        } finally {
+            flushTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reconciles the counts after a user's deletion committed. Their pending
+     * changes are dropped, and the posts they touched are recounted from the
+     * rows and re-read: a flush that ran between the deletion and its commit
+     * may still have added their likes to a count. Holding the flush lock
+     * keeps the recount from overlapping a write.
+     */
+    public synchronized void removeUser(long userId, Collection<Long> likedPostIds) {
+        Set<Long> postIds = likeCounters.removeUser(userId);
+        postIds.addAll(likedPostIds);
+        likeStore.recount(postIds);
+        likeCounters.reload(postIds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
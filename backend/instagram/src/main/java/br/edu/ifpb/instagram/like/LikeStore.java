@@ -0,0 +1,109 @@
+package br.edu.ifpb.instagram.like;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * JDBC access for likes. Writes only happen in {@link #write}, one transaction
+ * per flush with every statement batched.
+ */
+@Component
+public class LikeStore {
+
+    private static final String SELECT_LIKED_POSTS = "SELECT post_id FROM post_likes WHERE user_id = ?";
+    private static final String SELECT_LIKE_COUNT = "SELECT like_count FROM posts WHERE id = ?";
+    // IGNORE also skips rows whose post was deleted since the like was accepted
+    private static final String INSERT_LIKE =
+            "INSERT IGNORE INTO post_likes (post_id, user_id, created_at) VALUES (?, ?, ?)";
+    private static final String DELETE_LIKE = "DELETE FROM post_likes WHERE post_id = ? AND user_id = ?";
+    private static final String ADD_TO_COUNT = "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+    private static final String SUBTRACT_USER_LIKES =
+            "UPDATE posts SET like_count = like_count - 1 WHERE id IN (SELECT post_id FROM post_likes WHERE user_id = ?)";
+    private static final String DELETE_USER_LIKES = "DELETE FROM post_likes WHERE user_id = ?";
+    private static final String RECOUNT =
+            "UPDATE posts SET like_count = (SELECT COUNT(*) FROM post_likes WHERE post_likes.post_id = posts.id)"
+                    + " WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikeStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> likedPostIds(long userId) {
+        return jdbcTemplate.queryForList(SELECT_LIKED_POSTS, Long.class, userId);
+    }
+
+    // -1 when the post does not exist
+    public long likeCount(long postId) {
+        List<Long> counts = jdbcTemplate.queryForList(SELECT_LIKE_COUNT, Long.class, postId);
+        return counts.isEmpty() ? -1 : counts.get(0);
+    }
+
+    /**
+     * Applies one flush. Counter updates go in post id order so that two
+     * instances flushing the same posts lock rows in the same order.
+     */
+    @Transactional
+    public void write(List<LikeChange> changes, long[] postIds, long[] deltas, Instant now) {
+        Timestamp createdAt = Timestamp.from(now);
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (LikeChange change : changes) {
+            if (change.liked()) {
+                inserts.add(new Object[] {change.postId(), change.userId(), createdAt});
+            } else {
+                deletes.add(new Object[] {change.postId(), change.userId()});
+            }
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_LIKE, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LIKE, inserts);
+        }
+        List<Object[]> updates = new ArrayList<>(postIds.length);
+        for (int i = 0; i < postIds.length; i++) {
+            updates.add(new Object[] {deltas[i], postIds[i]});
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_TO_COUNT, updates);
+        }
+    }
+
+    /**
+     * Takes a user's likes off the posts they liked and deletes their rows, in
+     * the caller's transaction. Must run before the user row goes: the cascade
+     * would delete the rows but leave the counts as they were. Returns the
+     * posts that lost a like.
+     */
+    @Transactional
+    public List<Long> removeUser(long userId) {
+        List<Long> postIds = likedPostIds(userId);
+        if (!postIds.isEmpty()) {
+            jdbcTemplate.update(SUBTRACT_USER_LIKES, userId);
+            jdbcTemplate.update(DELETE_USER_LIKES, userId);
+        }
+        return postIds;
+    }
+
+    // sets each count to the number of rows; only exact while no flush is being written
+    @Transactional
+    public void recount(Collection<Long> postIds) {
+        List<Object[]> updates = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            updates.add(new Object[] {postId});
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(RECOUNT, updates);
+        }
+    }
+}
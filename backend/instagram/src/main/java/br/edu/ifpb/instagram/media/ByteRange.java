@@ -0,0 +1,63 @@
+package br.edu.ifpb.instagram.media;
+
+/**
+ * A single satisfiable byte range of a representation, end inclusive as in
+ * Content-Range. Multi-range requests are answered with the whole content,
+ * which RFC 9110 allows.
+ */
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long totalLength) {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+
+    /**
+     * Returns null when there is no usable Range header (absent, another unit,
+     * several ranges or malformed) and the full content should be sent.
+     *
+     * @throws UnsatisfiableRangeException when the range lies outside the content
+     */
+    public static ByteRange parse(String header, long totalLength) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (spec.indexOf(',') >= 0 || dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || totalLength == 0) {
+                    throw new UnsatisfiableRangeException();
+                }
+                return new ByteRange(Math.max(0, totalLength - suffix), totalLength - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= totalLength) {
+                throw new UnsatisfiableRangeException();
+            }
+            return new ByteRange(start, Math.min(end, totalLength - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static class UnsatisfiableRangeException extends RuntimeException {
+        public UnsatisfiableRangeException() {
+            super("Requested range not satisfiable");
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package br.edu.ifpb.instagram.media;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+
+/**
+ * Hash-to-blob index kept entirely in memory-mapped files, so the heap cost is
+ * the same for ten entries or ten million.
+ *
+ * {@code index.log} is append-only: a 16-byte header (magic, version, record
+ * count) followed by fixed 56-byte records of SHA-256, size, reference count,
+ * state and last-update time. Counts and state are updated in place; new
+ * content is always appended. {@code index.slots} is an open-addressing table
+ * of record numbers keyed by the first bytes of the hash, rebuilt from the log
+ * at startup and whenever it fills up. {@link #rewrite()} drops dead records.
+ *
+ * Not thread-safe; ContentStore serializes access.
+ */
+public final class ContentIndex implements Closeable {
+
+    static final int RECORD_SIZE = 56;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x49474349; // "IGCI"
+    private static final int VERSION = 1;
+
+    private static final int SHA_OFFSET = 0;
+    private static final int SIZE_OFFSET = 32;
+    private static final int REFS_OFFSET = 40;
+    private static final int STATE_OFFSET = 44;
+    private static final int UPDATED_OFFSET = 48;
+
+    private static final int LIVE = 1;
+    private static final int DEAD = 2;
+
+    private static final long INITIAL_LOG_BYTES = HEADER_SIZE + RECORD_SIZE * 1024L;
+    private static final int MIN_SLOTS = 1024;
+
+    private final Path logPath;
+    private final Path slotsPath;
+
+    private FileChannel logChannel;
+    private MappedByteBuffer log;
+    private long records;
+    private long live;
+
+    private FileChannel slotsChannel;
+    private MappedByteBuffer slots;
+    private int slotMask;
+
+    public ContentIndex(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.logPath = directory.resolve("index.log");
+        this.slotsPath = directory.resolve("index.slots");
+        openLog();
+        rebuildSlots(records);
+    }
+
+    public long size() {
+        return live;
+    }
+
+    long deadRecords() {
+        return records - live;
+    }
+
+    // -1 when the hash is unknown or was removed
+    public int refcount(String sha256) {
+        long record = find(toBytes(sha256));
+        return record < 0 ? -1 : log.getInt(offset(record) + REFS_OFFSET);
+    }
+
+    public long sizeOf(String sha256) {
+        long record = find(toBytes(sha256));
+        return record < 0 ? -1 : log.getLong(offset(record) + SIZE_OFFSET);
+    }
+
+    // -1 when the hash is unknown or was removed
+    long updatedMillis(String sha256) {
+        long record = find(toBytes(sha256));
+        return record < 0 ? -1 : log.getLong(offset(record) + UPDATED_OFFSET);
+    }
+
+    // adds one reference, creating the entry on first use; returns the new count
+    public int acquire(String sha256, long sizeBytes, long nowMillis) throws IOException {
+        byte[] sha = toBytes(sha256);
+        long record = find(sha);
+        if (record < 0) {
+            append(sha, sizeBytes, 1, nowMillis);
+            return 1;
+        }
+        int offset = offset(record);
+        int refs = log.getInt(offset + REFS_OFFSET) + 1;
+        log.putInt(offset + REFS_OFFSET, refs);
+        log.putLong(offset + UPDATED_OFFSET, nowMillis);
+        return refs;
+    }
+
+    // drops one reference; the entry stays (at zero) until compaction removes it
+    public int release(String sha256, long nowMillis) {
+        long record = find(toBytes(sha256));
+        if (record < 0) {
+            return -1;
+        }
+        int offset = offset(record);
+        int refs = Math.max(0, log.getInt(offset + REFS_OFFSET) - 1);
+        log.putInt(offset + REFS_OFFSET, refs);
+        log.putLong(offset + UPDATED_OFFSET, nowMillis);
+        return refs;
+    }
+
+    void setRefcount(String sha256, long sizeBytes, int refs, long nowMillis) throws IOException {
+        byte[] sha = toBytes(sha256);
+        long record = find(sha);
+        if (record < 0) {
+            append(sha, sizeBytes, refs, nowMillis);
+            return;
+        }
+        log.putInt(offset(record) + REFS_OFFSET, refs);
+        log.putLong(offset(record) + UPDATED_OFFSET, nowMillis);
+    }
+
+    boolean remove(String sha256) {
+        long record = find(toBytes(sha256));
+        if (record < 0) {
+            return false;
+        }
+        log.putInt(offset(record) + STATE_OFFSET, DEAD);
+        live--;
+        return true;
+    }
+
+    void forEachLive(EntryVisitor visitor) throws IOException {
+        byte[] sha = new byte[32];
+        for (long record = 0; record < records; record++) {
+            int offset = offset(record);
+            if (log.getInt(offset + STATE_OFFSET) == LIVE) {
+                log.get(offset + SHA_OFFSET, sha);
+                visitor.visit(HexFormat.of().formatHex(sha), log.getLong(offset + SIZE_OFFSET),
+                        log.getInt(offset + REFS_OFFSET), log.getLong(offset + UPDATED_OFFSET));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(String sha256, long sizeBytes, int refcount, long updatedMillis) throws IOException;
+    }
+
+    /**
+     * Copies the live records into a fresh log, swaps it in with an atomic rename
+     * and rebuilds the slot table.
+     */
+    void rewrite() throws IOException {
+        Path temp = logPath.resolveSibling("index.log.compacting");
+        long capacity = Math.max(INITIAL_LOG_BYTES, HEADER_SIZE + RECORD_SIZE * live * 2);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer target = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            long written = 0;
+            byte[] record = new byte[RECORD_SIZE];
+            for (long i = 0; i < records; i++) {
+                int offset = offset(i);
+                if (log.getInt(offset + STATE_OFFSET) == LIVE) {
+                    log.get(offset, record);
+                    target.put(HEADER_SIZE + (int) (written * RECORD_SIZE), record);
+                    written++;
+                }
+            }
+            writeHeader(target, written);
+            target.force();
+        }
+        logChannel.close();
+        Files.move(temp, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        openLog();
+        rebuildSlots(records);
+    }
+
+    void force() {
+        log.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.force();
+        logChannel.close();
+        slotsChannel.close();
+    }
+
+    private void openLog() throws IOException {
+        boolean exists = Files.exists(logPath);
+        logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long capacity = Math.max(INITIAL_LOG_BYTES, logChannel.size());
+        log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (!exists || log.getInt(0) == 0) {
+            writeHeader(log, 0);
+        } else if (log.getInt(0) != MAGIC || log.getInt(4) != VERSION) {
+            throw new IOException("Not a content index: " + logPath);
+        }
+        // the header count is written after the record, so a torn append is simply ignored
+        records = log.getLong(8);
+        live = 0;
+        for (long record = 0; record < records; record++) {
+            if (log.getInt(offset(record) + STATE_OFFSET) == LIVE) {
+                live++;
+            }
+        }
+    }
+
+    private void append(byte[] sha, long sizeBytes, int refs, long nowMillis) throws IOException {
+        if ((records + 1) * 2 > slotMask + 1L) {
+            rebuildSlots(records + 1);
+        }
+        long end = HEADER_SIZE + (records + 1) * RECORD_SIZE;
+        if (end > log.capacity()) {
+            grow(end);
+        }
+        int offset = offset(records);
+        log.put(offset + SHA_OFFSET, sha);
+        log.putLong(offset + SIZE_OFFSET, sizeBytes);
+        log.putInt(offset + REFS_OFFSET, refs);
+        log.putInt(offset + STATE_OFFSET, LIVE);
+        log.putLong(offset + UPDATED_OFFSET, nowMillis);
+        putSlot(sha, records);
+        records++;
+        live++;
+        log.putLong(8, records);
+    }
+
+    private void grow(long needed) throws IOException {
+        long capacity = log.capacity();
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            // a single mapping is int-indexed; rewrite() first or split the index
+            throw new IOException("Content index is full (" + records + " records)");
+        }
+        log.force();
+        log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    // returns the record number of the live entry for sha, or -1
+    private long find(byte[] sha) {
+        int slot = (int) (hash(sha) & slotMask);
+        while (true) {
+            long value = slots.getLong(slot * 8);
+            if (value == 0) {
+                return -1;
+            }
+            long record = value - 1;
+            if (sameHash(record, sha)) {
+                return log.getInt(offset(record) + STATE_OFFSET) == LIVE ? record : -1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    // a re-added hash takes over the slot of its dead record, so one slot per hash is enough
+    private void putSlot(byte[] sha, long record) {
+        int slot = (int) (hash(sha) & slotMask);
+        while (true) {
+            long value = slots.getLong(slot * 8);
+            if (value == 0 || sameHash(value - 1, sha)) {
+                slots.putLong(slot * 8, record + 1);
+                return;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private void rebuildSlots(long expectedRecords) throws IOException {
+        int capacity = MIN_SLOTS;
+        while (capacity < expectedRecords * 2) {
+            capacity <<= 1;
+        }
+        if (slotsChannel != null) {
+            slotsChannel.close();
+        }
+        // zero-filled fresh file: every slot starts empty
+        slotsChannel = FileChannel.open(slotsPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        slots = slotsChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity * 8L);
+        slotMask = capacity - 1;
+
+        byte[] sha = new byte[32];
+        for (long record = 0; record < records; record++) {
+            log.get(offset(record) + SHA_OFFSET, sha);
+            putSlot(sha, record);
+        }
+    }
+
+    private boolean sameHash(long record, byte[] sha) {
+        int offset = offset(record) + SHA_OFFSET;
+        for (int i = 0; i < 32; i++) {
+            if (log.get(offset + i) != sha[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer, long count) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, count);
+    }
+
+    private static int offset(long record) {
+        return (int) (HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    // SHA-256 output is already uniform, so its first eight bytes make a good hash
+    private static long hash(byte[] sha) {
+        long h = 0;
+        for (int i = 0; i < 8; i++) {
+            h = (h << 8) | (sha[i] & 0xff);
+        }
+        return h;
+    }
+
+    private static byte[] toBytes(String sha256) {
+        if (sha256 == null || sha256.length() != 64) {
+            throw new IllegalArgumentException("Invalid content hash: " + sha256);
+        }
+        return HexFormat.of().parseHex(sha256);
+    }
+}
@@ -0,0 +1,169 @@
+package br.edu.ifpb.instagram.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.media.MediaStorage.StagedBlob;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reference-counted, content-addressed blobs: MediaStorage holds the bytes,
+ * {@link ContentIndex} the hash, size and number of media rows pointing at
+ * each blob. Identical uploads share one file. Releasing the last reference
+ * leaves the blob in place; {@link #compact} reclaims it after a grace period,
+ * so a delete racing with a re-upload of the same content never loses data.
+ */
+@Component
+public class ContentStore {
+
+    private final MediaStorage mediaStorage;
+    private final ContentIndex index;
+    private final Clock clock;
+
+    @Autowired
+    public ContentStore(MediaStorage mediaStorage) {
+        this(mediaStorage, Clock.systemUTC());
+    }
+
+    ContentStore(MediaStorage mediaStorage, Clock clock) {
+        this.mediaStorage = mediaStorage;
+        this.clock = clock;
+        try {
+            this.index = new ContentIndex(mediaStorage.root().resolve("index"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open content index", e);
+        }
+    }
+
+    // streams the content to disk and takes a reference on its hash
+    public StoredBlob put(InputStream content) throws IOException {
+        StagedBlob staged = mediaStorage.stage(content);
+        try {
+            synchronized (this) {
+                mediaStorage.commit(staged);
+                index.acquire(staged.blob().sha256(), staged.blob().sizeBytes(), clock.millis());
+            }
+        } catch (IOException | RuntimeException e) {
+            mediaStorage.discard(staged);
+            throw e;
+        }
+        return staged.blob();
+    }
+
+    /**
+     * Takes another reference on content that is already stored, without
+     * reading any bytes. Empty when the hash is unknown.
+     */
+    public synchronized Optional<StoredBlob> reuse(String sha256) throws IOException {
+        long size = index.sizeOf(sha256);
+        if (size < 0 || !mediaStorage.exists(sha256)) {
+            return Optional.empty();
+        }
+        index.acquire(sha256, size, clock.millis());
+        return Optional.of(new StoredBlob(sha256, size));
+    }
+
+    public synchronized void release(String sha256) {
+        index.release(sha256, clock.millis());
+    }
+
+    public synchronized int refcount(String sha256) {
+        return index.refcount(sha256);
+    }
+
+    public synchronized long entries() {
+        return index.size();
+    }
+
+    /**
+     * Deletes blobs nobody references any more. {@code referenceCount} is the
+     * authoritative count (the media table); index counts that drifted from it,
+     * for example after a crash, are corrected instead of trusted. Files on disk
+     * without an index entry are adopted or removed the same way.
+     *
+     * Only reading and changing the index holds the lock, so uploads go on
+     * while the references are queried and the disk is walked. Before a blob
+     * is touched its entry is checked again: one acquired or released in the
+     * meantime is left for the next run.
+     */
+    public CompactionResult compact(ToLongFunction<String> referenceCount, Duration grace) throws IOException {
+        long now = clock.millis();
+        long cutoff = now - grace.toMillis();
+        Map<String, Long> candidates = new LinkedHashMap<>();
+        synchronized (this) {
+            index.forEachLive((sha256, sizeBytes, refcount, updatedMillis) -> {
+                if (refcount <= 0 && updatedMillis <= cutoff) {
+                    candidates.put(sha256, updatedMillis);
+                }
+            });
+        }
+
+        long reclaimedBlobs = 0;
+        long reclaimedBytes = 0;
+        long repaired = 0;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            String sha256 = candidate.getKey();
+            long references = referenceCount.applyAsLong(sha256);
+            synchronized (this) {
+                if (index.refcount(sha256) > 0 || index.updatedMillis(sha256) != candidate.getValue()) {
+                    continue;
+                }
+                if (references > 0) {
+                    index.setRefcount(sha256, index.sizeOf(sha256), (int) references, now);
+                    repaired++;
+                } else {
+                    reclaimedBytes += mediaStorage.delete(sha256);
+                    index.remove(sha256);
+                    reclaimedBlobs++;
+                }
+            }
+        }
+
+        long[] orphans = new long[3];
+        mediaStorage.forEachObject((sha256, lastModifiedMillis) -> {
+            if (lastModifiedMillis > cutoff || refcount(sha256) >= 0) {
+                return;
+            }
+            long references = referenceCount.applyAsLong(sha256);
+            synchronized (this) {
+                // an upload of the same content may have indexed it meanwhile
+                if (index.refcount(sha256) >= 0) {
+                    return;
+                }
+                if (references > 0) {
+                    index.setRefcount(sha256, mediaStorage.size(sha256), (int) references, now);
+                    orphans[0]++;
+                } else {
+                    orphans[2] += mediaStorage.delete(sha256);
+                    orphans[1]++;
+                }
+            }
+        });
+
+        synchronized (this) {
+            if (index.deadRecords() > index.size()) {
+                index.rewrite();
+            } else {
+                index.force();
+            }
+        }
+        return new CompactionResult(reclaimedBlobs + orphans[1], reclaimedBytes + orphans[2], repaired + orphans[0]);
+    }
+
+    public record CompactionResult(long reclaimedBlobs, long reclaimedBytes, long repairedEntries) { }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        index.close();
+    }
+}
@@ -0,0 +1,46 @@
+package br.edu.ifpb.instagram.media;
+
+import java.util.Locale;
+
+// resized renditions served by GET /media/{id}/variants/{name}; THUMB is a center-cropped square
+public enum ImageVariant {
+
+    THUMB(150, true),
+    SMALL(320, false),
+    MEDIUM(640, false),
+    LARGE(1080, false);
+
+    private final int width;
+    private final boolean square;
+
+    ImageVariant(int width, boolean square) {
+        this.width = width;
+        this.square = square;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean square() {
+        return square;
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ImageVariant fromId(String id) {
+        for (ImageVariant variant : values()) {
+            if (variant.id().equals(id)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image variant: " + id);
+    }
+
+    // sources that may carry transparency stay PNG, everything else becomes JPEG
+    public static String formatFor(String sourceContentType) {
+        return "image/png".equals(sourceContentType) || "image/gif".equals(sourceContentType) ? "png" : "jpeg";
+    }
+}
@@ -0,0 +1,303 @@
+package br.edu.ifpb.instagram.media;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * LRU cache of small media files held outside the heap. Memory comes in
+ * direct-buffer slabs allocated on demand up to {@code max-bytes} and is
+ * handed out in fixed-size pages, so the collector only ever sees a handful
+ * of buffer objects however many gigabytes are cached, and an evicted file's
+ * pages are reused as-is instead of freed.
+ *
+ * Entries are keyed by file name. MediaStorage names files after their
+ * content hash, so a cached copy can never go stale and nothing has to be
+ * invalidated; deleted content simply ages out.
+ */
+@Component
+public class MediaCache {
+
+    // servlet streams only take arrays; one reused array per thread keeps the copy garbage-free
+    private static final ThreadLocal<byte[]> COPY_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final int pageSize;
+    private final int pagesPerSlab;
+    private final int maxPages;
+    private final long maxEntryBytes;
+
+    // guarded by this
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private int[] freePages = new int[0];
+    private int freeCount;
+    private int allocatedPages;
+    private long cachedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MediaCache(MeterRegistry meterRegistry,
+            @Value("${instagram.media.cache.max-bytes:268435456}") long maxBytes,
+            @Value("${instagram.media.cache.max-entry-bytes:1048576}") long maxEntryBytes,
+            @Value("${instagram.media.cache.slab-bytes:67108864}") int slabBytes,
+            @Value("${instagram.media.cache.page-bytes:4096}") int pageBytes) {
+        if (pageBytes <= 0 || slabBytes < pageBytes) {
+            throw new IllegalArgumentException("Cache slabs must hold at least one page");
+        }
+        this.pageSize = pageBytes;
+        this.pagesPerSlab = slabBytes / pageBytes;
+        this.maxPages = (int) Math.min(Integer.MAX_VALUE, Math.max(0, maxBytes) / pageBytes);
+        this.maxEntryBytes = Math.min(maxEntryBytes, (long) maxPages * pageBytes);
+
+        FunctionCounter.builder("instagram.media.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("instagram.media.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("instagram.media.cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("instagram.media.cache.hit.ratio", this, MediaCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("instagram.media.cache.size", this, MediaCache::cachedBytes)
+                .description("Bytes of media held in the cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("instagram.media.cache.reserved", this, MediaCache::reservedBytes)
+                .description("Direct memory allocated for cache slabs")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("instagram.media.cache.entries", this, MediaCache::entries)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes {@code count} bytes of {@code file} starting at {@code start} from
+     * the cache, loading the whole file into it on a miss. Returns false, having
+     * written nothing, when the file is too large to cache; the caller then
+     * serves it from disk.
+     */
+    public boolean write(Path file, long fileLength, long start, long count, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (fileLength > maxEntryBytes) {
+            return false;
+        }
+        String key = file.getFileName().toString();
+        Entry entry = pin(key);
+        if (entry == null) {
+            entry = load(key, file, fileLength);
+            if (entry == null) {
+                return false;
+            }
+        }
+        try {
+            response.setContentLengthLong(count);
+            if (count > 0 && !"HEAD".equals(request.getMethod())) {
+                copy(entry, start, count, response.getOutputStream());
+            }
+            return true;
+        } finally {
+            unpin(entry);
+        }
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized long reservedBytes() {
+        return (long) allocatedPages * pageSize;
+    }
+
+    public synchronized int entries() {
+        return entries.size();
+    }
+
+    private synchronized Entry pin(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        entry.pins++;
+        return entry;
+    }
+
+    private synchronized void unpin(Entry entry) {
+        entry.pins--;
+        if (entry.evicted && entry.pins == 0) {
+            release(entry.pages);
+        }
+    }
+
+    // returns the entry pinned, or null when no room could be made
+    private Entry load(String key, Path file, long length) throws IOException {
+        int[] pages = allocate((int) ((length + pageSize - 1) / pageSize));
+        if (pages == null) {
+            return null;
+        }
+        // the pages are private to this thread until the entry is published
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            for (int page : pages) {
+                ByteBuffer target = page(page, (int) Math.min(pageSize, length - position));
+                while (target.hasRemaining()) {
+                    if (channel.read(target, position + target.position()) < 0) {
+                        throw new IOException("File shrank while caching: " + file);
+                    }
+                }
+                position += target.limit();
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                release(pages);
+            }
+            throw e;
+        }
+        return publish(key, new Entry(pages, length));
+    }
+
+    private synchronized Entry publish(String key, Entry entry) {
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            // another request loaded the same file meanwhile
+            release(entry.pages);
+            existing.pins++;
+            return existing;
+        }
+        entries.put(key, entry);
+        cachedBytes += entry.length;
+        entry.pins++;
+        return entry;
+    }
+
+    private synchronized int[] allocate(int count) {
+        if (count > maxPages) {
+            return null;
+        }
+        while (freeCount < count) {
+            if (allocatedPages < maxPages) {
+                addSlab();
+            } else if (!evictEldest()) {
+                return null;
+            }
+        }
+        int[] pages = new int[count];
+        for (int i = 0; i < count; i++) {
+            pages[i] = freePages[--freeCount];
+        }
+        return pages;
+    }
+
+    private void addSlab() {
+        int pages = Math.min(pagesPerSlab, maxPages - allocatedPages);
+        slabs.add(ByteBuffer.allocateDirect(pages * pageSize));
+        int first = (slabs.size() - 1) * pagesPerSlab;
+        ensureFreeCapacity(allocatedPages + pages);
+        for (int i = pages - 1; i >= 0; i--) {
+            freePages[freeCount++] = first + i;
+        }
+        allocatedPages += pages;
+    }
+
+    // pinned entries leave the map at once but keep their pages until the last reader is done
+    private boolean evictEldest() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        if (!iterator.hasNext()) {
+            return false;
+        }
+        Entry eldest = iterator.next();
+        iterator.remove();
+        cachedBytes -= eldest.length;
+        evictions.increment();
+        eldest.evicted = true;
+        if (eldest.pins == 0) {
+            release(eldest.pages);
+        }
+        return true;
+    }
+
+    private void release(int[] pages) {
+        ensureFreeCapacity(freeCount + pages.length);
+        for (int page : pages) {
+            freePages[freeCount++] = page;
+        }
+    }
+
+    private void ensureFreeCapacity(int size) {
+        if (freePages.length < size) {
+            int[] grown = new int[Math.max(size, freePages.length * 2)];
+            System.arraycopy(freePages, 0, grown, 0, freeCount);
+            freePages = grown;
+        }
+    }
+
+    private void copy(Entry entry, long start, long count, OutputStream out) throws IOException {
+        byte[] chunk = COPY_BUFFER.get();
+        long end = start + count;
+        for (int i = (int) (start / pageSize); i < entry.pages.length; i++) {
+            long pageStart = (long) i * pageSize;
+            if (pageStart >= end) {
+                break;
+            }
+            int from = (int) Math.max(0, start - pageStart);
+            int to = (int) Math.min(Math.min(pageSize, entry.length - pageStart), end - pageStart);
+            ByteBuffer source = page(entry.pages[i], to);
+            source.position(from);
+            while (source.hasRemaining()) {
+                int length = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    // a private view of the first length bytes of a page
+    private ByteBuffer page(int page, int length) {
+        ByteBuffer slab;
+        synchronized (this) {
+            slab = slabs.get(page / pagesPerSlab);
+        }
+        int offset = (page % pagesPerSlab) * pageSize;
+        return slab.slice(offset, length);
+    }
+
+    private static final class Entry {
+
+        final int[] pages;
+        final long length;
+        int pins;
+        boolean evicted;
+
+        Entry(int[] pages, long length) {
+            this.pages = pages;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.edu.ifpb.instagram.media;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.media.ContentStore.CompactionResult;
+import br.edu.ifpb.instagram.repository.MediaRepository;
+
+/**
+ * Periodically reclaims blobs whose last media row was deleted more than the
+ * grace period ago, using the media table as the source of truth for references.
+ */
+@Component
+public class MediaCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaCompactionJob.class);
+
+    private final ContentStore contentStore;
+    private final MediaRepository mediaRepository;
+    private final Duration grace;
+
+    public MediaCompactionJob(ContentStore contentStore, MediaRepository mediaRepository,
+            @Value("${instagram.media.compaction-grace:PT10M}") Duration grace) {
+        this.contentStore = contentStore;
+        this.mediaRepository = mediaRepository;
+        this.grace = grace;
+    }
+
+    @Scheduled(initialDelayString = "${instagram.media.compaction-interval-ms:3600000}",
+            fixedDelayString = "${instagram.media.compaction-interval-ms:3600000}")
+    public void compact() {
+        long start = System.nanoTime();
+        try {
+            CompactionResult result = contentStore.compact(mediaRepository::countBySha256, grace);
+            log.info("Media compaction: {} blobs reclaimed ({} bytes), {} index entries repaired in {} ms",
+                    result.reclaimedBlobs(), result.reclaimedBytes(), result.repairedEntries(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Media compaction failed", e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package br.edu.ifpb.instagram.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.exception.MediaTooLargeException;
+
+/**
+ * Files on local disk named by the SHA-256 of their content
+ * ({@code objects/ab/cd/abcd...}). An upload is streamed through a pooled
+ * direct buffer into a temp file while the hash is computed, then renamed into
+ * place, so heap use per upload is a few KB no matter how large the file is.
+ */
+@Component
+public class MediaStorage {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final int POOLED_BUFFERS = 64;
+
+    private final Path objectsDir;
+    private final Path variantsDir;
+    private final Path tempDir;
+    private final long maxUploadBytes;
+    private final BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    public MediaStorage(@Value("${instagram.media.storage-dir:${java.io.tmpdir}/instagram-media}") Path root,
+            @Value("${instagram.media.max-upload-bytes:52428800}") long maxUploadBytes) {
+        this.objectsDir = root.resolve("objects");
+        this.variantsDir = root.resolve("variants");
+        this.tempDir = root.resolve("tmp");
+        this.maxUploadBytes = maxUploadBytes;
+        try {
+            Files.createDirectories(objectsDir);
+            Files.createDirectories(variantsDir);
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create media storage at " + root, e);
+        }
+    }
+
+    public long maxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    public StoredBlob store(InputStream content) throws IOException {
+        StagedBlob staged = stage(content);
+        commit(staged);
+        return staged.blob();
+    }
+
+    // writes the content to a temp file and hashes it; nothing is visible until commit
+    public StagedBlob stage(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = acquireBuffer();
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(content);
+                FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            boolean eof = false;
+            while (!eof) {
+                // fill the whole buffer first so each write to disk is one large syscall
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxUploadBytes) {
+                    throw new MediaTooLargeException("Upload exceeds the limit of " + maxUploadBytes + " bytes");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            releaseBuffer(buffer);
+        }
+
+        return new StagedBlob(temp, new StoredBlob(HexFormat.of().formatHex(digest.digest()), size));
+    }
+
+    // returns false when identical content was already stored and the staged copy was dropped
+    public boolean commit(StagedBlob staged) throws IOException {
+        Path target = locate(staged.blob().sha256());
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            Files.delete(staged.temp());
+            return false;
+        }
+        Files.move(staged.temp(), target, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    public void discard(StagedBlob staged) throws IOException {
+        Files.deleteIfExists(staged.temp());
+    }
+
+    public Path locate(String sha256) {
+        if (sha256 == null || sha256.length() != 64 || !sha256.chars().allMatch(MediaStorage::isLowerHex)) {
+            throw new IllegalArgumentException("Invalid content hash: " + sha256);
+        }
+        return objectsDir.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    // derived files live apart from the originals, named after the original's hash
+    public Path locateVariant(String sha256, ImageVariant variant, String format) {
+        Path original = locate(sha256);
+        return variantsDir.resolve(sha256.substring(0, 2))
+                .resolve(original.getFileName() + "-" + variant.id() + "." + format);
+    }
+
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(tempDir, "work-", ".part");
+    }
+
+    public boolean exists(String sha256) {
+        return Files.exists(locate(sha256));
+    }
+
+    // removes the original and every variant generated from it; returns the bytes freed
+    public long delete(String sha256) throws IOException {
+        long freed = deleteIfExists(locate(sha256));
+        for (ImageVariant variant : ImageVariant.values()) {
+            freed += deleteIfExists(locateVariant(sha256, variant, "png"));
+            freed += deleteIfExists(locateVariant(sha256, variant, "jpeg"));
+        }
+        return freed;
+    }
+
+    public long size(String sha256) throws IOException {
+        return Files.size(locate(sha256));
+    }
+
+    public Path root() {
+        return objectsDir.getParent();
+    }
+
+    // hashes of every stored original, with the file's last-modified time in epoch millis
+    public void forEachObject(ObjectVisitor visitor) throws IOException {
+        try (Stream<Path> files = Files.walk(objectsDir)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String name = file.getFileName().toString();
+                if (name.length() == 64 && name.chars().allMatch(MediaStorage::isLowerHex)) {
+                    visitor.visit(name, Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ObjectVisitor {
+        void visit(String sha256, long lastModifiedMillis) throws IOException;
+    }
+
+    public record StagedBlob(Path temp, StoredBlob blob) { }
+
+    private static long deleteIfExists(Path path) throws IOException {
+        try {
+            long size = Files.size(path);
+            Files.delete(path);
+            return size;
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    private static boolean isLowerHex(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package br.edu.ifpb.instagram.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Forward-only multipart/form-data reader over the raw request body. Form
+ * fields are skipped and the first file part is exposed as an InputStream that
+ * ends at the next boundary, so the file goes from the socket to storage
+ * through one fixed buffer instead of being spooled by the servlet container.
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    public MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        // every boundary after the first is preceded by CRLF; the first is matched without it
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+    }
+
+    public static String boundaryOf(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.toLowerCase(Locale.ROOT).startsWith("boundary=")) {
+                    String boundary = trimmed.substring("boundary=".length());
+                    if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+                        boundary = boundary.substring(1, boundary.length() - 1);
+                    }
+                    if (!boundary.isEmpty() && boundary.length() <= 70) {
+                        return boundary;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Missing or invalid multipart boundary");
+    }
+
+    // returns null when the body has no file part
+    public Part nextFilePart() throws IOException {
+        if (!skipToFirstBoundary()) {
+            return null;
+        }
+        while (true) {
+            if (!afterBoundary()) {
+                return null;
+            }
+            String headers = readHeaders();
+            String fileName = parameter(headers, "content-disposition", "filename");
+            if (fileName != null) {
+                String contentType = header(headers, "content-type");
+                return new Part(fileName, contentType == null ? "application/octet-stream" : contentType,
+                        new PartInputStream());
+            }
+            drain(new PartInputStream());
+        }
+    }
+
+    public record Part(String fileName, String contentType, InputStream content) { }
+
+    private boolean skipToFirstBoundary() throws IOException {
+        // the body may start directly with "--boundary", without the leading CRLF
+        fill(delimiter.length - 2);
+        if (startsWith(delimiter, 2)) {
+            pos += delimiter.length - 2;
+            return true;
+        }
+        drain(new PartInputStream());
+        return true;
+    }
+
+    // after a boundary comes "--" (end of body) or CRLF and the next part's headers
+    private boolean afterBoundary() throws IOException {
+        fill(2);
+        if (limit - pos >= 2 && buffer[pos] == '-' && buffer[pos + 1] == '-') {
+            return false;
+        }
+        if (limit - pos >= 2 && buffer[pos] == '\r' && buffer[pos + 1] == '\n') {
+            pos += 2;
+            return true;
+        }
+        throw new IllegalArgumentException("Malformed multipart body");
+    }
+
+    private String readHeaders() throws IOException {
+        StringBuilder headers = new StringBuilder();
+        while (true) {
+            fill(1);
+            if (pos == limit) {
+                throw new IllegalArgumentException("Malformed multipart body");
+            }
+            headers.append((char) (buffer[pos++] & 0xff));
+            int length = headers.length();
+            if (length >= 4 && headers.charAt(length - 4) == '\r' && headers.charAt(length - 3) == '\n'
+                    && headers.charAt(length - 2) == '\r' && headers.charAt(length - 1) == '\n') {
+                return headers.toString();
+            }
+            if (length == 2 && headers.charAt(0) == '\r' && headers.charAt(1) == '\n') {
+                return "";
+            }
+            if (length > MAX_HEADER_BYTES) {
+                throw new IllegalArgumentException("Multipart headers too large");
+            }
+        }
+    }
+
+    private static String header(String headers, String name) {
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return line.substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static String parameter(String headers, String headerName, String name) {
+        String value = header(headers, headerName);
+        if (value == null) {
+            return null;
+        }
+        for (String parameter : value.split(";")) {
+            String trimmed = parameter.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                String result = trimmed.substring(equals + 1).trim();
+                if (result.length() > 1 && result.startsWith("\"") && result.endsWith("\"")) {
+                    result = result.substring(1, result.length() - 1);
+                }
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static void drain(InputStream part) throws IOException {
+        byte[] skip = new byte[4096];
+        while (part.read(skip) >= 0) {
+            // discard
+        }
+    }
+
+    // makes at least {@code wanted} bytes available unless the stream ends first
+    private void fill(int wanted) throws IOException {
+        if (limit - pos >= wanted || eof) {
+            return;
+        }
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        while (limit < wanted && !eof) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    private boolean startsWith(byte[] prefix, int offset) {
+        if (limit - pos < prefix.length - offset) {
+            return false;
+        }
+        for (int i = offset; i < prefix.length; i++) {
+            if (buffer[pos + i - offset] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = pos; i <= last; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // content of the current part; consumes the closing delimiter when it reaches it
+    private final class PartInputStream extends InputStream {
+
+        private boolean finished;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int read = read(one, 0, 1);
+            return read < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            fill(delimiter.length);
+            int found = indexOfDelimiter();
+            int available;
+            if (found >= 0) {
+                available = found - pos;
+            } else if (eof) {
+                throw new IllegalArgumentException("Multipart body ended before the closing boundary");
+            } else {
+                // the tail may hold the start of a delimiter split across reads
+                available = limit - pos - (delimiter.length - 1);
+            }
+            if (available == 0 && found >= 0) {
+                pos += delimiter.length;
+                finished = true;
+                return -1;
+            }
+            int count = Math.min(length, available);
+            System.arraycopy(buffer, pos, target, offset, count);
+            pos += count;
+            return count;
+        }
+    }
+}
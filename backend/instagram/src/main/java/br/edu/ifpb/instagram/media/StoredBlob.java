@@ -0,0 +1,4 @@
+package br.edu.ifpb.instagram.media;
+
+// content written by MediaStorage: hex SHA-256 and size in bytes
+public record StoredBlob(String sha256, long sizeBytes) { }
@@ -0,0 +1,225 @@
+package br.edu.ifpb.instagram.media;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.exception.MediaProcessingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates image variants on first request. Work runs on a fixed pool sized
+ * to the CPUs, fed by a priority queue bounded by a semaphore: a request for
+ * the caller's own upload jumps ahead of everyone else's, and once the queue
+ * is full new work is refused instead of piling up. Concurrent requests for
+ * the same variant share a single resize.
+ *
+ * An upload can be a small file that declares a huge image, so the size in
+ * its header is checked against {@code maxPixels} before anything is decoded,
+ * and large sources are decoded subsampled, at about twice the variant's size.
+ */
+@Component
+public class ThumbnailPipeline {
+
+    private final MediaStorage mediaStorage;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore queueSlots;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Timer queueWait;
+    private final Timer resizeTime;
+    private final Counter bytesSaved;
+    private final Counter rejected;
+
+    public ThumbnailPipeline(MediaStorage mediaStorage, MeterRegistry meterRegistry,
+            @Value("${instagram.thumbnails.workers:0}") int workers,
+            @Value("${instagram.thumbnails.queue-capacity:256}") int queueCapacity,
+            @Value("${instagram.thumbnails.max-pixels:100000000}") long maxPixels) {
+        this.mediaStorage = mediaStorage;
+        this.maxPixels = maxPixels;
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.queueSlots = new Semaphore(queueCapacity);
+
+        this.queueWait = Timer.builder("instagram.thumbnails.queue.wait")
+                .description("Time a resize waited in the queue")
+                .register(meterRegistry);
+        this.resizeTime = Timer.builder("instagram.thumbnails.resize")
+                .description("Time to decode, resize and encode one variant")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("instagram.thumbnails.bytes.saved")
+                .description("Original size minus variant size, summed over generated variants")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("instagram.thumbnails.rejected")
+                .description("Resizes refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("instagram.thumbnails.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes with the variant's file, generating it if needed.
+     *
+     * @throws MediaProcessingBusyException when the queue is full
+     */
+    public CompletableFuture<Path> variant(String sha256, String contentType, ImageVariant variant, boolean priority) {
+        String format = ImageVariant.formatFor(contentType);
+        Path target = mediaStorage.locateVariant(sha256, variant, format);
+        if (Files.exists(target)) {
+            return CompletableFuture.completedFuture(target);
+        }
+
+        String key = sha256 + ":" + variant.id();
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        if (!queueSlots.tryAcquire()) {
+            inFlight.remove(key, created);
+            rejected.increment();
+            throw new MediaProcessingBusyException("Image processing queue is full, try again shortly");
+        }
+
+        executor.execute(new ResizeTask(priority, sequence.incrementAndGet(), () -> {
+            try {
+                created.complete(generate(sha256, variant, format, target));
+            } catch (Exception | LinkageError e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        }));
+        return created;
+    }
+
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Path generate(String sha256, ImageVariant variant, String format, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return target;
+        }
+        Path original = mediaStorage.locate(sha256);
+        Timer.Sample sample = Timer.start();
+        BufferedImage source = decode(original, variant);
+        BufferedImage resized = ImageResizer.resize(source, variant, "png".equals(format));
+
+        Path temp = mediaStorage.createTempFile();
+        try {
+            ImageResizer.write(resized, format, temp);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        sample.stop(resizeTime);
+
+        long saved = Files.size(original) - Files.size(target);
+        if (saved > 0) {
+            bytesSaved.increment(saved);
+        }
+        return target;
+    }
+
+    private BufferedImage decode(Path original, ImageVariant variant) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Media is not a decodable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is " + width + "x" + height
+                            + ", over the limit of " + maxPixels + " pixels");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = subsampling(width, height, variant);
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // keeps the decoded side the variant is cut from at twice its width or more, for the halving steps
+    static int subsampling(int width, int height, ImageVariant variant) {
+        int side = variant.square() ? Math.min(width, height) : width;
+        return Math.max(1, side / (2 * variant.width()));
+    }
+
+    // higher priority first, then submission order
+    private final class ResizeTask implements Runnable, Comparable<ResizeTask> {
+
+        private final boolean priority;
+        private final long sequence;
+        private final long enqueuedAt = System.nanoTime();
+        private final Runnable work;
+
+        ResizeTask(boolean priority, long sequence, Runnable work) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            queueSlots.release();
+            queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            work.run();
+        }
+
+        @Override
+        public int compareTo(ResizeTask other) {
+            if (priority != other.priority) {
+                return priority ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
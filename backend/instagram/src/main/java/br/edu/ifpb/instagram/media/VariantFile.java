@@ -0,0 +1,5 @@
+package br.edu.ifpb.instagram.media;
+
+import java.nio.file.Path;
+
+public record VariantFile(Path path, String contentType, String etag) { }
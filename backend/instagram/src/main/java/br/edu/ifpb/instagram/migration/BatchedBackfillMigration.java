@@ -0,0 +1,74 @@
+package br.edu.ifpb.instagram.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base for data migrations that rewrite rows of a large table. Rows are visited
+ * in primary key order and every batch is committed on its own, so locks are held
+ * for one batch at a time and the table stays writable while the backfill runs.
+ */
+public abstract class BatchedBackfillMigration extends BaseJavaMigration {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    protected int batchSize() {
+        return 500;
+    }
+
+    // pause between batches to leave room for regular traffic and replication
+    protected long pauseMillis() {
+        return 0;
+    }
+
+    /**
+     * Processes up to {@code limit} rows with a key greater than {@code afterKey}.
+     */
+    protected abstract Batch processBatch(Connection connection, long afterKey, int limit) throws SQLException;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        long afterKey = Long.MIN_VALUE;
+        long batches = 0;
+        long updated = 0;
+        try {
+            while (true) {
+                Batch batch = processBatch(connection, afterKey, batchSize());
+                connection.commit();
+                if (batch.scanned() == 0) {
+                    break;
+                }
+                batches++;
+                updated += batch.updated();
+                afterKey = batch.lastKey();
+
+                if (pauseMillis() > 0) {
+                    Thread.sleep(pauseMillis());
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        log.info("{}: updated {} rows in {} batches", getClass().getSimpleName(), updated, batches);
+    }
+
+    protected record Batch(int scanned, int updated, long lastKey) { }
+}
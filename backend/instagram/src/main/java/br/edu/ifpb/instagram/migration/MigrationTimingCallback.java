@@ -0,0 +1,65 @@
+package br.edu.ifpb.instagram.migration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// picked up by FlywayAutoConfiguration; logs how long each migration took
+@Component
+public class MigrationTimingCallback implements Callback {
+
+    private static final Logger log = LoggerFactory.getLogger(MigrationTimingCallback.class);
+
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE
+                || event == Event.AFTER_EACH_MIGRATE
+                || event == Event.AFTER_EACH_MIGRATE_ERROR;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        MigrationInfo migration = context.getMigrationInfo();
+        if (migration == null) {
+            return;
+        }
+        String name = describe(migration);
+
+        if (event == Event.BEFORE_EACH_MIGRATE) {
+            startedAt.put(name, System.nanoTime());
+            return;
+        }
+
+        Long start = startedAt.remove(name);
+        long elapsedMillis = start == null ? -1 : (System.nanoTime() - start) / 1_000_000;
+        if (event == Event.AFTER_EACH_MIGRATE) {
+            log.info("Migration {} applied in {} ms", name, elapsedMillis);
+        } else {
+            log.error("Migration {} failed after {} ms", name, elapsedMillis);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "migration-timing";
+    }
+
+    private static String describe(MigrationInfo migration) {
+        String version = migration.getVersion() != null ? "V" + migration.getVersion() : "R";
+        return version + " " + migration.getDescription();
+    }
+}
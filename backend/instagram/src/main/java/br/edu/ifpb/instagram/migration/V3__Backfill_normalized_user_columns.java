@@ -0,0 +1,46 @@
+package br.edu.ifpb.instagram.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import br.edu.ifpb.instagram.service.impl.UserFieldNormalizer;
+
+public class V3__Backfill_normalized_user_columns extends BatchedBackfillMigration {
+
+    private static final String SELECT_PENDING =
+            "SELECT id, username, email FROM users " +
+            "WHERE id > ? AND (username_normalized IS NULL OR email_normalized IS NULL) " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_NORMALIZED =
+            "UPDATE users SET username_normalized = ?, email_normalized = ? WHERE id = ?";
+
+    @Override
+    protected Batch processBatch(Connection connection, long afterKey, int limit) throws SQLException {
+        int scanned = 0;
+        long lastKey = afterKey;
+
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PENDING);
+             PreparedStatement update = connection.prepareStatement(UPDATE_NORMALIZED)) {
+            select.setLong(1, afterKey);
+            select.setInt(2, limit);
+
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    lastKey = rs.getLong("id");
+                    update.setString(1, UserFieldNormalizer.normalize(rs.getString("username")));
+                    update.setString(2, UserFieldNormalizer.normalize(rs.getString("email")));
+                    update.setLong(3, lastKey);
+                    update.addBatch();
+                    scanned++;
+                }
+            }
+            if (scanned > 0) {
+                update.executeBatch();
+            }
+        }
+        return new Batch(scanned, scanned, lastKey);
+    }
+}
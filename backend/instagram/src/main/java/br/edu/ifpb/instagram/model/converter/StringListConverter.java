@@ -0,0 +1,31 @@
+package br.edu.ifpb.instagram.model.converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// stores short lists (e.g. media refs) in one column, so loading a post needs no extra query
+@Converter
+public class StringListConverter implements AttributeConverter<List<String>, String> {
+
+    static final String SEPARATOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return String.join(SEPARATOR, values);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(column.split(SEPARATOR)));
+    }
+}
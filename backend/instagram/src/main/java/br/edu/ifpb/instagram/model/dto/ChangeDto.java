@@ -0,0 +1,12 @@
+package br.edu.ifpb.instagram.model.dto;
+
+import java.time.Instant;
+
+// payload is the JSON recorded with the change
+public record ChangeDto(
+    long cursor,
+    String entity,
+    long entityId,
+    String type,
+    String payload,
+    Instant createdAt) { }
@@ -0,0 +1,13 @@
+package br.edu.ifpb.instagram.model.dto;
+
+import java.time.Instant;
+
+public record CommentDto(
+    Long id,
+    Long postId,
+    Long authorId,
+    UserSummaryDto author,
+    Long parentId,
+    String body,
+    long replyCount,
+    Instant createdAt) { }
@@ -0,0 +1,8 @@
+package br.edu.ifpb.instagram.model.dto;
+
+import java.util.List;
+
+// nextCursor is null when there are no more items
+public record CursorPage<T>(
+    List<T> items,
+    Long nextCursor) { }
@@ -0,0 +1,6 @@
+package br.edu.ifpb.instagram.model.dto;
+
+public record FollowStatsDto(
+    Long userId,
+    long followers,
+    long following) { }
@@ -0,0 +1,6 @@
+package br.edu.ifpb.instagram.model.dto;
+
+public record LikeStatsDto(
+    Long postId,
+    long likes,
+    boolean likedByMe) { }
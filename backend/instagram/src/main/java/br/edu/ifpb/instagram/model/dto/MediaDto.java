@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.model.dto;
+
+import java.time.Instant;
+
+public record MediaDto(
+    Long id,
+    Long ownerId,
+    String sha256,
+    String contentType,
+    long sizeBytes,
+    Instant createdAt) { }
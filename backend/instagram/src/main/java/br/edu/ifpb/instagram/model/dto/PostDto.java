@@ -0,0 +1,12 @@
+package br.edu.ifpb.instagram.model.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record PostDto(
+    Long id,
+    Long authorId,
+    UserSummaryDto author,
+    String caption,
+    List<String> mediaRefs,
+    Instant createdAt) { }
@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.model.dto;
+
+// username and fullName for users, authorId and caption for posts
+public record SearchHitDto(
+    String type,
+    Long id,
+    float score,
+    String username,
+    String fullName,
+    Long authorId,
+    String caption) { }
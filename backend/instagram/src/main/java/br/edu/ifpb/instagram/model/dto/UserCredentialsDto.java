@@ -0,0 +1,4 @@
+package br.edu.ifpb.instagram.model.dto;
+
+public record UserCredentialsDto(Long id, String username, String encryptedPassword) {
+}
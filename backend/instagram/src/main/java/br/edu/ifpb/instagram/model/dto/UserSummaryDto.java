@@ -0,0 +1,6 @@
+package br.edu.ifpb.instagram.model.dto;
+
+public record UserSummaryDto(
+    Long id,
+    String username,
+    String fullName) { }
@@ -0,0 +1,91 @@
+package br.edu.ifpb.instagram.model.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import br.edu.ifpb.instagram.model.id.SnowflakeId;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity(name = "comments")
+@Table(indexes = {
+    @Index(name = "ix_comments_thread", columnList = "post_id, parent_id, id"),
+    @Index(name = "ix_comments_author_id", columnList = "author_id"),
+    @Index(name = "ix_comments_parent_id", columnList = "parent_id")
+})
+public class CommentEntity implements Serializable {
+
+    @Id
+    @SnowflakeId
+    private long id;
+
+    @Column(name = "post_id", nullable = false)
+    private long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private long authorId;
+
+    // null for top-level comments; replies always point at a top-level comment
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @Column(nullable = false, length = 2200)
+    private String body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(long postId) {
+        this.postId = postId;
+    }
+
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(long authorId) {
+        this.authorId = authorId;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+}
@@ -0,0 +1,57 @@
+package br.edu.ifpb.instagram.model.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+@Entity(name = "follows")
+@IdClass(FollowId.class)
+public class FollowEntity implements Serializable, Persistable<FollowId> {
+
+    @Id
+    private long followerId;
+
+    @Id
+    private long followeeId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public FollowEntity() {
+    }
+
+    public FollowEntity(long followerId, long followeeId, Instant createdAt) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.createdAt = createdAt;
+    }
+
+    public long getFollowerId() {
+        return followerId;
+    }
+
+    public long getFolloweeId() {
+        return followeeId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public FollowId getId() {
+        return new FollowId(followerId, followeeId);
+    }
+
+    // rows are only ever inserted or deleted, so save() can always persist without a select first
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package br.edu.ifpb.instagram.model.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class FollowId implements Serializable {
+
+    private long followerId;
+    private long followeeId;
+
+    public FollowId() {
+    }
+
+    public FollowId(long followerId, long followeeId) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+    }
+
+    public long getFollowerId() {
+        return followerId;
+    }
+
+    public long getFolloweeId() {
+        return followeeId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FollowId other)) {
+            return false;
+        }
+        return followerId == other.followerId && followeeId == other.followeeId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(followerId, followeeId);
+    }
+}
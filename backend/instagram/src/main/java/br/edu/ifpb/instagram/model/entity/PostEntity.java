@@ -0,0 +1,103 @@
+package br.edu.ifpb.instagram.model.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import br.edu.ifpb.instagram.model.converter.StringListConverter;
+import br.edu.ifpb.instagram.model.id.SnowflakeId;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+@Entity(name = "posts")
+@Table(indexes = @Index(name = "ix_posts_author_id", columnList = "author_id, id"))
+public class PostEntity implements Serializable {
+
+    @Id
+    @SnowflakeId
+    private long id;
+
+    // written through authorId; the association is only used for navigation in queries
+    @Column(name = "author_id", nullable = false)
+    private long authorId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", insertable = false, updatable = false)
+    private UserEntity author;
+
+    @Column(length = 2200)
+    private String caption;
+
+    @Convert(converter = StringListConverter.class)
+    @Column(length = 2000)
+    private List<String> mediaRefs = new ArrayList<>();
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // maintained by LikeFlusher with relative updates; never written from here
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long likeCount;
+
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(long authorId) {
+        this.authorId = authorId;
+    }
+
+    public UserEntity getAuthor() {
+        return author;
+    }
+
+    public String getCaption() {
+        return caption;
+    }
+
+    public void setCaption(String caption) {
+        this.caption = caption;
+    }
+
+    public List<String> getMediaRefs() {
+        return mediaRefs;
+    }
+
+    public void setMediaRefs(List<String> mediaRefs) {
+        this.mediaRefs = mediaRefs;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+}
@@ -0,0 +1,41 @@
+package br.edu.ifpb.instagram.model.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// rows are written in batches by LikeStore; the entity only describes the table
+@Entity(name = "post_likes")
+@IdClass(PostLikeId.class)
+@Table(indexes = @Index(name = "ix_post_likes_user_id", columnList = "user_id, post_id"))
+public class PostLikeEntity implements Serializable {
+
+    @Id
+    @Column(name = "post_id")
+    private long postId;
+
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public long getPostId() {
+        return postId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,42 @@
+package br.edu.ifpb.instagram.model.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class PostLikeId implements Serializable {
+
+    private long postId;
+    private long userId;
+
+    public PostLikeId() {
+    }
+
+    public PostLikeId(long postId, long userId) {
+        this.postId = postId;
+        this.userId = userId;
+    }
+
+    public long getPostId() {
+        return postId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PostLikeId other)) {
+            return false;
+        }
+        return postId == other.postId && userId == other.userId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(postId, userId);
+    }
+}
@@ -2,16 +2,17 @@ package br.edu.ifpb.instagram.model.entity;
 
 import java.io.Serializable;
 
+import br.edu.ifpb.instagram.model.id.SnowflakeId;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 
 @Entity(name = "users")
 public class UserEntity implements Serializable {
 
     @Id
-    @GeneratedValue
+    @SnowflakeId
     private long id;
 
     @Column(nullable = false, length = 100)
@@ -26,6 +27,13 @@ public class UserEntity implements Serializable {
     @Column(nullable = false, length = 120, unique = true)
     private String email;
 
+    // lowercase copies used by every case-insensitive lookup, so they can hit a unique index
+    @Column(length = 50, unique = true)
+    private String usernameNormalized;
+
+    @Column(length = 120, unique = true)
+    private String emailNormalized;
+
 
     public long getId() {
         return id;
@@ -67,4 +75,20 @@ public class UserEntity implements Serializable {
         this.email = email;
     }
 
+    public String getUsernameNormalized() {
+        return usernameNormalized;
+    }
+
+    public void setUsernameNormalized(String usernameNormalized) {
+        this.usernameNormalized = usernameNormalized;
+    }
+
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+
+    public void setEmailNormalized(String emailNormalized) {
+        this.emailNormalized = emailNormalized;
+    }
+
 }
@@ -0,0 +1,57 @@
+package br.edu.ifpb.instagram.model.id;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+public final class NodeIdResolver {
+
+    public static final String NODE_ID_PROPERTY = "instagram.id.node-id";
+    public static final String NODE_ID_ENV = "INSTAGRAM_NODE_ID";
+
+    private NodeIdResolver() {
+    }
+
+    /**
+     * Resolves the node id from the given setting, the instagram.id.node-id system
+     * property or the INSTAGRAM_NODE_ID variable, falling back to a hash of the host name.
+     */
+    public static long resolve(Object configured) {
+        String value = configured != null ? configured.toString() : null;
+        if (isBlank(value)) {
+            value = System.getProperty(NODE_ID_PROPERTY);
+        }
+        if (isBlank(value)) {
+            value = System.getenv(NODE_ID_ENV);
+        }
+        if (!isBlank(value)) {
+            try {
+                return validate(Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid node id: " + value, e);
+            }
+        }
+        return fromHostName();
+    }
+
+    static long fromHostName() {
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            hostName = "localhost";
+        }
+        return Math.floorMod(hostName.hashCode(), SnowflakeIdGenerator.MAX_NODE_ID + 1);
+    }
+
+    private static long validate(long nodeId) {
+        if (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                    "Node id must be between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID + ": " + nodeId);
+        }
+        return nodeId;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,104 @@
+package br.edu.ifpb.instagram.model.id;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS},
+ * 10 bits of node id and 12 bits of per-millisecond sequence.
+ *
+ * The last issued (timestamp, sequence) pair lives in a single {@link AtomicLong},
+ * so concurrent callers only ever retry a CAS and never block each other.
+ */
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    // how far the wall clock may go backwards before we refuse to issue ids
+    static final long DEFAULT_MAX_BACKWARD_MILLIS = 5_000L;
+
+    private static final Map<Long, SnowflakeIdGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final long maxBackwardMillis;
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis, DEFAULT_MAX_BACKWARD_MILLIS);
+    }
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock, long maxBackwardMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.maxBackwardMillis = maxBackwardMillis;
+    }
+
+    /**
+     * Shared generator per node id, so every entity on this node draws from
+     * the same sequence and ids stay unique across tables.
+     */
+    public static SnowflakeIdGenerator forNode(long nodeId) {
+        return GENERATORS.computeIfAbsent(nodeId, SnowflakeIdGenerator::new);
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long last = state.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long next;
+
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // same millisecond, or the clock stepped back: keep counting on the
+                // last timestamp so ids stay monotonic instead of repeating
+                if (lastTimestamp - now > maxBackwardMillis) {
+                    throw new IllegalStateException("Clock moved backwards by "
+                            + (lastTimestamp - now) + " ms, refusing to generate ids");
+                }
+                long sequence = (last & MAX_SEQUENCE) + 1;
+                if (sequence > MAX_SEQUENCE) {
+                    // sequence exhausted for this millisecond, wait for the clock
+                    Thread.onSpinWait();
+                    continue;
+                }
+                next = last + 1;
+            }
+
+            if (state.compareAndSet(last, next)) {
+                return compose(next >>> SEQUENCE_BITS, nodeId, next & MAX_SEQUENCE);
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    static long compose(long timestamp, long nodeId, long sequence) {
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
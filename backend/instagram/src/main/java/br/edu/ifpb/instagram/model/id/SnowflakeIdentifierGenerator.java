@@ -0,0 +1,29 @@
+package br.edu.ifpb.instagram.model.id;
+
+import java.lang.reflect.Member;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+
+// instantiated through Spring's bean container, so it needs a no-arg constructor
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator, AnnotationBasedGenerator<SnowflakeId> {
+
+    private SnowflakeIdGenerator generator;
+
+    @Override
+    public void initialize(SnowflakeId config, Member member, GeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(NodeIdResolver.NODE_ID_PROPERTY);
+        this.generator = SnowflakeIdGenerator.forNode(NodeIdResolver.resolve(configured));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
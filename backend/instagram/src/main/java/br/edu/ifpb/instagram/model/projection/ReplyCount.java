@@ -0,0 +1,8 @@
+package br.edu.ifpb.instagram.model.projection;
+
+// number of replies of one top-level comment
+public interface ReplyCount {
+
+    Long getParentId();
+    long getReplies();
+}
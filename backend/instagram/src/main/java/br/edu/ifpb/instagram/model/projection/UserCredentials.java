@@ -0,0 +1,9 @@
+package br.edu.ifpb.instagram.model.projection;
+
+// only the columns needed to authenticate, served by the ix_users_login covering index
+public interface UserCredentials {
+
+    Long getId();
+    String getUsername();
+    String getEncryptedPassword();
+}
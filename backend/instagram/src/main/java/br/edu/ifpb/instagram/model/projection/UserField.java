@@ -0,0 +1,63 @@
+package br.edu.ifpb.instagram.model.projection;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+// the user properties a caller may pick with fields=, each with its UserEntity attribute
+public enum UserField {
+
+    ID("id"),
+    FULL_NAME("fullName"),
+    USERNAME("username"),
+    EMAIL("email");
+
+    private static final Map<Set<UserField>, Set<UserField>> SELECTIONS = new ConcurrentHashMap<>();
+
+    private final String property;
+    private final SerializedString jsonName;
+
+    UserField(String property) {
+        this.property = property;
+        this.jsonName = new SerializedString(property);
+    }
+
+    public String property() {
+        return property;
+    }
+
+    // the name with its encoded bytes computed once, for the serializers
+    public SerializedString jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter, in any order, into the
+     * shared instance for that selection; null when the parameter is absent.
+     * Anything outside the whitelist, or an empty list, is an
+     * IllegalArgumentException.
+     */
+    public static Set<UserField> parse(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        EnumSet<UserField> selected = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            selected.add(of(name.trim()));
+        }
+        return SELECTIONS.computeIfAbsent(selected, Collections::unmodifiableSet);
+    }
+
+    private static UserField of(String property) {
+        for (UserField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("fields must be a comma-separated list of id, fullName, username, email");
+    }
+}
@@ -0,0 +1,9 @@
+package br.edu.ifpb.instagram.model.projection;
+
+// public profile columns used when listing many users at once
+public interface UserSummary {
+
+    Long getId();
+    String getUsername();
+    String getFullName();
+}
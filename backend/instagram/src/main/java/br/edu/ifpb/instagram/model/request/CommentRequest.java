@@ -0,0 +1,6 @@
+package br.edu.ifpb.instagram.model.request;
+
+// parentId answers an existing comment; replies to a reply join the same thread
+public record CommentRequest(
+    String body,
+    Long parentId) { }
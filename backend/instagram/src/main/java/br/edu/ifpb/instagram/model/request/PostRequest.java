@@ -0,0 +1,7 @@
+package br.edu.ifpb.instagram.model.request;
+
+import java.util.List;
+
+public record PostRequest(
+    String caption,
+    List<String> mediaRefs) { }
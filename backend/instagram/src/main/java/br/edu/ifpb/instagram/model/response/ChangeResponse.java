@@ -0,0 +1,13 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+public record ChangeResponse(
+    long cursor,
+    String entity,
+    long entityId,
+    String type,
+    @JsonRawValue String data,
+    Instant createdAt) { }
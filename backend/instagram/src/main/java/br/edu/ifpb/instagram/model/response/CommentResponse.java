@@ -0,0 +1,12 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.time.Instant;
+
+public record CommentResponse(
+    Long id,
+    Long postId,
+    UserSummaryResponse author,
+    Long parentId,
+    String body,
+    long replyCount,
+    Instant createdAt) { }
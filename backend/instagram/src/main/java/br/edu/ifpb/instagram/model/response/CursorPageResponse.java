@@ -0,0 +1,7 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+    List<T> items,
+    Long nextCursor) { }
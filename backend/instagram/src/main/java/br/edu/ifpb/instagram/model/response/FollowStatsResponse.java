@@ -0,0 +1,7 @@
+package br.edu.ifpb.instagram.model.response;
+
+public record FollowStatsResponse(
+    Long userId,
+    long followers,
+    long following,
+    boolean followedByMe) { }
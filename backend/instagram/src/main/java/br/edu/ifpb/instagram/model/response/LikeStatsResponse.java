@@ -0,0 +1,6 @@
+package br.edu.ifpb.instagram.model.response;
+
+public record LikeStatsResponse(
+    Long postId,
+    long likes,
+    boolean likedByMe) { }
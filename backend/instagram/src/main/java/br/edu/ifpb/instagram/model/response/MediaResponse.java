@@ -0,0 +1,10 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.time.Instant;
+
+public record MediaResponse(
+    Long id,
+    String sha256,
+    String contentType,
+    long sizeBytes,
+    Instant createdAt) { }
@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.time.Instant;
+
+// data of a notification event; postId and commentId are null when they do not apply
+public record NotificationResponse(
+    String type,
+    UserSummaryResponse actor,
+    Long postId,
+    Long commentId,
+    Instant createdAt) { }
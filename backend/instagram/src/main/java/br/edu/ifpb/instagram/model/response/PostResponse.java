@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.time.Instant;
+import java.util.List;
+
+public record PostResponse(
+    Long id,
+    UserSummaryResponse author,
+    String caption,
+    List<String> mediaRefs,
+    Instant createdAt) { }
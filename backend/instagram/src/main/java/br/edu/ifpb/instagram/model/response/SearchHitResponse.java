@@ -0,0 +1,11 @@
+package br.edu.ifpb.instagram.model.response;
+
+// type is "user" or "post"; username and fullName are null for posts, authorId and caption for users
+public record SearchHitResponse(
+    String type,
+    Long id,
+    float score,
+    String username,
+    String fullName,
+    Long authorId,
+    String caption) { }
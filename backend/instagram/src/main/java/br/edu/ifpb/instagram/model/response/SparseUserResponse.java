@@ -0,0 +1,48 @@
+package br.edu.ifpb.instagram.model.response;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import br.edu.ifpb.instagram.model.projection.UserField;
+
+// a UserDetailsResponse narrowed to the fields= the caller asked for; the others are left out, not written as null
+@JsonSerialize(using = SparseUserResponse.Serializer.class)
+public record SparseUserResponse(
+    UserDetailsResponse user,
+    Set<UserField> fields) {
+
+    static final class Serializer extends StdSerializer<SparseUserResponse> {
+
+        Serializer() {
+            super(SparseUserResponse.class);
+        }
+
+        @Override
+        public void serialize(SparseUserResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            UserDetailsResponse user = value.user();
+            gen.writeStartObject(value);
+            for (UserField field : value.fields()) {
+                gen.writeFieldName(field.jsonName());
+                switch (field) {
+                    case ID -> {
+                        if (user.id() == null) {
+                            gen.writeNull();
+                        } else {
+                            gen.writeNumber(user.id());
+                        }
+                    }
+                    case FULL_NAME -> gen.writeString(user.fullName());
+                    case USERNAME -> gen.writeString(user.username());
+                    case EMAIL -> gen.writeString(user.email());
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package br.edu.ifpb.instagram.model.response;
+
+public record UserSummaryResponse(
+    Long id,
+    String username,
+    String fullName) { }
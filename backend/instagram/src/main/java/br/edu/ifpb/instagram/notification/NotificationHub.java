@@ -0,0 +1,373 @@
+package br.edu.ifpb.instagram.notification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Open server-sent event streams, by user. Each stream is an async request
+ * written through a non-blocking {@link WriteListener}: an idle connection
+ * holds no thread, and here only a subscriber object whose queue is not even
+ * allocated until something is published for its user.
+ *
+ * Frames are written by a small pool, or by the container when a socket that
+ * was full drains; whoever publishes never touches a socket. A subscriber
+ * that lets {@code queue-capacity} frames pile up has its backlog replaced by
+ * a {@code resync} event and is disconnected; the client reconnects and
+ * reloads what it shows instead of the server buffering for it. Heartbeats
+ * keep proxies from closing quiet streams and surface dead connections.
+ */
+@Component
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    static final byte[] HELLO = "retry: 5000\n\n".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] RESYNC = "event: resync\ndata: {}\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Subscriber[] NONE = new Subscriber[0];
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int queueCapacity;
+    private final ConcurrentHashMap<Long, Subscriber[]> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter published;
+    private final Counter resyncs;
+
+    @Autowired
+    public NotificationHub(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${instagram.notifications.workers:2}") int workers,
+            @Value("${instagram.notifications.queue-capacity:64}") int queueCapacity) {
+        this(objectMapper, meterRegistry, queueCapacity, newExecutor(workers));
+    }
+
+    NotificationHub(ObjectMapper objectMapper, MeterRegistry meterRegistry, int queueCapacity,
+            ExecutorService executor) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Notification queues must hold at least one event");
+        }
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+
+        this.published = Counter.builder("instagram.notifications.published")
+                .description("Events written to at least one open stream")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("instagram.notifications.resyncs")
+                .description("Streams dropped for falling behind")
+                .register(meterRegistry);
+        Gauge.builder("instagram.notifications.connections", connections, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    // unbounded, but drains are at most one per connection and routing tasks one per write
+    private static ExecutorService newExecutor(int workers) {
+        int threads = Math.max(1, workers);
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notifications-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Keeps {@code context} open as the event stream of {@code userId}. The
+     * response must already carry the event-stream headers.
+     */
+    public void subscribe(long userId, AsyncContext context) throws IOException {
+        Subscriber subscriber = new Subscriber(userId, context);
+        context.setTimeout(0);
+        context.addListener(subscriber);
+        subscriber.offer(HELLO);
+        subscribers.compute(userId, (id, current) -> {
+            Subscriber[] grown = Arrays.copyOf(current == null ? NONE : current, current == null ? 1 : current.length + 1);
+            grown[grown.length - 1] = subscriber;
+            return grown;
+        });
+        connections.incrementAndGet();
+        try {
+            // the container calls onWritePossible once it is done with this request thread
+            subscriber.out.setWriteListener(subscriber);
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+    }
+
+    public boolean isSubscribed(long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * Queues {@code payload} as a {@code type} event on every stream of
+     * {@code userId}. Returns false when the user has none open.
+     */
+    public boolean publish(long userId, String type, Object payload) {
+        Subscriber[] targets = subscribers.get(userId);
+        if (targets == null) {
+            return false;
+        }
+        byte[] frame = frame(type, payload);
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(frame);
+        }
+        published.increment();
+        return true;
+    }
+
+    // closes every stream of the user, e.g. when the account is deleted
+    public void disconnect(long userId) {
+        Subscriber[] targets = subscribers.get(userId);
+        if (targets != null) {
+            for (Subscriber subscriber : targets) {
+                subscriber.close();
+            }
+        }
+    }
+
+    // runs on the notification workers; used to resolve recipients off the request thread
+    void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    /**
+     * Sends a heartbeat on streams that were quiet since the previous run and
+     * closes streams that were told to resync a run ago but never took it.
+     */
+    @Scheduled(fixedDelayString = "${instagram.notifications.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber[] targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                subscriber.beat();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber[] targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                subscriber.close();
+            }
+        }
+        executor.shutdown();
+    }
+
+    private byte[] frame(String type, Object payload) {
+        try {
+            // the default mapper never writes line breaks, so the payload fits on one data line
+            String data = objectMapper.writeValueAsString(payload);
+            return ("event: " + type + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize " + type + " notification", e);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, current) -> {
+            int index = Arrays.asList(current).indexOf(subscriber);
+            if (index < 0) {
+                return current;
+            }
+            if (current.length == 1) {
+                return null;
+            }
+            Subscriber[] shrunk = new Subscriber[current.length - 1];
+            System.arraycopy(current, 0, shrunk, 0, index);
+            System.arraycopy(current, index + 1, shrunk, index, current.length - index - 1);
+            return shrunk;
+        });
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+
+        final long userId;
+        final AsyncContext context;
+        final ServletOutputStream out;
+
+        // guarded by this
+        private ArrayDeque<byte[]> queue;
+        private boolean started;
+        private boolean scheduled;
+        private boolean unflushed;
+        private boolean active;
+        private boolean closing;
+        private boolean closed;
+
+        Subscriber(long userId, AsyncContext context) throws IOException {
+            this.userId = userId;
+            this.context = context;
+            this.out = context.getResponse().getOutputStream();
+        }
+
+        void offer(byte[] frame) {
+            boolean schedule;
+            synchronized (this) {
+                if (closed || closing) {
+                    return;
+                }
+                if (queue == null) {
+                    queue = new ArrayDeque<>(4);
+                }
+                if (queue.size() >= queueCapacity) {
+                    queue.clear();
+                    queue.add(RESYNC);
+                    closing = true;
+                    resyncs.increment();
+                } else {
+                    queue.add(frame);
+                }
+                if (frame != HEARTBEAT) {
+                    active = true;
+                }
+                schedule = started && !scheduled;
+                scheduled |= schedule;
+            }
+            if (schedule) {
+                execute(this::drain);
+            }
+        }
+
+        void beat() {
+            boolean stuck;
+            synchronized (this) {
+                // a stream still closing at the next beat is not reading at all
+                stuck = closing && !active;
+                boolean idle = !active;
+                active = false;
+                if (!stuck && !idle) {
+                    return;
+                }
+            }
+            if (stuck) {
+                close();
+            } else {
+                offer(HEARTBEAT);
+            }
+        }
+
+        private void drain() {
+            synchronized (this) {
+                scheduled = false;
+                write();
+            }
+        }
+
+        // writes while the socket takes data; when it does not, the container calls onWritePossible later
+        private void write() {
+            if (closed) {
+                return;
+            }
+            boolean finished = false;
+            try {
+                while (out.isReady()) {
+                    byte[] frame = queue == null ? null : queue.poll();
+                    if (frame != null) {
+                        out.write(frame);
+                        unflushed = true;
+                    } else if (unflushed) {
+                        out.flush();
+                        unflushed = false;
+                    } else {
+                        finished = closing;
+                        break;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                finished = true;
+            }
+            if (finished) {
+                execute(this::close);
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue = null;
+            }
+            remove(this);
+            connections.decrementAndGet();
+            try {
+                context.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container
+            }
+        }
+
+        @Override
+        public synchronized void onWritePossible() {
+            started = true;
+            write();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Notification stream of user {} failed", userId, t);
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
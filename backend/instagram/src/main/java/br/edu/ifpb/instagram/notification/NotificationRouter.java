@@ -0,0 +1,137 @@
+package br.edu.ifpb.instagram.notification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.edu.ifpb.instagram.event.CommentChangedEvent;
+import br.edu.ifpb.instagram.event.FollowChangedEvent;
+import br.edu.ifpb.instagram.event.LikeChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.response.NotificationResponse;
+import br.edu.ifpb.instagram.model.response.UserSummaryResponse;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.service.UserService;
+
+/**
+ * Turns follows, likes and comments into notifications for the user they
+ * concern. Recipients and actors are looked up on the hub's workers, and only
+ * while someone is connected, so the request that caused the event never waits
+ * on it and nothing is queried for users without an open stream.
+ */
+@Component
+public class NotificationRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRouter.class);
+
+    // a post's author never changes; the cache is simply dropped when it grows past this
+    static final int MAX_CACHED_POSTS = 100_000;
+
+    private final NotificationHub notificationHub;
+    private final PostRepository postRepository;
+    private final UserService userService;
+    private final ConcurrentHashMap<Long, Long> postAuthors = new ConcurrentHashMap<>();
+
+    public NotificationRouter(NotificationHub notificationHub, PostRepository postRepository,
+            UserService userService) {
+        this.notificationHub = notificationHub;
+        this.postRepository = postRepository;
+        this.userService = userService;
+    }
+
+    @EventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (event.following()) {
+            route(() -> notify(event.followeeId(), event.followerId(), "follow", null, null));
+        }
+    }
+
+    @EventListener
+    public void onLikeChanged(LikeChangedEvent event) {
+        if (event.liked()) {
+            route(() -> postAuthor(event.postId())
+                    .ifPresent(authorId -> notify(authorId, event.userId(), "like", event.postId(), null)));
+        }
+    }
+
+    @EventListener
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.type() != CommentChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        Long repliedToAuthorId = event.repliedToAuthorId();
+        route(() -> {
+            if (repliedToAuthorId != null) {
+                notify(repliedToAuthorId, event.authorId(), "reply", event.postId(), event.commentId());
+            }
+            // whoever is answered hears it once, as a reply
+            postAuthor(event.postId())
+                    .filter(authorId -> !authorId.equals(repliedToAuthorId))
+                    .ifPresent(authorId -> notify(authorId, event.authorId(), "comment", event.postId(),
+                            event.commentId()));
+        });
+    }
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.type() == PostChangedEvent.ChangeType.DELETED) {
+            postAuthors.remove(event.postId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.ChangeType.DELETED) {
+            notificationHub.disconnect(event.userId());
+        }
+    }
+
+    private void route(Runnable task) {
+        if (notificationHub.connections() == 0) {
+            return;
+        }
+        notificationHub.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Could not route notification", e);
+            }
+        });
+    }
+
+    private void notify(long recipientId, long actorId, String type, Long postId, Long commentId) {
+        if (recipientId == actorId || !notificationHub.isSubscribed(recipientId)) {
+            return;
+        }
+        UserSummaryDto actor = userService.findSummaries(List.of(actorId)).get(actorId);
+        UserSummaryResponse actorResponse = actor == null
+                ? null
+                : new UserSummaryResponse(actor.id(), actor.username(), actor.fullName());
+        notificationHub.publish(recipientId, type,
+                new NotificationResponse(type, actorResponse, postId, commentId, Instant.now()));
+    }
+
+    private Optional<Long> postAuthor(long postId) {
+        Long authorId = postAuthors.get(postId);
+        if (authorId != null) {
+            return Optional.of(authorId);
+        }
+        Optional<Long> found = postRepository.findAuthorIdById(postId);
+        found.ifPresent(id -> {
+            if (postAuthors.size() >= MAX_CACHED_POSTS) {
+                postAuthors.clear();
+            }
+            postAuthors.put(postId, id);
+        });
+        return found;
+    }
+}
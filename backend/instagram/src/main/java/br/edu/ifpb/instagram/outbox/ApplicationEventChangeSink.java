@@ -0,0 +1,27 @@
+package br.edu.ifpb.instagram.outbox;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.event.ChangesRelayedEvent;
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+
+// relays to in-process listeners, which see each batch once it is committed and in order
+@Component
+public class ApplicationEventChangeSink implements ChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventChangeSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void accept(List<ChangeDto> changes, long watermark) {
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new ChangesRelayedEvent(changes));
+        }
+    }
+}
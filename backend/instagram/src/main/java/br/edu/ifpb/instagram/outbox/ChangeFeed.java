@@ -0,0 +1,235 @@
+package br.edu.ifpb.instagram.outbox;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.exception.ChangeCursorExpiredException;
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+
+/**
+ * Serves GET /changes. The latest {@code feed-capacity} relayed changes are
+ * kept in a ring, so consumers that keep up never touch the database; a
+ * cursor older than the ring is read from outbox_events, never past the
+ * relay's watermark. Consumers that are fully caught up wait on a future that
+ * the next relayed batch completes. Rows older than {@code retention} are
+ * deleted, and a cursor that fell behind them is refused rather than served
+ * with a hole in it.
+ */
+@Component
+public class ChangeFeed implements ChangeSink {
+
+    static final int MAX_PAGE_SIZE = 500;
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final Clock clock;
+    private final Duration retention;
+
+    // guarded by this
+    private final ChangeDto[] recent;
+    private int head;
+    private int size;
+    // recent holds every change after coveredFrom up to watermark; both -1 until the relay first runs
+    private long coveredFrom = -1;
+    private long watermark = -1;
+    private long purgedUpTo;
+    private final List<Waiter> waiters = new ArrayList<>();
+
+    @Autowired
+    public ChangeFeed(OutboxEventRepository outboxEventRepository,
+            @Value("${instagram.outbox.feed-capacity:10000}") int capacity,
+            @Value("${instagram.outbox.retention:P7D}") Duration retention) {
+        this(outboxEventRepository, capacity, retention, Clock.systemUTC());
+    }
+
+    ChangeFeed(OutboxEventRepository outboxEventRepository, int capacity, Duration retention, Clock clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The change feed must keep at least one change");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.recent = new ChangeDto[capacity];
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Changes after {@code since}, oldest first. The next cursor is never
+     * null: on a short page it is the watermark, which can be past the last
+     * change when rolled back ids were skipped.
+     *
+     * @throws ChangeCursorExpiredException when changes after {@code since} were already deleted
+     */
+    public CursorPage<ChangeDto> read(long since, int limit) {
+        int pageSize = pageSize(limit);
+        long upTo;
+        synchronized (this) {
+            if (since < purgedUpTo) {
+                throw new ChangeCursorExpiredException("Changes after " + since
+                        + " are no longer retained; rescan and continue from a recent cursor");
+            }
+            if (watermark >= 0 && since >= coveredFrom) {
+                return page(fromMemory(since, pageSize), pageSize, since, watermark);
+            }
+            upTo = watermark;
+        }
+        if (upTo <= since) {
+            return new CursorPage<>(List.of(), since);
+        }
+        List<ChangeDto> changes = outboxEventRepository.findPage(since, upTo, Limit.of(pageSize)).stream()
+                .map(OutboxRelay::toDto)
+                .toList();
+        return page(changes, pageSize, since, upTo);
+    }
+
+    private static CursorPage<ChangeDto> page(List<ChangeDto> changes, int pageSize, long since, long upTo) {
+        long next = changes.size() == pageSize ? changes.get(changes.size() - 1).cursor() : Math.max(since, upTo);
+        return new CursorPage<>(changes, next);
+    }
+
+    /**
+     * Like {@link #read}, but when the watermark has not passed {@code since}
+     * the future completes once the relay moves it. Callers that stop waiting
+     * call {@link #cancel}.
+     */
+    public CompletableFuture<CursorPage<ChangeDto>> await(long since, int limit) {
+        CursorPage<ChangeDto> page = read(since, limit);
+        if (page.nextCursor() > since) {
+            return CompletableFuture.completedFuture(page);
+        }
+        Waiter waiter = new Waiter(since, limit);
+        synchronized (this) {
+            if (watermark <= since) {
+                waiters.add(waiter);
+                return waiter.future;
+            }
+        }
+        // the relay moved in between
+        return CompletableFuture.completedFuture(read(since, limit));
+    }
+
+    public synchronized void cancel(CompletableFuture<CursorPage<ChangeDto>> future) {
+        waiters.removeIf(waiter -> waiter.future == future);
+    }
+
+    public synchronized long watermark() {
+        return watermark;
+    }
+
+    public synchronized int waiting() {
+        return waiters.size();
+    }
+
+    @Override
+    public void accept(List<ChangeDto> changes, long upTo) {
+        boolean first;
+        synchronized (this) {
+            first = watermark < 0;
+        }
+        Long minId = first ? outboxEventRepository.findMinId() : null;
+
+        List<Waiter> woken = new ArrayList<>();
+        synchronized (this) {
+            if (first) {
+                coveredFrom = upTo;
+                purgedUpTo = minId == null ? 0 : minId - 1;
+            }
+            for (ChangeDto change : changes) {
+                if (size == recent.length) {
+                    coveredFrom = recent[head].cursor();
+                    recent[head] = null;
+                    head = (head + 1) % recent.length;
+                    size--;
+                }
+                recent[(head + size) % recent.length] = change;
+                size++;
+            }
+            watermark = upTo;
+            for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+                Waiter waiter = iterator.next();
+                if (waiter.since < upTo) {
+                    iterator.remove();
+                    woken.add(waiter);
+                }
+            }
+        }
+        for (Waiter waiter : woken) {
+            try {
+                waiter.future.complete(read(waiter.since, waiter.limit));
+            } catch (RuntimeException e) {
+                waiter.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    // deletes in small batches so retention never holds long locks on the table writers append to
+    @Scheduled(fixedDelayString = "${instagram.outbox.cleanup-interval-ms:3600000}")
+    public void purge() {
+        long below;
+        synchronized (this) {
+            below = watermark;
+        }
+        if (below < 0) {
+            return;
+        }
+        Instant before = clock.instant().minus(retention);
+        while (outboxEventRepository.deleteBatchBefore(before, below, DELETE_BATCH_SIZE) == DELETE_BATCH_SIZE) {
+            // keep going
+        }
+        Long minId = outboxEventRepository.findMinId();
+        synchronized (this) {
+            purgedUpTo = minId == null ? purgedUpTo : Math.max(purgedUpTo, minId - 1);
+        }
+    }
+
+    private List<ChangeDto> fromMemory(long since, int pageSize) {
+        // cursors only grow, so the first change after since is found by binary search
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (recent[(head + middle) % recent.length].cursor() <= since) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int end = Math.min(size, low + pageSize);
+        List<ChangeDto> page = new ArrayList<>(end - low);
+        for (int i = low; i < end; i++) {
+            page.add(recent[(head + i) % recent.length]);
+        }
+        return page;
+    }
+
+    static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static final class Waiter {
+
+        final long since;
+        final int limit;
+        final CompletableFuture<CursorPage<ChangeDto>> future = new CompletableFuture<>();
+
+        Waiter(long since, int limit) {
+            this.since = since;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package br.edu.ifpb.instagram.outbox;
+
+import java.util.List;
+
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+
+/**
+ * Where OutboxRelay delivers changes, in cursor order. Every ChangeSink bean
+ * is called from the relay thread, so implementations hand slow work off.
+ */
+public interface ChangeSink {
+
+    /**
+     * {@code watermark} is the cursor up to which every change has been
+     * delivered; it can move past the last change when rolled back ids are skipped.
+     */
+    void accept(List<ChangeDto> changes, long watermark);
+}
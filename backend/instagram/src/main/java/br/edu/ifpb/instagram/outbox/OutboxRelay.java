@@ -0,0 +1,195 @@
+package br.edu.ifpb.instagram.outbox;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Moves outbox rows to every {@link ChangeSink} in id order.
+ *
+ * AUTO_INCREMENT ids are taken at insert time but become visible at commit,
+ * so id 11 can show up while id 10 is still in flight. The relay therefore
+ * stops at the first missing id and only steps over it once the row after it
+ * is older than {@code gap-grace}: by then the missing id belongs to a
+ * transaction that rolled back. The watermark it publishes is the last id
+ * below which nothing can appear any more, which is what makes the feed's
+ * cursor safe to resume from. Assumes auto_increment_increment = 1.
+ *
+ * A transaction open for longer than the grace period breaks that guess. The
+ * ids stepped over are counted in {@code instagram.outbox.gaps.skipped},
+ * logged, and re-checked every {@code gap-grace} for {@code gap-horizon}
+ * (up to {@value #MAX_TRACKED_GAPS} of them); a row that turns up is appended
+ * again under a new id and relayed there, and the late original is deleted.
+ * Rows committing after the horizon, ids past the cap and gaps below the
+ * watermark found at startup are lost to the feed.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final int MAX_TRACKED_GAPS = 10_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<ChangeSink> sinks;
+    private final Clock clock;
+    private final Duration gapGrace;
+    private final Duration gapHorizon;
+    private final int batchSize;
+
+    private final Counter relayed;
+    private final Timer lag;
+    private final Counter gapsSkipped;
+    private final Counter gapsLate;
+
+    // relay thread only; -1 until the first run
+    private long watermark = -1;
+    // ids stepped over, with when; relay thread only
+    private final Map<Long, Instant> skipped = new LinkedHashMap<>();
+    private Instant nextRecheck = Instant.MIN;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<ChangeSink> sinks,
+            MeterRegistry meterRegistry,
+            @Value("${instagram.outbox.gap-grace:PT5S}") Duration gapGrace,
+            @Value("${instagram.outbox.gap-horizon:PT10M}") Duration gapHorizon,
+            @Value("${instagram.outbox.batch-size:500}") int batchSize) {
+        this(outboxEventRepository, sinks, meterRegistry, gapGrace, gapHorizon, batchSize, Clock.systemUTC());
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, List<ChangeSink> sinks, MeterRegistry meterRegistry,
+            Duration gapGrace, Duration gapHorizon, int batchSize, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.clock = clock;
+        this.gapGrace = gapGrace;
+        this.gapHorizon = gapHorizon;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("instagram.outbox.relayed")
+                .description("Outbox rows delivered to the change sinks")
+                .register(meterRegistry);
+        this.lag = Timer.builder("instagram.outbox.lag")
+                .description("Time from a change being written to it being relayed")
+                .register(meterRegistry);
+        this.gapsSkipped = Counter.builder("instagram.outbox.gaps.skipped")
+                .description("Outbox ids stepped over as rolled back after the grace period")
+                .register(meterRegistry);
+        this.gapsLate = Counter.builder("instagram.outbox.gaps.late")
+                .description("Stepped over outbox ids that committed later and were relayed again")
+                .register(meterRegistry);
+    }
+
+    public long watermark() {
+        return watermark;
+    }
+
+    @Scheduled(fixedDelayString = "${instagram.outbox.poll-interval-ms:200}")
+    public synchronized void relay() {
+        Instant now = clock.instant();
+        Instant settled = now.minus(gapGrace);
+        if (watermark < 0) {
+            // after a restart, rows older than the grace period are already final; the rest is relayed below
+            watermark = outboxEventRepository.findMaxIdBefore(settled);
+            deliver(List.of(), watermark);
+        }
+        recheckSkipped(now);
+        while (true) {
+            List<OutboxEventEntity> rows = outboxEventRepository.findPage(watermark, Long.MAX_VALUE,
+                    Limit.of(batchSize));
+            List<ChangeDto> batch = new ArrayList<>(rows.size());
+            long next = watermark;
+            for (OutboxEventEntity row : rows) {
+                if (row.getId() != next + 1) {
+                    if (!row.getCreatedAt().isBefore(settled)) {
+                        // an earlier id may still commit
+                        break;
+                    }
+                    skip(next + 1, row.getId() - 1, now);
+                }
+                batch.add(toDto(row));
+                next = row.getId();
+                lag.record(Duration.between(row.getCreatedAt(), now));
+            }
+            if (next == watermark) {
+                return;
+            }
+            watermark = next;
+            deliver(batch, next);
+            relayed.increment(batch.size());
+            if (rows.size() < batchSize || batch.size() < rows.size()) {
+                return;
+            }
+        }
+    }
+
+    private void skip(long from, long to, Instant now) {
+        gapsSkipped.increment(to - from + 1);
+        long tracked = 0;
+        for (long id = from; id <= to && skipped.size() < MAX_TRACKED_GAPS; id++) {
+            skipped.put(id, now);
+            tracked++;
+        }
+        log.warn("Outbox ids {} to {} did not commit within {}; relaying past them, {} re-checked for {}",
+                from, to, gapGrace, tracked, gapHorizon);
+    }
+
+    private void recheckSkipped(Instant now) {
+        if (skipped.isEmpty() || now.isBefore(nextRecheck)) {
+            return;
+        }
+        nextRecheck = now.plus(gapGrace);
+        Instant expired = now.minus(gapHorizon);
+        skipped.values().removeIf(skippedAt -> skippedAt.isBefore(expired));
+        if (skipped.isEmpty()) {
+            return;
+        }
+        for (OutboxEventEntity late : outboxEventRepository.findAllById(new ArrayList<>(skipped.keySet()))) {
+            skipped.remove(late.getId());
+            // appended at the position it committed at; created now, or a restart would take it as settled
+            // and step over whatever is still in flight below it
+            OutboxEventEntity copy = outboxEventRepository.save(new OutboxEventEntity(late.getAggregateType(),
+                    late.getAggregateId(), late.getChangeType(), late.getPayload(), now));
+            outboxEventRepository.delete(late);
+            gapsLate.increment();
+            log.warn("Outbox row {} committed after the relay stepped over it, {} after it was written;"
+                    + " relaying it again as {}", late.getId(), Duration.between(late.getCreatedAt(), now),
+                    copy.getId());
+        }
+    }
+
+    // a failing sink misses the batch but does not hold back the others
+    private void deliver(List<ChangeDto> batch, long upTo) {
+        for (ChangeSink sink : sinks) {
+            try {
+                sink.accept(batch, upTo);
+            } catch (RuntimeException e) {
+                log.warn("Change sink {} failed on {} changes up to {}", sink.getClass().getSimpleName(),
+                        batch.size(), upTo, e);
+            }
+        }
+    }
+
+    static ChangeDto toDto(OutboxEventEntity row) {
+        return new ChangeDto(row.getId(), row.getAggregateType(), row.getAggregateId(), row.getChangeType(),
+                row.getPayload(), row.getCreatedAt());
+    }
+}
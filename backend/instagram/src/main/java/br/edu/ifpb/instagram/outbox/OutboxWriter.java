@@ -0,0 +1,71 @@
+package br.edu.ifpb.instagram.outbox;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+/**
+ * Records user writes in outbox_events from inside the transaction that made
+ * them: the row commits or rolls back with the write, so the change feed can
+ * neither miss a committed change nor show one that never happened. Listeners
+ * run in the publisher's thread, and MANDATORY refuses to run without that
+ * transaction instead of silently committing on its own.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String USER = "user";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this(outboxEventRepository, objectMapper, Clock.systemUTC());
+    }
+
+    OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    // DELETED carries only the id; the password hash never leaves the users table
+    @EventListener
+    @Transactional(TxType.MANDATORY)
+    public void onUserChanged(UserChangedEvent event) {
+        UserDto user = event.user();
+        Object payload = event.type() == UserChangedEvent.ChangeType.DELETED
+                ? Map.of("id", user.id())
+                : new UserDetailsResponse(user.id(), user.fullName(), user.username(), user.email());
+        record(USER, event.userId(), event.type().name(), payload);
+    }
+
+    private void record(String aggregateType, long aggregateId, String changeType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + aggregateType + " change", e);
+        }
+        Instant now = clock.instant();
+        outboxEventRepository.save(new OutboxEventEntity(aggregateType, aggregateId, changeType, json, now));
+    }
+}
@@ -0,0 +1,62 @@
+package br.edu.ifpb.instagram.overload;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests of one route group in flight at its {@link GradientLimit}.
+ * Nothing waits for a slot: a request over the limit is refused at once, so
+ * one overloaded group cannot take every container thread and connection
+ * while it queues.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    final LongAdder accepted = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, GradientLimit limit) {
+        this.name = name;
+        this.limit = limit;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.limit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back. {@code sample} is false when the request's duration
+     * says nothing about how loaded the node is (it failed, or went async).
+     */
+    public void release(long startNanos, boolean sample) {
+        int before = inflight.getAndDecrement();
+        if (sample) {
+            long now = System.nanoTime();
+            limit.sample(now - startNanos, before, now);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.edu.ifpb.instagram.overload;
+
+/**
+ * Concurrency limit that follows latency, after the gradient limiter of
+ * Netflix's concurrency-limits. Completed requests are averaged per window
+ * into a short-term RTT, which is folded slowly into a long-term one. While
+ * the short-term RTT stays within {@code TOLERANCE} of the long-term one the
+ * limit grows by about its square root per window; past that it is scaled
+ * down by their ratio, at most halved per window.
+ *
+ * The limit only grows while at least half of it was in use, so a quiet
+ * period does not leave it at the maximum when a spike arrives.
+ */
+public class GradientLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    // windows averaged into the long-term RTT
+    private static final int LONG_WINDOWS = 100;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private volatile int limit;
+
+    // guarded by this
+    private double estimate;
+    private double longRtt;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max, got "
+                    + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.limit = initialLimit;
+        this.estimate = initialLimit;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Records one completed request: how long it took and how many requests
+     * were in flight when it finished, itself included.
+     */
+    public synchronized void sample(long rttNanos, int inflight, long now) {
+        if (windowSamples == 0) {
+            windowStart = now;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflight);
+        if (now - windowStart < windowNanos || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+
+        double shortRtt = Math.max(1, (double) windowRttSum / windowSamples);
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        // a long overload drags the long-term RTT up; pull it back once latency recovers
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        if (gradient == 1.0 && maxInflight < estimate / 2) {
+            return;
+        }
+        double target = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.max(minLimit, Math.min(maxLimit, estimate * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,158 @@
+package br.edu.ifpb.instagram.overload;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load before it reaches the controllers. Each request goes to one of
+ * three {@link Bulkhead}s: auth (signin and signup, which spend their time in
+ * BCrypt), reads (GET and HEAD) or writes (everything else). A request over its
+ * group's limit gets 503 at once instead of queueing on the Tomcat and Hikari
+ * pools that every group shares.
+ *
+ * The node as a whole also admits at most {@code nodeLimit} requests. The last
+ * {@code reservedForReads} of those slots go only to authenticated reads, so
+ * the node keeps serving its users while a signin storm or a write burst is
+ * being refused.
+ *
+ * Registered after Spring Security, so unauthenticated calls to protected
+ * routes are refused before they take a slot. Media transfers and admin
+ * exports are not limited here: they are bound by client bandwidth and have
+ * their own limits.
+ */
+public class OverloadFilter extends OncePerRequestFilter {
+
+    public static final String AUTH = "auth";
+    public static final String READS = "reads";
+    public static final String WRITES = "writes";
+
+    private static final List<String> EXCLUDED_PREFIXES = List.of("/media/", "/admin/", "/actuator/");
+
+    private final Bulkhead auth;
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+    private final int nodeLimit;
+    private final int reservedForReads;
+    private final AtomicInteger nodeInflight = new AtomicInteger();
+
+    public OverloadFilter(Bulkhead auth, Bulkhead reads, Bulkhead writes, int nodeLimit, int reservedForReads,
+            MeterRegistry meterRegistry) {
+        if (reservedForReads < 0 || reservedForReads >= nodeLimit) {
+            throw new IllegalArgumentException("reservedForReads must be in [0, nodeLimit), got " + reservedForReads);
+        }
+        this.auth = auth;
+        this.reads = reads;
+        this.writes = writes;
+        this.nodeLimit = nodeLimit;
+        this.reservedForReads = reservedForReads;
+
+        for (Bulkhead bulkhead : List.of(auth, reads, writes)) {
+            FunctionCounter.builder("instagram.overload.requests", bulkhead.accepted, LongAdder::sum)
+                    .tags("group", bulkhead.name(), "result", "accepted")
+                    .register(meterRegistry);
+            FunctionCounter.builder("instagram.overload.requests", bulkhead.rejected, LongAdder::sum)
+                    .tags("group", bulkhead.name(), "result", "rejected")
+                    .register(meterRegistry);
+            Gauge.builder("instagram.overload.inflight", bulkhead, Bulkhead::inflight)
+                    .tag("group", bulkhead.name())
+                    .register(meterRegistry);
+            Gauge.builder("instagram.overload.limit", bulkhead, Bulkhead::limit)
+                    .tag("group", bulkhead.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("instagram.overload.node.inflight", nodeInflight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Bulkhead bulkhead = bulkheadFor(request);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!tryAcquireNode(bulkhead == reads && authenticated())) {
+            bulkhead.rejected.increment();
+            reject(response);
+            return;
+        }
+        if (!bulkhead.tryAcquire()) {
+            nodeInflight.decrementAndGet();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sample = false;
+        try {
+            filterChain.doFilter(request, response);
+            // long polls and streams hold no thread once async, and their duration is not service time
+            sample = !request.isAsyncStarted();
+        } finally {
+            nodeInflight.decrementAndGet();
+            bulkhead.release(start, sample);
+        }
+    }
+
+    private Bulkhead bulkheadFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : EXCLUDED_PREFIXES) {
+            if (path.startsWith(prefix) || path.equals(prefix.substring(0, prefix.length() - 1))) {
+                return null;
+            }
+        }
+        if (path.startsWith("/auth/")) {
+            return auth;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? reads : writes;
+    }
+
+    private boolean tryAcquireNode(boolean priority) {
+        int allowed = priority ? nodeLimit : nodeLimit - reservedForReads;
+        while (true) {
+            int current = nodeInflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (nodeInflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean authenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Server is overloaded, try again later");
+    }
+}
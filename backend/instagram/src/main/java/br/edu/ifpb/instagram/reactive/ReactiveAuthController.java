@@ -0,0 +1,84 @@
+package br.edu.ifpb.instagram.reactive;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.audit.AuditLog;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.request.LoginRequest;
+import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.LoginResponse;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.impl.UserFieldNormalizer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// AuthController's contract; the password check and the token are computed on the crypto scheduler
+@RestController
+@RequestMapping("auth")
+@Profile(ReactiveInstagramApplication.PROFILE)
+public class ReactiveAuthController {
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveUserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtUtils jwtUtils;
+    private final Scheduler cryptoScheduler;
+    private final AuditLog auditLog;
+
+    public ReactiveAuthController(ReactiveUserRepository userRepository, ReactiveUserService userService,
+            PasswordEncoder passwordEncoder, JwtUtils jwtUtils,
+            @Qualifier("cryptoScheduler") Scheduler cryptoScheduler, AuditLog auditLog) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtils = jwtUtils;
+        this.cryptoScheduler = cryptoScheduler;
+        this.auditLog = auditLog;
+    }
+
+    // the token's subject is the stored username, as DaoAuthenticationProvider would set it. Both outcomes
+    // are audited from the crypto scheduler, where a full audit ring may block without stalling an event loop
+    @PostMapping("/signin")
+    public Mono<ResponseEntity<LoginResponse>> signIn(@RequestBody LoginRequest loginRequest) {
+        return userRepository.findCredentialsByUsernameNormalized(UserFieldNormalizer.normalize(loginRequest.username()))
+                .publishOn(cryptoScheduler)
+                .filter(credentials -> passwordEncoder.matches(loginRequest.password(), credentials.encryptedPassword()))
+                .map(credentials -> {
+                    auditLog.signinSucceeded(credentials.id(), credentials.username());
+                    return jwtUtils.generateToken(
+                            new UsernamePasswordAuthenticationToken(credentials.username(), null, List.of()));
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    auditLog.signinFailed(loginRequest.username());
+                    return Mono.error(new BadCredentialsException("Bad credentials"));
+                }))
+                .map(token -> ResponseEntity.ok(new LoginResponse(loginRequest.username(), token)));
+    }
+
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<UserDetailsResponse>> signUp(@RequestBody UserDetailsRequest userDetailsRequest) {
+        UserDto userDto = new UserDto(
+            null,
+            userDetailsRequest.fullName(),
+            userDetailsRequest.username(),
+            userDetailsRequest.email(),
+            userDetailsRequest.password(),
+            null
+        );
+        return userService.createUser(userDto)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(ReactiveUserController.toResponse(created)));
+    }
+}
@@ -0,0 +1,56 @@
+package br.edu.ifpb.instagram.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.edu.ifpb.instagram.audit.AuditLog;
+import br.edu.ifpb.instagram.config.NearCacheConfig;
+import br.edu.ifpb.instagram.model.id.NodeIdResolver;
+import br.edu.ifpb.instagram.model.id.SnowflakeIdGenerator;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// JwtUtils, the invalidation bus and the audit log are the servlet application's, so tokens, cache messages and
+// audit records are interchangeable
+@Configuration
+@Profile(ReactiveInstagramApplication.PROFILE)
+@Import({JwtUtils.class, NearCacheConfig.class, AuditLog.class})
+public class ReactiveConfig {
+
+    /**
+     * BCrypt and JWT work, off the event loops. Bounded in threads and queued
+     * tasks: past queue-capacity, work is refused (503) rather than piling up
+     * behind a signin storm. 0 threads = one per CPU, as BCrypt is CPU-bound.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler cryptoScheduler(
+            @Value("${instagram.reactive.crypto.threads:0}") int threads,
+            @Value("${instagram.reactive.crypto.queue-capacity:1000}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(size, queueCapacity, "crypto");
+    }
+
+    // Tomcat is on the classpath for InstagramApplication, and Boot would otherwise serve WebFlux from it
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(
+            @Value("${spring.jpa.properties.instagram.id.node-id:}") String nodeId) {
+        return SnowflakeIdGenerator.forNode(NodeIdResolver.resolve(nodeId));
+    }
+}
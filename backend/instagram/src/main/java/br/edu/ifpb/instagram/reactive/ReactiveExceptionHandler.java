@@ -0,0 +1,53 @@
+package br.edu.ifpb.instagram.reactive;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import br.edu.ifpb.instagram.exception.FieldAlreadyExistsException;
+import br.edu.ifpb.instagram.exception.UserNotFoundException;
+
+// the bodies and statuses RestExceptionHandler gives the same exceptions
+@RestControllerAdvice
+@Profile(ReactiveInstagramApplication.PROFILE)
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(FieldAlreadyExistsException.class)
+    public ResponseEntity<Object> handleFieldAlreadyExists(FieldAlreadyExistsException ex) {
+        Map<String, String> errorResponse = Map.of(
+            "error", "Conflict",
+            "message", ex.getMessage()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<String> handleUserNotFoundException(UserNotFoundException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<String> handleBadCredentialsException(BadCredentialsException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.UNAUTHORIZED);
+    }
+
+    // the crypto scheduler's queue is full: shed the signin or signup instead of queueing it
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecutionException(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body("Too many password checks in progress");
+    }
+}
@@ -0,0 +1,42 @@
+package br.edu.ifpb.instagram.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Edge variant of the user API on WebFlux, Netty and R2DBC: the same
+ * {@code /auth} and {@code /users} contracts as AuthController and
+ * UserController, for a tier that holds many slow mobile connections. No
+ * request holds a thread while it waits for the database or for a client to
+ * read. BCrypt and JWT run on the bounded {@code crypto} scheduler instead of
+ * the event loops.
+ *
+ * It shares the jar, the database and application.properties with
+ * InstagramApplication, plus application-reactive.properties. It only scans
+ * this package and never migrates the schema; the servlet nodes own Flyway.
+ * User writes go to outbox_events in the same transaction and invalidate the
+ * near caches of the servlet nodes, so GET /changes and cached reads there see
+ * them too. Signins and committed writes go to the same AuditLog.
+ *
+ * java -cp instagram.jar -Dloader.main=br.edu.ifpb.instagram.reactive.ReactiveInstagramApplication
+ *     org.springframework.boot.loader.launch.PropertiesLauncher
+ */
+@Profile(ReactiveInstagramApplication.PROFILE)
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, FlywayAutoConfiguration.class})
+public class ReactiveInstagramApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveInstagramApplication.class)
+                .profiles(PROFILE)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
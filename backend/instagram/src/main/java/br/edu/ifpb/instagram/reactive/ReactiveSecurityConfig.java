@@ -0,0 +1,114 @@
+package br.edu.ifpb.instagram.reactive;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.impl.UserFieldNormalizer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// InstagramSecurityConfig for WebFlux: stateless bearer tokens, the same public endpoints and status codes
+@Configuration
+@Profile(ReactiveInstagramApplication.PROFILE)
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+            ReactiveAuthenticationManager jwtAuthenticationManager) {
+        HttpStatusServerEntryPoint forbidden = new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN);
+
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager);
+        jwtFilter.setServerAuthenticationConverter(exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (!StringUtils.hasText(authHeader) || !StringUtils.startsWithIgnoreCase(authHeader, "Bearer ")) {
+                return Mono.empty();
+            }
+            String jwt = authHeader.substring(7);
+            return Mono.just(new UsernamePasswordAuthenticationToken(jwt, jwt));
+        });
+        // a full crypto scheduler is overload, not a bad token
+        jwtFilter.setAuthenticationFailureHandler((webFilterExchange, exception) -> {
+            if (exception.getCause() instanceof RejectedExecutionException) {
+                ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return response.setComplete();
+            }
+            return forbidden.commence(webFilterExchange.getExchange(), exception);
+        });
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http.csrf(csrf -> csrf.disable())
+                .cors(cors -> cors.configurationSource(request -> {
+                    CorsConfiguration corsConfig = new CorsConfiguration();
+                    corsConfig.setAllowedOrigins(List.of("http://localhost:3000"));
+                    corsConfig.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                    corsConfig.setAllowedHeaders(List.of("*"));
+                    corsConfig.setAllowCredentials(true);
+                    return corsConfig;
+                }))
+                .httpBasic(httpBasic -> httpBasic.disable())
+                .formLogin(formLogin -> formLogin.disable())
+                .logout(logout -> logout.disable())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(forbidden))
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/auth/signup", "/auth/signin").permitAll()
+                        // probes carry no token, as on the servlet nodes
+                        .pathMatchers("/actuator/health/**").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Checks the signature on the crypto scheduler, then that the user still
+     * exists, as JwtAuthenticationFilter does through UserDetailsServiceImpl.
+     * The principal is an AuthenticatedUser, so it carries the user id.
+     */
+    @Bean
+    public ReactiveAuthenticationManager jwtAuthenticationManager(JwtUtils jwtUtils,
+            ReactiveUserRepository userRepository, @Qualifier("cryptoScheduler") Scheduler cryptoScheduler) {
+        return authentication -> {
+            String jwt = (String) authentication.getCredentials();
+            return Mono.fromCallable(() -> jwtUtils.validateToken(jwt) ? jwtUtils.getUsernameFromToken(jwt) : null)
+                    .subscribeOn(cryptoScheduler)
+                    .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid token")))
+                    .flatMap(username -> userRepository
+                            .findCredentialsByUsernameNormalized(UserFieldNormalizer.normalize(username)))
+                    .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Unknown user")))
+                    .<Authentication>map(credentials -> {
+                        AuthenticatedUser user = new AuthenticatedUser(credentials.id(), credentials.username(),
+                                credentials.encryptedPassword(), List.of());
+                        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                    })
+                    .onErrorMap(e -> !(e instanceof AuthenticationException),
+                            e -> new BadCredentialsException("Invalid token", e));
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package br.edu.ifpb.instagram.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// UserController's contract; GET /users is written as it is read, as a JSON array or as NDJSON
+@RestController
+@RequestMapping("users")
+@Profile(ReactiveInstagramApplication.PROFILE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+    private final int pageSize;
+
+    public ReactiveUserController(ReactiveUserService userService,
+            @Value("${instagram.reactive.users.page-size:500}") int pageSize) {
+        this.userService = userService;
+        this.pageSize = pageSize;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UserDetailsResponse> getUsers() {
+        return userService.findAll(pageSize).map(ReactiveUserController::toResponse);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<UserDetailsResponse> getUser(@PathVariable Long id) {
+        return userService.findById(id).map(ReactiveUserController::toResponse);
+    }
+
+    @PutMapping
+    public Mono<UserDetailsResponse> updateUser(@RequestBody UserDetailsRequest userDetailsRequest) {
+        UserDto userDto = new UserDto(
+            userDetailsRequest.id(),
+            userDetailsRequest.fullName(),
+            userDetailsRequest.username(),
+            userDetailsRequest.email(),
+            userDetailsRequest.password(),
+            null
+        );
+        return userService.updateUser(userDto).map(ReactiveUserController::toResponse);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<String> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id).thenReturn("user was deleted!");
+    }
+
+    static UserDetailsResponse toResponse(UserDto userDto) {
+        return new UserDetailsResponse(userDto.id(), userDto.fullName(), userDto.username(), userDto.email());
+    }
+}
@@ -0,0 +1,153 @@
+package br.edu.ifpb.instagram.reactive;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ifpb.instagram.model.dto.UserCredentialsDto;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// the users and outbox_events queries of UserRepository and OutboxWriter, over R2DBC
+@Repository
+@Profile(ReactiveInstagramApplication.PROFILE)
+public class ReactiveUserRepository {
+
+    private static final String USER_COLUMNS = "id, full_name, username, email";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<UserDto> findById(long id) {
+        return databaseClient.sql("SELECT " + USER_COLUMNS + " FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Users in id order, one keyset page of {@code pageSize} at a time. A page
+     * is only queried once the subscriber has taken the one before it, so a
+     * slow client makes the node hold at most two pages, not the whole table.
+     */
+    public Flux<UserDto> findAll(int pageSize) {
+        return page(Long.MIN_VALUE, pageSize)
+                .expand(users -> users.size() < pageSize
+                        ? Mono.empty()
+                        : page(users.get(users.size() - 1).id(), pageSize))
+                .concatMapIterable(users -> users, 1);
+    }
+
+    // read in full as soon as it is subscribed: a pooled connection is taken on subscription, and
+    // collectList alone would keep it until the client asks for the rows
+    private Mono<List<UserDto>> page(long afterId, int pageSize) {
+        return Mono.fromFuture(() -> databaseClient
+                .sql("SELECT " + USER_COLUMNS + " FROM users WHERE id > :after ORDER BY id LIMIT :limit")
+                .bind("after", afterId)
+                .bind("limit", pageSize)
+                .map(ReactiveUserRepository::toUser)
+                .all()
+                .collectList()
+                .toFuture());
+    }
+
+    public Mono<UserCredentialsDto> findCredentialsByUsernameNormalized(String usernameNormalized) {
+        return databaseClient.sql("SELECT id, username, encrypted_password FROM users WHERE username_normalized = :u")
+                .bind("u", usernameNormalized)
+                .map(row -> new UserCredentialsDto(row.get("id", Long.class), row.get("username", String.class),
+                        row.get("encrypted_password", String.class)))
+                .one();
+    }
+
+    public Mono<String> findUsernameNormalizedById(long id) {
+        return databaseClient.sql("SELECT username_normalized FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("username_normalized", String.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsByUsernameNormalized(String usernameNormalized) {
+        return exists("SELECT 1 FROM users WHERE username_normalized = :value LIMIT 1", usernameNormalized);
+    }
+
+    public Mono<Boolean> existsByEmailNormalized(String emailNormalized) {
+        return exists("SELECT 1 FROM users WHERE email_normalized = :value LIMIT 1", emailNormalized);
+    }
+
+    private Mono<Boolean> exists(String sql, String value) {
+        return databaseClient.sql(sql).bind("value", value).map(row -> true).one().hasElement();
+    }
+
+    // usernameNormalized and emailNormalized are derived from the user by the caller
+    public Mono<Void> insert(UserDto user, String usernameNormalized, String emailNormalized) {
+        return databaseClient.sql("INSERT INTO users (id, full_name, username, encrypted_password, email,"
+                        + " username_normalized, email_normalized) VALUES (:id, :fullName, :username, :password,"
+                        + " :email, :usernameNormalized, :emailNormalized)")
+                .bind("id", user.id())
+                .bind("fullName", user.fullName())
+                .bind("username", user.username())
+                .bind("password", user.encryptedPassword())
+                .bind("email", user.email())
+                .bind("usernameNormalized", usernameNormalized)
+                .bind("emailNormalized", emailNormalized)
+                .then();
+    }
+
+    // the password hash is only written when the user sent a new password
+    public Mono<Long> update(UserDto user, String usernameNormalized, String emailNormalized) {
+        String sql = "UPDATE users SET full_name = :fullName, username = :username, email = :email,"
+                + " username_normalized = :usernameNormalized, email_normalized = :emailNormalized"
+                + (user.encryptedPassword() != null ? ", encrypted_password = :password" : "")
+                + " WHERE id = :id";
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql(sql)
+                .bind("id", user.id())
+                .bind("fullName", user.fullName())
+                .bind("username", user.username())
+                .bind("email", user.email())
+                .bind("usernameNormalized", usernameNormalized)
+                .bind("emailNormalized", emailNormalized);
+        if (user.encryptedPassword() != null) {
+            update = update.bind("password", user.encryptedPassword());
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    // before deleteById: the cascade on post_likes drops the rows but not the counts they added to
+    public Mono<Long> removeLikesOf(long userId) {
+        return databaseClient.sql("UPDATE posts SET like_count = like_count - 1"
+                        + " WHERE id IN (SELECT post_id FROM post_likes WHERE user_id = :userId)")
+                .bind("userId", userId)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id").bind("id", id).fetch().rowsUpdated();
+    }
+
+    public Mono<Void> insertOutboxEvent(String aggregateType, long aggregateId, String changeType, String payload,
+            Instant createdAt) {
+        return databaseClient.sql("INSERT INTO outbox_events (aggregate_type, aggregate_id, change_type, payload,"
+                        + " created_at) VALUES (:aggregateType, :aggregateId, :changeType, :payload, :createdAt)")
+                .bind("aggregateType", aggregateType)
+                .bind("aggregateId", aggregateId)
+                .bind("changeType", changeType)
+                .bind("payload", payload)
+                .bind("createdAt", LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC))
+                .then();
+    }
+
+    private static UserDto toUser(Readable row) {
+        return new UserDto(row.get("id", Long.class), row.get("full_name", String.class),
+                row.get("username", String.class), row.get("email", String.class), null, null);
+    }
+}
@@ -0,0 +1,192 @@
+package br.edu.ifpb.instagram.reactive;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpb.instagram.audit.AuditLog;
+import br.edu.ifpb.instagram.cache.Invalidation;
+import br.edu.ifpb.instagram.cache.InvalidationBus;
+import br.edu.ifpb.instagram.event.UserChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.exception.FieldAlreadyExistsException;
+import br.edu.ifpb.instagram.exception.UserNotFoundException;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.id.SnowflakeIdGenerator;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+import br.edu.ifpb.instagram.outbox.OutboxWriter;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.service.impl.UserFieldNormalizer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * UserServiceImpl over R2DBC: same checks, same messages, same outbox rows.
+ * Each write and its outbox_events row commit in one transaction, and the
+ * servlet nodes' near caches are invalidated through the bus once it commits,
+ * when the write also goes to the AuditLog with the caller from the reactive
+ * security context as actor. BCrypt runs on the crypto scheduler, never on an event loop, and before the
+ * transaction opens, so no pooled connection waits on it.
+ */
+@Service
+@Profile(ReactiveInstagramApplication.PROFILE)
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler cryptoScheduler;
+    private final SnowflakeIdGenerator idGenerator;
+    private final InvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+    private final AuditLog auditLog;
+    private final Clock clock;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository userRepository, TransactionalOperator transactionalOperator,
+            PasswordEncoder passwordEncoder, @Qualifier("cryptoScheduler") Scheduler cryptoScheduler,
+            SnowflakeIdGenerator idGenerator, InvalidationBus invalidationBus, ObjectMapper objectMapper,
+            AuditLog auditLog) {
+        this(userRepository, transactionalOperator, passwordEncoder, cryptoScheduler, idGenerator, invalidationBus,
+                objectMapper, auditLog, Clock.systemUTC());
+    }
+
+    ReactiveUserService(ReactiveUserRepository userRepository, TransactionalOperator transactionalOperator,
+            PasswordEncoder passwordEncoder, Scheduler cryptoScheduler, SnowflakeIdGenerator idGenerator,
+            InvalidationBus invalidationBus, ObjectMapper objectMapper, AuditLog auditLog, Clock clock) {
+        this.userRepository = userRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.passwordEncoder = passwordEncoder;
+        this.cryptoScheduler = cryptoScheduler;
+        this.idGenerator = idGenerator;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.auditLog = auditLog;
+        this.clock = clock;
+    }
+
+    public Mono<UserDto> createUser(UserDto userDto) {
+        String emailNormalized = UserFieldNormalizer.normalize(userDto.email());
+        String usernameNormalized = UserFieldNormalizer.normalize(userDto.username());
+
+        return encode(userDto.password()).flatMap(encryptedPassword -> {
+            UserDto stored = new UserDto(idGenerator.nextId(), userDto.fullName(), userDto.username(),
+                    userDto.email(), null, null);
+            UserDto row = new UserDto(stored.id(), stored.fullName(), stored.username(), stored.email(), null,
+                    encryptedPassword);
+            Mono<UserDto> create = userRepository.existsByEmailNormalized(emailNormalized)
+                    .flatMap(emailTaken -> emailTaken
+                            ? Mono.error(new FieldAlreadyExistsException("E-email already in use."))
+                            : userRepository.existsByUsernameNormalized(usernameNormalized))
+                    .flatMap(usernameTaken -> usernameTaken
+                            ? Mono.error(new FieldAlreadyExistsException("Username already in use."))
+                            : userRepository.insert(row, usernameNormalized, emailNormalized)
+                                    .then(recordChange(ChangeType.CREATED, stored))
+                                    .thenReturn(stored));
+            return transactionalOperator.transactional(create)
+                    .flatMap(created -> audit(ChangeType.CREATED, created.id(), created.username())
+                            .thenReturn(created));
+        });
+    }
+
+    public Mono<UserDto> updateUser(UserDto userDto) {
+        if (userDto == null || userDto.id() == null) {
+            return Mono.error(new IllegalArgumentException("UserDto or UserDto.id must not be null"));
+        }
+        boolean newPassword = userDto.password() != null && !userDto.password().trim().isEmpty();
+        Mono<Optional<String>> encryptedPassword = newPassword
+                ? encode(userDto.password()).map(Optional::of)
+                : Mono.just(Optional.empty());
+
+        return encryptedPassword.flatMap(hash -> {
+            UserDto row = new UserDto(userDto.id(), userDto.fullName(), userDto.username(), userDto.email(), null,
+                    hash.orElse(null));
+            UserDto updated = new UserDto(userDto.id(), userDto.fullName(), userDto.username(), userDto.email(),
+                    null, null);
+            Mono<String> update = userRepository.findUsernameNormalizedById(userDto.id())
+                    .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found with id: " + userDto.id())))
+                    .flatMap(oldUsernameNormalized -> userRepository.update(row,
+                                    UserFieldNormalizer.normalize(userDto.username()),
+                                    UserFieldNormalizer.normalize(userDto.email()))
+                            .then(recordChange(ChangeType.UPDATED, updated))
+                            .thenReturn(oldUsernameNormalized));
+            return transactionalOperator.transactional(update)
+                    .doOnSuccess(oldUsernameNormalized -> userChanged(userDto.id(), oldUsernameNormalized))
+                    .then(audit(ChangeType.UPDATED, updated.id(), updated.username()))
+                    .thenReturn(updated);
+        });
+    }
+
+    public Mono<Void> deleteUser(long id) {
+        Mono<String> delete = userRepository.findUsernameNormalizedById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found with id: " + id)))
+                .flatMap(usernameNormalized -> userRepository.removeLikesOf(id)
+                        .then(userRepository.deleteById(id))
+                        .then(recordChange(ChangeType.DELETED, new UserDto(id, null, null, null, null, null)))
+                        .thenReturn(usernameNormalized));
+        return transactionalOperator.transactional(delete)
+                .doOnSuccess(usernameNormalized -> userChanged(id, usernameNormalized))
+                .then(audit(ChangeType.DELETED, id, null));
+    }
+
+    public Mono<UserDto> findById(long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found with id: " + id)));
+    }
+
+    public Flux<UserDto> findAll(int pageSize) {
+        return userRepository.findAll(pageSize);
+    }
+
+    private Mono<String> encode(String password) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(password)).subscribeOn(cryptoScheduler);
+    }
+
+    // the same rows OutboxWriter writes for the servlet nodes
+    private Mono<Void> recordChange(ChangeType type, UserDto user) {
+        Object payload = type == ChangeType.DELETED
+                ? Map.of("id", user.id())
+                : new UserDetailsResponse(user.id(), user.fullName(), user.username(), user.email());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return Mono.error(new IllegalStateException("Could not serialize " + OutboxWriter.USER + " change", e));
+        }
+        return userRepository.insertOutboxEvent(OutboxWriter.USER, user.id(), type.name(), json, clock.instant());
+    }
+
+    // what AuditLog.onUserChanged records on the servlet nodes. Off the event loop, where a full audit ring
+    // may block; the actor is the authenticated caller, 0 for a signup
+    private Mono<Void> audit(ChangeType type, long userId, String username) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> context.getAuthentication() != null
+                        && context.getAuthentication().getPrincipal() instanceof AuthenticatedUser user
+                                ? user.getId()
+                                : 0L)
+                .defaultIfEmpty(0L)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(actorId -> auditLog.userChanged(type, userId, username, actorId))
+                .then();
+    }
+
+    // what UserCaches.userChanged sends after commit; this node keeps no caches of its own
+    private void userChanged(long id, String usernameNormalized) {
+        invalidationBus.publish(new Invalidation("users", String.valueOf(id)));
+        if (usernameNormalized != null) {
+            invalidationBus.publish(new Invalidation("credentials", usernameNormalized));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package br.edu.ifpb.instagram.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ifpb.instagram.model.entity.CommentEntity;
+import br.edu.ifpb.instagram.model.projection.ReplyCount;
+
+@Repository
+public interface CommentRepository extends CrudRepository<CommentEntity, Long> {
+
+    // keyset pages over ix_comments_thread (post_id, parent_id, id), newest first
+    @Query("SELECT c FROM comments c WHERE c.postId = :postId AND c.parentId IS NULL AND c.id < :cursor ORDER BY c.id DESC")
+    List<CommentEntity> findTopLevelPage(long postId, long cursor, Limit limit);
+
+    @Query("SELECT c.id FROM comments c WHERE c.postId = :postId AND c.parentId IS NULL AND c.id < :cursor ORDER BY c.id DESC")
+    List<Long> findTopLevelIds(long postId, long cursor, Limit limit);
+
+    // a thread reads top-down, so replies go oldest first
+    @Query("SELECT c FROM comments c WHERE c.postId = :postId AND c.parentId = :parentId AND c.id > :cursor ORDER BY c.id")
+    List<CommentEntity> findReplyPage(long postId, long parentId, long cursor, Limit limit);
+
+    // reply counts for a whole page in one query
+    @Query("SELECT c.parentId AS parentId, COUNT(c) AS replies FROM comments c WHERE c.parentId IN :parentIds GROUP BY c.parentId")
+    List<ReplyCount> countReplies(Collection<Long> parentIds);
+
+    @Query("SELECT c.parentId FROM comments c WHERE c.postId = :postId AND c.parentId IS NOT NULL " +
+           "GROUP BY c.parentId ORDER BY COUNT(c) DESC, c.parentId DESC")
+    List<Long> findMostRepliedIds(long postId, Limit limit);
+}
@@ -0,0 +1,25 @@
+package br.edu.ifpb.instagram.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ifpb.instagram.model.entity.FollowEntity;
+import br.edu.ifpb.instagram.model.entity.FollowId;
+
+@Repository
+public interface FollowRepository extends CrudRepository<FollowEntity, FollowId> {
+
+    // keyset pagination: cursor is the last id of the previous page
+    @Query("SELECT f.followerId FROM follows f WHERE f.followeeId = :userId AND f.followerId > :cursor ORDER BY f.followerId")
+    List<Long> findFollowerIds(long userId, long cursor, Limit limit);
+
+    @Query("SELECT f.followeeId FROM follows f WHERE f.followerId = :userId AND f.followeeId > :cursor ORDER BY f.followeeId")
+    List<Long> findFolloweeIds(long userId, long cursor, Limit limit);
+
+    long countByFolloweeId(long followeeId);
+    long countByFollowerId(long followerId);
+}
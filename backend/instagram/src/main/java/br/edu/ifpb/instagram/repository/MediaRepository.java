@@ -0,0 +1,14 @@
+package br.edu.ifpb.instagram.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ifpb.instagram.model.entity.MediaEntity;
+
+@Repository
+public interface MediaRepository extends CrudRepository<MediaEntity, Long> {
+
+    long countBySha256(String sha256);
+
+    boolean existsByOwnerIdAndSha256(long ownerId, String sha256);
+}
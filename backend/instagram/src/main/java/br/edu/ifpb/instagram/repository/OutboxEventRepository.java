@@ -0,0 +1,36 @@
+package br.edu.ifpb.instagram.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface OutboxEventRepository extends CrudRepository<OutboxEventEntity, Long> {
+
+    // primary key range scan; upTo keeps readers behind the relay's watermark
+    @Query("SELECT e FROM outbox_events e WHERE e.id > :after AND e.id <= :upTo ORDER BY e.id")
+    List<OutboxEventEntity> findPage(long after, long upTo, Limit limit);
+
+    // rows old enough that no transaction writing below them can still be open
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM outbox_events e WHERE e.createdAt < :before")
+    long findMaxIdBefore(Instant before);
+
+    @Query("SELECT MIN(e.id) FROM outbox_events e")
+    Long findMinId();
+
+    // rows at or above below are kept, so the table never runs empty and MIN(id) still says what was purged
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM outbox_events WHERE created_at < :before AND id < :below LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteBatchBefore(Instant before, long below, int batchSize);
+}
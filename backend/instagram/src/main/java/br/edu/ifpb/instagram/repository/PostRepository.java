@@ -0,0 +1,27 @@
+package br.edu.ifpb.instagram.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+
+@Repository
+public interface PostRepository extends CrudRepository<PostEntity, Long> {
+
+    // keyset pagination over ix_posts_author_id (author_id, id): cost does not depend on how deep the cursor is
+    @Query("SELECT p FROM posts p WHERE p.authorId = :authorId AND p.id < :cursor ORDER BY p.id DESC")
+    List<PostEntity> findTimelinePage(long authorId, long cursor, Limit limit);
+
+    // ids only: used to warm in-memory feeds and to page past what they hold
+    @Query("SELECT p.id FROM posts p WHERE p.authorId IN :authorIds AND p.id < :cursor ORDER BY p.id DESC")
+    List<Long> findIdsByAuthors(Collection<Long> authorIds, long cursor, Limit limit);
+
+    @Query("SELECT p.authorId FROM posts p WHERE p.id = :id")
+    Optional<Long> findAuthorIdById(long id);
+}
@@ -0,0 +1,13 @@
+package br.edu.ifpb.instagram.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.projection.UserField;
+
+public interface UserProjectionRepository {
+
+    // every user with only the given columns read; the rest of each UserDto is null
+    List<UserDto> findAllProjected(Set<UserField> fields);
+}
@@ -0,0 +1,45 @@
+package br.edu.ifpb.instagram.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.projection.UserField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+/**
+ * Selects just the requested columns, so a list of ids and usernames never
+ * reads names, emails or password hashes, nor builds an entity per row. With
+ * InnoDB that list is answered from the username index alone, which holds
+ * the primary key. The JPQL is built once per selection.
+ */
+class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    private final Map<Set<UserField>, String> queries = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserDto> findAllProjected(Set<UserField> fields) {
+        String jpql = queries.computeIfAbsent(fields, selected -> selected.stream()
+                .map(field -> "u." + field.property() + " AS " + field.property())
+                .collect(Collectors.joining(", ", "SELECT ", " FROM users u")));
+        return entityManager.createQuery(jpql, Tuple.class)
+                .getResultList()
+                .stream()
+                .map(row -> new UserDto(
+                        fields.contains(UserField.ID) ? row.get(UserField.ID.property(), Long.class) : null,
+                        fields.contains(UserField.FULL_NAME) ? row.get(UserField.FULL_NAME.property(), String.class) : null,
+                        fields.contains(UserField.USERNAME) ? row.get(UserField.USERNAME.property(), String.class) : null,
+                        fields.contains(UserField.EMAIL) ? row.get(UserField.EMAIL.property(), String.class) : null,
+                        null,
+                        null))
+                .toList();
+    }
+}
@@ -1,5 +1,6 @@
 package br.edu.ifpb.instagram.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,27 +10,39 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import br.edu.ifpb.instagram.model.entity.UserEntity;
+import br.edu.ifpb.instagram.model.projection.UserCredentials;
+import br.edu.ifpb.instagram.model.projection.UserSummary;
 import jakarta.transaction.Transactional;
 
 @Repository
-public interface UserRepository extends CrudRepository<UserEntity, Long> {
+public interface UserRepository extends CrudRepository<UserEntity, Long>, UserProjectionRepository {
 
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 
-    // Métodos case-insensitive
-    boolean existsByEmailIgnoreCase(String email);
-    boolean existsByUsernameIgnoreCase(String username);
+    // Métodos case-insensitive: recebem o valor já normalizado (UserFieldNormalizer)
+    boolean existsByEmailNormalized(String emailNormalized);
+    boolean existsByUsernameNormalized(String usernameNormalized);
 
     Optional<UserEntity> findByUsername(String username);
+    Optional<UserEntity> findByUsernameNormalized(String usernameNormalized);
+    Optional<UserCredentials> findCredentialsByUsernameNormalized(String usernameNormalized);
     List<UserEntity> findAll();
 
+    @Query("SELECT u.usernameNormalized FROM users u WHERE u.id = :id")
+    Optional<String> findUsernameNormalizedById(Long id);
+
+    // one IN query per page instead of one findById per row
+    List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
     @Modifying
     @Transactional
     @Query("UPDATE users u SET " +
            "u.fullName = COALESCE(:fullName, u.fullName), " +
            "u.email = COALESCE(:email, u.email), " +
            "u.username = COALESCE(:username, u.username), " +
+           "u.emailNormalized = COALESCE(LOWER(TRIM(:email)), u.emailNormalized), " +
+           "u.usernameNormalized = COALESCE(LOWER(TRIM(:username)), u.usernameNormalized), " +
            "u.encryptedPassword = COALESCE(:encryptedPassword, u.encryptedPassword) " +
            "WHERE u.id = :id")
     int updatePartialUser(
@@ -0,0 +1,295 @@
+package br.edu.ifpb.instagram.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiTermQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.edu.ifpb.instagram.model.dto.SearchHitDto;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Embedded Lucene index of users (username, full name) and post captions.
+ * Writes go to the IndexWriter's RAM buffer and become searchable at the next
+ * {@link #refresh()}, which reopens the reader on the writer without a commit
+ * (near-real-time); commits only happen every commit interval, and segments
+ * are merged on the writer's ConcurrentMergeScheduler threads, never on a
+ * request thread.
+ *
+ * Documents are keyed "user:id" / "post:id", so indexing a row again replaces
+ * it. The index is a copy of the database: each commit records whether the
+ * index was closed cleanly, and one that was not (first start, crash) is
+ * rebuilt by {@link SearchIndexer}.
+ */
+@Component
+public class SearchIndex implements Closeable {
+
+    static final int MAX_RESULTS = 50;
+    private static final int MAX_QUERY_TERMS = 8;
+    // shorter prefixes expand to too many terms to be worth matching as you type
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String AUTHOR = "author";
+    private static final String USERNAME = "username";
+    private static final String FULL_NAME = "fullName";
+    private static final String CAPTION = "caption";
+    private static final String[] FIELDS = {USERNAME, FULL_NAME, CAPTION};
+    private static final float[] BOOSTS = {3f, 2f, 1f};
+    private static final String CLEAN = "clean";
+
+    public static final String USER = "user";
+    public static final String POST = "post";
+
+    private final Analyzer analyzer = new FoldingAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean needsRebuild;
+
+    // a blank indexDir keeps the index in memory, rebuilt on every start
+    public SearchIndex(@Value("${instagram.search.index-dir:}") String indexDir,
+            @Value("${instagram.search.ram-buffer-mb:64}") double ramBufferMb) throws IOException {
+        if (indexDir.isBlank()) {
+            this.directory = new ByteBuffersDirectory();
+        } else {
+            this.directory = FSDirectory.open(Files.createDirectories(Path.of(indexDir)));
+        }
+        this.needsRebuild = !DirectoryReader.indexExists(directory)
+                || !"true".equals(SegmentInfos.readLatestCommit(directory).getUserData().get(CLEAN));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(ramBufferMb));
+        // until close() says otherwise, a crash leaves the index marked as needing a rebuild
+        writer.setLiveCommitData(Map.of(CLEAN, "false").entrySet());
+        writer.commit();
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public boolean needsRebuild() {
+        return needsRebuild;
+    }
+
+    void rebuilt() {
+        needsRebuild = false;
+    }
+
+    public void indexUser(long id, String username, String fullName) {
+        Document document = document(USER, id);
+        document.add(new TextField(USERNAME, username, Store.YES));
+        document.add(new TextField(FULL_NAME, fullName, Store.YES));
+        update(USER, id, document);
+    }
+
+    // a post without a caption has nothing to be found by
+    public void indexPost(long id, long authorId, String caption) {
+        if (caption == null || caption.isBlank()) {
+            deletePost(id);
+            return;
+        }
+        Document document = document(POST, id);
+        document.add(new StringField(AUTHOR, Long.toString(authorId), Store.NO));
+        document.add(new StoredField(AUTHOR, authorId));
+        document.add(new TextField(CAPTION, caption, Store.YES));
+        update(POST, id, document);
+    }
+
+    // the database deletes the user's posts with them, so their documents go too
+    public void deleteUser(long id) {
+        try {
+            writer.deleteDocuments(new Term(KEY, key(USER, id)), new Term(AUTHOR, Long.toString(id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove user " + id + " from the search index", e);
+        }
+    }
+
+    public void deletePost(long id) {
+        try {
+            writer.deleteDocuments(new Term(KEY, key(POST, id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove post " + id + " from the search index", e);
+        }
+    }
+
+    void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear the search index", e);
+        }
+    }
+
+    public int numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Every word of {@code text} has to match the username, full name or
+     * caption, in that order of weight; the last word also matches as a prefix
+     * so results show up while the user is still typing.
+     */
+    public List<SearchHitDto> search(String text, int limit) {
+        Query query = parse(text);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, Math.max(1, Math.min(limit, MAX_RESULTS)));
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHitDto> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not search the index", e);
+        }
+    }
+
+    // makes the writes since the last refresh searchable
+    @Scheduled(fixedDelayString = "${instagram.search.refresh-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not refresh the search index", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${instagram.search.commit-interval-ms:60000}")
+    public void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not commit the search index", e);
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.setLiveCommitData(Map.of(CLEAN, Boolean.toString(!needsRebuild)).entrySet());
+        writer.close();
+        directory.close();
+    }
+
+    Query parse(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean prefix = i == terms.size() - 1 && term.length() >= MIN_PREFIX_LENGTH;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (int f = 0; f < FIELDS.length; f++) {
+                anyField.add(new BoostQuery(new TermQuery(new Term(FIELDS[f], term)), BOOSTS[f]), Occur.SHOULD);
+                if (prefix) {
+                    // below the exact word, so "ana" ranks Ana above Anabela
+                    PrefixQuery prefixQuery = new PrefixQuery(new Term(FIELDS[f], term),
+                            new MultiTermQuery.TopTermsBlendedFreqScoringRewrite(MAX_PREFIX_TERMS));
+                    anyField.add(new BoostQuery(prefixQuery, BOOSTS[f] / 2), Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(CAPTION, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (terms.size() < MAX_QUERY_TERMS && stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private void update(String type, long id, Document document) {
+        try {
+            writer.updateDocument(new Term(KEY, key(type, id)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index " + key(type, id), e);
+        }
+    }
+
+    private static Document document(String type, long id) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(type, id), Store.NO));
+        document.add(new StoredField(TYPE, type));
+        document.add(new StoredField(ID, id));
+        return document;
+    }
+
+    private static String key(String type, long id) {
+        return type + ":" + id;
+    }
+
+    private static SearchHitDto toHit(Document document, float score) {
+        Number authorId = document.getField(AUTHOR) != null ? document.getField(AUTHOR).numericValue() : null;
+        return new SearchHitDto(
+                document.get(TYPE),
+                document.getField(ID).numericValue().longValue(),
+                score,
+                document.get(USERNAME),
+                document.get(FULL_NAME),
+                authorId != null ? authorId.longValue() : null,
+                document.get(CAPTION));
+    }
+}
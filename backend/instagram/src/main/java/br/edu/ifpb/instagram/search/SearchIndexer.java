@@ -0,0 +1,113 @@
+package br.edu.ifpb.instagram.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+
+/**
+ * Keeps {@link SearchIndex} in step with user and post writes, once they
+ * commit so a rolled-back write is never searchable. An index that needs a
+ * rebuild is refilled from the database in primary key order on a background
+ * thread; a row written while its batch is being read may keep the older
+ * version in the index until its next write.
+ */
+@Component
+public class SearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private static final String SELECT_USERS =
+            "SELECT id, username, full_name FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_POSTS =
+            "SELECT id, author_id, caption FROM posts WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final SearchIndex searchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public SearchIndexer(SearchIndex searchIndex, JdbcTemplate jdbcTemplate,
+            @Value("${instagram.search.rebuild-batch-size:10000}") int batchSize) {
+        this.searchIndex = searchIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        try {
+            if (event.type() == UserChangedEvent.ChangeType.DELETED) {
+                searchIndex.deleteUser(event.userId());
+            } else {
+                searchIndex.indexUser(event.userId(), event.user().username(), event.user().fullName());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not index user {}", event.userId(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        try {
+            if (event.type() == PostChangedEvent.ChangeType.DELETED) {
+                searchIndex.deletePost(event.postId());
+            } else {
+                searchIndex.indexPost(event.postId(), event.authorId(), event.post().caption());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not index post {}", event.postId(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!searchIndex.needsRebuild()) {
+            return;
+        }
+        Thread rebuilder = new Thread(this::rebuild, "search-index-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            searchIndex.deleteAll();
+            long users = copy(SELECT_USERS, rs -> searchIndex.indexUser(rs.getLong(1), rs.getString(2), rs.getString(3)));
+            long posts = copy(SELECT_POSTS, rs -> searchIndex.indexPost(rs.getLong(1), rs.getLong(2), rs.getString(3)));
+            searchIndex.commit();
+            searchIndex.refresh();
+            searchIndex.rebuilt();
+            log.info("Search index rebuilt: {} users, {} posts in {} ms", users, posts,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the search index, it will be rebuilt on next start", e);
+        }
+    }
+
+    // keyset batches on the primary key; the first column of each row is its id
+    private long copy(String sql, RowCallbackHandler handler) {
+        long[] last = {Long.MIN_VALUE};
+        long total = 0;
+        while (true) {
+            int[] rows = {0};
+            jdbcTemplate.query(sql, rs -> {
+                last[0] = rs.getLong(1);
+                handler.processRow(rs);
+                rows[0]++;
+            }, last[0], batchSize);
+            total += rows[0];
+            if (rows[0] < batchSize) {
+                return total;
+            }
+        }
+    }
+}
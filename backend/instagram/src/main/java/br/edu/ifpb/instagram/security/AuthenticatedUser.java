@@ -0,0 +1,22 @@
+package br.edu.ifpb.instagram.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+// principal set by JwtAuthenticationFilter; carries the user id so controllers don't look it up again
+public class AuthenticatedUser extends User {
+
+    private final long id;
+
+    public AuthenticatedUser(long id, String username, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,17 @@
+package br.edu.ifpb.instagram.service;
+
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.model.dto.CommentDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+
+@Service
+public interface CommentService {
+
+    enum Order { NEWEST, TOP }
+
+    CommentDto createComment(Long postId, Long authorId, String body, Long parentId);
+    CursorPage<CommentDto> findComments(Long postId, Order order, Long cursor, int limit);
+    CursorPage<CommentDto> findReplies(Long postId, Long commentId, Long cursor, int limit);
+    void deleteComment(Long postId, Long commentId, Long requesterId);
+}
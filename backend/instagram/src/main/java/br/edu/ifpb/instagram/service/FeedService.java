@@ -0,0 +1,12 @@
+package br.edu.ifpb.instagram.service;
+
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+
+@Service
+public interface FeedService {
+
+    CursorPage<PostDto> getFeed(Long userId, Long cursor, int limit);
+}
@@ -0,0 +1,18 @@
+package br.edu.ifpb.instagram.service;
+
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.FollowStatsDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+
+@Service
+public interface FollowService {
+
+    FollowStatsDto follow(Long followerId, Long followeeId);
+    FollowStatsDto unfollow(Long followerId, Long followeeId);
+    boolean isFollowing(Long followerId, Long followeeId);
+    FollowStatsDto getStats(Long userId);
+    CursorPage<UserSummaryDto> findFollowers(Long userId, Long cursor, int limit);
+    CursorPage<UserSummaryDto> findFollowing(Long userId, Long cursor, int limit);
+}
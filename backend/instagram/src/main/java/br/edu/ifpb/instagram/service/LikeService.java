@@ -0,0 +1,16 @@
+package br.edu.ifpb.instagram.service;
+
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.model.dto.LikeStatsDto;
+
+@Service
+public interface LikeService {
+
+    LikeStatsDto like(Long postId, Long userId);
+    LikeStatsDto unlike(Long postId, Long userId);
+    LikeStatsDto getStats(Long postId, Long requesterId);
+
+    // part of a user's deletion: runs in its transaction, before the user row goes
+    void removeLikesOf(Long userId);
+}
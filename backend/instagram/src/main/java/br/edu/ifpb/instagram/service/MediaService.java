@@ -0,0 +1,22 @@
+package br.edu.ifpb.instagram.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.media.VariantFile;
+import br.edu.ifpb.instagram.model.dto.MediaDto;
+
+@Service
+public interface MediaService {
+
+    MediaDto upload(Long ownerId, String contentType, InputStream content) throws IOException;
+    Optional<MediaDto> uploadDuplicate(Long ownerId, String contentType, String sha256) throws IOException;
+    MediaDto findById(Long id);
+    Path locate(MediaDto media);
+    VariantFile variant(Long id, String variant, Long requesterId);
+    void deleteMedia(Long id, Long requesterId) throws IOException;
+}
@@ -0,0 +1,19 @@
+package br.edu.ifpb.instagram.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+
+@Service
+public interface PostService {
+
+    PostDto createPost(PostDto post);
+    PostDto findById(Long id);
+    List<PostDto> findByIds(Collection<Long> ids);
+    CursorPage<PostDto> findTimeline(Long authorId, Long cursor, int limit);
+    void deletePost(Long id, Long requesterId);
+}
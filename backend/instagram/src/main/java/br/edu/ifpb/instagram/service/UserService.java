@@ -1,10 +1,15 @@
 package br.edu.ifpb.instagram.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
 import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.projection.UserField;
 
 @Service
 public interface UserService {
@@ -13,5 +18,7 @@ public interface UserService {
     UserDto updateUser(UserDto user);
     void deleteUser(Long id);
     List<UserDto> findAll();
+    List<UserDto> findAll(Set<UserField> fields);
     UserDto findById(Long id);
+    Map<Long, UserSummaryDto> findSummaries(Collection<Long> ids);
 }
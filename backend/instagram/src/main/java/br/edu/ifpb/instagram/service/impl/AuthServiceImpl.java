@@ -3,9 +3,12 @@ package br.edu.ifpb.instagram.service.impl;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
+import br.edu.ifpb.instagram.audit.AuditLog;
 import br.edu.ifpb.instagram.model.request.LoginRequest;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
 import br.edu.ifpb.instagram.security.JwtUtils;
 
 @Service
@@ -13,20 +16,31 @@ public class AuthServiceImpl {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final AuditLog auditLog;
 
-    public AuthServiceImpl(AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+    public AuthServiceImpl(AuthenticationManager authenticationManager, JwtUtils jwtUtils, AuditLog auditLog) {
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
+        this.auditLog = auditLog;
     }
 
     public String authenticate(LoginRequest loginRequest) {
 
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                loginRequest.username(),
-                loginRequest.password()
-            )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(
+                    loginRequest.username(),
+                    loginRequest.password()
+                )
+            );
+        } catch (AuthenticationException e) {
+            auditLog.signinFailed(loginRequest.username());
+            throw e;
+        }
+        auditLog.signinSucceeded(
+            authentication.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : 0,
+            authentication.getName());
 
         // Gera o token JWT para o usuário autenticado
         return jwtUtils.generateToken(authentication);
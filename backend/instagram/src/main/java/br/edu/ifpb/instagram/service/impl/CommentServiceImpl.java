@@ -0,0 +1,229 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.comment.TopComments;
+import br.edu.ifpb.instagram.event.CommentChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.exception.CommentNotFoundException;
+import br.edu.ifpb.instagram.exception.PostNotFoundException;
+import br.edu.ifpb.instagram.model.dto.CommentDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.entity.CommentEntity;
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+import br.edu.ifpb.instagram.model.projection.ReplyCount;
+import br.edu.ifpb.instagram.repository.CommentRepository;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.service.CommentService;
+import br.edu.ifpb.instagram.service.UserService;
+
+@Service
+public class CommentServiceImpl implements CommentService {
+
+    static final int MAX_BODY_LENGTH = 2200;
+    static final int MAX_PAGE_SIZE = 50;
+
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final UserService userService;
+    private final TopComments topComments;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CommentServiceImpl(CommentRepository commentRepository, PostRepository postRepository,
+            UserService userService, TopComments topComments, ApplicationEventPublisher eventPublisher) {
+        this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.userService = userService;
+        this.topComments = topComments;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CommentDto createComment(Long postId, Long authorId, String body, Long parentId) {
+        if (body == null || body.isBlank()) {
+            throw new IllegalArgumentException("Comment must not be empty");
+        }
+        if (body.length() > MAX_BODY_LENGTH) {
+            throw new IllegalArgumentException("Comment must have at most " + MAX_BODY_LENGTH + " characters");
+        }
+        requirePost(postId);
+
+        Long threadId = null;
+        Long repliedToAuthorId = null;
+        if (parentId != null) {
+            CommentEntity parent = findComment(postId, parentId);
+            // threads are one level deep: answering a reply answers its thread
+            threadId = parent.getParentId() != null ? parent.getParentId() : parent.getId();
+            repliedToAuthorId = parent.getAuthorId();
+        }
+
+        CommentEntity commentEntity = new CommentEntity();
+        commentEntity.setPostId(postId);
+        commentEntity.setAuthorId(authorId);
+        commentEntity.setParentId(threadId);
+        commentEntity.setBody(body);
+        commentEntity.setCreatedAt(Instant.now());
+
+        CommentEntity storedComment = commentRepository.save(commentEntity);
+        topComments.commentsChanged(postId);
+        CommentDto storedCommentDto = hydrate(List.of(storedComment)).get(0);
+        eventPublisher.publishEvent(
+                new CommentChangedEvent(CommentChangedEvent.ChangeType.CREATED, storedCommentDto, repliedToAuthorId));
+        return storedCommentDto;
+    }
+
+    @Override
+    public CursorPage<CommentDto> findComments(Long postId, Order order, Long cursor, int limit) {
+        int pageSize = pageSize(limit);
+        requirePost(postId);
+        if (order == Order.TOP) {
+            return findTopComments(postId, cursor, pageSize);
+        }
+
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+        List<CommentEntity> comments = commentRepository.findTopLevelPage(postId, before, Limit.of(pageSize));
+
+        Long nextCursor = comments.size() == pageSize ? comments.get(comments.size() - 1).getId() : null;
+        return new CursorPage<>(hydrate(comments), nextCursor);
+    }
+
+    @Override
+    public CursorPage<CommentDto> findReplies(Long postId, Long commentId, Long cursor, int limit) {
+        int pageSize = pageSize(limit);
+        findComment(postId, commentId);
+
+        long after = cursor == null ? Long.MIN_VALUE : cursor;
+        List<CommentEntity> replies = commentRepository.findReplyPage(postId, commentId, after, Limit.of(pageSize));
+
+        Long nextCursor = replies.size() == pageSize ? replies.get(replies.size() - 1).getId() : null;
+        return new CursorPage<>(hydrate(replies), nextCursor);
+    }
+
+    // the comment's author or the post's author; replies go with their thread (ON DELETE CASCADE)
+    @Override
+    public void deleteComment(Long postId, Long commentId, Long requesterId) {
+        CommentEntity commentEntity = findComment(postId, commentId);
+        if (commentEntity.getAuthorId() != requesterId) {
+            PostEntity postEntity = postRepository.findById(postId)
+                    .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + postId));
+            if (postEntity.getAuthorId() != requesterId) {
+                throw new AccessDeniedException("Only the author of the comment or of the post can delete it");
+            }
+        }
+        commentRepository.delete(commentEntity);
+        topComments.commentsChanged(postId);
+        eventPublisher.publishEvent(new CommentChangedEvent(CommentChangedEvent.ChangeType.DELETED,
+                new CommentDto(commentId, postId, commentEntity.getAuthorId(), null, commentEntity.getParentId(),
+                        null, 0, commentEntity.getCreatedAt()), null));
+    }
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.type() == PostChangedEvent.ChangeType.DELETED) {
+            topComments.removePost(event.postId());
+        }
+    }
+
+    // the ranking is a snapshot, so the cursor is the last comment id seen in it
+    private CursorPage<CommentDto> findTopComments(long postId, Long cursor, int pageSize) {
+        long[] ranking = topComments.ranking(postId);
+        int start = 0;
+        if (cursor != null) {
+            start = ranking.length;
+            for (int i = 0; i < ranking.length; i++) {
+                if (ranking[i] == cursor) {
+                    start = i + 1;
+                    break;
+                }
+            }
+        }
+        int end = Math.min(ranking.length, start + pageSize);
+        List<Long> ids = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            ids.add(ranking[i]);
+        }
+
+        // comments deleted since the ranking was computed are skipped
+        Map<Long, CommentEntity> found = new HashMap<>();
+        for (CommentEntity comment : commentRepository.findAllById(ids)) {
+            found.put(comment.getId(), comment);
+        }
+        List<CommentEntity> comments = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            CommentEntity comment = found.get(id);
+            if (comment != null) {
+                comments.add(comment);
+            }
+        }
+
+        Long nextCursor = end < ranking.length ? ranking[end - 1] : null;
+        return new CursorPage<>(hydrate(comments), nextCursor);
+    }
+
+    // authors and reply counts of the whole page come from one IN query each, never one lookup per comment
+    List<CommentDto> hydrate(Collection<CommentEntity> comments) {
+        Set<Long> authorIds = new LinkedHashSet<>();
+        List<Long> threadIds = new ArrayList<>();
+        for (CommentEntity comment : comments) {
+            authorIds.add(comment.getAuthorId());
+            if (comment.getParentId() == null) {
+                threadIds.add(comment.getId());
+            }
+        }
+        Map<Long, UserSummaryDto> authors = userService.findSummaries(authorIds);
+        Map<Long, Long> replyCounts = new HashMap<>();
+        if (!threadIds.isEmpty()) {
+            for (ReplyCount count : commentRepository.countReplies(threadIds)) {
+                replyCounts.put(count.getParentId(), count.getReplies());
+            }
+        }
+
+        List<CommentDto> dtos = new ArrayList<>(comments.size());
+        for (CommentEntity comment : comments) {
+            dtos.add(new CommentDto(
+                    comment.getId(),
+                    comment.getPostId(),
+                    comment.getAuthorId(),
+                    authors.get(comment.getAuthorId()),
+                    comment.getParentId(),
+                    comment.getBody(),
+                    replyCounts.getOrDefault(comment.getId(), 0L),
+                    comment.getCreatedAt()));
+        }
+        return dtos;
+    }
+
+    private void requirePost(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+    }
+
+    private CommentEntity findComment(Long postId, Long commentId) {
+        CommentEntity commentEntity = commentRepository.findById(commentId)
+                .filter(comment -> comment.getPostId() == postId)
+                .orElseThrow(() -> new CommentNotFoundException("Comment not found with id: " + commentId));
+        return commentEntity;
+    }
+
+    static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,263 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.edu.ifpb.instagram.event.FollowChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.feed.HomeTimelines;
+import br.edu.ifpb.instagram.feed.HomeTimelines.FeedSlice;
+import br.edu.ifpb.instagram.graph.FollowGraph;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.repository.FollowRepository;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.service.FeedService;
+import br.edu.ifpb.instagram.service.PostService;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Home feed with fan-out-on-write: a new post is pushed asynchronously into the
+ * cached ring of every follower. Authors above the celebrity threshold skip the
+ * fan-out and their recent posts are merged in when the feed is read instead.
+ */
+@Service
+public class FeedServiceImpl implements FeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedServiceImpl.class);
+
+    static final int MAX_PAGE_SIZE = 50;
+    private static final int FAN_OUT_BATCH = 1000;
+    private static final int FAN_OUT_QUEUE = 10_000;
+
+    private final HomeTimelines homeTimelines;
+    private final FollowGraph followGraph;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final long celebrityThreshold;
+    private final Executor fanOutExecutor;
+
+    @Autowired
+    public FeedServiceImpl(HomeTimelines homeTimelines, FollowGraph followGraph, FollowRepository followRepository,
+            PostRepository postRepository, PostService postService,
+            @Value("${instagram.feed.celebrity-threshold:10000}") long celebrityThreshold) {
+        this(homeTimelines, followGraph, followRepository, postRepository, postService, celebrityThreshold,
+                newFanOutExecutor());
+    }
+
+    FeedServiceImpl(HomeTimelines homeTimelines, FollowGraph followGraph, FollowRepository followRepository,
+            PostRepository postRepository, PostService postService, long celebrityThreshold, Executor fanOutExecutor) {
+        this.homeTimelines = homeTimelines;
+        this.followGraph = followGraph;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.celebrityThreshold = celebrityThreshold;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @Override
+    public CursorPage<PostDto> getFeed(Long userId, Long cursor, int limit) {
+        int pageSize = pageSize(limit);
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+
+        List<Long> followees = followees(userId);
+        List<Long> regular = new ArrayList<>();
+        List<Long> celebrities = new ArrayList<>();
+        for (Long followeeId : followees) {
+            (isCelebrity(followeeId) ? celebrities : regular).add(followeeId);
+        }
+
+        homeTimelines.ensureTimeline(userId, () -> recentIds(regular));
+        for (Long celebrityId : celebrities) {
+            homeTimelines.ensureAuthorPosts(celebrityId, () -> recentIds(List.of(celebrityId)));
+        }
+
+        FeedSlice slice = homeTimelines.read(userId, toArray(celebrities), before, pageSize);
+        long[] ids = slice.postIds();
+        if (ids.length < pageSize && !slice.complete() && !followees.isEmpty()) {
+            // past what the rings hold: continue from the database
+            long olderThan = ids.length == 0 ? before : ids[ids.length - 1];
+            List<Long> older = postRepository.findIdsByAuthors(followees, olderThan, Limit.of(pageSize - ids.length));
+            ids = concat(ids, older);
+        }
+
+        List<PostDto> posts = resolve(userId, ids);
+        Long nextCursor = ids.length == pageSize ? ids[ids.length - 1] : null;
+        return new CursorPage<>(posts, nextCursor);
+    }
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        long authorId = event.authorId();
+        long postId = event.postId();
+        if (event.type() == PostChangedEvent.ChangeType.CREATED) {
+            homeTimelines.cachePost(event.post());
+            if (isCelebrity(authorId)) {
+                homeTimelines.pushToAuthor(authorId, postId);
+            } else {
+                fanOutExecutor.execute(() -> forEachFollower(authorId,
+                        followerId -> homeTimelines.pushToTimeline(followerId, postId)));
+            }
+        } else {
+            homeTimelines.removePost(authorId, postId);
+            fanOutExecutor.execute(() -> forEachFollower(authorId,
+                    followerId -> homeTimelines.removeFromTimeline(followerId, postId)));
+        }
+    }
+
+    // the followee set changed, so the cached ring is rebuilt on the next read
+    @EventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        homeTimelines.invalidateTimeline(event.followerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case UPDATED -> homeTimelines.evictPostsBy(event.userId());
+            case DELETED -> homeTimelines.removeUser(event.userId());
+            default -> { }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    // FollowGraph only indexes outgoing edges, so followers come from ix_follows_followee in keyset batches
+    private void forEachFollower(long authorId, LongConsumer action) {
+        try {
+            long cursor = Long.MIN_VALUE;
+            while (true) {
+                List<Long> followers = followRepository.findFollowerIds(authorId, cursor, Limit.of(FAN_OUT_BATCH));
+                for (Long followerId : followers) {
+                    action.accept(followerId);
+                }
+                if (followers.size() < FAN_OUT_BATCH) {
+                    return;
+                }
+                cursor = followers.get(followers.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Feed fan-out for author {} failed", authorId, e);
+        }
+    }
+
+    private List<Long> followees(long userId) {
+        if (followGraph.isLoaded()) {
+            long[] ids = followGraph.followees(userId);
+            List<Long> followees = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                followees.add(id);
+            }
+            return followees;
+        }
+        List<Long> followees = new ArrayList<>();
+        long cursor = Long.MIN_VALUE;
+        while (true) {
+            List<Long> batch = followRepository.findFolloweeIds(userId, cursor, Limit.of(FAN_OUT_BATCH));
+            followees.addAll(batch);
+            if (batch.size() < FAN_OUT_BATCH) {
+                return followees;
+            }
+            cursor = batch.get(batch.size() - 1);
+        }
+    }
+
+    // follower counts only come from the in-memory graph; until it loads, everyone is fanned out on write
+    private boolean isCelebrity(long authorId) {
+        return followGraph.isLoaded() && followGraph.followerCount(authorId) >= celebrityThreshold;
+    }
+
+    private List<Long> recentIds(List<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        return postRepository.findIdsByAuthors(authorIds, Long.MAX_VALUE, Limit.of(homeTimelines.capacity()));
+    }
+
+    // cached posts first, one batched query for the rest; ids that no longer exist are dropped from the ring
+    private List<PostDto> resolve(long userId, long[] ids) {
+        Map<Long, PostDto> found = homeTimelines.cachedPosts(ids);
+        if (found.size() < ids.length) {
+            List<Long> missing = new ArrayList<>();
+            for (long id : ids) {
+                if (!found.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            for (PostDto post : postService.findByIds(missing)) {
+                homeTimelines.cachePost(post);
+                found.put(post.id(), post);
+            }
+        }
+
+        List<PostDto> posts = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            PostDto post = found.get(id);
+            if (post != null) {
+                posts.add(post);
+            } else {
+                homeTimelines.removeFromTimeline(userId, id);
+            }
+        }
+        return posts;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+
+    private static long[] concat(long[] ids, List<Long> more) {
+        long[] all = Arrays.copyOf(ids, ids.length + more.size());
+        for (int i = 0; i < more.size(); i++) {
+            all[ids.length + i] = more.get(i);
+        }
+        return all;
+    }
+
+    // a full queue makes the publishing request thread do the fan-out itself instead of dropping it
+    private static ExecutorService newFanOutExecutor() {
+        return new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(FAN_OUT_QUEUE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "feed-fan-out");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
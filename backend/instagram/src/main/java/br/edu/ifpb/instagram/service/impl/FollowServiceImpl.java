@@ -0,0 +1,152 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.event.FollowChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.exception.UserNotFoundException;
+import br.edu.ifpb.instagram.graph.FollowGraph;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.FollowStatsDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.entity.FollowEntity;
+import br.edu.ifpb.instagram.model.entity.FollowId;
+import br.edu.ifpb.instagram.repository.FollowRepository;
+import br.edu.ifpb.instagram.repository.UserRepository;
+import br.edu.ifpb.instagram.service.FollowService;
+import br.edu.ifpb.instagram.service.UserService;
+
+@Service
+public class FollowServiceImpl implements FollowService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final FollowGraph followGraph;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FollowServiceImpl(FollowRepository followRepository, UserRepository userRepository,
+            UserService userService, FollowGraph followGraph, ApplicationEventPublisher eventPublisher) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.followGraph = followGraph;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public FollowStatsDto follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Users cannot follow themselves");
+        }
+        if (!userRepository.existsById(followeeId)) {
+            throw new UserNotFoundException("User not found with id: " + followeeId);
+        }
+
+        boolean created = false;
+        if (!isFollowing(followerId, followeeId)) {
+            try {
+                followRepository.save(new FollowEntity(followerId, followeeId, Instant.now()));
+                created = true;
+            } catch (DataIntegrityViolationException e) {
+                // concurrent duplicate request already created the edge
+            }
+        }
+        followGraph.follow(followerId, followeeId);
+        if (created) {
+            eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId, true));
+        }
+
+        return getStats(followeeId);
+    }
+
+    @Override
+    public FollowStatsDto unfollow(Long followerId, Long followeeId) {
+        FollowId id = new FollowId(followerId, followeeId);
+        boolean removed = false;
+        if (followRepository.existsById(id)) {
+            followRepository.deleteById(id);
+            removed = true;
+        }
+        followGraph.unfollow(followerId, followeeId);
+        if (removed) {
+            eventPublisher.publishEvent(new FollowChangedEvent(followerId, followeeId, false));
+        }
+
+        return getStats(followeeId);
+    }
+
+    @Override
+    public boolean isFollowing(Long followerId, Long followeeId) {
+        if (followGraph.isLoaded()) {
+            return followGraph.isFollowing(followerId, followeeId);
+        }
+        return followRepository.existsById(new FollowId(followerId, followeeId));
+    }
+
+    @Override
+    public FollowStatsDto getStats(Long userId) {
+        if (followGraph.isLoaded()) {
+            return new FollowStatsDto(userId, followGraph.followerCount(userId), followGraph.followingCount(userId));
+        }
+        return new FollowStatsDto(userId, followRepository.countByFolloweeId(userId),
+                followRepository.countByFollowerId(userId));
+    }
+
+    @Override
+    public CursorPage<UserSummaryDto> findFollowers(Long userId, Long cursor, int limit) {
+        int pageSize = pageSize(limit);
+        List<Long> ids = followRepository.findFollowerIds(userId, startAfter(cursor), Limit.of(pageSize));
+        return toPage(ids, pageSize);
+    }
+
+    @Override
+    public CursorPage<UserSummaryDto> findFollowing(Long userId, Long cursor, int limit) {
+        int pageSize = pageSize(limit);
+        List<Long> ids = followRepository.findFolloweeIds(userId, startAfter(cursor), Limit.of(pageSize));
+        return toPage(ids, pageSize);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            followGraph.removeUser(event.userId());
+        }
+    }
+
+    private CursorPage<UserSummaryDto> toPage(List<Long> ids, int pageSize) {
+        Map<Long, UserSummaryDto> summaries = userService.findSummaries(ids);
+        List<UserSummaryDto> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UserSummaryDto summary = summaries.get(id);
+            if (summary != null) {
+                items.add(summary);
+            }
+        }
+        Long nextCursor = ids.size() == pageSize ? ids.get(ids.size() - 1) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    static long startAfter(Long cursor) {
+        return cursor == null ? Long.MIN_VALUE : cursor;
+    }
+}
@@ -0,0 +1,93 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.edu.ifpb.instagram.event.LikeChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.exception.PostNotFoundException;
+import br.edu.ifpb.instagram.like.LikeCounters;
+import br.edu.ifpb.instagram.like.LikeFlusher;
+import br.edu.ifpb.instagram.like.LikeStore;
+import br.edu.ifpb.instagram.model.dto.LikeStatsDto;
+import br.edu.ifpb.instagram.service.LikeService;
+
+// likes are accepted in memory and written by LikeFlusher; counts include what is not flushed yet
+@Service
+public class LikeServiceImpl implements LikeService {
+
+    private final LikeCounters likeCounters;
+    private final LikeStore likeStore;
+    private final LikeFlusher likeFlusher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LikeServiceImpl(LikeCounters likeCounters, LikeStore likeStore, LikeFlusher likeFlusher,
+            ApplicationEventPublisher eventPublisher) {
+        this.likeCounters = likeCounters;
+        this.likeStore = likeStore;
+        this.likeFlusher = likeFlusher;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public LikeStatsDto like(Long postId, Long userId) {
+        requirePost(postId);
+        if (likeCounters.like(userId, postId)) {
+            eventPublisher.publishEvent(new LikeChangedEvent(postId, userId, true));
+        }
+        return new LikeStatsDto(postId, likeCounters.count(postId), true);
+    }
+
+    @Override
+    public LikeStatsDto unlike(Long postId, Long userId) {
+        requirePost(postId);
+        if (likeCounters.unlike(userId, postId)) {
+            eventPublisher.publishEvent(new LikeChangedEvent(postId, userId, false));
+        }
+        return new LikeStatsDto(postId, likeCounters.count(postId), false);
+    }
+
+    @Override
+    public LikeStatsDto getStats(Long postId, Long requesterId) {
+        long likes = likeCounters.count(postId);
+        if (likes < 0) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+        boolean likedByMe = requesterId != null && likeCounters.isLiked(requesterId, postId);
+        return new LikeStatsDto(postId, likes, likedByMe);
+    }
+
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.type() == PostChangedEvent.ChangeType.DELETED) {
+            likeCounters.removePost(event.postId());
+        }
+    }
+
+    // the counts drop with the rows; the in-memory side follows only once the deletion commits
+    @Override
+    public void removeLikesOf(Long userId) {
+        List<Long> postIds = likeStore.removeUser(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            likeFlusher.removeUser(userId, postIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                likeFlusher.removeUser(userId, postIds);
+            }
+        });
+    }
+
+    private void requirePost(Long postId) {
+        if (!likeCounters.track(postId)) {
+            throw new PostNotFoundException("Post not found with id: " + postId);
+        }
+    }
+}
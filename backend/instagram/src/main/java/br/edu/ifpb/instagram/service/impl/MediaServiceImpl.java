@@ -0,0 +1,180 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.exception.MediaNotFoundException;
+import br.edu.ifpb.instagram.exception.MediaProcessingBusyException;
+import br.edu.ifpb.instagram.media.ContentStore;
+import br.edu.ifpb.instagram.media.ImageVariant;
+import br.edu.ifpb.instagram.media.MediaStorage;
+import br.edu.ifpb.instagram.media.StoredBlob;
+import br.edu.ifpb.instagram.media.ThumbnailPipeline;
+import br.edu.ifpb.instagram.media.VariantFile;
+import br.edu.ifpb.instagram.model.dto.MediaDto;
+import br.edu.ifpb.instagram.model.entity.MediaEntity;
+import br.edu.ifpb.instagram.repository.MediaRepository;
+import br.edu.ifpb.instagram.service.MediaService;
+
+@Service
+public class MediaServiceImpl implements MediaService {
+
+    static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "video/mp4");
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+    private final ContentStore contentStore;
+    private final ThumbnailPipeline thumbnailPipeline;
+    private final long variantTimeoutMillis;
+
+    public MediaServiceImpl(MediaRepository mediaRepository, MediaStorage mediaStorage,
+            ContentStore contentStore, ThumbnailPipeline thumbnailPipeline,
+            @Value("${instagram.thumbnails.wait-timeout-ms:10000}") long variantTimeoutMillis) {
+        this.mediaRepository = mediaRepository;
+        this.mediaStorage = mediaStorage;
+        this.contentStore = contentStore;
+        this.thumbnailPipeline = thumbnailPipeline;
+        this.variantTimeoutMillis = variantTimeoutMillis;
+    }
+
+    @Override
+    public MediaDto upload(Long ownerId, String contentType, InputStream content) throws IOException {
+        String normalizedType = checkContentType(contentType);
+
+        StoredBlob blob = contentStore.put(content);
+        if (blob.sizeBytes() == 0) {
+            contentStore.release(blob.sha256());
+            throw new IllegalArgumentException("Empty upload");
+        }
+        return saveMedia(ownerId, normalizedType, blob);
+    }
+
+    // content the owner already uploaded gets a new media row without the bytes being sent again. Anyone
+    // else's hash is not taken on trust: it would hand out other users' files and tell who has them
+    @Override
+    public Optional<MediaDto> uploadDuplicate(Long ownerId, String contentType, String sha256) throws IOException {
+        String normalizedType = checkContentType(contentType);
+        String normalizedHash = sha256.trim().toLowerCase(Locale.ROOT);
+        if (!normalizedHash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content hash: " + sha256);
+        }
+
+        if (!mediaRepository.existsByOwnerIdAndSha256(ownerId, normalizedHash)) {
+            return Optional.empty(); // the caller sends the body, deduplicated on the hash computed here
+        }
+        Optional<StoredBlob> blob = contentStore.reuse(normalizedHash);
+        if (blob.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(saveMedia(ownerId, normalizedType, blob.get()));
+    }
+
+    @Override
+    public MediaDto findById(Long id) {
+        return mediaRepository.findById(id)
+                .map(this::mapToDto)
+                .orElseThrow(() -> new MediaNotFoundException("Media not found with id: " + id));
+    }
+
+    @Override
+    public Path locate(MediaDto media) {
+        return mediaStorage.locate(media.sha256());
+    }
+
+    // the owner's own requests go to the front of the resize queue
+    @Override
+    public VariantFile variant(Long id, String variantId, Long requesterId) {
+        MediaDto media = findById(id);
+        ImageVariant variant = ImageVariant.fromId(variantId);
+        if (!media.contentType().startsWith("image/")) {
+            throw new IllegalArgumentException("Variants are only available for images");
+        }
+
+        boolean ownUpload = media.ownerId().equals(requesterId);
+        try {
+            Path path = thumbnailPipeline.variant(media.sha256(), media.contentType(), variant, ownUpload)
+                    .get(variantTimeoutMillis, TimeUnit.MILLISECONDS);
+            String format = ImageVariant.formatFor(media.contentType());
+            return new VariantFile(path, "image/" + format, "\"" + media.sha256() + "-" + variant.id() + "\"");
+        } catch (TimeoutException e) {
+            throw new MediaProcessingBusyException("Image variant is still being generated, try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MediaProcessingBusyException("Interrupted while waiting for image variant");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Could not generate image variant", e.getCause());
+        }
+    }
+
+    @Override
+    public void deleteMedia(Long id, Long requesterId) throws IOException {
+        MediaEntity mediaEntity = mediaRepository.findById(id)
+                .orElseThrow(() -> new MediaNotFoundException("Media not found with id: " + id));
+        if (mediaEntity.getOwnerId() != requesterId) {
+            throw new AccessDeniedException("Only the owner can delete this media");
+        }
+        mediaRepository.delete(mediaEntity);
+        // the file itself goes away in MediaCompactionJob once no media row points at it
+        contentStore.release(mediaEntity.getSha256());
+    }
+
+    private MediaDto saveMedia(Long ownerId, String contentType, StoredBlob blob) {
+        MediaEntity mediaEntity = new MediaEntity();
+        mediaEntity.setOwnerId(ownerId);
+        mediaEntity.setSha256(blob.sha256());
+        mediaEntity.setContentType(contentType);
+        mediaEntity.setSizeBytes(blob.sizeBytes());
+        mediaEntity.setCreatedAt(Instant.now());
+
+        try {
+            return mapToDto(mediaRepository.save(mediaEntity));
+        } catch (RuntimeException e) {
+            contentStore.release(blob.sha256());
+            throw e;
+        }
+    }
+
+    private static String checkContentType(String contentType) {
+        String normalizedType = normalizeContentType(contentType);
+        if (!ALLOWED_CONTENT_TYPES.contains(normalizedType)) {
+            throw new IllegalArgumentException("Unsupported media type: " + contentType);
+        }
+        return normalizedType;
+    }
+
+    private MediaDto mapToDto(MediaEntity mediaEntity) {
+        return new MediaDto(
+                mediaEntity.getId(),
+                mediaEntity.getOwnerId(),
+                mediaEntity.getSha256(),
+                mediaEntity.getContentType(),
+                mediaEntity.getSizeBytes(),
+                mediaEntity.getCreatedAt()
+        );
+    }
+
+    static String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int semicolon = contentType.indexOf(';');
+        String type = semicolon >= 0 ? contentType.substring(0, semicolon) : contentType;
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+}
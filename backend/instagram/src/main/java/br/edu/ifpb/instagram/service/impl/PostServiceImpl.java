@@ -0,0 +1,180 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.exception.PostNotFoundException;
+import br.edu.ifpb.instagram.exception.UserNotFoundException;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.repository.UserRepository;
+import br.edu.ifpb.instagram.service.PostService;
+import br.edu.ifpb.instagram.service.UserService;
+
+@Service
+public class PostServiceImpl implements PostService {
+
+    static final int MAX_CAPTION_LENGTH = 2200;
+    static final int MAX_MEDIA_REFS = 10;
+    // posts.media_refs is VARCHAR(2000) and holds the refs joined with ","
+    static final int MAX_MEDIA_REFS_LENGTH = 2000;
+    static final int MAX_PAGE_SIZE = 50;
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PostServiceImpl(PostRepository postRepository, UserRepository userRepository, UserService userService,
+            ApplicationEventPublisher eventPublisher) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public PostDto createPost(PostDto postDto) {
+        if (postDto == null || postDto.authorId() == null) {
+            throw new IllegalArgumentException("PostDto or PostDto.authorId must not be null");
+        }
+        if (postDto.caption() != null && postDto.caption().length() > MAX_CAPTION_LENGTH) {
+            throw new IllegalArgumentException("Caption must have at most " + MAX_CAPTION_LENGTH + " characters");
+        }
+        List<String> mediaRefs = postDto.mediaRefs() == null ? List.of() : postDto.mediaRefs();
+        if (mediaRefs.size() > MAX_MEDIA_REFS) {
+            throw new IllegalArgumentException("A post can have at most " + MAX_MEDIA_REFS + " media");
+        }
+        int joinedLength = Math.max(0, mediaRefs.size() - 1);
+        for (String mediaRef : mediaRefs) {
+            if (mediaRef == null || mediaRef.isBlank() || mediaRef.contains(",")) {
+                throw new IllegalArgumentException("Invalid media reference: " + mediaRef);
+            }
+            joinedLength += mediaRef.length();
+        }
+        if (joinedLength > MAX_MEDIA_REFS_LENGTH) {
+            throw new IllegalArgumentException("Media references must have at most " + MAX_MEDIA_REFS_LENGTH
+                    + " characters in total");
+        }
+        if (!userRepository.existsById(postDto.authorId())) {
+            throw new UserNotFoundException("User not found with id: " + postDto.authorId());
+        }
+
+        PostEntity postEntity = new PostEntity();
+        postEntity.setAuthorId(postDto.authorId());
+        postEntity.setCaption(postDto.caption());
+        postEntity.setMediaRefs(new ArrayList<>(mediaRefs));
+        postEntity.setCreatedAt(Instant.now());
+
+        PostEntity storedPost = postRepository.save(postEntity);
+
+        PostDto storedPostDto = hydrate(List.of(storedPost)).get(0);
+        eventPublisher.publishEvent(new PostChangedEvent(ChangeType.CREATED, storedPostDto));
+        return storedPostDto;
+    }
+
+    @Override
+    public PostDto findById(Long id) {
+        PostEntity postEntity = postRepository.findById(id)
+                .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + id));
+        return hydrate(List.of(postEntity)).get(0);
+    }
+
+    // ids that no longer exist are skipped; the rest keep the order they were asked in
+    @Override
+    public List<PostDto> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostDto> found = new HashMap<>();
+        for (PostDto post : hydrate(toList(postRepository.findAllById(ids)))) {
+            found.put(post.id(), post);
+        }
+        List<PostDto> ordered = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            PostDto post = found.get(id);
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return ordered;
+    }
+
+    @Override
+    public CursorPage<PostDto> findTimeline(Long authorId, Long cursor, int limit) {
+        int pageSize = pageSize(limit);
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+
+        List<PostEntity> posts = postRepository.findTimelinePage(authorId, before, Limit.of(pageSize));
+
+        Long nextCursor = posts.size() == pageSize ? posts.get(posts.size() - 1).getId() : null;
+        return new CursorPage<>(hydrate(posts), nextCursor);
+    }
+
+    @Override
+    public void deletePost(Long id, Long requesterId) {
+        PostEntity postEntity = postRepository.findById(id)
+                .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + id));
+        if (postEntity.getAuthorId() != requesterId) {
+            throw new AccessDeniedException("Only the author can delete this post");
+        }
+        postRepository.delete(postEntity);
+        eventPublisher.publishEvent(new PostChangedEvent(ChangeType.DELETED,
+                new PostDto(postEntity.getId(), postEntity.getAuthorId(), null, null, null, null)));
+    }
+
+    // authors of the whole page come from a single IN query, never one lookup per post
+    List<PostDto> hydrate(Collection<PostEntity> posts) {
+        Set<Long> authorIds = new LinkedHashSet<>();
+        for (PostEntity post : posts) {
+            authorIds.add(post.getAuthorId());
+        }
+        Map<Long, UserSummaryDto> authors = userService.findSummaries(authorIds);
+
+        List<PostDto> dtos = new ArrayList<>(posts.size());
+        for (PostEntity post : posts) {
+            dtos.add(mapToDto(post, authors.get(post.getAuthorId())));
+        }
+        return dtos;
+    }
+
+    private PostDto mapToDto(PostEntity postEntity, UserSummaryDto author) {
+        return new PostDto(
+                postEntity.getId(),
+                postEntity.getAuthorId(),
+                author,
+                postEntity.getCaption(),
+                List.copyOf(postEntity.getMediaRefs()),
+                postEntity.getCreatedAt()
+        );
+    }
+
+    private static List<PostEntity> toList(Iterable<PostEntity> posts) {
+        List<PostEntity> list = new ArrayList<>();
+        posts.forEach(list::add);
+        return list;
+    }
+
+    static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
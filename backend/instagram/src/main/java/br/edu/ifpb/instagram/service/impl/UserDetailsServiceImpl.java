@@ -1,31 +1,61 @@
 package br.edu.ifpb.instagram.service.impl;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import br.edu.ifpb.instagram.model.entity.UserEntity;
+import br.edu.ifpb.instagram.cache.UserCaches;
+import br.edu.ifpb.instagram.model.dto.UserCredentialsDto;
 import br.edu.ifpb.instagram.repository.UserRepository;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    private static final GrantedAuthority ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
     public final UserRepository userRepository;
+    private final UserCaches userCaches;
+    // normalized; these users get ROLE_ADMIN
+    private final Set<String> adminUsernames;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserCaches userCaches,
+            @Value("${instagram.admin.usernames:}") List<String> adminUsernames) {
         this.userRepository = userRepository;
+        this.userCaches = userCaches;
+        this.adminUsernames = adminUsernames.stream()
+                .filter(adminUsername -> !adminUsername.isBlank())
+                .map(UserFieldNormalizer::normalize)
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserEntity userEntity = userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
-
-        // creates a empty arraylist to satisfy User Spring Security requirements
-        User user = new User(userEntity.getUsername(), userEntity.getEncryptedPassword(), new ArrayList<>());
+        String usernameNormalized = UserFieldNormalizer.normalize(username);
+        UserCredentialsDto credentials = userCaches.credentials().get(usernameNormalized,
+                key -> userRepository.findCredentialsByUsernameNormalized(key)
+                        .map(found -> new UserCredentialsDto(found.getId(), found.getUsername(),
+                                found.getEncryptedPassword()))
+                        .orElse(null));
+        if (credentials == null) {
+            throw new UsernameNotFoundException(username);
+        }
+
+        // a new principal per call: ProviderManager erases the password of the one it authenticates
+        List<GrantedAuthority> authorities = adminUsernames.contains(usernameNormalized)
+                ? List.of(ADMIN)
+                : List.of();
+        User user = new AuthenticatedUser(credentials.id(), credentials.username(),
+                credentials.encryptedPassword(), authorities);
 
         return user;
     }
@@ -0,0 +1,17 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import java.util.Locale;
+
+public final class UserFieldNormalizer {
+
+    private UserFieldNormalizer() {
+    }
+
+    // must stay in sync with the values already stored in *_normalized columns
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
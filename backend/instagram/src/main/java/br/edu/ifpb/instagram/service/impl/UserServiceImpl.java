@@ -1,50 +1,78 @@
 package br.edu.ifpb.instagram.service.impl;
 
+import br.edu.ifpb.instagram.cache.UserCaches;
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent.ChangeType;
 import br.edu.ifpb.instagram.exception.FieldAlreadyExistsException;
 import br.edu.ifpb.instagram.exception.UserNotFoundException;
 import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
 import br.edu.ifpb.instagram.model.entity.UserEntity;
+import br.edu.ifpb.instagram.model.projection.UserField;
+import br.edu.ifpb.instagram.model.projection.UserSummary;
 import br.edu.ifpb.instagram.repository.UserRepository;
+import br.edu.ifpb.instagram.service.LikeService;
 import br.edu.ifpb.instagram.service.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import jakarta.transaction.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+// writes are transactional so that OutboxWriter records each change atomically with it,
+// and invalidate the user caches of every instance once they commit
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCaches userCaches;
+    private final LikeService likeService;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher eventPublisher, UserCaches userCaches, LikeService likeService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.userCaches = userCaches;
+        this.likeService = likeService;
     }
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
-        if (userRepository.existsByEmail(userDto.email())) {
+        if (userRepository.existsByEmailNormalized(UserFieldNormalizer.normalize(userDto.email()))) {
             throw new FieldAlreadyExistsException("E-email already in use.");
         }
 
-        if (userRepository.existsByUsername(userDto.username())) {
+        if (userRepository.existsByUsernameNormalized(UserFieldNormalizer.normalize(userDto.username()))) {
             throw new FieldAlreadyExistsException("Username already in use.");
         }
 
         UserEntity userEntity = new UserEntity();
         userEntity.setUsername(userDto.username());
         userEntity.setEmail(userDto.email());
+        userEntity.setUsernameNormalized(UserFieldNormalizer.normalize(userDto.username()));
+        userEntity.setEmailNormalized(UserFieldNormalizer.normalize(userDto.email()));
         userEntity.setFullName(userDto.fullName());
         userEntity.setEncryptedPassword(passwordEncoder.encode(userDto.password()));
 
         UserEntity storedUserEntity = userRepository.save(userEntity);
+        UserDto storedUserDto = mapToDto(storedUserEntity); // 3. Usando método auxiliar
 
-        return mapToDto(storedUserEntity); // 3. Usando método auxiliar
+        eventPublisher.publishEvent(new UserChangedEvent(ChangeType.CREATED, storedUserDto));
+        return storedUserDto;
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(UserDto userDto) {
         if (userDto == null || userDto.id() == null) {
             throw new IllegalArgumentException("UserDto or UserDto.id must not be null");
@@ -52,33 +80,47 @@ public class UserServiceImpl implements UserService {
 
         UserEntity userEntityToUpdate = userRepository.findById(userDto.id())
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userDto.id()));
+        userCaches.userChanged(userDto.id(), userEntityToUpdate.getUsernameNormalized());
 
         userEntityToUpdate.setFullName(userDto.fullName());
         userEntityToUpdate.setUsername(userDto.username());
         userEntityToUpdate.setEmail(userDto.email());
+        userEntityToUpdate.setUsernameNormalized(UserFieldNormalizer.normalize(userDto.username()));
+        userEntityToUpdate.setEmailNormalized(UserFieldNormalizer.normalize(userDto.email()));
 
         if (userDto.password() != null && !userDto.password().trim().isEmpty()) {
             userEntityToUpdate.setEncryptedPassword(passwordEncoder.encode(userDto.password()));
         }
 
         UserEntity updatedUser = userRepository.save(userEntityToUpdate);
+        UserDto updatedUserDto = mapToDto(updatedUser);
 
-        return mapToDto(updatedUser);
+        eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, updatedUserDto));
+        return updatedUserDto;
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException("User not found with id: " + id);
-        }
+        String usernameNormalized = userRepository.findUsernameNormalizedById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        // the cascade on post_likes would drop the rows but leave the posts' like counts
+        likeService.removeLikesOf(id);
         userRepository.deleteById(id);
+        userCaches.userChanged(id, usernameNormalized);
+
+        eventPublisher.publishEvent(new UserChangedEvent(ChangeType.DELETED,
+                new UserDto(id, null, null, null, null, null)));
     }
 
     @Override
     public UserDto findById(Long id) {
-        UserEntity userEntity = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        return mapToDto(userEntity);
+        UserDto userDto = userCaches.users().get(String.valueOf(id),
+                key -> userRepository.findById(id).map(this::mapToDto).orElse(null));
+        if (userDto == null) {
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+        return userDto;
     }
 
     @Override
@@ -89,6 +131,25 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    // only the selected columns are read; the unselected ones stay null
+    @Override
+    public List<UserDto> findAll(Set<UserField> fields) {
+        return userRepository.findAllProjected(fields);
+    }
+
+    @Override
+    public Map<Long, UserSummaryDto> findSummaries(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, UserSummaryDto> summaries = new HashMap<>();
+        for (UserSummary summary : userRepository.findSummariesByIdIn(ids)) {
+            summaries.put(summary.getId(),
+                    new UserSummaryDto(summary.getId(), summary.getUsername(), summary.getFullName()));
+        }
+        return summaries;
+    }
+
     private UserDto mapToDto(UserEntity userEntity) {
         return new UserDto(
                 userEntity.getId(),
@@ -0,0 +1,179 @@
+package br.edu.ifpb.instagram.warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.projection.UserField;
+import br.edu.ifpb.instagram.model.request.LoginRequest;
+import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.LoginResponse;
+import br.edu.ifpb.instagram.model.response.SparseUserResponse;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the per-request work of signin and the user endpoints on synthetic
+ * users, on a background thread, so the JIT has compiled it before real
+ * traffic arrives: JWT signing, parsing and validation (what
+ * JwtAuthenticationFilter does besides loading the user), BCrypt, mapping
+ * UserDto to responses, and reading and writing those bodies with every
+ * mapper the converters use (JSON, CBOR, Smile). Nothing reaches the
+ * database, so no account is read or written.
+ *
+ * It stops after {@code iterations} rounds or when {@code budget} runs out,
+ * whichever comes first; {@link WarmUpHealthIndicator} keeps the readiness
+ * group OUT_OF_SERVICE until then.
+ */
+@Component
+public class WarmUp {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    enum State { PENDING, RUNNING, COMPLETED, BUDGET_EXPIRED, FAILED }
+
+    private final JwtUtils jwtUtils;
+    private final PasswordEncoder passwordEncoder;
+    private final List<ObjectMapper> mappers = new ArrayList<>();
+    private final boolean enabled;
+    private final int iterations;
+    private final int bcryptIterations;
+    private final Duration budget;
+
+    private volatile State state = State.PENDING;
+    private volatile int rounds;
+    private volatile long elapsedNanos;
+    private volatile boolean stopped;
+
+    public WarmUp(JwtUtils jwtUtils, PasswordEncoder passwordEncoder, ObjectMapper objectMapper,
+            List<AbstractJackson2HttpMessageConverter> converters,
+            @Value("${instagram.warmup.enabled:true}") boolean enabled,
+            @Value("${instagram.warmup.iterations:5000}") int iterations,
+            @Value("${instagram.warmup.bcrypt-iterations:10}") int bcryptIterations,
+            @Value("${instagram.warmup.budget:PT30S}") Duration budget) {
+        this.jwtUtils = jwtUtils;
+        this.passwordEncoder = passwordEncoder;
+        this.mappers.add(objectMapper);
+        for (AbstractJackson2HttpMessageConverter converter : converters) {
+            if (!mappers.contains(converter.getObjectMapper())) {
+                mappers.add(converter.getObjectMapper());
+            }
+        }
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.bcryptIterations = bcryptIterations;
+        this.budget = budget;
+    }
+
+    // the server is listening by now, but readiness waits for us
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (!enabled) {
+            state = State.COMPLETED;
+            return;
+        }
+        state = State.RUNNING;
+        Thread runner = new Thread(this::run, "warm-up");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    void run() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        int bcryptEvery = bcryptIterations > 0 ? Math.max(1, iterations / bcryptIterations) : 0;
+        int bcryptChecks = 0;
+        try {
+            String hash = bcryptEvery > 0 ? passwordEncoder.encode("warm-up password") : null;
+            int i = 0;
+            for (; i < iterations && !stopped; i++) {
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+                round(i);
+                if (bcryptEvery > 0 && i % bcryptEvery == 0 && bcryptChecks < bcryptIterations) {
+                    passwordEncoder.matches(i % 2 == 0 ? "warm-up password" : "wrong password", hash);
+                    bcryptChecks++;
+                }
+                rounds = i + 1;
+                elapsedNanos = System.nanoTime() - start;
+            }
+            elapsedNanos = System.nanoTime() - start;
+            state = i < iterations && !stopped ? State.BUDGET_EXPIRED : State.COMPLETED;
+            log.info("JIT warm-up {}: {} rounds, {} BCrypt checks in {} ms",
+                    state == State.COMPLETED ? "completed" : "stopped by its " + budget + " budget",
+                    rounds, bcryptChecks, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } catch (IOException | RuntimeException e) {
+            // not being warm is no reason to stay out of the load balancer
+            elapsedNanos = System.nanoTime() - start;
+            state = State.FAILED;
+            log.warn("JIT warm-up failed after {} rounds, reporting ready anyway", rounds, e);
+        }
+    }
+
+    private void round(int i) throws IOException {
+        String username = "warmup" + i;
+        AuthenticatedUser principal = new AuthenticatedUser(-1 - i, username, "", List.of());
+        String token = jwtUtils.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        if (!username.equals(jwtUtils.getUsernameFromToken(token)) || !jwtUtils.validateToken(token)) {
+            throw new IllegalStateException("Warm-up token did not validate");
+        }
+
+        UserDto user = new UserDto(principal.getId(), "Warm Up " + i, username, username + "@warmup.invalid",
+                null, null);
+        UserDetailsResponse response = new UserDetailsResponse(user.id(), user.fullName(), user.username(),
+                user.email());
+        List<UserDetailsResponse> page = List.of(response, response, response);
+        for (ObjectMapper mapper : mappers) {
+            mapper.writeValueAsBytes(response);
+            mapper.writeValueAsBytes(page);
+            mapper.writeValueAsBytes(new SparseUserResponse(response, EnumSet.of(UserField.ID, UserField.USERNAME)));
+            mapper.readValue(mapper.writeValueAsBytes(new LoginResponse(username, token)), LoginResponse.class);
+            mapper.readValue(mapper.writeValueAsBytes(new LoginRequest(username, "warm-up password")),
+                    LoginRequest.class);
+            mapper.readValue(mapper.writeValueAsBytes(new UserDetailsRequest(user.id(), user.email(),
+                    "warm-up password", user.fullName(), username)), UserDetailsRequest.class);
+        }
+    }
+
+    State state() {
+        return state;
+    }
+
+    int rounds() {
+        return rounds;
+    }
+
+    Duration elapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    Duration budget() {
+        return budget;
+    }
+}
@@ -0,0 +1,31 @@
+package br.edu.ifpb.instagram.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// "warmUp" in /actuator/health and the readiness group: OUT_OF_SERVICE until WarmUp finishes or runs out of budget
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUp warmUp;
+
+    public WarmUpHealthIndicator(WarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    public Health health() {
+        WarmUp.State state = warmUp.state();
+        Health.Builder health = switch (state) {
+            case PENDING, RUNNING -> Health.outOfService();
+            case COMPLETED, BUDGET_EXPIRED, FAILED -> Health.up();
+        };
+        return health
+                .withDetail("state", state)
+                .withDetail("rounds", warmUp.rounds())
+                .withDetail("elapsedMs", warmUp.elapsed().toMillis())
+                .withDetail("budgetMs", warmUp.budget().toMillis())
+                .build();
+    }
+}
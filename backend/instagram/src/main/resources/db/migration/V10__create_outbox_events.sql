@@ -0,0 +1,14 @@
+-- transactional outbox: user writes add a row here in their own transaction, and OutboxRelay
+-- hands the rows to the change feed (GET /changes) in id order. The id is the feed's cursor, so
+-- it has to grow with every insert; no foreign key, deleted users keep their DELETED row
+CREATE TABLE outbox_events (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    aggregate_type VARCHAR(32)   NOT NULL,
+    aggregate_id   BIGINT        NOT NULL,
+    change_type    VARCHAR(16)   NOT NULL,
+    payload        VARCHAR(4000) NOT NULL,
+    created_at     DATETIME(6)   NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id),
+    -- retention deletes by age
+    INDEX ix_outbox_events_created_at (created_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,12 @@
+-- Baseline: the users table as Hibernate ddl-auto used to create it.
+-- Existing databases are baselined at this version (spring.flyway.baseline-version=1).
+CREATE TABLE users (
+    id                 BIGINT       NOT NULL,
+    full_name          VARCHAR(100) NOT NULL,
+    username           VARCHAR(50)  NOT NULL,
+    encrypted_password VARCHAR(255) NOT NULL,
+    email              VARCHAR(120) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,7 @@
+-- Lowercase copies of username/email for case-insensitive lookups.
+-- Values are already folded by the application, so a binary collation is enough
+-- and makes comparisons cheaper than the case-insensitive default.
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS username_normalized VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL,
+    ADD COLUMN IF NOT EXISTS email_normalized VARCHAR(120) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL,
+    ALGORITHM = INPLACE, LOCK = NONE;
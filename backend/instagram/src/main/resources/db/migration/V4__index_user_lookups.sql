@@ -0,0 +1,9 @@
+-- existsByUsernameNormalized / existsByEmailNormalized
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_username_normalized
+    ON users (username_normalized) ALGORITHM = INPLACE LOCK = NONE;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_normalized
+    ON users (email_normalized) ALGORITHM = INPLACE LOCK = NONE;
+
+-- findCredentialsByUsernameNormalized (login): answered from the index alone
+CREATE INDEX IF NOT EXISTS ix_users_login
+    ON users (username_normalized, username, encrypted_password) ALGORITHM = INPLACE LOCK = NONE;
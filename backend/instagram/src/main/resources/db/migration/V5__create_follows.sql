@@ -0,0 +1,12 @@
+CREATE TABLE follows (
+    follower_id BIGINT      NOT NULL,
+    followee_id BIGINT      NOT NULL,
+    created_at  DATETIME(6) NOT NULL,
+    CONSTRAINT pk_follows PRIMARY KEY (follower_id, followee_id),
+    CONSTRAINT fk_follows_follower FOREIGN KEY (follower_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_follows_followee FOREIGN KEY (followee_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- findFollowerIds: WHERE followee_id = ? AND follower_id > ? ORDER BY follower_id
+-- (findFolloweeIds is served by the primary key)
+CREATE INDEX ix_follows_followee ON follows (followee_id, follower_id);
@@ -0,0 +1,12 @@
+CREATE TABLE posts (
+    id         BIGINT        NOT NULL,
+    author_id  BIGINT        NOT NULL,
+    caption    VARCHAR(2200) NULL,
+    media_refs VARCHAR(2000) NULL,
+    created_at DATETIME(6)   NOT NULL,
+    CONSTRAINT pk_posts PRIMARY KEY (id),
+    -- profile timeline: WHERE author_id = ? AND id < ? ORDER BY id DESC LIMIT ?
+    -- declared before the foreign key so InnoDB reuses it instead of adding its own
+    INDEX ix_posts_author_id (author_id, id),
+    CONSTRAINT fk_posts_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
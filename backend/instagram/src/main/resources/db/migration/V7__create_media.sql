@@ -0,0 +1,13 @@
+CREATE TABLE media (
+    id           BIGINT       NOT NULL,
+    owner_id     BIGINT       NOT NULL,
+    sha256       CHAR(64)     CHARACTER SET ascii NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    size_bytes   BIGINT       NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    CONSTRAINT pk_media PRIMARY KEY (id),
+    INDEX ix_media_owner_id (owner_id, id),
+    -- several rows may point at the same stored file when identical content is uploaded twice
+    INDEX ix_media_sha256 (sha256),
+    CONSTRAINT fk_media_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,14 @@
+-- maintained in batches by LikeFlusher: rows with INSERT IGNORE / DELETE, the counter with
+-- UPDATE posts SET like_count = like_count + ?, so a viral post never sees one UPDATE per like
+ALTER TABLE posts ADD COLUMN like_count BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE post_likes (
+    post_id    BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    CONSTRAINT pk_post_likes PRIMARY KEY (post_id, user_id),
+    -- membership of one user is loaded with WHERE user_id = ?
+    INDEX ix_post_likes_user_id (user_id, post_id),
+    CONSTRAINT fk_post_likes_post FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE,
+    CONSTRAINT fk_post_likes_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
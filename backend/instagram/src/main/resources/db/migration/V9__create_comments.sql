@@ -0,0 +1,17 @@
+CREATE TABLE comments (
+    id         BIGINT        NOT NULL,
+    post_id    BIGINT        NOT NULL,
+    author_id  BIGINT        NOT NULL,
+    parent_id  BIGINT        NULL,
+    body       VARCHAR(2200) NOT NULL,
+    created_at DATETIME(6)   NOT NULL,
+    CONSTRAINT pk_comments PRIMARY KEY (id),
+    -- one index serves every keyset page: top-level comments (parent_id IS NULL, id < ? DESC),
+    -- replies of one comment (parent_id = ?, id > ? ASC) and reply counts grouped by parent
+    INDEX ix_comments_thread (post_id, parent_id, id),
+    INDEX ix_comments_author_id (author_id),
+    INDEX ix_comments_parent_id (parent_id),
+    CONSTRAINT fk_comments_post FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE,
+    CONSTRAINT fk_comments_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_comments_parent FOREIGN KEY (parent_id) REFERENCES comments (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci;
@@ -0,0 +1,142 @@
+package br.edu.ifpb.instagram.audit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.event.UserChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static List<AuditRecord> read(Path directory) throws Exception {
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.read(directory, records::add);
+        return records;
+    }
+
+    @Test
+    void events_shouldBeReadBackInOrderAcrossSegments() throws Exception {
+        AuditLog auditLog = new AuditLog(new SimpleMeterRegistry(), true, directory, 64, OverflowPolicy.BLOCK, 1,
+                4096, 0, 16, 1000);
+        for (int i = 0; i < 300; i++) {
+            auditLog.signinSucceeded(i, "usuario" + i);
+            auditLog.signinFailed("usuario" + i);
+        }
+        // alteração feita por um usuário autenticado: o id dele vai como ator
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(7, "admin", "", List.of()), null, List.of()));
+        auditLog.onUserChanged(new UserChangedEvent(ChangeType.DELETED, new UserDto(42L, null, null, null, null, null)));
+        auditLog.shutdown();
+
+        assertTrue(AuditSegments.segments(directory).size() > 1);
+        List<AuditRecord> records = read(directory);
+        assertEquals(601, records.size());
+        for (int i = 0; i < 300; i++) {
+            AuditRecord succeeded = records.get(2 * i);
+            assertEquals(AuditEventType.SIGNIN_SUCCEEDED, succeeded.type());
+            assertEquals(i, succeeded.userId());
+            assertEquals("usuario" + i, succeeded.name());
+            AuditRecord failed = records.get(2 * i + 1);
+            assertEquals(AuditEventType.SIGNIN_FAILED, failed.type());
+            assertEquals(0, failed.userId());
+            assertEquals("usuario" + i, failed.name());
+        }
+        AuditRecord deleted = records.get(600);
+        assertEquals(AuditEventType.USER_DELETED, deleted.type());
+        assertEquals(42, deleted.userId());
+        assertEquals(7, deleted.actorId());
+        assertNull(deleted.name());
+
+        // um novo início abre um novo segmento depois dos existentes
+        long last = AuditSegments.segments(directory).size();
+        new AuditLog(new SimpleMeterRegistry(), true, directory, 64, OverflowPolicy.BLOCK, 1, 4096, 0, 16, 1000)
+                .shutdown();
+        assertEquals(last + 1, AuditSegments.segments(directory).size());
+        assertEquals(601, read(directory).size());
+    }
+
+    @Test
+    void aTornRecord_shouldEndItsSegment() throws Exception {
+        AuditSegments segments = new AuditSegments(directory, 4096, 0);
+        segments.append(AuditEventType.SIGNIN_FAILED, 1, 0, 0, "ana");
+        segments.append(AuditEventType.SIGNIN_FAILED, 2, 0, 0, "bruno");
+        segments.append(AuditEventType.SIGNIN_FAILED, 3, 0, 0, "carla");
+        segments.close();
+
+        // simula uma queda no meio da escrita do terceiro registro
+        int third = AuditSegments.HEADER_SIZE + 2 * AuditSegments.RECORD_HEADER_SIZE + "ana".length()
+                + "bruno".length();
+        try (FileChannel channel = FileChannel.open(AuditSegments.segments(directory).get(0),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), third + AuditSegments.RECORD_HEADER_SIZE);
+        }
+
+        List<AuditRecord> records = read(directory);
+        assertEquals(List.of("ana", "bruno"), records.stream().map(AuditRecord::name).toList());
+    }
+
+    @Test
+    void aFullRing_shouldDropSampleOrBlockAsConfigured() throws Exception {
+        AuditRing drop = new AuditRing(4, OverflowPolicy.DROP, 1);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(drop.publish(AuditEventType.SIGNIN_FAILED, i, 0, 0, null));
+        }
+        assertFalse(drop.publish(AuditEventType.SIGNIN_FAILED, 4, 0, 0, null));
+        assertEquals(1, drop.dropped());
+        List<Long> times = new ArrayList<>();
+        assertEquals(4, drop.drain(10, (type, time, user, actor, name) -> times.add(time)));
+        assertEquals(List.of(0L, 1L, 2L, 3L), times);
+        assertTrue(drop.publish(AuditEventType.SIGNIN_FAILED, 5, 0, 0, null));
+
+        // SAMPLE com taxa 2: o primeiro excedente é descartado, o segundo espera uma vaga
+        AuditRing sample = new AuditRing(2, OverflowPolicy.SAMPLE, 2);
+        sample.publish(AuditEventType.SIGNIN_FAILED, 0, 0, 0, null);
+        sample.publish(AuditEventType.SIGNIN_FAILED, 1, 0, 0, null);
+        assertFalse(sample.publish(AuditEventType.SIGNIN_FAILED, 2, 0, 0, null));
+        CompletableFuture<Boolean> sampled = CompletableFuture.supplyAsync(
+                () -> sample.publish(AuditEventType.SIGNIN_FAILED, 3, 0, 0, null));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(sampled.isDone());
+        sample.drain(1, (type, time, user, actor, name) -> { });
+        assertTrue(sampled.get(5, TimeUnit.SECONDS));
+        assertEquals(1, sample.dropped());
+        assertEquals(2, sample.overflows());
+
+        // BLOCK espera até o escritor liberar uma vaga, e desiste quando o anel é fechado
+        AuditRing block = new AuditRing(2, OverflowPolicy.BLOCK, 1);
+        block.publish(AuditEventType.SIGNIN_FAILED, 0, 0, 0, null);
+        block.publish(AuditEventType.SIGNIN_FAILED, 1, 0, 0, null);
+        CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(
+                () -> block.publish(AuditEventType.SIGNIN_FAILED, 2, 0, 0, null));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(blocked.isDone());
+        block.close();
+        assertFalse(blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(1, block.dropped());
+    }
+}
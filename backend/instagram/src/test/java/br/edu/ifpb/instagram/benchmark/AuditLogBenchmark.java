@@ -0,0 +1,135 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import br.edu.ifpb.instagram.audit.AuditLog;
+import br.edu.ifpb.instagram.audit.AuditLogReader;
+import br.edu.ifpb.instagram.audit.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * N threads record signin events as fast as they can, as request threads
+ * would. For each overflow policy it reports the events per second the
+ * threads got through, the p99 time of one call, how long the writer took to
+ * empty the ring afterwards, and how many events reached the log. The
+ * baseline is what the log replaces: each thread appending a formatted line
+ * to a shared file under a lock, as a synchronous logger would.
+ *
+ * Use a ring smaller than the events to see the policies differ.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.AuditLogBenchmark -Dexec.args="4 500000 65536"
+ */
+public class AuditLogBenchmark {
+
+    @FunctionalInterface
+    private interface Recorder {
+        void record(int thread, int i);
+    }
+
+    private record Result(double eventsPerSecond, long p99Nanos) { }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int eventsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int ringSize = args.length > 2 ? Integer.parseInt(args[2]) : 65536;
+
+        System.out.printf("%d threads x %,d events, ring of %,d%n", threads, eventsPerThread, ringSize);
+        System.out.printf("%-16s %14s %12s %12s %12s%n", "mode", "events/s", "p99 (ns)", "drain (ms)", "logged");
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            Path directory = Files.createTempDirectory("audit-benchmark");
+            AuditLog auditLog = new AuditLog(new SimpleMeterRegistry(), true, directory, ringSize, policy, 100,
+                    64 * 1024 * 1024, 0, 1024, 1000);
+            Result result = run(threads, eventsPerThread,
+                    (thread, i) -> auditLog.signinSucceeded(i, "usuario" + thread));
+            long drainStart = System.nanoTime();
+            auditLog.shutdown();
+            long drainMillis = (System.nanoTime() - drainStart) / 1_000_000;
+            long logged = AuditLogReader.read(directory, record -> { });
+            System.out.printf("%-16s %,14.0f %,12d %,12d %,12d%n", "ring " + policy, result.eventsPerSecond(),
+                    result.p99Nanos(), drainMillis, logged);
+            delete(directory);
+        }
+
+        Path file = Files.createTempFile("audit-benchmark", ".log");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            Object lock = new Object();
+            Result result = run(threads, eventsPerThread, (thread, i) -> {
+                byte[] line = (System.currentTimeMillis() + "\tSIGNIN_SUCCEEDED\t" + i + "\t0\tusuario" + thread + "\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                synchronized (lock) {
+                    try {
+                        out.write(line);
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            System.out.printf("%-16s %,14.0f %,12d %12s %,12d%n", "synchronous", result.eventsPerSecond(),
+                    result.p99Nanos(), "-", (long) threads * eventsPerThread);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // every 16th call is timed
+    private static Result run(int threads, int eventsPerThread, Recorder recorder) throws Exception {
+        long[][] samples = new long[threads][eventsPerThread / 16];
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        if ((i & 15) == 0 && i / 16 < samples[thread].length) {
+                            long start = System.nanoTime();
+                            recorder.record(thread, i);
+                            samples[thread][i / 16] = System.nanoTime() - start;
+                        } else {
+                            recorder.record(thread, i);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (failure.get() != null) {
+            throw new IllegalStateException(failure.get());
+        }
+        long[] all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result((double) threads * eventsPerThread * 1e9 / elapsed,
+                all.length == 0 ? 0 : all[(int) (all.length * 0.99)]);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
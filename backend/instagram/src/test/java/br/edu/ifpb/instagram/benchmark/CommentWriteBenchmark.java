@@ -0,0 +1,123 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.edu.ifpb.instagram.InstagramApplication;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.CommentDto;
+import br.edu.ifpb.instagram.model.id.SnowflakeIdGenerator;
+import br.edu.ifpb.instagram.service.CommentService;
+import br.edu.ifpb.instagram.service.CommentService.Order;
+
+/**
+ * N threads comment on one post through CommentService (a third of them
+ * replies to earlier comments) and report sustained comments per second,
+ * then time a newest-first page and a top-comments page on the result.
+ * Every comment is a plain insert keyed by a Snowflake id, so no row is hot.
+ *
+ * Needs the configured database (docker compose up mariadb-test).
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.CommentWriteBenchmark -Dexec.args="16 50000"
+ */
+public class CommentWriteBenchmark {
+
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int comments = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        SpringApplication application = new SpringApplication(InstagramApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = application.run()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            CommentService commentService = context.getBean(CommentService.class);
+
+            long[] authorIds = seedUsers(jdbc, threads);
+            long postId = seedPost(jdbc, authorIds[0]);
+            CommentDto first = commentService.createComment(postId, authorIds[0], "primeiro", null);
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            int perThread = comments / threads;
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                long authorId = authorIds[t];
+                futures.add(executor.submit(() -> {
+                    Long thread = first.id();
+                    for (int i = 0; i < perThread; i++) {
+                        CommentDto created = commentService.createComment(postId, authorId, "comentário " + i,
+                                i % 3 == 0 ? thread : null);
+                        if (i % 100 == 0) {
+                            thread = created.parentId() == null ? created.id() : thread;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+            System.out.printf("%,d comments from %d threads: %,.0f comments/s%n", perThread * threads, threads,
+                    perThread * threads * 1e9 / elapsed);
+
+            System.out.printf("newest page: %.1f us%n",
+                    time(() -> commentService.findComments(postId, Order.NEWEST, null, 20)) / 1_000.0);
+            CursorPage<CommentDto> deep = commentService.findComments(postId, Order.NEWEST, null, 50);
+            Long cursor = deep.nextCursor();
+            System.out.printf("newest page past 50: %.1f us%n",
+                    time(() -> commentService.findComments(postId, Order.NEWEST, cursor, 20)) / 1_000.0);
+            System.out.printf("top page (ranking cached): %.1f us%n",
+                    time(() -> commentService.findComments(postId, Order.TOP, null, 20)) / 1_000.0);
+
+            for (long authorId : authorIds) {
+                jdbc.update("DELETE FROM users WHERE id = ?", authorId);
+            }
+        }
+    }
+
+    private static long[] seedUsers(JdbcTemplate jdbc, int count) {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+        long[] userIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            userIds[i] = ids.nextId();
+            String username = "bench" + userIds[i];
+            jdbc.update("INSERT INTO users (id, full_name, username, username_normalized, email, email_normalized, "
+                    + "encrypted_password) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    userIds[i], "Benchmark", username, username, username + "@bench", username + "@bench", "x");
+        }
+        return userIds;
+    }
+
+    private static long seedPost(JdbcTemplate jdbc, long authorId) {
+        long postId = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID - 1).nextId();
+        jdbc.update("INSERT INTO posts (id, author_id, caption, created_at) VALUES (?, ?, ?, ?)",
+                postId, authorId, "viral", Timestamp.from(Instant.now()));
+        return postId;
+    }
+
+    // average nanoseconds per call after a warm-up pass
+    private static long time(Runnable call) {
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
@@ -0,0 +1,99 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+
+/**
+ * Encodes a GET /users page of the given number of UserDetailsResponse as
+ * JSON, CBOR and Smile with a writer resolved up front, as
+ * ContentNegotiationConfig does, and reports ns per page and per user and the
+ * bytes on the wire: uncompressed, gzip and zstd, with the time each
+ * compression adds per page.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.ContentEncodingBenchmark -Dexec.args="500"
+ */
+public class ContentEncodingBenchmark {
+
+    private static final long RUN_NANOS = 2_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        List<UserDetailsResponse> page = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long id = 180_000_000_000_000_000L + i * 4_194_304L;
+            page.add(new UserDetailsResponse(id, "Usuária Número " + i + " da Silva", "usuaria_" + i,
+                    "usuaria." + i + "@ifpb.edu.br"));
+        }
+
+        System.out.printf("%,d users per page%n", users);
+        System.out.printf("%-8s %12s %10s %10s %10s %10s %12s %12s%n", "format", "ns/page", "ns/user", "bytes",
+                "gzip", "zstd", "gzip ns", "zstd ns");
+        for (String format : List.of("json", "cbor", "smile")) {
+            run(format, page);
+        }
+    }
+
+    private static void run(String format, List<UserDetailsResponse> page) throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = new ObjectMapper(factory);
+        ObjectWriter writer = mapper.writerFor(mapper.getTypeFactory()
+                .constructCollectionType(List.class, UserDetailsResponse.class));
+
+        byte[] encoded = writer.writeValueAsBytes(page);
+        double encodeNanos = time(() -> writer.writeValueAsBytes(page));
+        byte[] gzip = compress(encoded, false);
+        byte[] zstd = compress(encoded, true);
+        double gzipNanos = time(() -> compress(encoded, false));
+        double zstdNanos = time(() -> compress(encoded, true));
+
+        System.out.printf("%-8s %,12.0f %,10.1f %,10d %,10d %,10d %,12.0f %,12.0f%n",
+                format, encodeNanos, encodeNanos / page.size(), encoded.length,
+                gzip.length, zstd.length, gzipNanos, zstdNanos);
+    }
+
+    private static byte[] compress(byte[] data, boolean zstd) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length);
+        try (OutputStream out = zstd ? new ZstdOutputStream(bytes, 3) : new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    // warms up for a run, then averages over another
+    private static double time(Task task) throws IOException {
+        for (int pass = 0; pass < 2; pass++) {
+            long start = System.nanoTime();
+            long operations = 0;
+            while (System.nanoTime() - start < RUN_NANOS) {
+                task.run();
+                operations++;
+            }
+            if (pass == 1) {
+                return (double) (System.nanoTime() - start) / operations;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private interface Task {
+        void run() throws IOException;
+    }
+}
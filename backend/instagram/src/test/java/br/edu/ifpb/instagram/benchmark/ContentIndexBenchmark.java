@@ -0,0 +1,84 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+
+import br.edu.ifpb.instagram.media.ContentIndex;
+
+/**
+ * Fills the content index with N synthetic hashes and reports heap growth
+ * (should stay near zero: entries live in mapped files), lookups and
+ * duplicate-upload reference increments per second, and the reopen time.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.ContentIndexBenchmark -Dexec.args="2000000"
+ */
+public class ContentIndexBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = Files.createTempDirectory("content-index-benchmark");
+
+        String[] hashes = new String[10_000];
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = usedHeap(runtime);
+        ContentIndex index = new ContentIndex(dir);
+        SplittableRandom random = new SplittableRandom(7);
+        long start = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            String sha256 = randomHash(random);
+            if (i < hashes.length) {
+                hashes[i] = sha256;
+            }
+            index.acquire(sha256, 1024, i);
+        }
+        long insertNanos = System.nanoTime() - start;
+        long heapAfter = usedHeap(runtime);
+        System.out.printf("entries=%,d insert=%,.0f ops/s heap delta=%,d KB%n", index.size(),
+                entries * 1e9 / insertNanos, (heapAfter - heapBefore) / 1024);
+
+        int lookups = 2_000_000;
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            found += index.refcount(hashes[i % hashes.length]);
+        }
+        System.out.printf("lookup: %,.0f ops/s (%d)%n", lookups * 1e9 / (System.nanoTime() - start), found);
+
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            index.acquire(hashes[i % hashes.length], 1024, i);
+        }
+        System.out.printf("duplicate upload (acquire existing): %,.0f ops/s%n",
+                lookups * 1e9 / (System.nanoTime() - start));
+
+        index.close();
+        start = System.nanoTime();
+        try (ContentIndex reopened = new ContentIndex(dir)) {
+            System.out.printf("reopen with %,d entries: %,d ms%n", reopened.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static String randomHash(SplittableRandom random) {
+        byte[] sha = new byte[32];
+        for (int j = 0; j < 32; j += 8) {
+            long value = random.nextLong();
+            for (int k = 0; k < 8; k++) {
+                sha[j + k] = (byte) (value >>> (k * 8));
+            }
+        }
+        return HexFormat.of().formatHex(sha);
+    }
+
+    private static long usedHeap(Runtime runtime) {
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
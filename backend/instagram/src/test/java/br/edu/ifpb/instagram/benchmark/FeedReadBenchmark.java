@@ -0,0 +1,85 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import br.edu.ifpb.instagram.feed.HomeTimelines;
+import br.edu.ifpb.instagram.feed.HomeTimelines.FeedSlice;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+
+/**
+ * Fills full home timelines for N readers, each following a few fan-out-on-read
+ * authors, then times the in-memory read path (ring merge + cached post lookup)
+ * and reports p50/p99 latency and heap per cached timeline.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.FeedReadBenchmark -Dexec.args="100000 5"
+ */
+public class FeedReadBenchmark {
+
+    private static final int CAPACITY = 500;
+    private static final int PAGE_SIZE = 20;
+    private static final int READS = 1_000_000;
+
+    public static void main(String[] args) {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int celebritiesPerReader = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = usedHeap(runtime);
+
+        HomeTimelines timelines = new HomeTimelines(CAPACITY, readers, 200_000);
+        SplittableRandom random = new SplittableRandom(42);
+        long nextPostId = 1_000_000;
+        for (long reader = 1; reader <= readers; reader++) {
+            List<Long> ids = new ArrayList<>(CAPACITY);
+            for (int i = 0; i < CAPACITY; i++) {
+                ids.add(nextPostId - i * (1 + random.nextInt(50)));
+            }
+            timelines.ensureTimeline(reader, () -> ids);
+        }
+        long heapAfter = usedHeap(runtime);
+
+        long[] celebrities = new long[celebritiesPerReader];
+        for (int i = 0; i < celebrities.length; i++) {
+            long authorId = readers + 1 + i;
+            celebrities[i] = authorId;
+            List<Long> ids = new ArrayList<>(CAPACITY);
+            for (int j = 0; j < CAPACITY; j++) {
+                ids.add(nextPostId - j * 97 - i);
+            }
+            timelines.ensureAuthorPosts(authorId, () -> ids);
+        }
+        for (long id = nextPostId - 200_000; id <= nextPostId; id++) {
+            timelines.cachePost(new PostDto(id, 1L, new UserSummaryDto(1L, "author", "Author"), "caption",
+                    List.of(), Instant.now()));
+        }
+
+        System.out.printf("timelines=%,d capacity=%d heap=%,d MB (%,d bytes/timeline)%n",
+                timelines.timelineCount(), CAPACITY, (heapAfter - heapBefore) / (1024 * 1024),
+                (heapAfter - heapBefore) / readers);
+
+        long[] latencies = new long[READS];
+        long served = 0;
+        for (int i = 0; i < READS; i++) {
+            long reader = 1 + random.nextInt(readers);
+            long start = System.nanoTime();
+            FeedSlice slice = timelines.read(reader, celebrities, Long.MAX_VALUE, PAGE_SIZE);
+            served += timelines.cachedPosts(slice.postIds()).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("read: p50=%.1f us p99=%.1f us p99.9=%.1f us (%d posts served)%n",
+                latencies[READS / 2] / 1_000.0, latencies[READS * 99 / 100] / 1_000.0,
+                latencies[READS * 999 / 1000] / 1_000.0, served);
+    }
+
+    private static long usedHeap(Runtime runtime) {
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
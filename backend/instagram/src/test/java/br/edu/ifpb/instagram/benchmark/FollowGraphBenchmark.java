@@ -0,0 +1,60 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.util.SplittableRandom;
+
+import br.edu.ifpb.instagram.graph.FollowGraph;
+
+/**
+ * Loads a synthetic power-law-ish graph and reports heap per edge and
+ * isFollowing lookups per second. For 100M edges run with -Xmx4g and
+ * args "10000000 100000000".
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.FollowGraphBenchmark -Dexec.args="1000000 10000000"
+ */
+public class FollowGraphBenchmark {
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long edges = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = usedHeap(runtime);
+
+        FollowGraph graph = new FollowGraph();
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        for (long i = 0; i < edges; i++) {
+            long follower = 1 + random.nextInt(users);
+            // skew followees towards low ids so a few accounts get most followers
+            long followee = 1 + (long) (users * Math.pow(random.nextDouble(), 3));
+            if (follower != followee) {
+                graph.follow(follower, followee);
+            }
+        }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapAfter = usedHeap(runtime);
+
+        System.out.printf("edges=%,d users=%,d load=%,d ms%n", graph.edgeCount(), graph.userCount(), loadMillis);
+        System.out.printf("heap used=%,d MB (%.1f bytes/edge), estimated=%,d MB%n",
+                (heapAfter - heapBefore) / (1024 * 1024),
+                (heapAfter - heapBefore) / (double) graph.edgeCount(),
+                graph.estimatedHeapBytes() / (1024 * 1024));
+
+        int lookups = 10_000_000;
+        long hits = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (graph.isFollowing(1 + random.nextInt(users), 1 + random.nextInt(1_000))) {
+                hits++;
+            }
+        }
+        long lookupNanos = System.nanoTime() - start;
+        System.out.printf("isFollowing: %,.0f ops/s (%d hits)%n", lookups * 1e9 / lookupNanos, hits);
+    }
+
+    private static long usedHeap(Runtime runtime) {
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.edu.ifpb.instagram.like.LikeChange;
+import br.edu.ifpb.instagram.like.LikeCounters;
+import br.edu.ifpb.instagram.like.LikeFlusher;
+import br.edu.ifpb.instagram.like.LikeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * N threads like one viral post as fast as they can, each with its own users,
+ * while LikeFlusher drains every 100 ms into a store that discards the batch.
+ * Reports accepted likes per second, then isolates the hot counter itself:
+ * LongAdder against a single lock-protected long, the in-memory analogue of
+ * one row updated per like.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.LikeCounterBenchmark -Dexec.args="8 200000"
+ */
+public class LikeCounterBenchmark {
+
+    private static final long POST_ID = 1L;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int likesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        LikeStore store = new LikeStore(new JdbcTemplate()) {
+            @Override
+            public List<Long> likedPostIds(long userId) {
+                return List.of();
+            }
+
+            @Override
+            public long likeCount(long postId) {
+                return 0;
+            }
+
+            @Override
+            public void write(List<LikeChange> changes, long[] postIds, long[] deltas, Instant now) {
+            }
+        };
+        LikeCounters counters = new LikeCounters(store, 100_000);
+        LikeFlusher flusher = new LikeFlusher(counters, store, new SimpleMeterRegistry());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(flusher::flush, 100, 100, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        run(threads, likesPerThread, userId -> counters.like(userId, POST_ID));
+        long elapsed = System.nanoTime() - start;
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        flusher.flush();
+        System.out.printf("like path (membership + counter + flush): %,.0f likes/s, count=%,d, cached users=%,d%n",
+                threads * (double) likesPerThread * 1e9 / elapsed, counters.count(POST_ID), counters.cachedUsers());
+
+        LongAdder adder = new LongAdder();
+        start = System.nanoTime();
+        run(threads, likesPerThread * 10, userId -> adder.increment());
+        elapsed = System.nanoTime() - start;
+        System.out.printf("hot counter, LongAdder: %,.0f increments/s, count=%,d%n",
+                threads * (double) likesPerThread * 10 * 1e9 / elapsed, adder.sum());
+
+        Object lock = new Object();
+        long[] hotRow = {0};
+        start = System.nanoTime();
+        run(threads, likesPerThread * 10, userId -> {
+            synchronized (lock) {
+                hotRow[0]++;
+            }
+        });
+        elapsed = System.nanoTime() - start;
+        System.out.printf("hot counter, single lock: %,.0f increments/s, count=%,d%n",
+                threads * (double) likesPerThread * 10 * 1e9 / elapsed, hotRow[0]);
+    }
+
+    private static void run(int threads, int likesPerThread, LikeAction action) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong nextUser = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            long firstUser = nextUser.getAndAdd(likesPerThread);
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < likesPerThread; i++) {
+                    action.like(firstUser + i);
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+    }
+
+    @FunctionalInterface
+    private interface LikeAction {
+        void like(long userId);
+    }
+}
@@ -0,0 +1,124 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import br.edu.ifpb.instagram.media.FileRegionWriter;
+import br.edu.ifpb.instagram.media.MediaCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Serves a skewed mix of N small files (avatar-sized) from disk and then
+ * through MediaCache, and reports requests per second, hit ratio and the GC
+ * time spent in each phase. The cache is sized in MB by the second argument;
+ * run with -XX:MaxDirectMemorySize at least that large.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.MediaCacheBenchmark -Dexec.args="5000 256"
+ */
+public class MediaCacheBenchmark {
+
+    private static final int FILE_BYTES = 24 * 1024;
+    private static final int REQUESTS = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        long cacheBytes = (args.length > 1 ? Long.parseLong(args[1]) : 256) * 1024 * 1024;
+
+        Path dir = Files.createTempDirectory("media-cache-benchmark");
+        Path[] paths = new Path[files];
+        SplittableRandom random = new SplittableRandom(11);
+        byte[] content = new byte[FILE_BYTES];
+        for (int i = 0; i < files; i++) {
+            random.nextBytes(content);
+            paths[i] = Files.write(dir.resolve(String.format("%064d", i)), content);
+        }
+        // a few files (the popular avatars) get most of the traffic
+        int[] sequence = new int[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            sequence[i] = (int) (files * Math.pow(random.nextDouble(), 3));
+        }
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/1");
+        DiscardingResponse response = new DiscardingResponse();
+
+        run("disk ", () -> {
+            for (int index : sequence) {
+                FileRegionWriter.write(paths[index], 0, FILE_BYTES, request, response);
+            }
+        });
+
+        MediaCache cache = new MediaCache(new SimpleMeterRegistry(), cacheBytes, 1024 * 1024, 64 * 1024 * 1024,
+                4 * 1024);
+        run("cache", () -> {
+            for (int index : sequence) {
+                cache.write(paths[index], FILE_BYTES, 0, FILE_BYTES, request, response);
+            }
+        });
+        System.out.printf("hit ratio %.3f, cached %,d KB in %,d entries, reserved %,d KB%n", cache.hitRatio(),
+                cache.cachedBytes() / 1024, cache.entries(), cache.reservedBytes() / 1024);
+
+        try (var walk = Files.walk(dir)) {
+            walk.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static void run(String name, IoRunnable work) throws IOException {
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        work.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%s: %,.0f req/s, %,.0f MB/s, GC %d ms%n", name, REQUESTS * 1e9 / elapsed,
+                (double) REQUESTS * FILE_BYTES / elapsed * 1e9 / (1024 * 1024), gcMillis() - gcBefore);
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, bean.getCollectionTime());
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface IoRunnable {
+        void run() throws IOException;
+    }
+
+    // keeps the response body off the heap so only the serving path is measured
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.edu.ifpb.instagram.media.MediaStorage;
+import br.edu.ifpb.instagram.media.MultipartStreamReader;
+
+/**
+ * Streams synthetic multipart uploads through MultipartStreamReader and
+ * MediaStorage from N threads at once and reports sustained MB/s plus the
+ * heap each upload allocated (per-thread allocation counter), which should
+ * stay flat as the file size grows.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.MediaUploadBenchmark -Dexec.args="8 256 4"
+ */
+public class MediaUploadBenchmark {
+
+    private static final String BOUNDARY = "benchmark-boundary";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int fileMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int uploadsPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long fileBytes = fileMegabytes * 1024L * 1024L;
+
+        Path root = Files.createTempDirectory("media-benchmark");
+        MediaStorage storage = new MediaStorage(root, Long.MAX_VALUE);
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        AtomicLong allocated = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < uploadsPerThread; i++) {
+                    long before = threadBean.getCurrentThreadAllocatedBytes();
+                    MultipartStreamReader reader = new MultipartStreamReader(
+                            new SyntheticMultipart(fileBytes, seed * 1000 + i), BOUNDARY);
+                    storage.store(reader.nextFilePart().content());
+                    allocated.addAndGet(threadBean.getCurrentThreadAllocatedBytes() - before);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        long uploads = (long) threads * uploadsPerThread;
+        System.out.printf("%d threads x %d uploads of %d MB: %.0f MB/s, %.1f KB heap allocated per upload%n",
+                threads, uploadsPerThread, fileMegabytes, uploads * fileMegabytes / seconds,
+                allocated.get() / 1024.0 / uploads);
+
+        try (var files = Files.walk(root)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    // multipart body generated on the fly so the benchmark itself holds nothing in memory
+    private static final class SyntheticMultipart extends InputStream {
+
+        private final byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"video.mp4\"\r\n"
+                + "Content-Type: video/mp4\r\n\r\n").getBytes();
+        private final byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes();
+        private final long total;
+        private final int seed;
+        private long position;
+
+        SyntheticMultipart(long fileBytes, int seed) {
+            this.total = head.length + fileBytes + tail.length;
+            this.seed = seed;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= total) {
+                return -1;
+            }
+            int count = (int) Math.min(len, total - position);
+            for (int i = 0; i < count; i++, position++) {
+                b[off + i] = byteAt(position);
+            }
+            return count;
+        }
+
+        private byte byteAt(long p) {
+            if (p < head.length) {
+                return head[(int) p];
+            }
+            long fileEnd = total - tail.length;
+            if (p >= fileEnd) {
+                return tail[(int) (p - fileEnd)];
+            }
+            // letters only, so the body never contains the boundary
+            return (byte) ('a' + ((p * 31 + seed) % 26));
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
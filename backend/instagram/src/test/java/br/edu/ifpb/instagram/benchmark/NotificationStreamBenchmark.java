@@ -0,0 +1,141 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import br.edu.ifpb.instagram.InstagramApplication;
+import br.edu.ifpb.instagram.model.id.SnowflakeIdGenerator;
+import br.edu.ifpb.instagram.notification.NotificationHub;
+import br.edu.ifpb.instagram.security.JwtUtils;
+
+/**
+ * Opens N idle notification streams against a real server, one user each,
+ * from a single selector thread, and reports the heap held per connection
+ * (server and client share the JVM, so this is an upper bound) and the time
+ * for one event published to every user to reach all of them.
+ *
+ * Needs the configured database (docker compose up mariadb-test) and a file
+ * descriptor limit above 2N (ulimit -n).
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.NotificationStreamBenchmark -Dexec.args="20000"
+ */
+public class NotificationStreamBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int streams = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        SpringApplication application = new SpringApplication(InstagramApplication.class);
+        application.setDefaultProperties(Map.of("server.port", "0"));
+        try (ConfigurableApplicationContext context = application.run()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            JwtUtils jwtUtils = context.getBean(JwtUtils.class);
+            NotificationHub hub = context.getBean(NotificationHub.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            long[] userIds = seedUsers(jdbc, streams);
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            long heapBefore = usedHeap(memory);
+
+            Selector selector = Selector.open();
+            List<SocketChannel> channels = new ArrayList<>(streams);
+            long start = System.nanoTime();
+            for (long userId : userIds) {
+                String token = jwtUtils.generateToken(
+                        new UsernamePasswordAuthenticationToken("bench" + userId, null));
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+                channel.write(StandardCharsets.US_ASCII.encode("GET /notifications/stream HTTP/1.1\r\n"
+                        + "Host: localhost\r\nAccept: text/event-stream\r\nAuthorization: Bearer " + token
+                        + "\r\n\r\n"));
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ);
+                channels.add(channel);
+            }
+            // every stream has sent its "retry" line once it is registered
+            awaitBytes(selector, streams, "retry:");
+            System.out.printf("%,d streams open in %,d ms%n", streams, (System.nanoTime() - start) / 1_000_000);
+            System.out.printf("heap per open stream: %,d bytes (%,d connections registered)%n",
+                    (usedHeap(memory) - heapBefore) / streams, hub.connections());
+
+            start = System.nanoTime();
+            for (long userId : userIds) {
+                hub.publish(userId, "like", Map.of("postId", 1));
+            }
+            long published = System.nanoTime() - start;
+            awaitBytes(selector, streams, "event: like");
+            System.out.printf("fan-out to %,d streams: published in %,d ms, all received in %,d ms%n", streams,
+                    published / 1_000_000, (System.nanoTime() - start) / 1_000_000);
+
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+            selector.close();
+            for (long userId : userIds) {
+                jdbc.update("DELETE FROM users WHERE id = ?", userId);
+            }
+        }
+    }
+
+    private static long[] seedUsers(JdbcTemplate jdbc, int count) {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+        long[] userIds = new long[count];
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            userIds[i] = ids.nextId();
+            String username = "bench" + userIds[i];
+            rows.add(new Object[] { userIds[i], "Benchmark", username, username, username + "@bench",
+                    username + "@bench", "x" });
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, full_name, username, username_normalized, email, "
+                + "email_normalized, encrypted_password) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        return userIds;
+    }
+
+    // waits until every channel has sent something containing marker
+    private static void awaitBytes(Selector selector, int channels, String marker) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        int seen = 0;
+        for (SelectionKey key : selector.keys()) {
+            key.attach(null);
+        }
+        while (seen < channels) {
+            if (selector.select(10_000) == 0) {
+                throw new IllegalStateException("Only " + seen + " of " + channels + " streams got " + marker);
+            }
+            for (SelectionKey key : selector.selectedKeys()) {
+                buffer.clear();
+                if (((SocketChannel) key.channel()).read(buffer) < 0) {
+                    throw new IllegalStateException("Server closed a stream");
+                }
+                buffer.flip();
+                if (key.attachment() == null
+                        && StandardCharsets.US_ASCII.decode(buffer).toString().contains(marker)) {
+                    key.attach(Boolean.TRUE);
+                    seen++;
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    private static long usedHeap(MemoryMXBean memory) throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
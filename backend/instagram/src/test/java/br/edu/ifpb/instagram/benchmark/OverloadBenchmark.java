@@ -0,0 +1,150 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import br.edu.ifpb.instagram.overload.Bulkhead;
+import br.edu.ifpb.instagram.overload.GradientLimit;
+import br.edu.ifpb.instagram.overload.OverloadFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Simulates a node whose requests all need one of 10 database connections
+ * for 5 ms (about 2,000 requests/s), served by 200 container threads with an
+ * unbounded accept queue. Authenticated reads arrive at a steady 600/s while
+ * writes spike to three times the node's capacity for the given number of
+ * seconds. Runs the spike once without and once behind {@link OverloadFilter}
+ * and reports, per group, the requests answered within the 1 s client timeout,
+ * those rejected with 503, those the client gave up on, and the p50/p99 of the
+ * ones that succeeded.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.OverloadBenchmark -Dexec.args="10"
+ */
+public class OverloadBenchmark {
+
+    private static final int CONNECTIONS = 10;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long CLIENT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int READS_PER_SECOND = 600;
+    private static final int WRITES_PER_SECOND = 6_000;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        run("no limiter", null, seconds);
+        OverloadFilter filter = new OverloadFilter(bulkhead(OverloadFilter.AUTH), bulkhead(OverloadFilter.READS),
+                bulkhead(OverloadFilter.WRITES), 200, 40, new SimpleMeterRegistry());
+        run("overload filter", filter, seconds);
+    }
+
+    private static Bulkhead bulkhead(String name) {
+        return new Bulkhead(name, new GradientLimit(20, 4, 200, TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    private static void run(String label, OverloadFilter filter, int seconds) throws Exception {
+        Semaphore connections = new Semaphore(CONNECTIONS, true);
+        ThreadPoolExecutor threads = new ThreadPoolExecutor(200, 200, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        threads.prestartAllCoreThreads();
+        Group reads = new Group("reads");
+        Group writes = new Group("writes");
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long tick = TimeUnit.MILLISECONDS.toNanos(10);
+        int readsPerTick = READS_PER_SECOND / 100;
+        int writesPerTick = WRITES_PER_SECOND / 100;
+        for (long next = start; next < end; next += tick) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            for (int i = 0; i < readsPerTick; i++) {
+                submit(threads, filter, connections, reads, "GET", "/feed");
+            }
+            for (int i = 0; i < writesPerTick; i++) {
+                submit(threads, filter, connections, writes, "POST", "/posts");
+            }
+        }
+        threads.shutdown();
+        threads.awaitTermination(10, TimeUnit.MINUTES);
+
+        System.out.printf("%s, %d s of writes at %,d/s against ~%,d/s of capacity:%n", label, seconds,
+                WRITES_PER_SECOND, CONNECTIONS * TimeUnit.SECONDS.toNanos(1) / SERVICE_NANOS);
+        reads.print();
+        writes.print();
+    }
+
+    private static void submit(ExecutorService threads, OverloadFilter filter, Semaphore connections, Group group,
+            String method, String path) {
+        long arrival = System.nanoTime();
+        threads.execute(() -> {
+            FilterChain chain = (request, response) -> {
+                connections.acquireUninterruptibly();
+                try {
+                    LockSupport.parkNanos(SERVICE_NANOS);
+                } finally {
+                    connections.release();
+                }
+            };
+            MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken("user", null, List.of()));
+                if (filter != null) {
+                    filter.doFilter(request, response, chain);
+                } else {
+                    chain.doFilter(request, response);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+            group.record(response.getStatus(), System.nanoTime() - arrival);
+        });
+    }
+
+    private static final class Group {
+
+        private final String name;
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+        private final ConcurrentLinkedQueue<Long> succeeded = new ConcurrentLinkedQueue<>();
+
+        Group(String name) {
+            this.name = name;
+        }
+
+        void record(int status, long latencyNanos) {
+            if (status == 503) {
+                rejected.incrementAndGet();
+            } else if (latencyNanos > CLIENT_TIMEOUT_NANOS) {
+                timedOut.incrementAndGet();
+            } else {
+                succeeded.add(latencyNanos);
+            }
+        }
+
+        void print() {
+            long[] latencies = succeeded.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("  %-6s ok=%,d rejected=%,d timed out=%,d  p50=%.1f ms p99=%.1f ms%n", name,
+                    latencies.length, rejected.get(), timedOut.get(), percentile(latencies, 50),
+                    percentile(latencies, 99));
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1e6;
+        }
+    }
+}
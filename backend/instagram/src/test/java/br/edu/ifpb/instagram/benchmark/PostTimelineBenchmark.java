@@ -0,0 +1,89 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.edu.ifpb.instagram.InstagramApplication;
+import br.edu.ifpb.instagram.model.id.SnowflakeIdGenerator;
+import br.edu.ifpb.instagram.service.PostService;
+
+/**
+ * Seeds one author with N posts and times a timeline page fetched at growing
+ * cursor depths, next to the equivalent OFFSET query. Keyset pages should
+ * cost the same at any depth; OFFSET grows linearly.
+ *
+ * Needs the configured database (docker compose up mariadb-test).
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.PostTimelineBenchmark -Dexec.args="500000"
+ */
+public class PostTimelineBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) {
+        int posts = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        SpringApplication application = new SpringApplication(InstagramApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = application.run()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            PostService postService = context.getBean(PostService.class);
+
+            long authorId = seed(jdbc, posts);
+
+            System.out.printf("%12s %14s %14s%n", "depth", "keyset us/op", "offset us/op");
+            for (int depth = 0; depth < posts; depth = depth == 0 ? 1_000 : depth * 4) {
+                Long cursor = depth == 0 ? null : jdbc.queryForObject(
+                        "SELECT id FROM posts WHERE author_id = ? ORDER BY id DESC LIMIT 1 OFFSET ?",
+                        Long.class, authorId, depth - 1);
+                int offset = depth;
+
+                long keyset = time(() -> postService.findTimeline(authorId, cursor, PAGE_SIZE));
+                long offsetQuery = time(() -> jdbc.queryForList(
+                        "SELECT * FROM posts WHERE author_id = ? ORDER BY id DESC LIMIT ? OFFSET ?",
+                        authorId, PAGE_SIZE, offset));
+                System.out.printf("%,12d %14.1f %14.1f%n", depth, keyset / 1_000.0, offsetQuery / 1_000.0);
+            }
+
+            jdbc.update("DELETE FROM users WHERE id = ?", authorId);
+        }
+    }
+
+    private static long seed(JdbcTemplate jdbc, int posts) {
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+        long authorId = ids.nextId();
+        String username = "bench" + authorId;
+        jdbc.update("INSERT INTO users (id, full_name, username, username_normalized, email, email_normalized, "
+                + "encrypted_password) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                authorId, "Benchmark", username, username, username + "@bench", username + "@bench", "x");
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < posts; i++) {
+            batch.add(new Object[] {ids.nextId(), authorId, "post " + i, java.sql.Timestamp.from(Instant.now())});
+            if (batch.size() == 5_000 || i == posts - 1) {
+                jdbc.batchUpdate("INSERT INTO posts (id, author_id, caption, created_at) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return authorId;
+    }
+
+    // average nanoseconds per call after a warm-up pass
+    private static long time(Runnable call) {
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
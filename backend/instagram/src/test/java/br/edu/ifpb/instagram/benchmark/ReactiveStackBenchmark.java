@@ -0,0 +1,251 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.OperatingSystemMXBean;
+
+import br.edu.ifpb.instagram.InstagramApplication;
+import br.edu.ifpb.instagram.reactive.ReactiveInstagramApplication;
+
+/**
+ * Runs InstagramApplication (Tomcat, JPA) and ReactiveInstagramApplication
+ * (Netty, R2DBC) side by side on the configured database, seeded with the
+ * given number of users, and for each stack reports:
+ * the GET /users/{id} throughput of 32 concurrent clients; the heap and
+ * threads held per slow client, each a connection that asked for GET /users
+ * and then stopped reading, and how many of those lists were answered at
+ * all; and the throughput of the 32 fast clients while those slow
+ * connections stay open. The servlet node keeps a thread, and through
+ * open-session-in-view a pooled connection, blocked on every slow write; the
+ * reactive one a paused subscription.
+ *
+ * GET /users/{id} is served from the near cache on the servlet node and from
+ * the database on the reactive one, and the overload filter is off, so the
+ * first number compares the stacks rather than the features.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.ReactiveStackBenchmark -Dexec.args="60000 250 10"
+ */
+public class ReactiveStackBenchmark {
+
+    private static final int FAST_CLIENTS = 32;
+    private static final Duration CLIENT_TIMEOUT = Duration.ofSeconds(2);
+    private static final String PASSWORD = "benchmark";
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 60_000;
+        int slowClients = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        try (ConfigurableApplicationContext servlet = new SpringApplicationBuilder(InstagramApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0", "--instagram.overload.enabled=false", "--spring.jpa.show-sql=false");
+             ConfigurableApplicationContext reactive = new SpringApplicationBuilder(ReactiveInstagramApplication.class)
+                .profiles(ReactiveInstagramApplication.PROFILE)
+                .web(WebApplicationType.REACTIVE)
+                .run("--server.port=0")) {
+            List<Long> ids = seed(servlet.getBean(JdbcTemplate.class), users);
+            int servletPort = port(servlet);
+            String token = signUp(servletPort);
+
+            System.out.printf("%,d users, %d fast clients, %d slow clients, %d s per run%n", users, FAST_CLIENTS,
+                    slowClients, seconds);
+            // the reactive stack goes first: blocked servlet threads keep working through their backlog after
+            // their slow clients are gone
+            run("reactive", port(reactive), token, ids, slowClients, seconds);
+            run("servlet", servletPort, token, ids, slowClients, seconds);
+        }
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    private static List<Long> seed(JdbcTemplate jdbcTemplate, int users) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long id = 1_000_000_000L + i;
+            String username = "bench" + i;
+            rows.add(new Object[] {id, "Benchmark User " + i, username, "x", username + "@ifpb.edu.br", username,
+                    username + "@ifpb.edu.br"});
+            ids.add(id);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, full_name, username, encrypted_password, email,"
+                + " username_normalized, email_normalized) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        return ids;
+    }
+
+    private static String signUp(int port) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        String username = "benchmark" + System.nanoTime();
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@ifpb.edu.br\","
+                + "\"fullName\":\"Benchmark\",\"password\":\"" + PASSWORD + "\"}";
+        client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        String login = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/signin"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(login)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        return new ObjectMapper().readTree(response.body()).get("token").asText();
+    }
+
+    private static void run(String label, int port, String token, List<Long> ids, int slowClients, int seconds)
+            throws Exception {
+        fastClients(port, token, ids, Math.max(1, seconds / 2)); // warm-up
+        Result idle = fastClients(port, token, ids, seconds);
+
+        long heapBefore = usedHeapAfterGc();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        List<Socket> slow = new ArrayList<>();
+        for (int i = 0; i < slowClients; i++) {
+            slow.add(slowClient(port, token));
+        }
+        // each response is written until the client's socket buffers are full; only then does the node block
+        // or pause, so the measurements wait until it stops using CPU
+        long settleMillis = waitUntilIdle();
+        long heapPerClient = (usedHeapAfterGc() - heapBefore) / slowClients;
+        int threadsAdded = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+        Result loaded = fastClients(port, token, ids, seconds);
+        int listsStarted = 0;
+        for (Socket socket : slow) {
+            listsStarted += statusLine(socket).contains(" 200 ") ? 1 : 0;
+            socket.close();
+        }
+
+        System.out.printf("%-8s  idle: %,.0f req/s p99=%.1f ms  |  per slow client: %,d KB heap, %.2f threads"
+                        + " (settled in %,d ms), %d/%d lists answered 200  |  with slow clients: %,.0f req/s"
+                        + " p99=%.1f ms, %,d failed%n",
+                label, idle.perSecond(seconds), idle.p99(), heapPerClient / 1024,
+                (double) threadsAdded / slowClients, settleMillis, listsStarted, slowClients,
+                loaded.perSecond(seconds), loaded.p99(), loaded.failed.get());
+        TimeUnit.SECONDS.sleep(2);
+    }
+
+    // asks for the whole list and never reads a byte of it
+    private static Socket slowClient(int port, String token) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /users HTTP/1.1\r\nHost: localhost\r\nAccept: application/json\r\n"
+                + "Authorization: Bearer " + token + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    // the first line of whatever the server managed to send; the rest stays unread
+    private static String statusLine(Socket socket) throws IOException {
+        socket.setSoTimeout(1000);
+        StringBuilder line = new StringBuilder();
+        try {
+            InputStream in = socket.getInputStream();
+            for (int b = in.read(); b != -1 && b != '\n'; b = in.read()) {
+                line.append((char) b);
+            }
+        } catch (SocketTimeoutException e) {
+            // nothing was sent
+        }
+        return line.toString();
+    }
+
+    private static Result fastClients(int port, String token, List<Long> ids, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(CLIENT_TIMEOUT).build();
+        Result result = new Result();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < FAST_CLIENTS; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + id))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(CLIENT_TIMEOUT)
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() == 200) {
+                            result.latencies.add(System.nanoTime() - start);
+                        } else {
+                            result.failed.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        result.failed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return result;
+    }
+
+    // until the process used under 10% of the machine for two seconds in a row, at most two minutes
+    private static long waitUntilIdle() throws InterruptedException {
+        OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long start = System.nanoTime();
+        int idleSeconds = 0;
+        while (idleSeconds < 2 && System.nanoTime() - start < TimeUnit.MINUTES.toNanos(2)) {
+            TimeUnit.SECONDS.sleep(1);
+            idleSeconds = os.getProcessCpuLoad() < 0.1 ? idleSeconds + 1 : 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class Result {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong failed = new AtomicLong();
+
+        double perSecond(int seconds) {
+            return (double) latencies.size() / seconds;
+        }
+
+        double p99() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, sorted.length * 99 / 100)] / 1e6;
+        }
+    }
+}
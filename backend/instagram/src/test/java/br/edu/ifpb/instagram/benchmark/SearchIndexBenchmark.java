@@ -0,0 +1,126 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import br.edu.ifpb.instagram.search.SearchIndex;
+
+/**
+ * Indexes N synthetic documents (one user per nine posts, Portuguese names,
+ * captions with accented words plus a skewed tail of rarer ones) into an
+ * on-disk index and reports indexing throughput, the time to make everything
+ * searchable and to commit, then query latency percentiles for one- and
+ * two-word queries and as-you-type prefixes, first on the idle index and then
+ * while a writer keeps indexing and refreshing every second.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.SearchIndexBenchmark -Dexec.args="10000000"
+ */
+public class SearchIndexBenchmark {
+
+    private static final String[] FIRST = {"João", "José", "Maria", "Ana", "Conceição", "Antônio", "Luís",
+        "Mônica", "Sérgio", "Márcia", "Cecília", "Inês", "Raí", "Helena", "Tomás", "Beatriz", "Caio", "Letícia"};
+    private static final String[] LAST = {"Silva", "Souza", "Conceição", "Araújo", "Gonçalves", "Pereira",
+        "Simões", "Galvão", "Brandão", "Lima", "Assunção", "Magalhães", "Damasceno", "Falcão"};
+    private static final String[] WORDS = {"praia", "férias", "São", "Luís", "café", "manhã", "pôr", "sol",
+        "João", "Pessoa", "aniversário", "família", "música", "forró", "açaí", "viagem", "céu", "coração",
+        "amigos", "trilha", "cachoeira", "saudade", "festa", "junina", "pão", "queijo", "feira"};
+    private static final int RARE_WORDS = 200_000;
+    private static final String[] QUERIES = {"joao", "conceicao", "maria silva", "acai", "sao luis",
+        "ferias praia", "coracao", "forro junina", "gonc", "magal", "cachoe", "ines falcao"};
+
+    public static void main(String[] args) throws Exception {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Path dir = Files.createTempDirectory("search-index-benchmark");
+        SearchIndex index = new SearchIndex(dir.toString(), 256);
+        SplittableRandom random = new SplittableRandom(7);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < documents; i++) {
+            index(index, random, i);
+            if (i > 0 && i % 1_000_000 == 0) {
+                System.out.printf("  %,d documents, %,.0f docs/s%n", i, i * 1e9 / (System.nanoTime() - start));
+            }
+        }
+        long indexNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        index.refresh();
+        long refreshNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        index.commit();
+        System.out.printf("indexed %,d documents: %,.0f docs/s, refresh %,d ms, commit %,d ms, %,d MB on disk%n",
+                documents, documents * 1e9 / indexNanos, refreshNanos / 1_000_000,
+                (System.nanoTime() - start) / 1_000_000, size(dir) / (1024 * 1024));
+
+        query(index, "idle index, cold");
+        query(index, "idle index, warm");
+
+        // near-real-time: a writer keeps going while queries run. Stopped with a flag, not an
+        // interrupt: an interrupt during I/O closes the index files under the writer
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            SplittableRandom writes = new SplittableRandom(11);
+            long last = System.nanoTime();
+            for (int i = documents; !stop.get(); i++) {
+                index(index, writes, i);
+                if (System.nanoTime() - last > 1_000_000_000L) {
+                    index.refresh();
+                    last = System.nanoTime();
+                }
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+
+        query(index, "writer running");
+        query(index, "writer running");
+
+        stop.set(true);
+        writer.join();
+        index.close();
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static void query(SearchIndex index, String label) {
+        long[] latencies = new long[2_000];
+        long hits = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            hits += index.search(QUERIES[i % QUERIES.length], 20).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("queries, top 20 (%s): p50=%.2f ms p99=%.2f ms max=%.2f ms (%d hits)%n", label,
+                latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6,
+                latencies[latencies.length - 1] / 1e6, hits);
+    }
+
+    private static void index(SearchIndex index, SplittableRandom random, long id) {
+        if (id % 10 == 0) {
+            String first = FIRST[random.nextInt(FIRST.length)];
+            String last = LAST[random.nextInt(LAST.length)];
+            index.indexUser(id, first.toLowerCase() + id, first + " " + last);
+        } else {
+            // one or two common words among a long tail of rarer ones
+            StringBuilder caption = new StringBuilder();
+            for (int w = 1 + random.nextInt(2); w > 0; w--) {
+                caption.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            for (int w = 2 + random.nextInt(8); w > 0; w--) {
+                caption.append("tag").append((int) (RARE_WORDS * Math.pow(random.nextDouble(), 2))).append(' ');
+            }
+            index.indexPost(id, id - id % 10, caption.toString());
+        }
+    }
+
+    private static long size(Path dir) throws Exception {
+        try (var files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
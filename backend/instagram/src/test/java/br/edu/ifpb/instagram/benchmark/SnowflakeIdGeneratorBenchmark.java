@@ -0,0 +1,59 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.edu.ifpb.instagram.model.id.SnowflakeIdGenerator;
+
+/**
+ * Ids per second for 1..N threads sharing one generator.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.SnowflakeIdGeneratorBenchmark
+ */
+public class SnowflakeIdGeneratorBenchmark {
+
+    private static final long WARMUP_MILLIS = 2_000;
+    private static final long MEASURE_MILLIS = 5_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+        run(generator, maxThreads, WARMUP_MILLIS);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long total = run(generator, threads, MEASURE_MILLIS);
+            double perSecond = total * 1000.0 / MEASURE_MILLIS;
+            System.out.printf("threads=%d ids/s=%,.0f ids/s/thread=%,.0f%n",
+                    threads, perSecond, perSecond / threads);
+        }
+    }
+
+    private static long run(SnowflakeIdGenerator generator, int threads, long millis) throws InterruptedException {
+        LongAdder generated = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long[] sink = new long[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int slot = t;
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                long last = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 1_000; i++) {
+                        last ^= generator.nextId();
+                    }
+                    count += 1_000;
+                }
+                sink[slot] = last;
+                generated.add(count);
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        return generated.sum();
+    }
+}
@@ -0,0 +1,165 @@
+package br.edu.ifpb.instagram.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the jar that {@code mvn -Pstartup package} extracted to
+ * target/startup in each startup mode, one JVM at a time, and reports the
+ * median over the given number of runs of: the time Spring reports in
+ * "Started InstagramApplication ... (process running for N)", and the time
+ * from launching the JVM until a first POST /auth/signin is answered, which
+ * includes the beans a lazy context only creates then.
+ *
+ * Modes: the plain jar, lazy initialization, AOT-processed bean definitions,
+ * AOT with the CDS archive of the training run, and all three.
+ *
+ * Arguments after the number of runs are passed to the application, and a
+ * classpath given with -Dstartup.classpath is appended to the jar's, as for
+ * the training run (the CDS archive only applies to the same classpath):
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=br.edu.ifpb.instagram.benchmark.StartupBenchmark -Dexec.args="target/startup 5"
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile(
+            "Started InstagramApplication in [0-9.]+ seconds \\(process running for ([0-9.]+)\\)");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    private record Mode(String name, List<String> jvmArgs, List<String> appArgs) { }
+
+    private record Run(double startedSeconds, double firstRequestSeconds) { }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(args.length > 0 ? args[0] : "target/startup");
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<String> appArgs = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : List.of();
+
+        Path jar;
+        try (var files = Files.list(directory)) {
+            jar = files.filter(path -> path.toString().endsWith(".jar")).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No jar in " + directory
+                            + "; run mvn -Pstartup package first"));
+        }
+        String extraClasspath = System.getProperty("startup.classpath", "");
+        String classpath = extraClasspath.isEmpty() ? jar.toString() : jar + File.pathSeparator + extraClasspath;
+        String archive = "-XX:SharedArchiveFile=" + directory.resolve("application.jsa");
+        String aot = "-Dspring.aot.enabled=true";
+        String lazy = "--spring.main.lazy-initialization=true";
+
+        List<Mode> modes = List.of(
+                new Mode("jar", List.of(), List.of()),
+                new Mode("lazy", List.of(), List.of(lazy)),
+                new Mode("aot", List.of(aot), List.of()),
+                new Mode("aot+cds", List.of(aot, archive), List.of()),
+                new Mode("aot+cds+lazy", List.of(aot, archive), List.of(lazy)));
+
+        System.out.printf("%s, %d runs per mode, medians%n", jar.getFileName(), runs);
+        System.out.printf("%-14s %14s %16s%n", "mode", "started (s)", "first request (s)");
+        for (Mode mode : modes) {
+            List<Run> results = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                results.add(run(classpath, mode, appArgs));
+            }
+            System.out.printf("%-14s %14.2f %16.2f%n", mode.name(),
+                    median(results.stream().mapToDouble(Run::startedSeconds).toArray()),
+                    median(results.stream().mapToDouble(Run::firstRequestSeconds).toArray()));
+        }
+    }
+
+    private static Run run(String classpath, Mode mode, List<String> appArgs) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs());
+        command.addAll(List.of("-cp", classpath, "br.edu.ifpb.instagram.InstagramApplication",
+                "--server.port=" + port));
+        command.addAll(appArgs);
+        command.addAll(mode.appArgs());
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        CompletableFuture<Double> started = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (matcher.find()) {
+                        started.complete(Double.parseDouble(matcher.group(1)));
+                    }
+                }
+                started.completeExceptionally(new IllegalStateException(mode.name() + " exited before starting"));
+            } catch (IOException e) {
+                started.completeExceptionally(e);
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            double firstRequest = firstRequest(port, launched, process);
+            return new Run(started.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS), firstRequest);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // a signin with an unknown user goes through security, Jackson and JPA and gets 401
+    private static double firstRequest(int port, long launched, Process process) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"nobody\",\"password\":\"nothing\"}"))
+                .timeout(TIMEOUT)
+                .build();
+        while (System.nanoTime() - launched < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 401) {
+                    throw new IllegalStateException("Unexpected status " + response.statusCode());
+                }
+                return (System.nanoTime() - launched) / 1e9;
+            } catch (IOException e) {
+                TimeUnit.MILLISECONDS.sleep(20); // not listening yet
+            }
+        }
+        throw new IllegalStateException("No answer within " + TIMEOUT);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted.length % 2 == 1
+                ? sorted[sorted.length / 2]
+                : (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+    }
+}
@@ -0,0 +1,174 @@
+package br.edu.ifpb.instagram.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NearCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final Map<String, String> database = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<InvalidationBus> buses = new ArrayList<>();
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-10T00:00:00Z"));
+        database.put("1", "ana");
+    }
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(InvalidationBus::close);
+    }
+
+    private NearCache<String> node(InvalidationBus bus) {
+        buses.add(bus);
+        return new NearCaches(bus, new SimpleMeterRegistry(), clock).create("users", TTL, 100);
+    }
+
+    private String read(NearCache<String> node, String key) {
+        return node.get(key, k -> {
+            loads.incrementAndGet();
+            return database.get(k);
+        });
+    }
+
+    @Test
+    void writeOnOneNode_shouldInvalidateTheOtherTwo() {
+        InMemoryInvalidationBus network = new InMemoryInvalidationBus();
+        List<NearCache<String>> nodes = List.of(node(network), node(network.join()), node(network.join()));
+        for (NearCache<String> node : nodes) {
+            assertEquals("ana", read(node, "1"));
+            assertEquals("ana", read(node, "1"));
+        }
+        assertEquals(3, loads.get());
+
+        database.put("1", "ana.souza");
+        nodes.get(0).invalidate("1");
+
+        for (NearCache<String> node : nodes) {
+            assertEquals("ana.souza", read(node, "1"));
+        }
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void loadThatReadTheOldRow_shouldNotBeInstalledAfterTheInvalidation() {
+        InMemoryInvalidationBus network = new InMemoryInvalidationBus();
+        NearCache<String> writer = node(network);
+        NearCache<String> reader = node(network.join());
+        read(reader, "1");
+        clock.advance(TTL);
+
+        // o nó leitor lê a linha antiga; a escrita e sua invalidação chegam antes dele instalar o valor
+        String stale = reader.get("1", key -> {
+            String old = database.get(key);
+            database.put(key, "ana.souza");
+            writer.invalidate(key);
+            return old;
+        });
+
+        assertEquals("ana", stale);
+        assertEquals("ana.souza", read(reader, "1"));
+    }
+
+    @Test
+    void purgedTombstone_shouldStillRejectALoadThatStartedBeforeIt() {
+        InMemoryInvalidationBus network = new InMemoryInvalidationBus();
+        NearCache<String> writer = node(network);
+        NearCaches readerCaches = new NearCaches(network.join(), new SimpleMeterRegistry(), clock);
+        NearCache<String> reader = readerCaches.create("users", TTL, 100);
+
+        String stale = reader.get("1", key -> {
+            String old = database.get(key);
+            database.put(key, "ana.souza");
+            writer.invalidate(key);
+            clock.advance(TTL);
+            readerCaches.purge();
+            return old;
+        });
+
+        assertEquals("ana", stale);
+        assertEquals(0, reader.size());
+        assertEquals("ana.souza", read(reader, "1"));
+    }
+
+    @Test
+    void udpLoopback_shouldInvalidateThreeNodes() throws Exception {
+        InetSocketAddress loopback = new InetSocketAddress("127.0.0.1", 0);
+        List<UdpInvalidationBus> udpBuses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            udpBuses.add(new UdpInvalidationBus(loopback, List.of()));
+        }
+        // cada nó lista todos, inclusive ele mesmo, como numa configuração compartilhada
+        for (UdpInvalidationBus bus : udpBuses) {
+            for (UdpInvalidationBus peer : udpBuses) {
+                bus.addPeer(peer.localAddress());
+            }
+        }
+        List<NearCache<String>> nodes = new ArrayList<>();
+        for (UdpInvalidationBus bus : udpBuses) {
+            nodes.add(node(bus));
+            read(nodes.get(nodes.size() - 1), "1");
+        }
+
+        database.put("1", "ana.souza");
+        nodes.get(2).invalidate("1");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        for (NearCache<String> node : nodes) {
+            while (!"ana.souza".equals(read(node, "1")) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("ana.souza", read(node, "1"));
+        }
+        assertEquals(0, nodes.get(2).remoteInvalidations.sum());
+        assertEquals(1, nodes.get(0).remoteInvalidations.sum());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
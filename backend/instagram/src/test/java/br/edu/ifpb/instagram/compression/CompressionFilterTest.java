@@ -0,0 +1,160 @@
+package br.edu.ifpb.instagram.compression;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+class CompressionFilterTest {
+
+    private static final int MIN_BYTES = 256;
+
+    private CompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new CompressionFilter(List.of(MediaType.APPLICATION_JSON, MediaType.parseMediaType("text/plain")),
+                MIN_BYTES, 3, 6);
+    }
+
+    private static String json(int users) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < users; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"username\":\"usuario").append(i)
+                    .append("\"}");
+        }
+        return body.append("]").toString();
+    }
+
+    // o "controller": escreve o corpo com o tipo e o Content-Length dados, em pedaços de 100 bytes
+    private static FilterChain controller(String contentType, String body, boolean contentLength) {
+        return (request, response) -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            response.setContentType(contentType);
+            if (contentLength) {
+                response.setContentLength(bytes.length);
+            }
+            for (int off = 0; off < bytes.length; off += 100) {
+                response.getOutputStream().write(bytes, off, Math.min(100, bytes.length - off));
+            }
+        };
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String decompress(MockHttpServletResponse response) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(response.getContentAsByteArray());
+        return switch (response.getHeader("Content-Encoding")) {
+            case "zstd" -> new String(new ZstdInputStream(in).readAllBytes(), StandardCharsets.UTF_8);
+            case "gzip" -> new String(new GZIPInputStream(in).readAllBytes(), StandardCharsets.UTF_8);
+            default -> fail("unexpected encoding");
+        };
+    }
+
+    @Test
+    void negotiate_shouldPickTheHighestQualityAndPreferZstdOnTies() {
+        assertEquals(ContentEncoding.ZSTD, ContentEncoding.negotiate("gzip, deflate, br, zstd"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("zstd;q=0.5, gzip"));
+        assertEquals(ContentEncoding.ZSTD, ContentEncoding.negotiate("*"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("zstd;q=0, *;q=0.1"));
+        assertNull(ContentEncoding.negotiate("identity"));
+        assertNull(ContentEncoding.negotiate("gzip;q=0, zstd;q=0"));
+        assertNull(ContentEncoding.negotiate(null));
+    }
+
+    @Test
+    void largeJson_shouldBeCompressedWithTheNegotiatedEncodingAndNoContentLength() throws Exception {
+        String body = json(100);
+
+        MockHttpServletResponse zstd = perform("gzip, zstd", controller("application/json", body, true));
+        assertEquals("zstd", zstd.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", zstd.getHeader("Vary"));
+        assertNull(zstd.getHeader("Content-Length"));
+        assertTrue(zstd.getContentAsByteArray().length < body.length() / 3);
+        assertEquals(body, decompress(zstd));
+
+        MockHttpServletResponse gzip = perform("gzip, deflate", controller("application/json", body, true));
+        assertEquals("gzip", gzip.getHeader("Content-Encoding"));
+        assertEquals(body, decompress(gzip));
+    }
+
+    @Test
+    void smallOrIncompressibleBodies_shouldPassThroughWithTheirLength() throws Exception {
+        String small = json(3);
+        assertTrue(small.length() < MIN_BYTES);
+        MockHttpServletResponse response = perform("zstd", controller("application/json", small, false));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(small.length(), response.getContentLength());
+        assertEquals(small, response.getContentAsString());
+
+        // imagens já vêm comprimidas
+        String image = "x".repeat(4 * MIN_BYTES);
+        response = perform("zstd", controller("image/jpeg", image, true));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Vary"));
+        assertEquals(image.length(), response.getContentLength());
+        assertEquals(image, response.getContentAsString());
+
+        // sem Accept-Encoding o filtro nem entra
+        response = perform(null, controller("application/json", json(100), true));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(json(100), response.getContentAsString());
+    }
+
+    @Test
+    void flushBeforeTheThreshold_shouldSendTheBodyUncompressed() throws Exception {
+        MockHttpServletResponse response = perform("zstd", (request, servletResponse) -> {
+            servletResponse.setContentType("text/plain");
+            servletResponse.getWriter().write("primeira linha\n");
+            servletResponse.flushBuffer();
+            servletResponse.getWriter().write("x".repeat(2 * MIN_BYTES));
+        });
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("primeira linha\n" + "x".repeat(2 * MIN_BYTES), response.getContentAsString());
+    }
+
+    @Test
+    void writerAndErrorStatuses_shouldBeHandled() throws Exception {
+        String body = json(100);
+        MockHttpServletResponse response = perform("gzip", (request, servletResponse) -> {
+            servletResponse.setContentType("application/json");
+            servletResponse.setCharacterEncoding("UTF-8");
+            servletResponse.getWriter().write(body);
+        });
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(body, decompress(response));
+
+        // 204 não tem corpo para comprimir
+        response = perform("gzip", (request, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setStatus(204);
+            servletResponse.setContentType("application/json");
+            servletResponse.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        });
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+}
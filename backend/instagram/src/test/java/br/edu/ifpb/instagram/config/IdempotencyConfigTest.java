@@ -0,0 +1,46 @@
+package br.edu.ifpb.instagram.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.edu.ifpb.instagram.idempotency.IdempotencyStore;
+import br.edu.ifpb.instagram.idempotency.InMemoryIdempotencyStore;
+
+class IdempotencyConfigTest {
+
+    // converte as durações de @Value como a aplicação faz
+    private final ApplicationContextRunner runner = new ApplicationContextRunner().withInitializer(context ->
+            context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()));
+
+    @Test
+    void idempotencyStore_shouldDefaultToInMemory() {
+        runner.withUserConfiguration(IdempotencyConfig.class).run(context ->
+                assertInstanceOf(InMemoryIdempotencyStore.class, context.getBean(IdempotencyStore.class)));
+    }
+
+    @Test
+    void idempotencyStore_shouldStepAsideForASharedStore() {
+        // um store compartilhado entre instâncias substitui o em memória, sem dois beans do mesmo tipo
+        runner.withUserConfiguration(SharedStoreConfig.class, IdempotencyConfig.class).run(context -> {
+            assertNull(context.getStartupFailure());
+            assertSame(context.getBean(SharedStoreConfig.class).store, context.getBean(IdempotencyStore.class));
+        });
+    }
+
+    @Configuration
+    static class SharedStoreConfig {
+
+        final IdempotencyStore store = mock(IdempotencyStore.class);
+
+        @Bean
+        IdempotencyStore sharedIdempotencyStore() {
+            return store;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.edu.ifpb.instagram.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+// um job lento (busca, compactação) não pode atrasar o flush de curtidas nem o relay do outbox
+@SpringBootTest
+class SchedulingConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    void scheduler_shouldHaveAThreadForEveryScheduledJob() {
+        long jobs = Arrays.stream(context.getBeanDefinitionNames())
+                .map(context::getType)
+                .filter(type -> type != null && type.getName().startsWith("br.edu.ifpb.instagram"))
+                .map(ClassUtils::getUserClass)
+                .distinct()
+                .flatMap(type -> Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(type)))
+                .filter(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class))
+                .count();
+
+        assertTrue(jobs >= 10, "found only " + jobs + " jobs");
+        assertTrue(taskScheduler.getPoolSize() >= jobs,
+                "pool of " + taskScheduler.getPoolSize() + " for " + jobs + " jobs");
+    }
+}
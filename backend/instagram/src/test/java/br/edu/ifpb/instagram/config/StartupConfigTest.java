@@ -0,0 +1,31 @@
+package br.edu.ifpb.instagram.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.edu.ifpb.instagram.controller.UserController;
+import br.edu.ifpb.instagram.like.LikeFlusher;
+import br.edu.ifpb.instagram.outbox.OutboxRelay;
+
+// com o contexto preguiçoso, só os beans com @Scheduled nascem na subida
+@SpringBootTest(properties = "spring.main.lazy-initialization=true")
+class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void lazyContext_shouldStillCreateTheScheduledBeansAtStartup() {
+        assertTrue(StartupConfig.hasScheduledMethods(OutboxRelay.class));
+        assertFalse(StartupConfig.hasScheduledMethods(UserController.class));
+
+        var beanFactory = context.getBeanFactory();
+        assertTrue(beanFactory.containsSingleton(beanFactory.getBeanNamesForType(OutboxRelay.class)[0]));
+        assertTrue(beanFactory.containsSingleton(beanFactory.getBeanNamesForType(LikeFlusher.class)[0]));
+        assertFalse(beanFactory.containsSingleton(beanFactory.getBeanNamesForType(UserController.class)[0]));
+    }
+}
@@ -0,0 +1,46 @@
+package br.edu.ifpb.instagram.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.edu.ifpb.instagram.exception.ExportBusyException;
+import br.edu.ifpb.instagram.export.ExportFormat;
+import br.edu.ifpb.instagram.export.UserExporter;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.impl.UserDetailsServiceImpl;
+
+@WebMvcTest(AdminExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class AdminExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserExporter userExporter;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Test
+    void shouldAnswer503WithRetryAfterWhenAllExportSlotsAreTaken() throws Exception {
+        when(userExporter.start(ExportFormat.CSV, 42L))
+            .thenThrow(new ExportBusyException("Too many exports running, try again later"));
+
+        mockMvc.perform(get("/admin/exports/users").param("format", "CSV").param("after", "42"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "30"));
+    }
+}
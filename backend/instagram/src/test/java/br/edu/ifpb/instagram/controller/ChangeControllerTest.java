@@ -0,0 +1,72 @@
+package br.edu.ifpb.instagram.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import br.edu.ifpb.instagram.exception.ChangeCursorExpiredException;
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.outbox.ChangeFeed;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.impl.UserDetailsServiceImpl;
+
+@WebMvcTest(ChangeController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChangeFeed changeFeed;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Test
+    void shouldHoldRequestUntilChangesArrive() throws Exception {
+        CompletableFuture<CursorPage<ChangeDto>> pending = new CompletableFuture<>();
+        when(changeFeed.await(41L, 100)).thenReturn(pending);
+
+        MvcResult result = mockMvc.perform(get("/changes").param("since", "41"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        pending.complete(new CursorPage<>(List.of(new ChangeDto(42L, "user", 7L, "UPDATED",
+                "{\"id\":7,\"username\":\"ana\"}", Instant.parse("2026-01-10T12:00:00Z"))), 42L));
+
+        // o payload vai como JSON de verdade, não como string escapada
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].cursor").value(42))
+            .andExpect(jsonPath("$.items[0].type").value("UPDATED"))
+            .andExpect(jsonPath("$.items[0].data.username").value("ana"))
+            .andExpect(jsonPath("$.nextCursor").value(42));
+    }
+
+    @Test
+    void shouldReturnGoneWhenCursorWasPurged() throws Exception {
+        when(changeFeed.await(1L, 100)).thenThrow(new ChangeCursorExpiredException("expired"));
+
+        mockMvc.perform(get("/changes").param("since", "1"))
+            .andExpect(status().isGone());
+    }
+}
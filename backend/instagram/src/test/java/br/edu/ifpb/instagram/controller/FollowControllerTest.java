@@ -0,0 +1,90 @@
+package br.edu.ifpb.instagram.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.FollowStatsDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.FollowService;
+import br.edu.ifpb.instagram.service.impl.UserDetailsServiceImpl;
+
+@WebMvcTest(FollowController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class FollowControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FollowService followService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // os filtros estão desabilitados, então o principal é colocado direto no contexto
+    private void loginAs(long id) {
+        AuthenticatedUser principal = new AuthenticatedUser(id, "user" + id, "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void shouldFollowUserAsAuthenticatedPrincipal() throws Exception {
+        loginAs(1L);
+        when(followService.follow(1L, 2L)).thenReturn(new FollowStatsDto(2L, 10, 3));
+
+        mockMvc.perform(post("/users/2/follow"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.userId").value(2))
+            .andExpect(jsonPath("$.followers").value(10))
+            .andExpect(jsonPath("$.followedByMe").value(true));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenFollowingYourself() throws Exception {
+        loginAs(1L);
+        when(followService.follow(1L, 1L)).thenThrow(new IllegalArgumentException("Users cannot follow themselves"));
+
+        mockMvc.perform(post("/users/1/follow"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnFollowersPageWithNextCursor() throws Exception {
+        when(followService.findFollowers(2L, 5L, 2)).thenReturn(new CursorPage<>(List.of(
+            new UserSummaryDto(7L, "maria", "Maria Silva"),
+            new UserSummaryDto(9L, "joao", "João Souza")), 9L));
+
+        mockMvc.perform(get("/users/2/followers").param("cursor", "5").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].username").value("maria"))
+            .andExpect(jsonPath("$.nextCursor").value(9));
+    }
+}
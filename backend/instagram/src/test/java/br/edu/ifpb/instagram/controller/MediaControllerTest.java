@@ -0,0 +1,182 @@
+package br.edu.ifpb.instagram.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.edu.ifpb.instagram.media.MediaCache;
+import br.edu.ifpb.instagram.media.VariantFile;
+import br.edu.ifpb.instagram.model.dto.MediaDto;
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.MediaService;
+import br.edu.ifpb.instagram.service.impl.UserDetailsServiceImpl;
+
+@WebMvcTest(MediaController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class MediaControllerTest {
+
+    private static final String SHA = "a".repeat(64);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MediaService mediaService;
+
+    // sem stub, write() devolve false e o corpo sai do disco
+    @MockitoBean
+    private MediaCache mediaCache;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @TempDir
+    Path tempDir;
+
+    private MediaDto media;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = tempDir.resolve(SHA);
+        Files.writeString(file, "0123456789");
+        media = new MediaDto(5L, 1L, SHA, "image/png", 10, Instant.now());
+        when(mediaService.findById(5L)).thenReturn(media);
+        when(mediaService.locate(media)).thenReturn(file);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void loginAs(long id) {
+        AuthenticatedUser principal = new AuthenticatedUser(id, "user" + id, "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void shouldDownloadWholeFileWithCacheHeaders() throws Exception {
+        mockMvc.perform(get("/media/5"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + SHA + "\""))
+            .andExpect(header().string("Cache-Control", MediaController.CACHE_CONTROL))
+            .andExpect(header().string("Accept-Ranges", "bytes"))
+            .andExpect(header().longValue("Content-Length", 10))
+            .andExpect(content().contentType("image/png"))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void shouldServeRequestedRange() throws Exception {
+        mockMvc.perform(get("/media/5").header("Range", "bytes=2-4"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Content-Range", "bytes 2-4/10"))
+            .andExpect(content().string("234"));
+
+        mockMvc.perform(get("/media/5").header("Range", "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("789"));
+    }
+
+    @Test
+    void shouldRejectRangeOutsideTheFile() throws Exception {
+        mockMvc.perform(get("/media/5").header("Range", "bytes=20-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        mockMvc.perform(get("/media/5").header("If-None-Match", "\"" + SHA + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldServeGeneratedVariant() throws Exception {
+        loginAs(2L);
+        Path thumb = tempDir.resolve("thumb.jpeg");
+        Files.writeString(thumb, "JPEG");
+        when(mediaService.variant(5L, "thumb", 2L))
+            .thenReturn(new VariantFile(thumb, "image/jpeg", "\"" + SHA + "-thumb\""));
+
+        mockMvc.perform(get("/media/5/variants/thumb"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + SHA + "-thumb\""))
+            .andExpect(content().contentType("image/jpeg"))
+            .andExpect(content().string("JPEG"));
+    }
+
+    @Test
+    void shouldSkipBodyWhenContentHashIsAlreadyStored() throws Exception {
+        loginAs(1L);
+        when(mediaService.uploadDuplicate(1L, "image/png", SHA)).thenReturn(Optional.of(media));
+
+        mockMvc.perform(post("/media")
+                .contentType("image/png")
+                .header("X-Content-SHA256", SHA)
+                .content("ignored"))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("X-Deduplicated", "true"))
+            .andExpect(jsonPath("$.id").value(5));
+
+        verify(mediaService, never()).upload(anyLong(), anyString(), any(InputStream.class));
+    }
+
+    @Test
+    void shouldStreamMultipartUploadAsAuthenticatedOwner() throws Exception {
+        loginAs(1L);
+        String body = "--xyz\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"a.png\"\r\n"
+            + "Content-Type: image/png\r\n\r\n"
+            + "PNGDATA\r\n--xyz--\r\n";
+        when(mediaService.upload(eq(1L), eq("image/png"), any(InputStream.class))).thenAnswer(invocation -> {
+            InputStream in = invocation.getArgument(2);
+            String received = new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+            return new MediaDto(5L, 1L, SHA, "image/png", received.length(), Instant.now());
+        });
+
+        mockMvc.perform(post("/media")
+                .contentType("multipart/form-data; boundary=xyz")
+                .content(body.getBytes(StandardCharsets.ISO_8859_1)))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Location", "/media/5"))
+            .andExpect(jsonPath("$.sizeBytes").value(7))
+            .andExpect(jsonPath("$.sha256").value(SHA));
+    }
+}
@@ -0,0 +1,51 @@
+package br.edu.ifpb.instagram.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.edu.ifpb.instagram.model.dto.SearchHitDto;
+import br.edu.ifpb.instagram.search.SearchIndex;
+import br.edu.ifpb.instagram.security.JwtUtils;
+import br.edu.ifpb.instagram.service.impl.UserDetailsServiceImpl;
+
+@WebMvcTest(SearchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SearchIndex searchIndex;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Test
+    void shouldReturnUsersAndPostsInIndexOrder() throws Exception {
+        when(searchIndex.search("joao", 20)).thenReturn(List.of(
+                new SearchHitDto("user", 1L, 2.5f, "joaoc", "João Conceição", null, null),
+                new SearchHitDto("post", 7L, 0.8f, null, null, 1L, "o joão no show")));
+
+        mockMvc.perform(get("/search").param("q", "joao"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].type").value("user"))
+            .andExpect(jsonPath("$[0].fullName").value("João Conceição"))
+            .andExpect(jsonPath("$[1].authorId").value(1))
+            .andExpect(jsonPath("$[1].caption").value("o joão no show"));
+    }
+}
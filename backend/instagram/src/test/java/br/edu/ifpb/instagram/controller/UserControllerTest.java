@@ -1,5 +1,6 @@
 package br.edu.ifpb.instagram.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
@@ -11,7 +12,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -23,12 +27,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import br.edu.ifpb.instagram.exception.UserNotFoundException;
 import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.projection.UserField;
 import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
 import br.edu.ifpb.instagram.security.JwtUtils;
 import br.edu.ifpb.instagram.service.UserService;
 import br.edu.ifpb.instagram.service.impl.UserDetailsServiceImpl;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -85,6 +92,63 @@ public class UserControllerTest {
             .andExpect(jsonPath("$.username").value("testuser"));
     }
 
+    //Verifica que GET /users atende Accept: application/cbor e application/x-jackson-smile com o mesmo conteúdo do JSON, que continua o padrão.
+    @Test
+    @WithMockUser
+    void shouldNegotiateCborAndSmileForListOfUsers() throws Exception {
+        List<UserDto> userDtos = Arrays.asList(
+            new UserDto(1L, "Usuário 1", "user1", "user1@email.com", null, null),
+            new UserDto(2L, "Usuário 2", "user2", "user2@email.com", null, null)
+        );
+        when(userService.findAll()).thenReturn(userDtos);
+        List<UserDetailsResponse> expected = Arrays.asList(
+            new UserDetailsResponse(1L, "Usuário 1", "user1", "user1@email.com"),
+            new UserDetailsResponse(2L, "Usuário 2", "user2", "user2@email.com")
+        );
+
+        mockMvc.perform(get("/users"))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        for (ObjectMapper mapper : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            String mediaType = mapper.getFactory() instanceof CBORFactory ? "application/cbor" : "application/x-jackson-smile";
+            byte[] body = mockMvc.perform(get("/users").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+            List<UserDetailsResponse> users = mapper.readValue(body, new TypeReference<List<UserDetailsResponse>>() { });
+            assertEquals(expected, users);
+        }
+    }
+
+    //Verifica que fields= restringe GET /users e GET /users/{id} às propriedades pedidas e recusa nomes fora da lista.
+    @Test
+    @WithMockUser
+    void shouldNarrowUsersToTheRequestedFields() throws Exception {
+        when(userService.findAll(EnumSet.of(UserField.ID, UserField.USERNAME))).thenReturn(List.of(
+            new UserDto(1L, null, "user1", null, null, null),
+            new UserDto(2L, null, "user2", null, null, null)
+        ));
+
+        mockMvc.perform(get("/users").param("fields", "username,id"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1L))
+            .andExpect(jsonPath("$[0].username").value("user1"))
+            .andExpect(jsonPath("$[0].fullName").doesNotExist())
+            .andExpect(jsonPath("$[0].email").doesNotExist())
+            .andExpect(jsonPath("$[1].username").value("user2"));
+
+        when(userService.findById(1L)).thenReturn(new UserDto(1L, "Usuário 1", "user1", "user1@email.com", null, null));
+        mockMvc.perform(get("/users/{id}", 1L).param("fields", "email"))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"email\":\"user1@email.com\"}", true));
+
+        mockMvc.perform(get("/users").param("fields", "id,encryptedPassword"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users").param("fields", ""))
+            .andExpect(status().isBadRequest());
+    }
+
     //Confirma que o DELETE /users/{id} funciona e retorna um status 200 OK junto com a mensagem de sucesso.
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
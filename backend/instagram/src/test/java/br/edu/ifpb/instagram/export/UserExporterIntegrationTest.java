@@ -0,0 +1,108 @@
+package br.edu.ifpb.instagram.export;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpb.instagram.exception.ExportBusyException;
+import br.edu.ifpb.instagram.model.entity.UserEntity;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class UserExporterIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserExporter exporter;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // blocos de 2 linhas para atravessar várias consultas com 5 usuários
+        exporter = new UserExporter(jdbcTemplate, objectMapper, 2, 1, 1);
+        jdbcTemplate.update("DELETE FROM users");
+        for (int i = 0; i < 5; i++) {
+            UserEntity user = new UserEntity();
+            user.setFullName(i == 0 ? "Silva, \"Zé\" da" : "Usuário " + i);
+            user.setUsername("exportado" + i);
+            user.setUsernameNormalized("exportado" + i);
+            user.setEmail("exportado" + i + "@ifpb.edu.br");
+            user.setEmailNormalized("exportado" + i + "@ifpb.edu.br");
+            user.setEncryptedPassword("hash-secreto");
+            ids.add(entityManager.persistAndFlush(user).getId());
+        }
+        ids.sort(null);
+    }
+
+    private String export(ExportFormat format, Long after) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserExporter.Export export = exporter.start(format, after)) {
+            export.writeTo(out);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void ndjson_shouldStreamEveryUserInIdOrderAndResumeAfterAnId() throws Exception {
+        String all = export(ExportFormat.NDJSON, null);
+
+        List<Long> exported = new ArrayList<>();
+        for (String line : all.split("\n")) {
+            JsonNode user = objectMapper.readTree(line);
+            exported.add(user.get("id").asLong());
+            assertFalse(user.has("encryptedPassword"));
+        }
+        assertEquals(ids, exported);
+        assertFalse(all.contains("hash-secreto"));
+
+        String resumed = export(ExportFormat.NDJSON, ids.get(2));
+        assertEquals(2, resumed.split("\n").length);
+        assertEquals(ids.get(3), objectMapper.readTree(resumed.split("\n")[0]).get("id").asLong());
+    }
+
+    @Test
+    void csv_shouldQuoteWhenNeededAndSkipHeaderOnResume() throws Exception {
+        String all = export(ExportFormat.CSV, null);
+
+        String[] lines = all.split("\n");
+        assertEquals("id,username,full_name,email", lines[0]);
+        assertEquals(6, lines.length);
+        assertTrue(all.contains(",\"Silva, \"\"Zé\"\" da\","));
+
+        String resumed = export(ExportFormat.CSV, ids.get(3));
+        assertTrue(resumed.startsWith(ids.get(4) + ",exportado"));
+    }
+
+    @Test
+    void start_shouldRefuseBeyondMaxConcurrentExports() {
+        try (UserExporter.Export running = exporter.start(ExportFormat.CSV, null)) {
+            assertThrows(ExportBusyException.class, () -> exporter.start(ExportFormat.CSV, null));
+        }
+        exporter.start(ExportFormat.CSV, null).close();
+    }
+}
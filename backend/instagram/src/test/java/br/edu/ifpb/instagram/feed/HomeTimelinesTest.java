@@ -0,0 +1,94 @@
+package br.edu.ifpb.instagram.feed;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.edu.ifpb.instagram.feed.HomeTimelines.FeedSlice;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+
+class HomeTimelinesTest {
+
+    @Test
+    void ring_shouldOverwriteOldestWhenFull() {
+        TimelineRing ring = new TimelineRing(3);
+        ring.push(1);
+        ring.push(2);
+        ring.push(2); // duplicado ignorado
+        ring.push(3);
+        ring.push(4);
+
+        long[] out = new long[3];
+        assertEquals(3, ring.copyTo(out, 0));
+        assertArrayEquals(new long[] {2, 3, 4}, out);
+        assertTrue(ring.isTruncated());
+        assertEquals(2, ring.smallest());
+
+        assertTrue(ring.remove(3));
+        assertFalse(ring.remove(3));
+        ring.push(5);
+        out = new long[3];
+        ring.copyTo(out, 0);
+        assertArrayEquals(new long[] {2, 4, 5}, out);
+    }
+
+    @Test
+    void read_shouldMergeCelebrityPostsNewestFirst() {
+        HomeTimelines timelines = new HomeTimelines(10, 100, 100);
+        timelines.ensureTimeline(1, () -> List.of(50L, 30L, 10L));
+        timelines.ensureAuthorPosts(9, () -> List.of(40L, 20L));
+        timelines.pushToTimeline(1, 60);
+
+        FeedSlice firstPage = timelines.read(1, new long[] {9}, Long.MAX_VALUE, 3);
+        FeedSlice secondPage = timelines.read(1, new long[] {9}, 40, 3);
+
+        assertArrayEquals(new long[] {60, 50, 40}, firstPage.postIds());
+        assertArrayEquals(new long[] {30, 20, 10}, secondPage.postIds());
+        assertTrue(secondPage.complete());
+    }
+
+    @Test
+    void read_shouldStopAtTheOldestIdOfATruncatedRing() {
+        HomeTimelines timelines = new HomeTimelines(2, 100, 100);
+        timelines.ensureTimeline(1, () -> List.of(50L, 30L)); // cheio: pode haver posts mais antigos
+        timelines.ensureAuthorPosts(9, () -> List.of(20L));
+
+        FeedSlice slice = timelines.read(1, new long[] {9}, Long.MAX_VALUE, 10);
+
+        assertArrayEquals(new long[] {50, 30}, slice.postIds());
+        assertFalse(slice.complete());
+    }
+
+    @Test
+    void pushToTimeline_shouldIgnoreReadersWithoutCachedRing() {
+        HomeTimelines timelines = new HomeTimelines(10, 100, 100);
+
+        assertFalse(timelines.pushToTimeline(1, 10));
+        assertEquals(0, timelines.timelineCount());
+    }
+
+    private static PostDto post(long id, long authorId) {
+        return new PostDto(id, authorId, new UserSummaryDto(authorId, "autor" + authorId, "Autor"), "legenda",
+                List.of(), Instant.now());
+    }
+
+    @Test
+    void evictPostsBy_shouldDropOnlyThatAuthorsCachedPosts() {
+        HomeTimelines timelines = new HomeTimelines(10, 100, 3);
+        timelines.cachePost(post(1, 7));
+        timelines.cachePost(post(2, 8));
+        timelines.cachePost(post(3, 7));
+        // o LRU descarta o post 1 sem deixar o índice por autor apontando para ele
+        timelines.cachePost(post(4, 7));
+
+        timelines.evictPostsBy(7);
+
+        assertEquals(List.of(2L), List.copyOf(timelines.cachedPosts(new long[] {1, 2, 3, 4}).keySet()));
+        timelines.cachePost(post(5, 7));
+        assertEquals(2, timelines.cachedPosts(new long[] {2, 5}).size());
+    }
+}
@@ -0,0 +1,103 @@
+package br.edu.ifpb.instagram.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class FollowGraphTest {
+
+    @Test
+    void follow_shouldUpdateMembershipAndCounts() {
+        FollowGraph graph = new FollowGraph();
+
+        assertTrue(graph.follow(1, 2));
+        assertFalse(graph.follow(1, 2)); // idempotente
+        graph.follow(3, 2);
+
+        assertTrue(graph.isFollowing(1, 2));
+        assertFalse(graph.isFollowing(2, 1));
+        assertEquals(2, graph.followerCount(2));
+        assertEquals(1, graph.followingCount(1));
+        assertEquals(2, graph.edgeCount());
+    }
+
+    @Test
+    void unfollow_shouldDecrementCounts() {
+        FollowGraph graph = new FollowGraph();
+        graph.follow(1, 2);
+
+        assertTrue(graph.unfollow(1, 2));
+        assertFalse(graph.unfollow(1, 2));
+
+        assertFalse(graph.isFollowing(1, 2));
+        assertEquals(0, graph.followerCount(2));
+        assertEquals(0, graph.followingCount(1));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    @Test
+    void removeUser_shouldDropIncomingAndOutgoingEdges() {
+        FollowGraph graph = new FollowGraph();
+        graph.follow(1, 2);
+        graph.follow(2, 3);
+        graph.follow(4, 2);
+
+        graph.removeUser(2);
+
+        assertFalse(graph.isFollowing(1, 2));
+        assertFalse(graph.isFollowing(4, 2));
+        assertEquals(0, graph.followerCount(3));
+        assertEquals(0, graph.followingCount(1));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    @Test
+    void removalsDuringTheLoad_shouldNotBeRestoredByTheLoader() throws Exception {
+        FollowGraph graph = new FollowGraph();
+        // o lote do loader já leu estas linhas quando os usuários mudam de ideia
+        List<long[]> batch = List.of(new long[] {1, 2}, new long[] {6, 2}, new long[] {1, 3}, new long[] {4, 5},
+                new long[] {7, 2});
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler handler, Object... args) {
+                try {
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (i == 2) {
+                            // no meio do lote: 1 deixa de seguir 2 (já aplicado) e 3 (lido, ainda não aplicado),
+                            // 4 é apagado, e 7 deixa de seguir 2 mas volta a seguir
+                            graph.unfollow(1, 2);
+                            graph.unfollow(1, 3);
+                            graph.removeUser(4);
+                            graph.unfollow(7, 2);
+                            graph.follow(7, 2);
+                        }
+                        ResultSet row = Mockito.mock(ResultSet.class);
+                        Mockito.when(row.getLong(1)).thenReturn(batch.get(i)[0]);
+                        Mockito.when(row.getLong(2)).thenReturn(batch.get(i)[1]);
+                        handler.processRow(row);
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        new FollowGraphLoader(jdbcTemplate, graph, 100).load();
+
+        assertTrue(graph.isLoaded());
+        assertFalse(graph.isFollowing(1, 2));
+        assertFalse(graph.isFollowing(1, 3));
+        assertFalse(graph.isFollowing(4, 5));
+        assertTrue(graph.isFollowing(6, 2));
+        assertTrue(graph.isFollowing(7, 2));
+        assertEquals(2, graph.followerCount(2));
+        assertEquals(0, graph.followerCount(5));
+        assertEquals(2, graph.edgeCount());
+    }
+}
@@ -0,0 +1,197 @@
+package br.edu.ifpb.instagram.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import br.edu.ifpb.instagram.security.AuthenticatedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+    private volatile int status;
+    private volatile CountDownLatch release;
+
+    // o "controller": conta execuções, ecoa o corpo e pode ficar preso até release
+    private final FilterChain controller = (request, response) -> {
+        executions.incrementAndGet();
+        if (release != null) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        ((HttpServletResponse) response).setStatus(status);
+        response.setContentType("application/json");
+        response.getOutputStream().write(("{\"run\":" + executions.get() + ",\"body\":"
+                + new String(body, StandardCharsets.UTF_8) + "}").getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(new InMemoryIdempotencyStore(Duration.ofHours(1), 100), 1024, 5000);
+        executions = new AtomicInteger();
+        status = 201;
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, controller);
+        return response;
+    }
+
+    @Test
+    void retryWithSameKey_shouldReplayTheFirstResponseWithoutRunningAgain() throws Exception {
+        MockHttpServletResponse first = perform("POST", "/auth/signup", "k1", "{\"username\":\"ana\"}");
+        MockHttpServletResponse retry = perform("POST", "/auth/signup", "k1", "{\"username\":\"ana\"}");
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        // sem chave, ou com outra chave, executa de novo
+        perform("POST", "/auth/signup", null, "{\"username\":\"ana\"}");
+        perform("POST", "/auth/signup", "k2", "{\"username\":\"ana\"}");
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void signin_shouldNeverBeReplayed() throws Exception {
+        perform("POST", "/auth/signin", "k1", "{\"username\":\"ana\"}");
+        MockHttpServletResponse retry = perform("POST", "/auth/signin", "k1", "{\"username\":\"ana\"}");
+
+        // cada tentativa emite seu próprio token
+        assertEquals(2, executions.get());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void bufferedBody_shouldBeReadableWithAReadListener() throws Exception {
+        List<String> calls = new ArrayList<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/users");
+        request.addHeader(IdempotencyFilter.HEADER, "k1");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(request, new MockHttpServletResponse(), (wrapped, response) -> {
+            ServletInputStream in = wrapped.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    calls.add("data:" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    calls.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    calls.add("error");
+                }
+            });
+            ((HttpServletResponse) response).setStatus(200);
+        });
+
+        assertEquals(List.of("data:{}", "done"), calls);
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_shouldBeRejected() throws Exception {
+        perform("PUT", "/users", "k1", "{\"fullName\":\"Ana\"}");
+
+        MockHttpServletResponse reused = perform("PUT", "/users", "k1", "{\"fullName\":\"Bia\"}");
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keys_shouldBeScopedByUser() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(1L, "ana", "", List.of()), null, List.of()));
+        perform("PUT", "/users", "k1", "{}");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(2L, "bia", "", List.of()), null, List.of()));
+        MockHttpServletResponse other = perform("PUT", "/users", "k1", "{}");
+
+        assertEquals(2, executions.get());
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void serverErrors_shouldNotBeKeptSoTheRetryRunsAgain() throws Exception {
+        status = 500;
+        perform("POST", "/auth/signup", "k1", "{}");
+        status = 201;
+
+        MockHttpServletResponse retry = perform("POST", "/auth/signup", "k1", "{}");
+
+        assertEquals(201, retry.getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void concurrentDuplicate_shouldWaitForTheRequestInFlight() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> perform("POST", "/auth/signup", "k1", "{}"));
+            while (executions.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<MockHttpServletResponse> duplicate =
+                    executor.submit(() -> perform("POST", "/auth/signup", "k1", "{}"));
+            // a duplicata não pode terminar enquanto a primeira ainda roda
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS).getContentAsString(),
+                    duplicate.get(5, TimeUnit.SECONDS).getContentAsString());
+            assertEquals("true", duplicate.get().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.edu.ifpb.instagram.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final StoredResponse CREATED = new StoredResponse(201, "application/json", new byte[0]);
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    };
+
+    @Test
+    void keys_shouldExpireAfterTtl() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(10), 100, clock);
+        assertTrue(store.reserve("k", "f").isEmpty());
+        store.complete("k", CREATED);
+
+        now = now.plus(Duration.ofMinutes(9));
+        assertSame(CREATED, store.reserve("k", "f").orElseThrow().response().join());
+
+        now = now.plus(Duration.ofMinutes(1));
+        store.purge();
+        assertEquals(0, store.size());
+        assertTrue(store.reserve("k", "f").isEmpty());
+    }
+
+    @Test
+    void whenFull_shouldEvictTheOldestCompletedKeysButNeverOneInFlight() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofHours(1), 2, clock);
+        store.reserve("em-andamento", "f");
+        store.reserve("a", "f");
+        store.complete("a", CREATED);
+
+        store.reserve("b", "f");
+
+        // a mais antiga ainda está em andamento, então nada sai por enquanto
+        assertEquals(3, store.size());
+        assertTrue(store.reserve("em-andamento", "f").isPresent());
+
+        store.complete("em-andamento", CREATED);
+        store.reserve("c", "f");
+        assertEquals(2, store.size());
+        assertTrue(store.reserve("em-andamento", "f").isEmpty());
+    }
+
+    @Test
+    void abandon_shouldFreeTheKeyAndReleaseWaitersWithNull() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofHours(1), 100, clock);
+        store.reserve("k", "f");
+        IdempotencyRecord waiting = store.reserve("k", "f").orElseThrow();
+
+        store.abandon("k");
+
+        assertNull(waiting.response().join());
+        assertTrue(store.reserve("k", "f").isEmpty());
+    }
+}
@@ -0,0 +1,188 @@
+package br.edu.ifpb.instagram.like;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import br.edu.ifpb.instagram.like.LikeCounters.Flush;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LikeCountersTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private LikeStore likeStore;
+    private LikeCounters counters;
+    private LikeFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        likeStore = mock(LikeStore.class);
+        when(likeStore.likeCount(anyLong())).thenReturn(-1L);
+        when(likeStore.likeCount(10L)).thenReturn(100L);
+        when(likeStore.likeCount(20L)).thenReturn(0L);
+        when(likeStore.likedPostIds(anyLong())).thenReturn(List.of());
+        counters = new LikeCounters(likeStore, 1000);
+        flusher = new LikeFlusher(counters, likeStore, new SimpleMeterRegistry(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void like_shouldBeIdempotentPerUser() {
+        assertTrue(counters.like(1L, 10L));
+        assertFalse(counters.like(1L, 10L));
+        assertTrue(counters.like(2L, 10L));
+
+        assertEquals(102, counters.count(10L));
+        assertTrue(counters.isLiked(1L, 10L));
+        assertFalse(counters.isLiked(3L, 10L));
+    }
+
+    @Test
+    void like_shouldRespectMembershipLoadedFromDatabase() {
+        when(likeStore.likedPostIds(1L)).thenReturn(List.of(10L));
+
+        assertFalse(counters.like(1L, 10L));
+        assertTrue(counters.unlike(1L, 10L));
+
+        assertEquals(99, counters.count(10L));
+    }
+
+    @Test
+    void track_shouldRejectUnknownPost() {
+        assertFalse(counters.track(99L));
+        assertEquals(-1, counters.count(99L));
+        assertTrue(counters.track(10L));
+    }
+
+    @Test
+    void flush_shouldWriteBatchedRowsAndDeltasInPostOrder() {
+        counters.like(1L, 20L);
+        counters.like(2L, 20L);
+        counters.like(1L, 10L);
+        counters.like(3L, 10L);
+        counters.unlike(3L, 10L); // desfeito antes do flush: nada a escrever
+
+        flusher.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LikeChange>> changes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<long[]> postIds = ArgumentCaptor.forClass(long[].class);
+        ArgumentCaptor<long[]> deltas = ArgumentCaptor.forClass(long[].class);
+        verify(likeStore).write(changes.capture(), postIds.capture(), deltas.capture(), any());
+        assertEquals(3, changes.getValue().size());
+        assertTrue(changes.getValue().contains(new LikeChange(10L, 1L, true)));
+        assertArrayEquals(new long[] {10L, 20L}, postIds.getValue());
+        assertArrayEquals(new long[] {1L, 2L}, deltas.getValue());
+
+        // depois do commit o delta passa a fazer parte da base
+        assertEquals(101, counters.count(10L));
+        assertEquals(2, counters.count(20L));
+        assertTrue(counters.drain().isEmpty());
+    }
+
+    @Test
+    void flush_shouldKeepChangesWhenWriteFails() {
+        counters.like(1L, 10L);
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(likeStore).write(any(), any(), any(), any());
+
+        flusher.flush();
+
+        assertEquals(101, counters.count(10L));
+        counters.unlike(1L, 10L); // desfaz o like que voltou para pendente
+
+        Flush flush = counters.drain();
+        assertTrue(flush.changes().isEmpty());
+        assertEquals(0, flush.postIds().length);
+        assertEquals(100, counters.count(10L));
+    }
+
+    @Test
+    void count_shouldIncludeInFlightDeltaUntilCommit() {
+        counters.like(1L, 10L);
+
+        Flush flush = counters.drain();
+        counters.like(2L, 10L);
+
+        assertEquals(102, counters.count(10L));
+        counters.commit(flush);
+        assertEquals(102, counters.count(10L));
+    }
+
+    @Test
+    void unlike_afterFlushedLike_shouldWriteDelete() {
+        counters.like(1L, 10L);
+        counters.commit(counters.drain());
+
+        counters.unlike(1L, 10L);
+        Flush flush = counters.drain();
+
+        assertEquals(List.of(new LikeChange(10L, 1L, false)), flush.changes());
+        assertArrayEquals(new long[] {-1L}, flush.deltas());
+    }
+
+    @Test
+    void removeUser_shouldTakeBackPendingChangesAndReloadCounts() {
+        counters.like(1L, 10L);
+        counters.like(2L, 10L);
+
+        // os likes já gravados do usuário saíram junto com a exclusão
+        flusher.removeUser(1L, List.of(20L));
+
+        verify(likeStore).recount(Set.of(10L, 20L));
+        assertEquals(101, counters.count(10L));
+        Flush flush = counters.drain();
+        assertEquals(List.of(new LikeChange(10L, 2L, true)), flush.changes());
+        assertArrayEquals(new long[] {1L}, flush.deltas());
+    }
+
+    @Test
+    void like_shouldNotLoseConcurrentLikes() throws Exception {
+        int users = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Flush> flushes = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long userId = i;
+            executor.execute(() -> counters.like(userId, 10L));
+            if (i % 5000 == 0) {
+                flushes.add(counters.drain());
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        flushes.add(counters.drain());
+
+        long rows = 0;
+        long delta = 0;
+        for (Flush flush : flushes) {
+            rows += flush.changes().size();
+            for (long d : flush.deltas()) {
+                delta += d;
+            }
+            counters.commit(flush);
+        }
+        assertEquals(users, rows);
+        assertEquals(users, delta);
+        assertEquals(100 + users, counters.count(10L));
+    }
+}
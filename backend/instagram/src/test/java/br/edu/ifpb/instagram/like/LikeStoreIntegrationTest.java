@@ -0,0 +1,108 @@
+package br.edu.ifpb.instagram.like;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+import br.edu.ifpb.instagram.model.entity.UserEntity;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(LikeStore.class)
+class LikeStoreIntegrationTest {
+
+    @Autowired
+    private LikeStore likeStore;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private long userId;
+    private long otherUserId;
+    private long postId;
+
+    @BeforeEach
+    void setUp() {
+        userId = persistUser("curtidor").getId();
+        otherUserId = persistUser("outro").getId();
+        PostEntity post = new PostEntity();
+        post.setAuthorId(otherUserId);
+        post.setCaption("post");
+        post.setCreatedAt(Instant.now());
+        postId = entityManager.persistAndFlush(post).getId();
+    }
+
+    private UserEntity persistUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setFullName("Usuário " + username);
+        user.setUsername(username);
+        user.setUsernameNormalized(username);
+        user.setEmail(username + "@email.com");
+        user.setEmailNormalized(username + "@email.com");
+        user.setEncryptedPassword("senha");
+        return entityManager.persistAndFlush(user);
+    }
+
+    @Test
+    void write_shouldApplyRowsAndCounterDeltas() {
+        likeStore.write(List.of(new LikeChange(postId, userId, true), new LikeChange(postId, otherUserId, true)),
+                new long[] {postId}, new long[] {2}, Instant.now());
+
+        assertEquals(2, likeStore.likeCount(postId));
+        assertEquals(List.of(postId), likeStore.likedPostIds(userId));
+
+        likeStore.write(List.of(new LikeChange(postId, userId, false)), new long[] {postId}, new long[] {-1},
+                Instant.now());
+
+        assertEquals(1, likeStore.likeCount(postId));
+        assertTrue(likeStore.likedPostIds(userId).isEmpty());
+    }
+
+    @Test
+    void write_shouldIgnoreDuplicateRows() {
+        likeStore.write(List.of(new LikeChange(postId, userId, true)), new long[0], new long[0], Instant.now());
+        likeStore.write(List.of(new LikeChange(postId, userId, true)), new long[0], new long[0], Instant.now());
+
+        assertEquals(List.of(postId), likeStore.likedPostIds(userId));
+    }
+
+    @Test
+    void removeUser_shouldTakeTheUsersLikesOffTheCounts() {
+        likeStore.write(List.of(new LikeChange(postId, userId, true), new LikeChange(postId, otherUserId, true)),
+                new long[] {postId}, new long[] {2}, Instant.now());
+
+        assertEquals(List.of(postId), likeStore.removeUser(userId));
+
+        // só o like do outro usuário continua contando
+        assertEquals(1, likeStore.likeCount(postId));
+        assertTrue(likeStore.likedPostIds(userId).isEmpty());
+        assertEquals(List.of(postId), likeStore.likedPostIds(otherUserId));
+    }
+
+    @Test
+    void recount_shouldSetCountsToTheirRows() {
+        likeStore.write(List.of(new LikeChange(postId, userId, true)), new long[] {postId}, new long[] {5},
+                Instant.now());
+
+        likeStore.recount(List.of(postId));
+
+        assertEquals(1, likeStore.likeCount(postId));
+    }
+
+    @Test
+    void likeCount_shouldReportMissingPost() {
+        assertEquals(-1, likeStore.likeCount(postId + 1));
+    }
+}
@@ -0,0 +1,74 @@
+package br.edu.ifpb.instagram.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContentIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private static String sha(int i) {
+        return String.format("%064x", (long) i * 0x9E3779B97F4A7C15L & Long.MAX_VALUE);
+    }
+
+    @Test
+    void acquireAndRelease_shouldCountReferences() throws IOException {
+        try (ContentIndex index = new ContentIndex(dir)) {
+            assertEquals(-1, index.refcount(sha(1)));
+            assertEquals(1, index.acquire(sha(1), 100, 0));
+            assertEquals(2, index.acquire(sha(1), 100, 0));
+            assertEquals(1, index.release(sha(1), 0));
+
+            assertEquals(1, index.refcount(sha(1)));
+            assertEquals(100, index.sizeOf(sha(1)));
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    void reopen_shouldKeepEntriesAcrossGrowth() throws IOException {
+        int entries = 5_000; // passa do tamanho inicial do log e da tabela de slots
+        try (ContentIndex index = new ContentIndex(dir)) {
+            for (int i = 0; i < entries; i++) {
+                index.acquire(sha(i), i, 0);
+            }
+            index.acquire(sha(7), 7, 0);
+        }
+
+        try (ContentIndex index = new ContentIndex(dir)) {
+            assertEquals(entries, index.size());
+            assertEquals(2, index.refcount(sha(7)));
+            assertEquals(4_321, index.sizeOf(sha(4_321)));
+            assertEquals(-1, index.refcount(sha(entries)));
+        }
+    }
+
+    @Test
+    void rewrite_shouldDropRemovedEntries() throws IOException {
+        try (ContentIndex index = new ContentIndex(dir)) {
+            for (int i = 0; i < 10; i++) {
+                index.acquire(sha(i), i, 0);
+            }
+            for (int i = 0; i < 10; i += 2) {
+                index.remove(sha(i));
+            }
+            index.acquire(sha(4), 4, 0); // readicionado depois de removido
+            index.rewrite();
+
+            Map<String, Long> live = new HashMap<>();
+            index.forEachLive((sha256, size, refs, updated) -> live.put(sha256, size));
+            assertEquals(6, live.size());
+            assertEquals(0, index.deadRecords());
+            assertEquals(1, index.refcount(sha(4)));
+            assertEquals(-1, index.refcount(sha(2)));
+        }
+    }
+}
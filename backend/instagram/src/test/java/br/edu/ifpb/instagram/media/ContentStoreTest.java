@@ -0,0 +1,116 @@
+package br.edu.ifpb.instagram.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.edu.ifpb.instagram.media.ContentStore.CompactionResult;
+
+class ContentStoreTest {
+
+    @TempDir
+    Path root;
+
+    private MediaStorage storage;
+    private ContentStore store;
+
+    @BeforeEach
+    void setUp() {
+        storage = new MediaStorage(root, 1_000_000);
+        // relógio adiantado: arquivos recém-gravados já contam como antigos para a compactação
+        Clock later = Clock.fixed(Instant.now().plus(Duration.ofHours(1)), ZoneOffset.UTC);
+        store = new ContentStore(storage, later);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void put_shouldShareOneFileBetweenIdenticalUploads() throws IOException {
+        StoredBlob first = store.put(new ByteArrayInputStream("meme".getBytes()));
+        StoredBlob second = store.put(new ByteArrayInputStream("meme".getBytes()));
+
+        assertEquals(first, second);
+        assertEquals(2, store.refcount(first.sha256()));
+        assertEquals(1, store.entries());
+    }
+
+    @Test
+    void reuse_shouldTakeReferenceWithoutContent() throws IOException {
+        StoredBlob blob = store.put(new ByteArrayInputStream("meme".getBytes()));
+
+        assertEquals(blob, store.reuse(blob.sha256()).orElseThrow());
+        assertEquals(2, store.refcount(blob.sha256()));
+        assertTrue(store.reuse("0".repeat(64)).isEmpty());
+    }
+
+    @Test
+    void compact_shouldReclaimOnlyUnreferencedBlobs() throws IOException {
+        StoredBlob kept = store.put(new ByteArrayInputStream("kept".getBytes()));
+        StoredBlob released = store.put(new ByteArrayInputStream("released".getBytes()));
+        StoredBlob drifted = store.put(new ByteArrayInputStream("drifted".getBytes()));
+        store.release(released.sha256());
+        store.release(drifted.sha256());
+        // o banco ainda tem uma linha apontando para "drifted": a contagem é corrigida, o arquivo fica
+        Map<String, Long> references = Map.of(kept.sha256(), 1L, drifted.sha256(), 1L);
+
+        CompactionResult result = store.compact(sha -> references.getOrDefault(sha, 0L), Duration.ZERO);
+
+        assertEquals(1, result.reclaimedBlobs());
+        assertEquals("released".length(), result.reclaimedBytes());
+        assertEquals(1, result.repairedEntries());
+        assertFalse(Files.exists(storage.locate(released.sha256())));
+        assertTrue(Files.exists(storage.locate(kept.sha256())));
+        assertEquals(1, store.refcount(drifted.sha256()));
+        assertEquals(-1, store.refcount(released.sha256()));
+    }
+
+    @Test
+    void compact_shouldAdoptReferencedFilesMissingFromIndex() throws IOException {
+        StoredBlob legacy = storage.store(new ByteArrayInputStream("legacy".getBytes()));
+
+        store.compact(sha -> 3L, Duration.ZERO);
+
+        assertEquals(3, store.refcount(legacy.sha256()));
+    }
+
+    @Test
+    void compact_shouldLetUploadsThroughWhileItQueriesReferences() throws IOException {
+        StoredBlob released = store.put(new ByteArrayInputStream("released".getBytes()));
+        store.release(released.sha256());
+
+        // enquanto o banco é consultado, outra thread envia o mesmo conteúdo de novo
+        CompactionResult result = store.compact(sha -> {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    store.put(new ByteArrayInputStream("released".getBytes()));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }).orTimeout(5, TimeUnit.SECONDS).join();
+            return 0L;
+        }, Duration.ZERO);
+
+        // a entrada mudou depois de escolhida: o arquivo fica para a próxima rodada
+        assertEquals(0, result.reclaimedBlobs());
+        assertTrue(Files.exists(storage.locate(released.sha256())));
+        assertEquals(1, store.refcount(released.sha256()));
+    }
+}
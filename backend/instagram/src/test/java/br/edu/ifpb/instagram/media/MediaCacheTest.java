@@ -0,0 +1,123 @@
+package br.edu.ifpb.instagram.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MediaCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry registry;
+    private MediaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // 8 páginas de 16 bytes, em slabs de 4 páginas
+        cache = new MediaCache(registry, 128, 64, 64, 16);
+    }
+
+    private Path file(String name, int size) throws Exception {
+        name = name + size;
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + (name.hashCode() + i) % 26);
+        }
+        return Files.write(dir.resolve(name), content);
+    }
+
+    // o tamanho vem do nome (como MediaDto.sizeBytes), não do disco
+    private MockHttpServletResponse serve(Path file, long start, long count) throws Exception {
+        long length = Long.parseLong(file.getFileName().toString().replaceAll("\\D", ""));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(cache.write(file, length, start, count, new MockHttpServletRequest("GET", "/"), response));
+        return response;
+    }
+
+    @Test
+    void write_shouldLoadOnMissAndServeHitsFromMemory() throws Exception {
+        Path file = file("avatar", 40);
+        byte[] expected = Files.readAllBytes(file);
+
+        assertArrayEquals(expected, serve(file, 0, 40).getContentAsByteArray());
+        Files.delete(file); // a partir daqui só a cópia em memória existe
+        MockHttpServletResponse response = serve(file, 0, 40);
+
+        assertArrayEquals(expected, response.getContentAsByteArray());
+        assertEquals(40, response.getContentLengthLong());
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(40, cache.cachedBytes());
+        assertEquals(64, cache.reservedBytes());
+        assertEquals(1.0, registry.get("instagram.media.cache.requests").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void write_shouldServeRangesAcrossPageBoundaries() throws Exception {
+        Path file = file("thumb", 50);
+        byte[] expected = Files.readAllBytes(file);
+        serve(file, 0, 50);
+
+        byte[] range = serve(file, 10, 25).getContentAsByteArray();
+
+        assertArrayEquals(Arrays.copyOfRange(expected, 10, 35), range);
+        assertArrayEquals(Arrays.copyOfRange(expected, 48, 50), serve(file, 48, 2).getContentAsByteArray());
+    }
+
+    @Test
+    void write_shouldEvictLeastRecentlyUsedWhenFull() throws Exception {
+        Path first = file("first", 64);
+        Path second = file("second", 64);
+        Path third = file("third", 64);
+        serve(first, 0, 64);
+        serve(second, 0, 64);
+        serve(first, 0, 64); // first passa a ser o mais recente
+
+        serve(third, 0, 64);
+
+        assertEquals(2, cache.entries());
+        assertEquals(128, cache.cachedBytes());
+        assertEquals(128, cache.reservedBytes());
+        assertEquals(1.0, registry.get("instagram.media.cache.evictions").functionCounter().count());
+        Files.delete(first);
+        Files.delete(second);
+        assertEquals(64, serve(first, 0, 64).getContentAsByteArray().length);
+        assertThrows(NoSuchFileException.class, () -> serve(second, 0, 64));
+    }
+
+    @Test
+    void write_shouldDeclineFilesAboveEntryLimit() throws Exception {
+        Path large = file("large", 65);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(cache.write(large, 65, 0, 65, new MockHttpServletRequest("GET", "/"), response));
+
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(0, cache.entries());
+        assertEquals(0, cache.reservedBytes());
+    }
+
+    @Test
+    void write_shouldSendOnlyHeadersForHead() throws Exception {
+        Path file = file("head", 20);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(cache.write(file, 20, 0, 20, new MockHttpServletRequest("HEAD", "/"), response));
+
+        assertEquals(20, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, cache.entries());
+    }
+}
@@ -0,0 +1,58 @@
+package br.edu.ifpb.instagram.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.edu.ifpb.instagram.exception.MediaTooLargeException;
+
+class MediaStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void store_shouldHashWhileStreamingAndDeduplicate() throws Exception {
+        MediaStorage storage = new MediaStorage(root, 10_000_000);
+        byte[] content = new byte[3 * MediaStorage.BUFFER_SIZE + 123];
+        new Random(1).nextBytes(content);
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+        StoredBlob first = storage.store(new ByteArrayInputStream(content));
+        StoredBlob second = storage.store(new ByteArrayInputStream(content));
+
+        assertEquals(expected, first.sha256());
+        assertEquals(first, second);
+        assertEquals(content.length, first.sizeBytes());
+        assertArrayEquals(content, Files.readAllBytes(storage.locate(expected)));
+        try (var temp = Files.list(root.resolve("tmp"))) {
+            assertEquals(0, temp.count());
+        }
+    }
+
+    @Test
+    void store_shouldRejectOversizedUploadAndRemoveTempFile() throws IOException {
+        MediaStorage storage = new MediaStorage(root, 1000);
+
+        assertThrows(MediaTooLargeException.class, () -> storage.store(new ByteArrayInputStream(new byte[5000])));
+        try (var temp = Files.list(root.resolve("tmp"))) {
+            assertEquals(0, temp.count());
+        }
+    }
+
+    @Test
+    void locate_shouldRejectInvalidHashes() {
+        MediaStorage storage = new MediaStorage(root, 1000);
+
+        assertThrows(IllegalArgumentException.class, () -> storage.locate("../../etc/passwd"));
+    }
+}
@@ -0,0 +1,82 @@
+package br.edu.ifpb.instagram.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----boundary123";
+
+    private static byte[] body(byte[] file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"caption\"\r\n\r\n"
+                + "legenda\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"foto.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.write(file);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return out.toByteArray();
+    }
+
+    // entrega um byte por vez para forçar o delimitador a ficar partido entre leituras
+    private static InputStream trickle(byte[] bytes) {
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    @Test
+    void nextFilePart_shouldSkipFieldsAndStreamTheFile() throws IOException {
+        byte[] file = new byte[200_000];
+        new Random(7).nextBytes(file);
+        // conteúdo com um prefixo do delimitador no meio
+        byte[] fakeDelimiter = ("\r\n--" + BOUNDARY.substring(0, 8)).getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(fakeDelimiter, 0, file, 1000, fakeDelimiter.length);
+
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body(file)), BOUNDARY);
+        MultipartStreamReader.Part part = reader.nextFilePart();
+
+        assertEquals("foto.png", part.fileName());
+        assertEquals("image/png", part.contentType());
+        assertArrayEquals(file, part.content().readAllBytes());
+    }
+
+    @Test
+    void nextFilePart_shouldHandleDelimiterSplitAcrossReads() throws IOException {
+        byte[] file = "conteúdo do arquivo".getBytes(StandardCharsets.UTF_8);
+
+        MultipartStreamReader reader = new MultipartStreamReader(trickle(body(file)), BOUNDARY);
+
+        assertArrayEquals(file, reader.nextFilePart().content().readAllBytes());
+    }
+
+    @Test
+    void nextFilePart_shouldReturnNullWithoutFilePart() throws IOException {
+        byte[] onlyField = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"caption\"\r\n\r\n"
+                + "legenda\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+        assertNull(new MultipartStreamReader(new ByteArrayInputStream(onlyField), BOUNDARY).nextFilePart());
+    }
+
+    @Test
+    void boundaryOf_shouldReadQuotedAndPlainBoundaries() {
+        assertEquals("abc", MultipartStreamReader.boundaryOf("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStreamReader.boundaryOf("multipart/form-data; boundary=\"a b\""));
+        assertThrows(IllegalArgumentException.class, () -> MultipartStreamReader.boundaryOf("multipart/form-data"));
+    }
+}
@@ -0,0 +1,136 @@
+package br.edu.ifpb.instagram.media;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ThumbnailPipelineTest {
+
+    @TempDir
+    Path root;
+
+    private MediaStorage storage;
+    private SimpleMeterRegistry registry;
+    private ThumbnailPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        storage = new MediaStorage(root, 10_000_000);
+        registry = new SimpleMeterRegistry();
+        pipeline = new ThumbnailPipeline(storage, registry, 2, 16, 10_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private StoredBlob storeImage(int width, int height, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < width; x += 10) {
+            graphics.setColor(new Color((x * 7) % 256, (x * 13) % 256, (x * 29) % 256));
+            graphics.fillRect(x, 0, 10, height);
+        }
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return storage.store(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    void variant_shouldGenerateOnceAndShareConcurrentRequests() throws Exception {
+        StoredBlob blob = storeImage(1600, 900, "png");
+
+        CompletableFuture<Path> first = pipeline.variant(blob.sha256(), "image/png", ImageVariant.THUMB, true);
+        CompletableFuture<Path> second = pipeline.variant(blob.sha256(), "image/png", ImageVariant.THUMB, false);
+        Path path = first.get(10, TimeUnit.SECONDS);
+
+        assertEquals(path, second.get(10, TimeUnit.SECONDS));
+        BufferedImage thumb = ImageIO.read(path.toFile());
+        assertEquals(150, thumb.getWidth());
+        assertEquals(150, thumb.getHeight());
+        assertEquals(1, registry.get("instagram.thumbnails.resize").timer().count());
+        assertTrue(registry.get("instagram.thumbnails.bytes.saved").counter().count() > 0);
+
+        // já existe em disco: não passa pela fila de novo
+        assertTrue(pipeline.variant(blob.sha256(), "image/png", ImageVariant.THUMB, false).isDone());
+    }
+
+    @Test
+    void variant_shouldKeepAspectRatioAndEncodeJpeg() throws Exception {
+        StoredBlob blob = storeImage(2000, 1000, "jpg");
+
+        Path path = pipeline.variant(blob.sha256(), "image/jpeg", ImageVariant.MEDIUM, false).get(10, TimeUnit.SECONDS);
+
+        BufferedImage medium = ImageIO.read(path.toFile());
+        assertEquals(640, medium.getWidth());
+        assertEquals(320, medium.getHeight());
+        assertTrue(path.getFileName().toString().endsWith(".jpeg"));
+    }
+
+    @Test
+    void variant_shouldNeverUpscale() throws Exception {
+        StoredBlob blob = storeImage(200, 100, "png");
+
+        Path path = pipeline.variant(blob.sha256(), "image/png", ImageVariant.LARGE, false).get(10, TimeUnit.SECONDS);
+
+        assertEquals(200, ImageIO.read(path.toFile()).getWidth());
+    }
+
+    @Test
+    void variant_shouldFailForContentThatIsNotAnImage() throws Exception {
+        StoredBlob blob = storage.store(new ByteArrayInputStream("não é imagem".getBytes()));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> pipeline.variant(blob.sha256(), "image/png", ImageVariant.SMALL, false).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void variant_shouldRefuseAHeaderDeclaringTooManyPixelsBeforeDecoding() throws Exception {
+        // PNG de 1x1 cujo IHDR passa a declarar 50000x50000: poucos bytes, gigabytes se fosse decodificado
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", out);
+        ByteBuffer png = ByteBuffer.wrap(out.toByteArray());
+        png.putInt(16, 50_000).putInt(20, 50_000);
+        CRC32 crc = new CRC32();
+        crc.update(png.array(), 12, 4 + 13);
+        png.putInt(29, (int) crc.getValue());
+        StoredBlob blob = storage.store(new ByteArrayInputStream(png.array()));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> pipeline.variant(blob.sha256(), "image/png", ImageVariant.THUMB, false).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("50000x50000"));
+        assertEquals(0, registry.get("instagram.thumbnails.resize").timer().count());
+    }
+
+    @Test
+    void subsampling_shouldKeepTwiceTheVariantSize() {
+        assertEquals(1, ThumbnailPipeline.subsampling(1600, 900, ImageVariant.LARGE));
+        assertEquals(3, ThumbnailPipeline.subsampling(1600, 900, ImageVariant.THUMB));
+        assertEquals(12, ThumbnailPipeline.subsampling(8000, 6000, ImageVariant.SMALL));
+        // o quadrado sai do lado menor
+        assertEquals(3, ThumbnailPipeline.subsampling(8000, 1000, ImageVariant.THUMB));
+    }
+}
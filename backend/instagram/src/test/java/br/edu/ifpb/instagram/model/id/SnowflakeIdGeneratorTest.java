@@ -0,0 +1,102 @@
+package br.edu.ifpb.instagram.model.id;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_shouldEncodeTimestampAndNodeId() {
+        long now = SnowflakeIdGenerator.EPOCH_MILLIS + 123_456L;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42, () -> now, 1_000);
+
+        long id = generator.nextId();
+
+        assertEquals(now, SnowflakeIdGenerator.timestampOf(id));
+        assertEquals(42, SnowflakeIdGenerator.nodeIdOf(id));
+    }
+
+    @Test
+    void nextId_shouldBeStrictlyIncreasingWithinSameMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1,
+                () -> SnowflakeIdGenerator.EPOCH_MILLIS + 10, 1_000);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 1_000; i++) {
+            long current = generator.nextId();
+            assertTrue(current > previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    void nextId_shouldStayMonotonicWhenClockMovesSlightlyBackwards() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 1_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get, 1_000);
+
+        long before = generator.nextId();
+        clock.addAndGet(-500);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void nextId_shouldRefuseWhenClockMovesTooFarBackwards() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get, 1_000);
+
+        generator.nextId();
+        clock.addAndGet(-5_000);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    void constructor_shouldRejectNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void nextId_shouldNotRepeatUnderContention() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 8;
+        int idsPerThread = 20_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+
+    @Test
+    void resolve_shouldPreferConfiguredValue() {
+        assertEquals(5, NodeIdResolver.resolve("5"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdResolver.resolve("2048"));
+        assertThrows(IllegalArgumentException.class, () -> NodeIdResolver.resolve("abc"));
+    }
+}
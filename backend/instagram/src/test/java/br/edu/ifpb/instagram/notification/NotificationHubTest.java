@@ -0,0 +1,172 @@
+package br.edu.ifpb.instagram.notification;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+
+class NotificationHubTest {
+
+    private NotificationHub hub;
+
+    @BeforeEach
+    void setUp() {
+        // executa as tarefas na própria thread, então cada publish já chega ao stream
+        hub = new NotificationHub(new ObjectMapper(), new SimpleMeterRegistry(), 3, new DirectExecutor());
+    }
+
+    @Test
+    void publish_shouldWriteEventFramesToEveryStreamOfTheUser() throws IOException {
+        FakeStream phone = new FakeStream();
+        FakeStream laptop = new FakeStream();
+        subscribe(1L, phone);
+        subscribe(1L, laptop);
+
+        assertTrue(hub.publish(1L, "like", Map.of("postId", 5)));
+        assertFalse(hub.publish(2L, "like", Map.of("postId", 5)));
+
+        String expected = "retry: 5000\n\nevent: like\ndata: {\"postId\":5}\n\n";
+        assertEquals(expected, phone.text());
+        assertEquals(expected, laptop.text());
+        assertEquals(2, hub.connections());
+    }
+
+    @Test
+    void slowConsumer_shouldGetResyncInsteadOfBacklogAndBeDropped() throws IOException {
+        FakeStream stream = new FakeStream();
+        AsyncContext context = subscribe(1L, stream);
+        stream.ready = false;
+
+        for (int i = 0; i < 5; i++) {
+            hub.publish(1L, "like", Map.of("postId", i));
+        }
+        stream.ready = true;
+        stream.listener.onWritePossible();
+
+        assertEquals("retry: 5000\n\nevent: resync\ndata: {}\n\n", stream.text());
+        verify(context).complete();
+        assertFalse(hub.isSubscribed(1L));
+        assertEquals(0, hub.connections());
+    }
+
+    @Test
+    void heartbeat_shouldOnlyPingQuietStreamsAndCloseStuckOnes() throws IOException {
+        FakeStream quiet = new FakeStream();
+        FakeStream stuck = new FakeStream();
+        subscribe(1L, quiet);
+        AsyncContext stuckContext = subscribe(2L, stuck);
+
+        // a conexão acabou de receber o "retry", então o primeiro heartbeat não manda nada
+        hub.heartbeat();
+        assertEquals("retry: 5000\n\n", quiet.text());
+        hub.heartbeat();
+        assertEquals("retry: 5000\n\n:\n\n", quiet.text());
+
+        stuck.ready = false;
+        for (int i = 0; i < 5; i++) {
+            hub.publish(2L, "follow", Map.of());
+        }
+        hub.heartbeat();
+        verify(stuckContext, never()).complete();
+        hub.heartbeat();
+        verify(stuckContext).complete();
+        assertEquals(List.of(true, false), List.of(hub.isSubscribed(1L), hub.isSubscribed(2L)));
+    }
+
+    @Test
+    void disconnect_shouldCloseStreamsOfTheUser() throws IOException {
+        FakeStream stream = new FakeStream();
+        AsyncContext context = subscribe(1L, stream);
+
+        hub.disconnect(1L);
+
+        verify(context).complete();
+        assertFalse(hub.publish(1L, "like", Map.of()));
+    }
+
+    // o container chama onWritePossible logo depois que a thread da requisição termina
+    private AsyncContext subscribe(long userId, FakeStream stream) throws IOException {
+        ServletResponse response = mock(ServletResponse.class);
+        when(response.getOutputStream()).thenReturn(stream);
+        AsyncContext context = mock(AsyncContext.class);
+        when(context.getResponse()).thenReturn(response);
+        hub.subscribe(userId, context);
+        stream.listener.onWritePossible();
+        return context;
+    }
+
+    private static final class FakeStream extends ServletOutputStream {
+
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        WriteListener listener;
+        boolean ready = true;
+
+        String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            written.write(b);
+        }
+    }
+
+    private static final class DirectExecutor extends AbstractExecutorService {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
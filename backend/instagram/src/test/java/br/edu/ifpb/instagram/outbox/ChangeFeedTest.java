@@ -0,0 +1,113 @@
+package br.edu.ifpb.instagram.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import br.edu.ifpb.instagram.exception.ChangeCursorExpiredException;
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+
+class ChangeFeedTest {
+
+    private OutboxEventRepository repository;
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        when(repository.findMinId()).thenReturn(1L);
+        feed = new ChangeFeed(repository, 4, Duration.ofDays(7),
+                Clock.fixed(Instant.parse("2026-01-10T00:00:00Z"), ZoneOffset.UTC));
+        // o relay sempre começa entregando só o watermark inicial
+        feed.accept(List.of(), 10);
+    }
+
+    private static ChangeDto change(long cursor) {
+        return new ChangeDto(cursor, "user", cursor * 100, "UPDATED", "{}", Instant.now());
+    }
+
+    private static List<Long> cursors(CursorPage<ChangeDto> page) {
+        return page.items().stream().map(ChangeDto::cursor).toList();
+    }
+
+    @Test
+    void read_shouldServeRecentChangesFromMemoryInOrder() {
+        feed.accept(List.of(change(11), change(12), change(14)), 15);
+
+        CursorPage<ChangeDto> first = feed.read(10, 2);
+        assertEquals(List.of(11L, 12L), cursors(first));
+        assertEquals(12L, first.nextCursor());
+
+        // página curta: o cursor pula até o watermark, inclusive sobre o id 15 descartado
+        CursorPage<ChangeDto> rest = feed.read(12, 10);
+        assertEquals(List.of(14L), cursors(rest));
+        assertEquals(15L, rest.nextCursor());
+        verify(repository, never()).findPage(anyLong(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void read_shouldFallBackToDatabaseBelowTheRingButNeverPastWatermark() {
+        List<ChangeDto> changes = new ArrayList<>();
+        for (long cursor = 11; cursor <= 16; cursor++) {
+            changes.add(change(cursor));
+        }
+        feed.accept(changes, 16);
+        when(repository.findPage(10, 16, Limit.of(2))).thenReturn(List.of(
+                new OutboxEventEntity("user", 1, "CREATED", "{}", Instant.now()),
+                new OutboxEventEntity("user", 2, "CREATED", "{}", Instant.now())));
+
+        // o anel guarda só 4 mudanças (13 a 16), então a partir de 10 a leitura vai ao banco
+        assertEquals(2, feed.read(10, 2).items().size());
+        assertEquals(List.of(13L, 14L, 15L, 16L), cursors(feed.read(12, 10)));
+    }
+
+    @Test
+    void await_shouldCompleteWhenTheRelayMovesPastTheCursor() {
+        CompletableFuture<CursorPage<ChangeDto>> waiting = feed.await(10, 10);
+        assertFalse(waiting.isDone());
+        assertEquals(1, feed.waiting());
+
+        feed.accept(List.of(change(11)), 11);
+
+        assertTrue(waiting.isDone());
+        assertEquals(List.of(11L), cursors(waiting.join()));
+        assertEquals(0, feed.waiting());
+    }
+
+    @Test
+    void cancel_shouldForgetTheWaiter() {
+        CompletableFuture<CursorPage<ChangeDto>> waiting = feed.await(10, 10);
+
+        feed.cancel(waiting);
+
+        assertEquals(0, feed.waiting());
+    }
+
+    @Test
+    void read_shouldRefuseCursorsBehindPurgedChanges() {
+        when(repository.deleteBatchBefore(any(Instant.class), anyLong(), anyInt())).thenReturn(3);
+        when(repository.findMinId()).thenReturn(8L);
+
+        feed.purge();
+
+        assertThrows(ChangeCursorExpiredException.class, () -> feed.read(5, 10));
+        assertDoesNotThrow(() -> feed.read(7, 10));
+        verify(repository).deleteBatchBefore(Instant.parse("2026-01-03T00:00:00Z"), 10, 1000);
+    }
+}
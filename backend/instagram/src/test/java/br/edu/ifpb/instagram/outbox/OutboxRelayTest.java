@@ -0,0 +1,154 @@
+package br.edu.ifpb.instagram.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.edu.ifpb.instagram.model.dto.ChangeDto;
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    private OutboxEventRepository repository;
+    private List<List<Long>> delivered;
+    private List<Long> watermarks;
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        delivered = new ArrayList<>();
+        watermarks = new ArrayList<>();
+        ChangeSink sink = (changes, watermark) -> {
+            delivered.add(changes.stream().map(ChangeDto::cursor).toList());
+            watermarks.add(watermark);
+        };
+        clock = new MutableClock(NOW);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(repository, List.of(sink), meterRegistry, Duration.ofSeconds(5),
+                Duration.ofMinutes(10), 100, clock);
+        when(repository.findMaxIdBefore(any(Instant.class))).thenReturn(10L);
+    }
+
+    private static OutboxEventEntity row(long id, Instant createdAt) {
+        OutboxEventEntity row = new OutboxEventEntity("user", id, "CREATED", "{}", createdAt);
+        ReflectionTestUtils.setField(row, "id", id);
+        return row;
+    }
+
+    @Test
+    void relay_shouldWaitAtGapUntilTheNextRowIsOlderThanGrace() {
+        // o id 12 ainda pode estar numa transação aberta
+        when(repository.findPage(eq(10L), anyLong(), any(Limit.class)))
+                .thenReturn(List.of(row(11, NOW), row(13, NOW)));
+        when(repository.findPage(eq(11L), anyLong(), any(Limit.class)))
+                .thenReturn(List.of(row(13, NOW)));
+
+        relay.relay();
+        assertEquals(List.of(List.of(), List.of(11L)), delivered);
+        assertEquals(11L, relay.watermark());
+
+        clock.now = NOW.plusSeconds(6);
+        relay.relay();
+
+        // passou o prazo: o 12 foi desfeito e o 13 segue
+        assertEquals(List.of(13L), delivered.get(delivered.size() - 1));
+        assertEquals(List.of(10L, 11L, 13L), watermarks);
+    }
+
+    @Test
+    void relay_shouldRelayAgainASkippedRowThatCommitsLate() {
+        when(repository.findPage(eq(10L), anyLong(), any(Limit.class))).thenReturn(List.of(row(12, NOW)));
+        clock.now = NOW.plusSeconds(6);
+        relay.relay();
+        assertEquals(List.of(12L), delivered.get(delivered.size() - 1));
+        assertEquals(1.0, meterRegistry.counter("instagram.outbox.gaps.skipped").count());
+
+        // o 11 não tinha sido desfeito: só demorou a fazer commit
+        OutboxEventEntity late = row(11, NOW.minusSeconds(1));
+        when(repository.findAllById(List.of(11L))).thenReturn(List.of(late));
+        when(repository.save(any(OutboxEventEntity.class))).thenAnswer(invocation -> {
+            OutboxEventEntity copy = invocation.getArgument(0);
+            ReflectionTestUtils.setField(copy, "id", 13L);
+            return copy;
+        });
+        when(repository.findPage(eq(12L), anyLong(), any(Limit.class))).thenReturn(List.of(row(13, NOW)));
+        clock.now = NOW.plusSeconds(12);
+        relay.relay();
+
+        // reaparece com um id novo, depois da marca d'água, e o original sai da tabela
+        verify(repository).delete(late);
+        assertEquals(List.of(13L), delivered.get(delivered.size() - 1));
+        assertEquals(1.0, meterRegistry.counter("instagram.outbox.gaps.late").count());
+
+        clock.now = NOW.plusSeconds(30);
+        relay.relay();
+        verify(repository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void relay_shouldStopRecheckingSkippedIdsAfterTheHorizon() {
+        when(repository.findPage(eq(10L), anyLong(), any(Limit.class))).thenReturn(List.of(row(12, NOW)));
+        clock.now = NOW.plusSeconds(6);
+        relay.relay();
+
+        clock.now = NOW.plusSeconds(6).plus(Duration.ofMinutes(10)).plusSeconds(1);
+        relay.relay();
+
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void relay_shouldStartAfterRowsThatAreAlreadySettled() {
+        when(repository.findPage(eq(10L), anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(repository).findMaxIdBefore(NOW.minusSeconds(5));
+        assertEquals(List.of(10L), watermarks);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.edu.ifpb.instagram.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.edu.ifpb.instagram.cache.UserCaches;
+import br.edu.ifpb.instagram.event.UserChangedEvent;
+import br.edu.ifpb.instagram.model.dto.UserDto;
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+import br.edu.ifpb.instagram.service.LikeService;
+import br.edu.ifpb.instagram.service.impl.UserServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({UserServiceImpl.class, OutboxWriter.class})
+class OutboxWriterIntegrationTest {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private UserCaches userCaches;
+
+    @MockitoBean
+    private LikeService likeService;
+
+    @Test
+    void userWrites_shouldRecordChangesWithoutPasswordInOrder() {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        UserDto created = userService.createUser(
+                new UserDto(null, "Ana Souza", "ana", "ana@ifpb.edu.br", "segredo", null));
+        userService.updateUser(new UserDto(created.id(), "Ana S.", "ana", "ana@ifpb.edu.br", null, null));
+        userService.deleteUser(created.id());
+
+        List<OutboxEventEntity> rows = outboxEventRepository.findPage(0, Long.MAX_VALUE, Limit.of(10));
+
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+                rows.stream().map(OutboxEventEntity::getChangeType).toList());
+        assertTrue(rows.stream().allMatch(row -> row.getAggregateId() == created.id()));
+        assertTrue(rows.get(1).getPayload().contains("\"fullName\":\"Ana S.\""));
+        assertFalse(rows.get(0).getPayload().contains("segredo"));
+        assertEquals("{\"id\":" + created.id() + "}", rows.get(2).getPayload());
+    }
+
+    // sem a transação da escrita, a linha do outbox poderia existir sem a mudança (ou o contrário)
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void onUserChanged_shouldRefuseToRunOutsideTheWriteTransaction() {
+        UserChangedEvent event = new UserChangedEvent(UserChangedEvent.ChangeType.DELETED,
+                new UserDto(1L, null, null, null, null, null));
+
+        assertThrows(IllegalTransactionStateException.class, () -> outboxWriter.onUserChanged(event));
+    }
+}
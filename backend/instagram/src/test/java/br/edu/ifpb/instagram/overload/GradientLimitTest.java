@@ -0,0 +1,65 @@
+package br.edu.ifpb.instagram.overload;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class GradientLimitTest {
+
+    private static final long WINDOW = 100_000_000L;
+    private static final long MS = 1_000_000L;
+
+    private long now;
+
+    // uma janela com dez amostras iguais
+    private void window(GradientLimit limit, long rttNanos, int inflight) {
+        for (int i = 0; i < 10; i++) {
+            limit.sample(rttNanos, inflight, now + i * WINDOW / 9);
+        }
+        now += 2 * WINDOW;
+    }
+
+    @Test
+    void limit_shouldGrowWhileLatencyHoldsAndTheLimitIsUsed() {
+        GradientLimit limit = new GradientLimit(10, 4, 100, WINDOW);
+
+        for (int i = 0; i < 30; i++) {
+            window(limit, 10 * MS, limit.limit());
+        }
+
+        assertTrue(limit.limit() > 20, "limit=" + limit.limit());
+    }
+
+    @Test
+    void limit_shouldNotGrowWhenMostOfItIsIdle() {
+        GradientLimit limit = new GradientLimit(10, 4, 100, WINDOW);
+
+        for (int i = 0; i < 30; i++) {
+            window(limit, 10 * MS, 2);
+        }
+
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void limit_shouldShrinkQuicklyWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(50, 4, 100, WINDOW);
+        for (int i = 0; i < 20; i++) {
+            window(limit, 10 * MS, limit.limit());
+        }
+        int before = limit.limit();
+
+        window(limit, 40 * MS, limit.limit());
+        assertTrue(limit.limit() < before, before + " -> " + limit.limit());
+
+        for (int i = 0; i < 9; i++) {
+            window(limit, 40 * MS, limit.limit());
+        }
+        assertTrue(limit.limit() < before / 2, before + " -> " + limit.limit());
+    }
+
+    @Test
+    void constructor_shouldRejectInitialLimitOutsideBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(2, 4, 100, WINDOW));
+    }
+}
@@ -0,0 +1,111 @@
+package br.edu.ifpb.instagram.overload;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+class OverloadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OverloadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // um pedido por grupo; o nó admite três, o último só para leituras autenticadas
+        filter = new OverloadFilter(bulkhead(OverloadFilter.AUTH), bulkhead(OverloadFilter.READS),
+                bulkhead(OverloadFilter.WRITES), 3, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Bulkhead bulkhead(String name) {
+        return new Bulkhead(name, new GradientLimit(1, 1, 1, 100_000_000L));
+    }
+
+    // executa o pedido; "inside" roda enquanto ele ainda ocupa a vaga
+    private MockHttpServletResponse perform(String method, String path, Runnable inside) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> inside.run();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private int status(String method, String path, Runnable inside) {
+        try {
+            return perform(method, path, inside).getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double requests(String group, String result) {
+        return meterRegistry.get("instagram.overload.requests").tags("group", group, "result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    void groupOverItsLimit_shouldBeRejectedWithoutAffectingOtherGroups() throws Exception {
+        List<Integer> nested = new ArrayList<>();
+
+        MockHttpServletResponse outer = perform("POST", "/posts", () -> {
+            nested.add(status("PUT", "/users", () -> { }));
+            nested.add(status("GET", "/users/1", () -> { }));
+            nested.add(status("POST", "/media", () -> { }));
+        });
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(List.of(503, 200, 200), nested);
+        assertEquals(200, status("PUT", "/users", () -> { }));
+        assertEquals(2, requests(OverloadFilter.WRITES, "accepted"));
+        assertEquals(1, requests(OverloadFilter.WRITES, "rejected"));
+    }
+
+    @Test
+    void rejection_shouldBeFastWithRetryAfter() throws Exception {
+        MockHttpServletResponse[] rejected = new MockHttpServletResponse[1];
+
+        perform("POST", "/auth/signin", () -> {
+            try {
+                rejected[0] = perform("POST", "/auth/signup", () -> fail("should not reach the controller"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(503, rejected[0].getStatus());
+        assertEquals("1", rejected[0].getHeader("Retry-After"));
+    }
+
+    @Test
+    void lastNodeSlots_shouldBeKeptForAuthenticatedReads() {
+        List<Integer> nested = new ArrayList<>();
+
+        // auth e writes ocupam as duas vagas comuns do nó
+        status("POST", "/auth/signin", () -> status("POST", "/posts", () -> {
+            nested.add(status("GET", "/feed", () -> { }));
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("ana", null, List.of()));
+            nested.add(status("GET", "/feed", () -> { }));
+        }));
+
+        assertEquals(List.of(503, 200), nested);
+        assertEquals(1, requests(OverloadFilter.READS, "rejected"));
+    }
+}
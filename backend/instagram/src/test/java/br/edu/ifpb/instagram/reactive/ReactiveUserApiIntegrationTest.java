@@ -0,0 +1,211 @@
+package br.edu.ifpb.instagram.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import br.edu.ifpb.instagram.audit.AuditLog;
+import br.edu.ifpb.instagram.event.UserChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.model.request.LoginRequest;
+import br.edu.ifpb.instagram.model.request.UserDetailsRequest;
+import br.edu.ifpb.instagram.model.response.LoginResponse;
+import br.edu.ifpb.instagram.model.response.UserDetailsResponse;
+
+// páginas de 2 linhas para que GET /users atravesse várias consultas; o primeiro BCrypt, ainda a frio, passa dos 5 s padrão
+@SpringBootTest(classes = ReactiveInstagramApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "instagram.reactive.users.page-size=2")
+@AutoConfigureWebTestClient(timeout = "30s")
+@ActiveProfiles(ReactiveInstagramApplication.PROFILE)
+class ReactiveUserApiIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private Environment environment;
+
+    @MockitoSpyBean
+    private AuditLog auditLog;
+
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        // a aplicação reativa não migra o schema; aqui ele é criado como os nós servlet fariam
+        if (environment.getProperty("spring.flyway.enabled", Boolean.class, true)) {
+            Flyway.configure()
+                    .dataSource(environment.getProperty("spring.datasource.url"),
+                            environment.getProperty("spring.datasource.username"),
+                            environment.getProperty("spring.datasource.password"))
+                    .locations(environment.getProperty("spring.flyway.locations").split(","))
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+        }
+        username = "reativo" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private UserDetailsResponse signUp(String username, String password) {
+        return webTestClient.post().uri("/auth/signup")
+                .bodyValue(new UserDetailsRequest(null, username + "@ifpb.edu.br", password, "Usuário Reativo", username))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(UserDetailsResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    private String signIn(String username, String password) {
+        return webTestClient.post().uri("/auth/signin")
+                .bodyValue(new LoginRequest(username, password))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoginResponse.class)
+                .returnResult().getResponseBody().token();
+    }
+
+    private long outboxEvents(long userId, String changeType) {
+        return databaseClient.sql("SELECT COUNT(*) AS n FROM outbox_events WHERE aggregate_id = :id AND change_type = :type")
+                .bind("id", userId)
+                .bind("type", changeType)
+                .map(row -> row.get("n", Long.class))
+                .one()
+                .block();
+    }
+
+    @Test
+    void userApi_shouldKeepTheServletContractsAndWriteTheOutbox() {
+        UserDetailsResponse created = signUp(username, "senha123");
+        assertNotNull(created.id());
+        assertEquals(username, created.username());
+        assertEquals(1, outboxEvents(created.id(), "CREATED"));
+
+        String bearer = "Bearer " + signIn(username.toUpperCase(), "senha123");
+
+        webTestClient.get().uri("/users/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDetailsResponse.class).isEqualTo(created);
+
+        UserDetailsResponse updated = webTestClient.put().uri("/users")
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .bodyValue(new UserDetailsRequest(created.id(), username + "@novo.com", null, "Nome Novo", username))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDetailsResponse.class)
+                .returnResult().getResponseBody();
+        assertEquals("Nome Novo", updated.fullName());
+        assertEquals(1, outboxEvents(created.id(), "UPDATED"));
+
+        // sem senha nova o hash antigo continua valendo
+        signIn(username, "senha123");
+
+        webTestClient.delete().uri("/users/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("user was deleted!");
+        assertEquals(1, outboxEvents(created.id(), "DELETED"));
+
+        // a auditoria vê o que os nós servlet veriam: o cadastro sem ator, o resto feito pelo próprio usuário
+        verify(auditLog, timeout(5000)).userChanged(ChangeType.CREATED, created.id(), username, 0L);
+        verify(auditLog, timeout(5000).times(2)).signinSucceeded(created.id(), username);
+        verify(auditLog, timeout(5000)).userChanged(ChangeType.UPDATED, created.id(), username, created.id());
+        verify(auditLog, timeout(5000)).userChanged(ChangeType.DELETED, created.id(), null, created.id());
+
+        // o token de um usuário apagado deixa de valer
+        webTestClient.get().uri("/users/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void getUsers_shouldStreamEveryUserAcrossPagesAsJsonOrNdjson() {
+        signUp(username, "senha123");
+        for (int i = 0; i < 3; i++) {
+            signUp(username + i, "senha123");
+        }
+        String bearer = "Bearer " + signIn(username, "senha123");
+        long total = databaseClient.sql("SELECT COUNT(*) AS n FROM users")
+                .map(row -> row.get("n", Long.class)).one().block();
+
+        List<UserDetailsResponse> array = webTestClient.get().uri("/users")
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserDetailsResponse.class)
+                .returnResult().getResponseBody();
+        assertEquals(total, array.size());
+        for (int i = 1; i < array.size(); i++) {
+            assertTrue(array.get(i - 1).id() < array.get(i).id());
+        }
+
+        List<UserDetailsResponse> ndjson = webTestClient.get().uri("/users")
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserDetailsResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertEquals(array, ndjson);
+    }
+
+    @Test
+    void errors_shouldMatchTheServletStatuses() {
+        signUp(username, "senha123");
+
+        webTestClient.post().uri("/auth/signup")
+                .bodyValue(new UserDetailsRequest(null, "outro" + username + "@ifpb.edu.br", "x", "Outro", username))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.message").isEqualTo("Username already in use.");
+
+        webTestClient.post().uri("/auth/signin")
+                .bodyValue(new LoginRequest(username, "errada"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        verify(auditLog, timeout(5000)).signinFailed(eq(username));
+
+        webTestClient.get().uri("/users")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        // as sondas do orquestrador não mandam token
+        webTestClient.get().uri("/actuator/health/readiness")
+                .exchange()
+                .expectStatus().isOk();
+
+        String bearer = "Bearer " + signIn(username, "senha123");
+        webTestClient.get().uri("/users/{id}", Long.MAX_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,100 @@
+package br.edu.ifpb.instagram.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.edu.ifpb.instagram.model.dto.SearchHitDto;
+
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new SearchIndex("", 16);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(SearchHitDto::id).toList();
+    }
+
+    @Test
+    void search_shouldIgnoreAccentsAndCase() {
+        index.indexUser(1L, "joaoc", "João Conceição");
+        index.indexPost(2L, 1L, "Férias em São Luís");
+        index.refresh();
+
+        assertEquals(List.of(1L), ids("joao conceicao"));
+        assertEquals(List.of(1L), ids("JOÃO"));
+        assertEquals(List.of(2L), ids("sao luis"));
+    }
+
+    @Test
+    void search_shouldRankUsernameAboveFullNameAboveCaption() {
+        index.indexPost(3L, 9L, "almoço com a ana");
+        index.indexUser(2L, "bia", "Ana Beatriz");
+        index.indexUser(1L, "ana", "Ana Souza");
+        index.refresh();
+
+        assertEquals(List.of(1L, 2L, 3L), ids("ana"));
+        SearchHitDto post = index.search("almoço", 10).get(0);
+        assertEquals(SearchIndex.POST, post.type());
+        assertEquals(9L, post.authorId());
+    }
+
+    @Test
+    void search_lastWordShouldAlsoMatchAsPrefix() {
+        index.indexUser(1L, "mariana", "Mariana Lima");
+        index.indexUser(2L, "mar", "Mar Azul");
+        index.refresh();
+
+        // palavra exata vem antes do prefixo
+        assertEquals(List.of(2L, 1L), ids("mar"));
+        assertEquals(List.of(1L), ids("maria"));
+        // prefixos curtos demais não expandem
+        assertEquals(List.of(), ids("ma"));
+    }
+
+    @Test
+    void writes_shouldBecomeVisibleOnRefreshAndDeleteUserShouldTakeTheirPosts() {
+        index.indexUser(1L, "ana", "Ana Souza");
+        index.indexPost(2L, 1L, "praia");
+        assertEquals(List.of(), ids("ana"));
+
+        index.refresh();
+        assertEquals(List.of(1L), ids("ana"));
+
+        index.indexUser(1L, "ana", "Ana Lima");
+        index.deleteUser(1L);
+        index.refresh();
+        assertEquals(List.of(), ids("ana"));
+        assertEquals(List.of(), ids("praia"));
+        assertEquals(0, index.numDocs());
+    }
+
+    @Test
+    void reopen_shouldOnlyRebuildAfterAnUncleanClose(@TempDir Path dir) throws Exception {
+        SearchIndex first = new SearchIndex(dir.toString(), 16);
+        assertTrue(first.needsRebuild());
+        first.indexUser(1L, "ana", "Ana Souza");
+        first.rebuilt();
+        first.close();
+
+        SearchIndex reopened = new SearchIndex(dir.toString(), 16);
+        assertFalse(reopened.needsRebuild());
+        assertEquals(List.of(1L), reopened.search("ana", 10).stream().map(SearchHitDto::id).toList());
+        reopened.close();
+    }
+}
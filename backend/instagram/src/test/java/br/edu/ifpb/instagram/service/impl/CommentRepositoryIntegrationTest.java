@@ -0,0 +1,106 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.edu.ifpb.instagram.model.entity.CommentEntity;
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+import br.edu.ifpb.instagram.model.entity.UserEntity;
+import br.edu.ifpb.instagram.model.projection.ReplyCount;
+import br.edu.ifpb.instagram.repository.CommentRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class CommentRepositoryIntegrationTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UserEntity author;
+    private long postId;
+
+    @BeforeEach
+    void setUp() {
+        author = new UserEntity();
+        author.setFullName("Usuário comentarista");
+        author.setUsername("comentarista");
+        author.setUsernameNormalized("comentarista");
+        author.setEmail("comentarista@email.com");
+        author.setEmailNormalized("comentarista@email.com");
+        author.setEncryptedPassword("senha");
+        author = entityManager.persistAndFlush(author);
+
+        PostEntity post = new PostEntity();
+        post.setAuthorId(author.getId());
+        post.setCaption("post");
+        post.setCreatedAt(Instant.now());
+        postId = entityManager.persistAndFlush(post).getId();
+    }
+
+    private long persistComment(Long parentId) {
+        CommentEntity comment = new CommentEntity();
+        comment.setPostId(postId);
+        comment.setAuthorId(author.getId());
+        comment.setParentId(parentId);
+        comment.setBody("comentário");
+        comment.setCreatedAt(Instant.now());
+        return entityManager.persistAndFlush(comment).getId();
+    }
+
+    @Test
+    void keysetPages_shouldSeparateTopLevelFromReplies() {
+        List<Long> topLevel = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            topLevel.add(0, persistComment(null));
+        }
+        long thread = topLevel.get(4);
+        long firstReply = persistComment(thread);
+        long secondReply = persistComment(thread);
+        entityManager.clear();
+
+        List<CommentEntity> firstPage = commentRepository.findTopLevelPage(postId, Long.MAX_VALUE, Limit.of(3));
+        List<CommentEntity> secondPage = commentRepository.findTopLevelPage(postId,
+                firstPage.get(2).getId(), Limit.of(3));
+        List<CommentEntity> replies = commentRepository.findReplyPage(postId, thread, Long.MIN_VALUE, Limit.of(10));
+
+        assertEquals(topLevel.subList(0, 3), firstPage.stream().map(CommentEntity::getId).toList());
+        assertEquals(topLevel.subList(3, 5), secondPage.stream().map(CommentEntity::getId).toList());
+        assertEquals(List.of(firstReply, secondReply), replies.stream().map(CommentEntity::getId).toList());
+    }
+
+    @Test
+    void replyQueries_shouldCountAndRankThreads() {
+        long quiet = persistComment(null);
+        long busy = persistComment(null);
+        long medium = persistComment(null);
+        for (int i = 0; i < 3; i++) {
+            persistComment(busy);
+        }
+        persistComment(medium);
+        entityManager.clear();
+
+        Map<Long, Long> counts = commentRepository.countReplies(List.of(quiet, busy, medium)).stream()
+                .collect(Collectors.toMap(ReplyCount::getParentId, ReplyCount::getReplies));
+
+        assertEquals(Map.of(busy, 3L, medium, 1L), counts);
+        assertEquals(List.of(busy, medium), commentRepository.findMostRepliedIds(postId, Limit.of(10)));
+    }
+}
@@ -0,0 +1,197 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+
+import br.edu.ifpb.instagram.comment.TopComments;
+import br.edu.ifpb.instagram.event.CommentChangedEvent;
+import br.edu.ifpb.instagram.exception.CommentNotFoundException;
+import br.edu.ifpb.instagram.model.dto.CommentDto;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.model.entity.CommentEntity;
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+import br.edu.ifpb.instagram.model.projection.ReplyCount;
+import br.edu.ifpb.instagram.repository.CommentRepository;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.service.CommentService.Order;
+import br.edu.ifpb.instagram.service.UserService;
+
+class CommentServiceImplTest {
+
+    private static final long POST_ID = 1L;
+
+    private CommentRepository commentRepository;
+    private PostRepository postRepository;
+    private UserService userService;
+    private TopComments topComments;
+    private ApplicationEventPublisher eventPublisher;
+    private CommentServiceImpl commentService;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository = mock(CommentRepository.class);
+        postRepository = mock(PostRepository.class);
+        userService = mock(UserService.class);
+        topComments = new TopComments(commentRepository, 3);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        commentService = new CommentServiceImpl(commentRepository, postRepository, userService, topComments,
+                eventPublisher);
+
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
+        when(userService.findSummaries(anyCollection())).thenReturn(Map.of(
+                10L, new UserSummaryDto(10L, "ana", "Ana"),
+                20L, new UserSummaryDto(20L, "bia", "Bia")));
+        when(commentRepository.countReplies(anyCollection())).thenReturn(List.of());
+        when(commentRepository.save(any(CommentEntity.class))).thenAnswer(invocation -> {
+            CommentEntity saved = invocation.getArgument(0);
+            saved.setId(999L);
+            return saved;
+        });
+    }
+
+    private static CommentEntity comment(long id, long authorId, Long parentId) {
+        CommentEntity comment = new CommentEntity();
+        comment.setId(id);
+        comment.setPostId(POST_ID);
+        comment.setAuthorId(authorId);
+        comment.setParentId(parentId);
+        comment.setBody("comentário " + id);
+        comment.setCreatedAt(Instant.now());
+        return comment;
+    }
+
+    private static ReplyCount replies(long parentId, long replies) {
+        return new ReplyCount() {
+            @Override
+            public Long getParentId() {
+                return parentId;
+            }
+
+            @Override
+            public long getReplies() {
+                return replies;
+            }
+        };
+    }
+
+    @Test
+    void findComments_shouldHydrateWholePageWithOneQueryPerKind() {
+        List<CommentEntity> page = new ArrayList<>();
+        for (long id = 50; id > 30; id--) {
+            page.add(comment(id, id % 2 == 0 ? 10L : 20L, null));
+        }
+        when(commentRepository.findTopLevelPage(eq(POST_ID), eq(Long.MAX_VALUE), any(Limit.class))).thenReturn(page);
+        when(commentRepository.countReplies(anyCollection())).thenReturn(List.of(replies(50L, 7)));
+
+        CursorPage<CommentDto> result = commentService.findComments(POST_ID, Order.NEWEST, null, 20);
+
+        assertEquals(20, result.items().size());
+        assertEquals(31L, result.nextCursor());
+        assertEquals("ana", result.items().get(0).author().username());
+        assertEquals(7, result.items().get(0).replyCount());
+        assertEquals(0, result.items().get(1).replyCount());
+        // um IN para autores e um para contagens, independente do tamanho da página
+        verify(userService, times(1)).findSummaries(anyCollection());
+        verify(userService, never()).findById(anyLong());
+        verify(commentRepository, times(1)).countReplies(anyCollection());
+    }
+
+    @Test
+    void createComment_replyToReplyShouldJoinTheThread() {
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(comment(5L, 20L, 3L)));
+
+        CommentDto created = commentService.createComment(POST_ID, 10L, "resposta", 5L);
+
+        assertEquals(3L, created.parentId());
+        // quem é notificado é o autor da resposta respondida, não o do tópico
+        ArgumentCaptor<CommentChangedEvent> event = ArgumentCaptor.forClass(CommentChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(CommentChangedEvent.ChangeType.CREATED, event.getValue().type());
+        assertEquals(20L, event.getValue().repliedToAuthorId());
+    }
+
+    @Test
+    void createComment_shouldRejectParentFromAnotherPost() {
+        CommentEntity other = comment(5L, 20L, null);
+        other.setPostId(2L);
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(other));
+
+        assertThrows(CommentNotFoundException.class, () -> commentService.createComment(POST_ID, 10L, "oi", 5L));
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void createComment_shouldRejectBlankBody() {
+        assertThrows(IllegalArgumentException.class, () -> commentService.createComment(POST_ID, 10L, "  ", null));
+    }
+
+    @Test
+    void findComments_topShouldPageThroughRankingSnapshot() {
+        when(commentRepository.findMostRepliedIds(eq(POST_ID), any(Limit.class))).thenReturn(List.of(7L));
+        when(commentRepository.findTopLevelIds(eq(POST_ID), eq(Long.MAX_VALUE), any(Limit.class)))
+                .thenReturn(List.of(9L, 8L, 7L, 6L));
+        when(commentRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<CommentEntity> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                found.add(comment(id, 10L, null));
+            }
+            return found;
+        });
+
+        CursorPage<CommentDto> first = commentService.findComments(POST_ID, Order.TOP, null, 2);
+        CursorPage<CommentDto> second = commentService.findComments(POST_ID, Order.TOP, first.nextCursor(), 2);
+
+        assertEquals(List.of(7L, 9L), first.items().stream().map(CommentDto::id).toList());
+        assertEquals(9L, first.nextCursor());
+        // top-k = 3: o mais respondido e depois os mais novos
+        assertEquals(List.of(8L), second.items().stream().map(CommentDto::id).toList());
+        assertNull(second.nextCursor());
+        verify(commentRepository, times(1)).findMostRepliedIds(eq(POST_ID), any(Limit.class));
+    }
+
+    @Test
+    void topComments_shouldRecomputeOnlyPostsWithNewComments() {
+        when(commentRepository.findMostRepliedIds(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(commentRepository.findTopLevelIds(anyLong(), anyLong(), any(Limit.class))).thenReturn(List.of(4L));
+        topComments.ranking(POST_ID);
+        topComments.ranking(2L);
+
+        topComments.commentsChanged(POST_ID);
+        topComments.refresh();
+
+        verify(commentRepository, times(2)).findMostRepliedIds(eq(POST_ID), any(Limit.class));
+        verify(commentRepository, times(1)).findMostRepliedIds(eq(2L), any(Limit.class));
+    }
+
+    @Test
+    void deleteComment_shouldAllowPostAuthorButNotOthers() {
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(comment(5L, 20L, null)));
+        PostEntity post = new PostEntity();
+        post.setId(POST_ID);
+        post.setAuthorId(30L);
+        when(postRepository.findById(POST_ID)).thenReturn(Optional.of(post));
+
+        assertThrows(AccessDeniedException.class, () -> commentService.deleteComment(POST_ID, 5L, 10L));
+        commentService.deleteComment(POST_ID, 5L, 30L);
+
+        verify(commentRepository, times(1)).delete(any(CommentEntity.class));
+    }
+}
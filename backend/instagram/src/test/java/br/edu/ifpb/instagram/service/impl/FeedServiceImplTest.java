@@ -0,0 +1,107 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import br.edu.ifpb.instagram.event.FollowChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent;
+import br.edu.ifpb.instagram.event.PostChangedEvent.ChangeType;
+import br.edu.ifpb.instagram.feed.HomeTimelines;
+import br.edu.ifpb.instagram.graph.FollowGraph;
+import br.edu.ifpb.instagram.model.dto.CursorPage;
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.model.dto.UserSummaryDto;
+import br.edu.ifpb.instagram.repository.FollowRepository;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.service.PostService;
+
+class FeedServiceImplTest {
+
+    private FollowGraph followGraph;
+    private FollowRepository followRepository;
+    private PostRepository postRepository;
+    private PostService postService;
+    private HomeTimelines homeTimelines;
+    private FeedServiceImpl feedService;
+
+    @BeforeEach
+    void setUp() {
+        followGraph = new FollowGraph();
+        followRepository = mock(FollowRepository.class);
+        postRepository = mock(PostRepository.class);
+        postService = mock(PostService.class);
+        homeTimelines = new HomeTimelines(100, 1000, 1000);
+        // limiar 2: quem tem dois seguidores ou mais é lido na leitura, sem fan-out
+        feedService = new FeedServiceImpl(homeTimelines, followGraph, followRepository, postRepository,
+                postService, 2, Runnable::run);
+
+        followGraph.follow(1, 10);
+        followGraph.follow(1, 20);
+        followGraph.follow(2, 20);
+        followGraph.markLoaded();
+        when(postRepository.findIdsByAuthors(anyCollection(), anyLong(), any(Limit.class))).thenReturn(List.of());
+    }
+
+    private static PostDto post(long id, long authorId) {
+        return new PostDto(id, authorId, new UserSummaryDto(authorId, "user" + authorId, "User"),
+                "post " + id, List.of(), Instant.now());
+    }
+
+    @Test
+    void getFeed_shouldServeFannedOutAndCelebrityPostsFromMemory() {
+        feedService.getFeed(1L, null, 10); // aquece o timeline do usuário 1
+        when(followRepository.findFollowerIds(eq(10L), anyLong(), any(Limit.class))).thenReturn(List.of(1L));
+
+        feedService.onPostChanged(new PostChangedEvent(ChangeType.CREATED, post(100, 10)));
+        feedService.onPostChanged(new PostChangedEvent(ChangeType.CREATED, post(200, 20)));
+        clearInvocations(postRepository);
+
+        CursorPage<PostDto> page = feedService.getFeed(1L, null, 10);
+
+        assertEquals(List.of(200L, 100L), page.items().stream().map(PostDto::id).toList());
+        assertNull(page.nextCursor());
+        // autor 20 é "celebridade": nenhum fan-out para os seguidores dele
+        verify(followRepository, never()).findFollowerIds(eq(20L), anyLong(), any(Limit.class));
+        verifyNoInteractions(postRepository, postService);
+    }
+
+    @Test
+    void onFollowChanged_shouldRebuildTimelineOnNextRead() {
+        feedService.getFeed(1L, null, 10);
+        followGraph.follow(1, 30);
+        feedService.onFollowChanged(new FollowChangedEvent(1, 30, true));
+        when(postRepository.findIdsByAuthors(argThat(ids -> ids.containsAll(List.of(10L, 30L))), eq(Long.MAX_VALUE),
+                any(Limit.class)))
+                .thenReturn(List.of(300L));
+        when(postService.findByIds(List.of(300L))).thenReturn(List.of(post(300, 30)));
+
+        CursorPage<PostDto> page = feedService.getFeed(1L, null, 10);
+
+        assertEquals(List.of(300L), page.items().stream().map(PostDto::id).toList());
+    }
+
+    @Test
+    void onPostChanged_shouldRemoveDeletedPostFromFollowerTimelines() {
+        feedService.getFeed(1L, null, 10);
+        when(followRepository.findFollowerIds(eq(10L), anyLong(), any(Limit.class))).thenReturn(List.of(1L));
+        feedService.onPostChanged(new PostChangedEvent(ChangeType.CREATED, post(100, 10)));
+
+        feedService.onPostChanged(new PostChangedEvent(ChangeType.DELETED,
+                new PostDto(100L, 10L, null, null, null, null)));
+
+        assertTrue(feedService.getFeed(1L, null, 10).items().isEmpty());
+        verify(postService, never()).findByIds(anyCollection());
+    }
+}
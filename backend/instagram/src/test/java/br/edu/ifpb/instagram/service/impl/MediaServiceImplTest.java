@@ -0,0 +1,68 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.edu.ifpb.instagram.media.ContentStore;
+import br.edu.ifpb.instagram.media.MediaStorage;
+import br.edu.ifpb.instagram.media.StoredBlob;
+import br.edu.ifpb.instagram.media.ThumbnailPipeline;
+import br.edu.ifpb.instagram.model.dto.MediaDto;
+import br.edu.ifpb.instagram.model.entity.MediaEntity;
+import br.edu.ifpb.instagram.repository.MediaRepository;
+
+class MediaServiceImplTest {
+
+    private static final String SHA = "ab".repeat(32);
+
+    private MediaRepository mediaRepository;
+    private ContentStore contentStore;
+    private MediaServiceImpl mediaService;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = mock(MediaRepository.class);
+        contentStore = mock(ContentStore.class);
+        mediaService = new MediaServiceImpl(mediaRepository, mock(MediaStorage.class), contentStore,
+                mock(ThumbnailPipeline.class), 1000);
+    }
+
+    @Test
+    void uploadDuplicate_shouldNotTrustAHashTheCallerNeverUploaded() throws Exception {
+        // o arquivo existe, mas pertence a outro usuário
+        when(mediaRepository.existsByOwnerIdAndSha256(2L, SHA)).thenReturn(false);
+        when(contentStore.reuse(anyString())).thenReturn(Optional.of(new StoredBlob(SHA, 10)));
+
+        Optional<MediaDto> result = mediaService.uploadDuplicate(2L, "image/png", SHA.toUpperCase());
+
+        // sem atalho: o cliente precisa enviar o corpo, e nada revela que o hash já existe
+        assertTrue(result.isEmpty());
+        verify(contentStore, never()).reuse(anyString());
+        verify(mediaRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadDuplicate_shouldReuseContentTheCallerAlreadyOwns() throws Exception {
+        when(mediaRepository.existsByOwnerIdAndSha256(1L, SHA)).thenReturn(true);
+        when(contentStore.reuse(SHA)).thenReturn(Optional.of(new StoredBlob(SHA, 10)));
+        when(mediaRepository.save(any(MediaEntity.class))).thenAnswer(invocation -> {
+            MediaEntity saved = invocation.getArgument(0);
+            saved.setId(99L);
+            return saved;
+        });
+
+        MediaDto result = mediaService.uploadDuplicate(1L, "image/png", SHA).orElseThrow();
+
+        assertEquals(99L, result.id());
+        assertEquals(1L, result.ownerId());
+        assertEquals(SHA, result.sha256());
+        verify(contentStore).reuse(SHA);
+    }
+}
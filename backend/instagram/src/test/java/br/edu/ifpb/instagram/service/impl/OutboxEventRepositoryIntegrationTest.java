@@ -0,0 +1,62 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.edu.ifpb.instagram.model.entity.OutboxEventEntity;
+import br.edu.ifpb.instagram.repository.OutboxEventRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class OutboxEventRepositoryIntegrationTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void findPage_shouldReturnRowsInIdOrderUpToTheWatermark() {
+        Instant now = Instant.now();
+        long first = 0;
+        for (int i = 0; i < 5; i++) {
+            OutboxEventEntity saved = outboxEventRepository.save(
+                    new OutboxEventEntity("user", i, "CREATED", "{\"id\":" + i + "}", now));
+            first = first == 0 ? saved.getId() : first;
+        }
+
+        List<OutboxEventEntity> page = outboxEventRepository.findPage(first, first + 3, Limit.of(10));
+
+        assertEquals(List.of(first + 1, first + 2, first + 3), page.stream().map(OutboxEventEntity::getId).toList());
+        assertEquals(first, outboxEventRepository.findMinId());
+    }
+
+    @Test
+    void deleteBatchBefore_shouldKeepRecentRowsAndTheWatermarkRow() {
+        Instant old = Instant.parse("2026-01-01T00:00:00Z");
+        long oldest = outboxEventRepository.save(new OutboxEventEntity("user", 1, "CREATED", "{}", old)).getId();
+        long newestOld = outboxEventRepository.save(new OutboxEventEntity("user", 2, "UPDATED", "{}", old)).getId();
+        outboxEventRepository.save(new OutboxEventEntity("user", 3, "UPDATED", "{}", Instant.now()));
+
+        int deleted = outboxEventRepository.deleteBatchBefore(Instant.parse("2026-01-02T00:00:00Z"), newestOld, 10);
+
+        // a linha do watermark fica, mesmo antiga, para MIN(id) continuar dizendo o que foi apagado
+        assertEquals(1, deleted);
+        assertFalse(outboxEventRepository.existsById(oldest));
+        assertEquals(newestOld, outboxEventRepository.findMinId());
+    }
+}
@@ -0,0 +1,96 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.edu.ifpb.instagram.model.entity.PostEntity;
+import br.edu.ifpb.instagram.model.entity.UserEntity;
+import br.edu.ifpb.instagram.repository.PostRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class PostRepositoryIntegrationTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UserEntity author;
+    private UserEntity otherAuthor;
+
+    @BeforeEach
+    void setUp() {
+        author = persistUser("autor");
+        otherAuthor = persistUser("outro");
+    }
+
+    private UserEntity persistUser(String username) {
+        UserEntity user = new UserEntity();
+        user.setFullName("Usuário " + username);
+        user.setUsername(username);
+        user.setUsernameNormalized(username);
+        user.setEmail(username + "@email.com");
+        user.setEmailNormalized(username + "@email.com");
+        user.setEncryptedPassword("senha");
+        return entityManager.persistAndFlush(user);
+    }
+
+    private PostEntity persistPost(UserEntity user, String caption) {
+        PostEntity post = new PostEntity();
+        post.setAuthorId(user.getId());
+        post.setCaption(caption);
+        post.setMediaRefs(new ArrayList<>(List.of("m1", "m2")));
+        post.setCreatedAt(Instant.now());
+        return entityManager.persistAndFlush(post);
+    }
+
+    @Test
+    void findTimelinePage_shouldWalkAuthorPostsNewestFirst() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, persistPost(author, "post " + i).getId());
+        }
+        persistPost(otherAuthor, "não deve aparecer");
+        entityManager.clear();
+
+        List<PostEntity> firstPage = postRepository.findTimelinePage(author.getId(), Long.MAX_VALUE, Limit.of(2));
+        long cursor = firstPage.get(firstPage.size() - 1).getId();
+        List<PostEntity> secondPage = postRepository.findTimelinePage(author.getId(), cursor, Limit.of(2));
+        cursor = secondPage.get(secondPage.size() - 1).getId();
+        List<PostEntity> lastPage = postRepository.findTimelinePage(author.getId(), cursor, Limit.of(2));
+
+        List<Long> ids = new ArrayList<>();
+        firstPage.forEach(post -> ids.add(post.getId()));
+        secondPage.forEach(post -> ids.add(post.getId()));
+        lastPage.forEach(post -> ids.add(post.getId()));
+
+        assertEquals(expected, ids);
+        assertEquals(1, lastPage.size());
+    }
+
+    @Test
+    void save_shouldKeepMediaRefsInOrder() {
+        PostEntity saved = persistPost(author, "com mídia");
+        entityManager.clear();
+
+        PostEntity found = postRepository.findById(saved.getId()).orElseThrow();
+
+        assertEquals(List.of("m1", "m2"), found.getMediaRefs());
+        assertEquals(author.getId(), found.getAuthorId());
+    }
+}
@@ -0,0 +1,48 @@
+package br.edu.ifpb.instagram.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.edu.ifpb.instagram.model.dto.PostDto;
+import br.edu.ifpb.instagram.repository.PostRepository;
+import br.edu.ifpb.instagram.repository.UserRepository;
+import br.edu.ifpb.instagram.service.UserService;
+
+class PostServiceImplTest {
+
+    private PostRepository postRepository;
+    private PostServiceImpl postService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        postService = new PostServiceImpl(postRepository, userRepository, mock(UserService.class),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    private static PostDto post(List<String> mediaRefs) {
+        return new PostDto(null, 1L, null, "legenda", mediaRefs, null);
+    }
+
+    @Test
+    void createPost_shouldRefuseMediaRefsThatDoNotFitTheColumn() {
+        // cada referência é válida, mas juntas com "," passam dos 2000 caracteres
+        List<String> mediaRefs = Collections.nCopies(PostServiceImpl.MAX_MEDIA_REFS, "m".repeat(200));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> postService.createPost(post(mediaRefs)));
+
+        assertTrue(error.getMessage().contains("2000"));
+        verify(postRepository, never()).save(any());
+    }
+}
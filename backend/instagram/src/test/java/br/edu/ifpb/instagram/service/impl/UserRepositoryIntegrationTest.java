@@ -1,6 +1,8 @@
 package br.edu.ifpb.instagram.service.impl;
 
+import br.edu.ifpb.instagram.model.dto.UserDto;
 import br.edu.ifpb.instagram.model.entity.UserEntity;
+import br.edu.ifpb.instagram.model.projection.UserField;
 import br.edu.ifpb.instagram.repository.UserRepository;
 
 import org.junit.jupiter.api.AfterEach;
@@ -11,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -63,6 +66,24 @@ class UserRepositoryIntegrationTest {
         assertFalse(userRepository.existsByUsername("naoexiste"));
     }
 
+    @Test
+    void shouldFindByNormalizedUsernameAndEmail() {
+        UserEntity user = new UserEntity();
+        user.setFullName("Usuário Normalizado");
+        user.setUsername("MixedCase");
+        user.setUsernameNormalized("mixedcase");
+        user.setEmail("Mixed@Email.com");
+        user.setEmailNormalized("mixed@email.com");
+        user.setEncryptedPassword("senha");
+        userRepository.save(user);
+        entityManager.flush();
+
+        assertTrue(userRepository.existsByUsernameNormalized("mixedcase"));
+        assertTrue(userRepository.existsByEmailNormalized("mixed@email.com"));
+        assertEquals("MixedCase", userRepository.findByUsernameNormalized("mixedcase").orElseThrow().getUsername());
+        assertFalse(userRepository.existsByUsernameNormalized("MixedCase"));
+    }
+
     @Test
     void shouldDeleteUserById() {
         UserEntity user = new UserEntity();
@@ -77,4 +98,27 @@ class UserRepositoryIntegrationTest {
 
         assertFalse(userRepository.findById(savedUser.getId()).isPresent());
     }
+
+    @Test
+    void findAllProjected_shouldFillOnlyTheSelectedFields() {
+        UserEntity user = new UserEntity();
+        user.setFullName("Usuário Projetado");
+        user.setUsername("projetado");
+        user.setEmail("projetado@email.com");
+        user.setEncryptedPassword("senha");
+        UserEntity saved = userRepository.save(user);
+        entityManager.flush();
+
+        UserDto row = userRepository.findAllProjected(EnumSet.of(UserField.ID, UserField.USERNAME)).stream()
+                .filter(dto -> dto.id() == saved.getId())
+                .findFirst().orElseThrow();
+        assertEquals("projetado", row.username());
+        assertNull(row.fullName());
+        assertNull(row.email());
+
+        // sem o id, só o e-mail volta
+        assertTrue(userRepository.findAllProjected(EnumSet.of(UserField.EMAIL)).stream()
+                .anyMatch(dto -> dto.id() == null && "projetado@email.com".equals(dto.email())
+                        && dto.username() == null));
+    }
 }
\ No newline at end of file
@@ -12,11 +12,15 @@ import java.util.Optional;
 import br.edu.ifpb.instagram.exception.FieldAlreadyExistsException;
 import br.edu.ifpb.instagram.exception.UserNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import br.edu.ifpb.instagram.feed.HomeTimelines;
 import br.edu.ifpb.instagram.model.dto.UserDto;
 import br.edu.ifpb.instagram.model.entity.UserEntity;
 import br.edu.ifpb.instagram.repository.UserRepository;
@@ -33,6 +37,12 @@ public class UserServiceImplTest {
     @MockitoBean
     PasswordEncoder passwordEncoder;
 
+    @MockitoBean
+    HomeTimelines homeTimelines;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @Test
     void should_throwFieldAlreadyExistsException_when_emailAlreadyExists() {
         // Preparação do DTO de entrada
@@ -46,7 +56,7 @@ public class UserServiceImplTest {
         );
 
         // Configurar o mock: o e-mail já existe
-        when(userRepository.existsByEmail(userDto.email())).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("jose.luan@academico.ifpb.edu.br")).thenReturn(true);
 
         // Executar e verificar se a exceção é lançada
         FieldAlreadyExistsException exception = assertThrows(FieldAlreadyExistsException.class, () -> {
@@ -56,8 +66,8 @@ public class UserServiceImplTest {
         assertEquals("E-email already in use.", exception.getMessage());
 
         // Verificar que o método de username e save não foram chamados
-        verify(userRepository, times(1)).existsByEmail(userDto.email());
-        verify(userRepository, times(0)).existsByUsername(anyString());
+        verify(userRepository, times(1)).existsByEmailNormalized("jose.luan@academico.ifpb.edu.br");
+        verify(userRepository, times(0)).existsByUsernameNormalized(anyString());
         verify(userRepository, times(0)).save(any(UserEntity.class));
     }
 
@@ -74,8 +84,8 @@ public class UserServiceImplTest {
         );
 
         // Configurar o mock: email não existe, mas username já existe
-        when(userRepository.existsByEmail(userDto.email())).thenReturn(false);
-        when(userRepository.existsByUsername(userDto.username())).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("jose.luan@academico.ifpb.edu.br")).thenReturn(false);
+        when(userRepository.existsByUsernameNormalized("luan fernandes")).thenReturn(true);
 
         // Executar e verificar se a exceção é lançada
         FieldAlreadyExistsException exception = assertThrows(FieldAlreadyExistsException.class, () -> {
@@ -85,8 +95,8 @@ public class UserServiceImplTest {
         assertEquals("Username already in use.", exception.getMessage());
 
         // Verificar interações com o mock
-        verify(userRepository, times(1)).existsByEmail(userDto.email());
-        verify(userRepository, times(1)).existsByUsername(userDto.username());
+        verify(userRepository, times(1)).existsByEmailNormalized("jose.luan@academico.ifpb.edu.br");
+        verify(userRepository, times(1)).existsByUsernameNormalized("luan fernandes");
         verify(userRepository, times(0)).save(any(UserEntity.class));
     }
 
@@ -103,8 +113,8 @@ public class UserServiceImplTest {
         );
 
         // Configurar mocks
-        when(userRepository.existsByEmail(userDto.email())).thenReturn(false);
-        when(userRepository.existsByUsername(userDto.username())).thenReturn(false);
+        when(userRepository.existsByEmailNormalized("jose.luan@academico.ifpb.edu.br")).thenReturn(false);
+        when(userRepository.existsByUsernameNormalized("luan fernandes")).thenReturn(false);
 
         // Simular a entidade salva retornada pelo repositório
         UserEntity savedUserEntity = new UserEntity();
@@ -128,11 +138,36 @@ public class UserServiceImplTest {
         assertNull(result.password()); // senha não é retornada
 
         // Verificar interações com o mock
-        verify(userRepository, times(1)).existsByEmail(userDto.email());
-        verify(userRepository, times(1)).existsByUsername(userDto.username());
+        verify(userRepository, times(1)).existsByEmailNormalized("jose.luan@academico.ifpb.edu.br");
+        verify(userRepository, times(1)).existsByUsernameNormalized("luan fernandes");
         verify(userRepository, times(1)).save(any(UserEntity.class));
     }
 
+    @Test
+    void should_storeNormalizedUsernameAndEmail_when_creatingUser() {
+        UserDto userDto = new UserDto(
+                null,
+                "Maria Silva",
+                "  MariaS ",
+                "Maria.Silva@Email.COM",
+                "password123",
+                null
+        );
+
+        when(userRepository.existsByEmailNormalized("maria.silva@email.com")).thenReturn(false);
+        when(userRepository.existsByUsernameNormalized("marias")).thenReturn(false);
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.createUser(userDto);
+
+        // o valor original é preservado e a cópia normalizada é usada nas buscas case-insensitive
+        ArgumentCaptor<UserEntity> captor = ArgumentCaptor.forClass(UserEntity.class);
+        verify(userRepository).save(captor.capture());
+        assertEquals("  MariaS ", captor.getValue().getUsername());
+        assertEquals("marias", captor.getValue().getUsernameNormalized());
+        assertEquals("maria.silva@email.com", captor.getValue().getEmailNormalized());
+    }
+
     @Test
     void testUpdateUser_WhenUserDtoIsNull_ShouldThrowIllegalArgumentException() {
 
@@ -323,30 +358,47 @@ public class UserServiceImplTest {
         Long userId = 1L;
 
         // Configurar o mock
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findUsernameNormalizedById(userId)).thenReturn(Optional.of("paulodev"));
         doNothing().when(userRepository).deleteById(userId);
 
         // Executar o método
         assertDoesNotThrow(() -> userService.deleteUser(userId));
 
         // Verificar a interação com o mock
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userRepository, times(1)).findUsernameNormalizedById(userId);
         verify(userRepository, times(1)).deleteById(userId);
     }
 
+    @Test
+    void deleteUser_rolledBack_shouldKeepTheUsersCachedState() {
+        when(userRepository.findUsernameNormalizedById(1L)).thenReturn(Optional.of("paulodev"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.deleteUser(1L);
+            status.setRollbackOnly();
+        });
+
+        // os listeners só agem sobre exclusões confirmadas
+        verify(homeTimelines, never()).removeUser(1L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userService.deleteUser(1L));
+
+        verify(homeTimelines).removeUser(1L);
+    }
+
     @Test
     void deleteUser_userNotFound_shouldThrowException() {
         Long userId = 999L;
 
         // Configurar o mock
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userRepository.findUsernameNormalizedById(userId)).thenReturn(Optional.empty());
 
         // Executar o método e verificar exceção
         UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> userService.deleteUser(userId));
         assertEquals("User not found with id: 999", exception.getMessage());
 
         // Verificar a interação com o mock
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userRepository, times(1)).findUsernameNormalizedById(userId);
         verify(userRepository, never()).deleteById(userId);
     }
 
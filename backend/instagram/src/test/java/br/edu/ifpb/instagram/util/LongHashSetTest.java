@@ -0,0 +1,63 @@
+package br.edu.ifpb.instagram.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+    @Test
+    void add_shouldIgnoreDuplicates() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(10));
+        assertFalse(set.add(10));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(10));
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(11));
+    }
+
+    @Test
+    void shouldBehaveLikeHashSetUnderRandomOperations() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(5_000) - 100;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = -100; value < 4_900; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        assertEquals(expected.size(), set.toArray().length);
+    }
+
+    @Test
+    void clear_shouldRemoveEverything() {
+        LongHashSet set = new LongHashSet(100);
+        for (long i = 0; i < 100; i++) {
+            set.add(i);
+        }
+
+        set.clear();
+
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(50));
+    }
+}
@@ -0,0 +1,48 @@
+package br.edu.ifpb.instagram.warmup;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+// o aquecimento só termina quando o teste manda parar
+@SpringBootTest(properties = {"instagram.warmup.iterations=2000000000", "instagram.warmup.budget=PT10M"})
+@AutoConfigureMockMvc
+class ReadinessProbeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarmUp warmUp;
+
+    @Test
+    void readiness_shouldAnswerProbesWithoutATokenAndWaitForTheWarmUp() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"));
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+
+        warmUp.stop();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (warmUp.state() == WarmUp.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(WarmUp.State.COMPLETED, warmUp.state());
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    @Test
+    void metrics_shouldStayClosedToAnonymousCallers() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,63 @@
+package br.edu.ifpb.instagram.warmup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.edu.ifpb.instagram.security.JwtUtils;
+
+class WarmUpTest {
+
+    private static WarmUp warmUp(int iterations, Duration budget) {
+        List<AbstractJackson2HttpMessageConverter> converters = List.of(
+                new MappingJackson2CborHttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter());
+        return new WarmUp(new JwtUtils(), new BCryptPasswordEncoder(4), new ObjectMapper(), converters,
+                true, iterations, 2, budget);
+    }
+
+    @Test
+    void readiness_shouldWaitForTheWarmUpToComplete() {
+        WarmUp warmUp = warmUp(200, Duration.ofMinutes(1));
+        WarmUpHealthIndicator indicator = new WarmUpHealthIndicator(warmUp);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        warmUp.run();
+
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(WarmUp.State.COMPLETED, health.getDetails().get("state"));
+        assertEquals(200, health.getDetails().get("rounds"));
+    }
+
+    @Test
+    void anExpiredBudget_shouldStillReportReady() {
+        // orçamento zero: nenhuma rodada, mas a instância não fica fora do balanceador
+        WarmUp warmUp = warmUp(1_000_000, Duration.ZERO);
+        warmUp.run();
+
+        Health health = new WarmUpHealthIndicator(warmUp).health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(WarmUp.State.BUDGET_EXPIRED, health.getDetails().get("state"));
+        assertEquals(0, health.getDetails().get("rounds"));
+    }
+
+    @Test
+    void disabled_shouldBeReadyAtOnce() {
+        WarmUp warmUp = new WarmUp(new JwtUtils(), new BCryptPasswordEncoder(4), new ObjectMapper(), List.of(),
+                false, 5000, 10, Duration.ofSeconds(30));
+        warmUp.onApplicationStarted();
+
+        assertEquals(Status.UP, new WarmUpHealthIndicator(warmUp).health().getStatus());
+    }
+}